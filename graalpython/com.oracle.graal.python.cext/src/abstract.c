@@ -296,3 +296,76 @@ int PyBuffer_FillInfo(Py_buffer *view, PyObject *obj, void *buf, Py_ssize_t len,
     view->internal = NULL;
     return 0;
 }
+
+static char* array_format(char typecode) {
+    static char formats[] = "b\0B\0u\0h\0H\0i\0I\0l\0L\0q\0Q\0f\0d";
+    size_t i;
+    for (i = 0; i < sizeof(formats); i += 2) {
+        if (formats[i] == typecode) {
+            return &formats[i];
+        }
+    }
+    return (char *) "B";
+}
+
+/* exposes the byte buffer of an 'array.array' object; the managed bytes are not copied */
+int array_buffer_getbuffer(PyObject *self, Py_buffer *view, int flags) {
+    PyObject *attr;
+    Py_ssize_t itemsize;
+    Py_ssize_t nitems;
+    const char *utf8;
+    char typecode;
+
+    attr = PyObject_GetAttrString(self, "itemsize");
+    if (attr == NULL) {
+        return -1;
+    }
+    itemsize = PyLong_AsSsize_t(attr);
+    Py_DECREF(attr);
+    if (itemsize == -1 && PyErr_Occurred()) {
+        return -1;
+    }
+    nitems = PyObject_Size(self);
+    if (nitems < 0) {
+        return -1;
+    }
+    attr = PyObject_GetAttrString(self, "typecode");
+    if (attr == NULL) {
+        return -1;
+    }
+    utf8 = PyUnicode_AsUTF8(attr);
+    if (utf8 == NULL) {
+        Py_DECREF(attr);
+        return -1;
+    }
+    typecode = utf8[0];
+    Py_DECREF(attr);
+    if (PyBuffer_FillInfo(view, self, polyglot_get_member(self, "ob_item"), nitems * itemsize, 0, flags) != 0) {
+        return -1;
+    }
+    view->itemsize = itemsize;
+    if ((flags & PyBUF_FORMAT) == PyBUF_FORMAT) {
+        view->format = array_format(typecode);
+    }
+    if (view->shape != NULL) {
+        /* the shape is the number of items, not the number of bytes */
+        Py_ssize_t *shape = (Py_ssize_t *) malloc(sizeof(Py_ssize_t));
+        if (shape == NULL) {
+            Py_CLEAR(view->obj);
+            PyErr_NoMemory();
+            return -1;
+        }
+        *shape = nitems;
+        view->shape = shape;
+        view->internal = shape;
+    }
+    /* the array must not be resized while the buffer is exported */
+    UPCALL_CEXT_VOID("PyTruffle_Array_AddExports", native_to_java(self), 1);
+    return 0;
+}
+
+void array_buffer_releasebuffer(PyObject *self, Py_buffer *view) {
+    UPCALL_CEXT_VOID("PyTruffle_Array_AddExports", native_to_java(self), -1);
+    free(view->internal);
+    view->internal = NULL;
+}
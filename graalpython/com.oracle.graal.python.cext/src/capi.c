@@ -108,6 +108,42 @@ initialize_type(_PyNotImplemented_Type, NotImplementedType, _object);
 initialize_type(PyDictProxy_Type, mappingproxy, _object);
 initialize_type(PyEllipsis_Type, ellipsis, _object);
 
+void* pytruffle_landing;
+void* pytruffle_landing_l;
+void* pytruffle_landing_d;
+void* pytruffle_landing_ptr;
+void* pytruffle_cext_landing;
+void* pytruffle_cext_landing_l;
+void* pytruffle_cext_landing_d;
+void* pytruffle_cext_landing_ptr;
+
+void* (*PyTruffle_Cext_PyTuple_GetItem)(void* tuple, Py_ssize_t position);
+void* (*PyTruffle_Cext_PyList_GetItem)(void* list, Py_ssize_t position);
+int (*PyTruffle_Cext_PyList_SetItem)(void* list, Py_ssize_t position, void* item);
+void* (*PyTruffle_Cext_PyDict_GetItem)(void* dict, void* key);
+void* (*PyTruffle_Cext_PyDict_Next)(void* dict, Py_ssize_t pos);
+uint64_t (*PyTruffle_Cext_PyLong_AsPrimitive)(void* obj, int is_signed, size_t size, void* type_name);
+
+#define resolve_cext_function(__name__) polyglot_get_member(PY_TRUFFLE_CEXT, polyglot_from_string((__name__), SRC_CS))
+
+static void initialize_upcall_functions() {
+    pytruffle_landing = resolve_cext_function("PyTruffle_Upcall");
+    pytruffle_landing_l = resolve_cext_function("PyTruffle_Upcall_l");
+    pytruffle_landing_d = resolve_cext_function("PyTruffle_Upcall_d");
+    pytruffle_landing_ptr = resolve_cext_function("PyTruffle_Upcall_ptr");
+    pytruffle_cext_landing = resolve_cext_function("PyTruffle_Cext_Upcall");
+    pytruffle_cext_landing_l = resolve_cext_function("PyTruffle_Cext_Upcall_l");
+    pytruffle_cext_landing_d = resolve_cext_function("PyTruffle_Cext_Upcall_d");
+    pytruffle_cext_landing_ptr = resolve_cext_function("PyTruffle_Cext_Upcall_ptr");
+
+    PyTruffle_Cext_PyTuple_GetItem = resolve_cext_function("PyTuple_GetItem");
+    PyTruffle_Cext_PyList_GetItem = resolve_cext_function("PyList_GetItem");
+    PyTruffle_Cext_PyList_SetItem = resolve_cext_function("PyList_SetItem");
+    PyTruffle_Cext_PyDict_GetItem = resolve_cext_function("PyDict_GetItem");
+    PyTruffle_Cext_PyDict_Next = resolve_cext_function("PyDict_Next");
+    PyTruffle_Cext_PyLong_AsPrimitive = resolve_cext_function("PyLong_AsPrimitive");
+}
+
 static void initialize_globals() {
     // None
     PyObject* jnone = UPCALL_CEXT_O("Py_None");
@@ -142,10 +178,13 @@ static void initialize_bufferprocs() {
     polyglot_invoke(PY_TRUFFLE_CEXT, "PyTruffle_SetBufferProcs", native_to_java((PyObject*)&PyBytes_Type), (getbufferproc)bytes_buffer_getbuffer, (releasebufferproc)NULL);
     polyglot_invoke(PY_TRUFFLE_CEXT, "PyTruffle_SetBufferProcs", native_to_java((PyObject*)&PyByteArray_Type), (getbufferproc)NULL, (releasebufferproc)NULL);
     polyglot_invoke(PY_TRUFFLE_CEXT, "PyTruffle_SetBufferProcs", native_to_java((PyObject*)&PyBuffer_Type), (getbufferproc)bufferdecorator_getbuffer, (releasebufferproc)NULL);
+    polyglot_invoke(PY_TRUFFLE_CEXT, "PyTruffle_SetBufferProcs", UPCALL_CEXT_O("PyTruffle_Type", polyglot_from_string("array", SRC_CS)), (getbufferproc)array_buffer_getbuffer, (releasebufferproc)array_buffer_releasebuffer);
 }
 
 __attribute__((constructor))
 static void initialize_capi() {
+    // resolve landing functions and Java-resident C API functions once
+    initialize_upcall_functions();
     // initialize global variables like '_Py_NoneStruct', etc.
     initialize_globals();
     initialize_exceptions();
@@ -220,32 +259,44 @@ void* NativeHandle_ForArray(void* jobj, ssize_t element_size) {
     return truffle_deref_handle_for_managed(jobj);
 }
 
-const char* PyTruffle_StringToCstr(void* o, int32_t strLen) {
-    const char *buffer;
-    const char *str;
-    uint64_t bufsize = 4 * (strLen + 1) * sizeof(char);
-    uint64_t written;
-
-    // we allocate 4 bytes for a char; this will in all cases be enough
-    buffer = (const char*) malloc(bufsize);
+/** to be used from Java code only; allocates the 'ob_item' array of a native list storage */
+PyObject** PyTruffle_Object_Array_New(ssize_t capacity) {
+    return (PyObject**) calloc(capacity > 0 ? capacity : 1, sizeof(PyObject*));
+}
 
-    written = polyglot_as_string(o, buffer, bufsize, SRC_CS) + 1;
+/** to be used from Java code only; grows the 'ob_item' array of a native list storage */
+PyObject** PyTruffle_Object_Array_Resize(PyObject** array, ssize_t capacity) {
+    return (PyObject**) realloc(array, capacity * sizeof(PyObject*));
+}
 
-    str = (const char*) malloc(written * sizeof(char));
-    memcpy(str, buffer, written * sizeof(char));
-    free(buffer);
+/** to be used from Java code only; frees the 'ob_item' array of a collected native list storage */
+void PyTruffle_Object_Array_Free(PyObject** array) {
+    free(array);
+}
 
-    return str;
+/** to be used from Java code only; reads an element of a native list storage */
+void* PyTruffle_Object_Array_Get(PyObject** array, ssize_t idx) {
+    return to_java(array[idx]);
 }
 
-const char* PyTruffle_ByteArrayToNative(const void* jbyteArray, int len) {
-    int i;
-    char* barr = (const char*) malloc(len * sizeof(char));
+/** to be used from Java code only; writes an element of a native list storage */
+void PyTruffle_Object_Array_Set(PyObject** array, ssize_t idx, void* value) {
+    array[idx] = to_sulong(value);
+}
 
-    for(i=0; i < len; i++) {
-        barr[i] = (char) polyglot_get_array_element(jbyteArray, i);
-    }
+const char* PyTruffle_StringToCstr(void* o, int32_t byteLen) {
+    // 'byteLen' is (an upper bound of) the length of the encoded string, so we can convert directly into the result
+    uint64_t bufsize = (byteLen + 1) * sizeof(char);
+    char *str = (char*) malloc(bufsize);
+    polyglot_as_string(o, str, bufsize, SRC_CS);
+    return (const char*) str;
+}
 
+const char* PyTruffle_ByteArrayToNative(const void* jbytes, int len) {
+    // 'jbytes' is a Latin-1 string with exactly one char per byte, so this is a plain bulk copy
+    uint64_t bufsize = (len + 1) * sizeof(char);
+    char* barr = (char*) malloc(bufsize);
+    polyglot_as_string(jbytes, barr, bufsize, "ISO-8859-1");
     return (const char*) barr;
 }
 
@@ -73,15 +73,32 @@ PyAPI_DATA(PyTypeObject) PyBuffer_Type;
 PyAPI_DATA(PyTypeObject) _PyExc_BaseException;
 
 
-// TODO cache landing function ?
-#define PY_TRUFFLE_LANDING ((PyObject*(*)(void *rcv, void* name, ...))polyglot_get_member(PY_TRUFFLE_CEXT, polyglot_from_string("PyTruffle_Upcall", SRC_CS)))
-#define PY_TRUFFLE_LANDING_L ((PyObject*(*)(void *rcv, void* name, ...))polyglot_get_member(PY_TRUFFLE_CEXT, polyglot_from_string("PyTruffle_Upcall_l", SRC_CS)))
-#define PY_TRUFFLE_LANDING_D ((PyObject*(*)(void *rcv, void* name, ...))polyglot_get_member(PY_TRUFFLE_CEXT, polyglot_from_string("PyTruffle_Upcall_d", SRC_CS)))
-#define PY_TRUFFLE_LANDING_PTR ((void*(*)(void *rcv, void* name, ...))polyglot_get_member(PY_TRUFFLE_CEXT, polyglot_from_string("PyTruffle_Upcall_ptr", SRC_CS)))
-#define PY_TRUFFLE_CEXT_LANDING ((PyObject*(*)(void* name, ...))polyglot_get_member(PY_TRUFFLE_CEXT, polyglot_from_string("PyTruffle_Cext_Upcall", SRC_CS)))
-#define PY_TRUFFLE_CEXT_LANDING_L ((uint64_t (*)(void* name, ...))polyglot_get_member(PY_TRUFFLE_CEXT, polyglot_from_string("PyTruffle_Cext_Upcall_l", SRC_CS)))
-#define PY_TRUFFLE_CEXT_LANDING_D ((double (*)(void* name, ...))polyglot_get_member(PY_TRUFFLE_CEXT, polyglot_from_string("PyTruffle_Cext_Upcall_d", SRC_CS)))
-#define PY_TRUFFLE_CEXT_LANDING_PTR ((void* (*)(void* name, ...))polyglot_get_member(PY_TRUFFLE_CEXT, polyglot_from_string("PyTruffle_Cext_Upcall_ptr", SRC_CS)))
+/* landing functions; resolved once in 'initialize_upcall_functions' */
+extern void* pytruffle_landing;
+extern void* pytruffle_landing_l;
+extern void* pytruffle_landing_d;
+extern void* pytruffle_landing_ptr;
+extern void* pytruffle_cext_landing;
+extern void* pytruffle_cext_landing_l;
+extern void* pytruffle_cext_landing_d;
+extern void* pytruffle_cext_landing_ptr;
+
+#define PY_TRUFFLE_LANDING ((PyObject*(*)(void *rcv, void* name, ...))pytruffle_landing)
+#define PY_TRUFFLE_LANDING_L ((PyObject*(*)(void *rcv, void* name, ...))pytruffle_landing_l)
+#define PY_TRUFFLE_LANDING_D ((PyObject*(*)(void *rcv, void* name, ...))pytruffle_landing_d)
+#define PY_TRUFFLE_LANDING_PTR ((void*(*)(void *rcv, void* name, ...))pytruffle_landing_ptr)
+#define PY_TRUFFLE_CEXT_LANDING ((PyObject*(*)(void* name, ...))pytruffle_cext_landing)
+#define PY_TRUFFLE_CEXT_LANDING_L ((uint64_t (*)(void* name, ...))pytruffle_cext_landing_l)
+#define PY_TRUFFLE_CEXT_LANDING_D ((double (*)(void* name, ...))pytruffle_cext_landing_d)
+#define PY_TRUFFLE_CEXT_LANDING_PTR ((void* (*)(void* name, ...))pytruffle_cext_landing_ptr)
+
+/* C API functions that are implemented in Java and called without a landing function; resolved once in 'initialize_upcall_functions' */
+extern void* (*PyTruffle_Cext_PyTuple_GetItem)(void* tuple, Py_ssize_t position);
+extern void* (*PyTruffle_Cext_PyList_GetItem)(void* list, Py_ssize_t position);
+extern int (*PyTruffle_Cext_PyList_SetItem)(void* list, Py_ssize_t position, void* item);
+extern void* (*PyTruffle_Cext_PyDict_GetItem)(void* dict, void* key);
+extern void* (*PyTruffle_Cext_PyDict_Next)(void* dict, Py_ssize_t pos);
+extern uint64_t (*PyTruffle_Cext_PyLong_AsPrimitive)(void* obj, int is_signed, size_t size, void* type_name);
 
 /* upcall macros for calling into Python */
 
@@ -129,8 +146,8 @@ PyAPI_DATA(PyTypeObject) _PyExc_BaseException;
 
 #define as_char_pointer(obj) ((const char*)UPCALL_CEXT_PTR("to_char_pointer", native_to_java(obj)))
 #define as_long(obj) ((long)polyglot_as_i64(polyglot_invoke(PY_TRUFFLE_CEXT, "to_long", to_java(obj))))
-#define as_long_long(obj) ((long long)polyglot_as_i64(polyglot_invoke(PY_TRUFFLE_CEXT, "PyLong_AsPrimitive", to_java(obj), 1, sizeof(long long), polyglot_from_string("long long", "utf-8"))))
-#define as_unsigned_long_long(obj) ((unsigned long long)polyglot_as_i64(polyglot_invoke(PY_TRUFFLE_CEXT, "PyLong_AsPrimitive", to_java(obj), 0, sizeof(unsigned long long), polyglot_from_string("unsigned long long", "utf-8"))))
+#define as_long_long(obj) ((long long)PyTruffle_Cext_PyLong_AsPrimitive(native_to_java(obj), 1, sizeof(long long), polyglot_from_string("long long", SRC_CS)))
+#define as_unsigned_long_long(obj) ((unsigned long long)PyTruffle_Cext_PyLong_AsPrimitive(native_to_java(obj), 0, sizeof(unsigned long long), polyglot_from_string("unsigned long long", SRC_CS)))
 #define as_int(obj) ((int)as_long(obj))
 #define as_short(obj) ((short)as_long(obj))
 #define as_uchar(obj) ((unsigned char)as_long(obj))
@@ -292,4 +309,8 @@ int bytes_copy2mem(char* target, char* source, size_t nbytes);
 /* MEMORYVIEW, BUFFERDECORATOR */
 int bufferdecorator_getbuffer(PyBufferDecorator *self, Py_buffer *view, int flags);
 
+/* ARRAY */
+int array_buffer_getbuffer(PyObject *self, Py_buffer *view, int flags);
+void array_buffer_releasebuffer(PyObject *self, Py_buffer *view);
+
 #endif
@@ -49,7 +49,7 @@ int PyDict_SetItem(PyObject* d, PyObject* k, PyObject* v) {
 }
 
 PyObject* PyDict_GetItem(PyObject* d, PyObject* k) {
-    return UPCALL_CEXT_O("PyDict_GetItem", native_to_java(d), native_to_java(k));
+    return handle_exception(PyTruffle_Cext_PyDict_GetItem(native_to_java(d), native_to_java(k)));
 }
 
 int PyDict_DelItem(PyObject *d, PyObject *k) {
@@ -58,7 +58,7 @@ int PyDict_DelItem(PyObject *d, PyObject *k) {
 
 
 int PyDict_Next(PyObject *d, Py_ssize_t *ppos, PyObject **pkey, PyObject **pvalue) {
-    PyObject *tresult = UPCALL_CEXT_O("PyDict_Next", native_to_java(d), *ppos);
+    PyObject *tresult = handle_exception(PyTruffle_Cext_PyDict_Next(native_to_java(d), *ppos));
     if (tresult == NULL) {
     	if(pkey != NULL) {
     		*pkey = NULL;
@@ -92,7 +92,7 @@ int PyDict_Contains(PyObject *d, PyObject *k) {
 }
 
 PyObject * PyDict_GetItemString(PyObject *d, const char *key) {
-    return UPCALL_CEXT_O("PyDict_GetItem", native_to_java(d), polyglot_from_string(key, SRC_CS));
+    return handle_exception(PyTruffle_Cext_PyDict_GetItem(native_to_java(d), polyglot_from_string(key, SRC_CS)));
 }
 
 int PyDict_SetItemString(PyObject *d, const char *key, PyObject *item) {
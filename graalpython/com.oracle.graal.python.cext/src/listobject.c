@@ -45,11 +45,11 @@ PyObject* PyList_New(Py_ssize_t size) {
 }
 
 PyObject* PyList_GetItem(PyObject *op, Py_ssize_t i) {
-    return UPCALL_CEXT_O("PyList_GetItem", native_to_java(op), i);
+    return handle_exception(PyTruffle_Cext_PyList_GetItem(native_to_java(op), i));
 }
 
 int PyList_SetItem(PyObject *op, Py_ssize_t i, PyObject *newitem) {
-    return UPCALL_CEXT_I("PyList_SetItem", native_to_java(op), i, native_to_java(newitem));
+    return PyTruffle_Cext_PyList_SetItem(native_to_java(op), i, native_to_java(newitem));
 }
 
 int PyList_Append(PyObject *op, PyObject *newitem) {
@@ -44,7 +44,7 @@
 PyTypeObject PyLong_Type = PY_TRUFFLE_TYPE("int", &PyType_Type, Py_TPFLAGS_DEFAULT | Py_TPFLAGS_BASETYPE | Py_TPFLAGS_LONG_SUBCLASS, offsetof(PyLongObject, ob_digit));
 
 long PyLong_AsLong(PyObject *obj) {
-    return UPCALL_CEXT_L("PyLong_AsPrimitive", native_to_java(obj), 1, sizeof(long), polyglot_from_string("long", SRC_CS));
+    return PyTruffle_Cext_PyLong_AsPrimitive(native_to_java(obj), 1, sizeof(long), polyglot_from_string("long", SRC_CS));
 }
 
 long PyLong_AsLongAndOverflow(PyObject *obj, int *overflow) {
@@ -52,7 +52,7 @@ long PyLong_AsLongAndOverflow(PyObject *obj, int *overflow) {
         PyErr_BadInternalCall();
         return -1;
     }
-    long result = UPCALL_CEXT_L("PyLong_AsPrimitive", native_to_java(obj), 1, sizeof(long), polyglot_from_string("long", SRC_CS));
+    long result = PyTruffle_Cext_PyLong_AsPrimitive(native_to_java(obj), 1, sizeof(long), polyglot_from_string("long", SRC_CS));
     *overflow = result == -1L && PyErr_Occurred() != NULL;
     return result;
 }
@@ -76,7 +76,7 @@ unsigned long PyLong_AsUnsignedLong(PyObject *obj) {
         PyErr_BadInternalCall();
         return (unsigned long)-1;
     }
-    return (unsigned long) UPCALL_CEXT_L("PyLong_AsPrimitive", native_to_java(obj), 0, sizeof(unsigned long), polyglot_from_string("unsigned long", SRC_CS));
+    return (unsigned long) PyTruffle_Cext_PyLong_AsPrimitive(native_to_java(obj), 0, sizeof(unsigned long), polyglot_from_string("unsigned long", SRC_CS));
 }
 PyObject * PyLong_FromSsize_t(Py_ssize_t n) {
 	return PyLong_FromLongLong(n);
@@ -87,7 +87,7 @@ PyObject * PyLong_FromDouble(double n) {
 }
 
 Py_ssize_t PyLong_AsSsize_t(PyObject *obj) {
-    return UPCALL_CEXT_L("PyLong_AsPrimitive", native_to_java(obj), 1, sizeof(Py_ssize_t), polyglot_from_string("ssize_t", SRC_CS));
+    return PyTruffle_Cext_PyLong_AsPrimitive(native_to_java(obj), 1, sizeof(Py_ssize_t), polyglot_from_string("ssize_t", SRC_CS));
 }
 
 PyObject * PyLong_FromVoidPtr(void *p) {
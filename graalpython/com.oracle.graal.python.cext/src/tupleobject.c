@@ -50,7 +50,7 @@ int PyTuple_SetItem(PyObject* tuple, Py_ssize_t position, PyObject* item) {
 }
 
 PyObject* PyTuple_GetItem(PyObject* tuple, Py_ssize_t position) {
-    return UPCALL_CEXT_O("PyTuple_GetItem", native_to_java(tuple), position);
+    return handle_exception(PyTruffle_Cext_PyTuple_GetItem(native_to_java(tuple), position));
 }
 
 Py_ssize_t PyTuple_Size(PyObject *op) {
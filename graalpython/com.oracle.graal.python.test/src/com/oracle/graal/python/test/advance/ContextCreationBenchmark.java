@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.advance;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+
+/**
+ * Creates a number of contexts on one engine and reports the average time and the retained heap
+ * per context. Run with the number of contexts as the only argument, and optionally
+ * {@code -Dpython.SharedCore=false} to compare against contexts with their own core.
+ */
+public class ContextCreationBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        String sharedCore = System.getProperty("python.SharedCore", "true");
+        Context[] contexts = new Context[n];
+        try (Engine engine = Engine.create()) {
+            // the first context pays for loading the core, report it separately
+            long start = System.nanoTime();
+            Context first = create(engine, sharedCore);
+            long firstTime = System.nanoTime() - start;
+
+            long heapBefore = usedHeap();
+            start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                contexts[i] = create(engine, sharedCore);
+            }
+            long time = System.nanoTime() - start;
+            long heapAfter = usedHeap();
+
+            System.out.printf("SharedCore=%s, %d contexts%n", sharedCore, n);
+            System.out.printf("first context: %.2f ms%n", firstTime / 1e6);
+            System.out.printf("time per context: %.2f ms%n", time / 1e6 / n);
+            System.out.printf("heap per context: %d KB%n", (heapAfter - heapBefore) / 1024 / n);
+
+            first.close();
+            for (Context context : contexts) {
+                context.close();
+            }
+        }
+    }
+
+    private static Context create(Engine engine, String sharedCore) {
+        Context context = Context.newBuilder().engine(engine).option("python.SharedCore", sharedCore).build();
+        context.initialize("python");
+        return context;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.advance;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.antlr.v4.runtime.atn.PredictionMode;
+
+import com.oracle.graal.python.parser.PythonErrorStrategy;
+import com.oracle.graal.python.parser.PythonParserImpl;
+import com.oracle.graal.python.parser.antlr.Builder;
+import com.oracle.graal.python.parser.antlr.Python3Parser;
+import com.oracle.graal.python.test.GraalPythonEnvVars;
+
+/**
+ * Measures the parse throughput over the modules of {@code lib-python/3}, once with full LL
+ * prediction only and once with SLL prediction first. Run with the number of iterations as the
+ * only argument.
+ */
+public class ParserBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        List<String> sources = readSources(Paths.get(GraalPythonEnvVars.graalpythonHome(), "lib-python", "3"));
+        long bytes = 0;
+        for (String source : sources) {
+            bytes += source.length();
+        }
+        System.out.printf("%d files, %d KB%n", sources.size(), bytes / 1024);
+        for (int i = 0; i < iterations; i++) {
+            report("LL", bytes, parseAll(sources, false));
+            report("SLL, then LL", bytes, parseAll(sources, true));
+        }
+    }
+
+    private static List<String> readSources(Path root) throws IOException {
+        List<String> sources = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.filter(p -> p.toString().endsWith(".py")).collect(Collectors.toList())) {
+                try {
+                    sources.add(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    // skip unreadable files
+                }
+            }
+        }
+        return sources;
+    }
+
+    private static long parseAll(List<String> sources, boolean sllFirst) {
+        long start = System.nanoTime();
+        for (String source : sources) {
+            Python3Parser parser = new Builder.Parser(source).build();
+            parser.setErrorHandler(new PythonErrorStrategy());
+            try {
+                if (sllFirst) {
+                    PythonParserImpl.parseWithSLLFirst(parser, Python3Parser::file_input);
+                } else {
+                    parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+                    parser.file_input();
+                }
+            } catch (RuntimeException e) {
+                // some test files contain syntax errors on purpose
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String mode, long bytes, long nanos) {
+        System.out.printf("%-14s %8.1f ms %8.1f KB/s%n", mode, nanos / 1e6, bytes / 1024.0 / (nanos / 1e9));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+public class ImportPreParserTests {
+
+    private static Context newContext() {
+        return Context.newBuilder().allowAllAccess(true).option("python.BackgroundImportParsing", "true").build();
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String addToPath(Path dir) {
+        return "import sys\nsys.path.insert(0, '" + dir.toAbsolutePath() + "')\n";
+    }
+
+    @Test
+    public void importsPreParsedModules() throws IOException {
+        Path dir = Files.createTempDirectory("preparse");
+        Files.createDirectory(dir.resolve("pkg"));
+        write(dir.resolve("pkg").resolve("__init__.py"), "");
+        write(dir.resolve("pkg").resolve("a.py"), "from . import b\nfrom .c import value\nresult = b.value + value\n");
+        write(dir.resolve("pkg").resolve("b.py"), "value = 1\n");
+        write(dir.resolve("pkg").resolve("c.py"), "value = 2\n");
+        write(dir.resolve("main.py"), "import pkg.a\nresult = pkg.a.result\n");
+        try (Context context = newContext()) {
+            context.eval("python", addToPath(dir));
+            assertEquals(3, context.eval("python", "import main\nmain.result").asInt());
+        }
+    }
+
+    @Test
+    public void changedModulesAreParsedAgain() throws IOException {
+        Path dir = Files.createTempDirectory("preparse");
+        Path second = dir.resolve("second.py");
+        write(second, "value = 1\n");
+        write(dir.resolve("first.py"), "import builtins\n" +
+                        "with builtins.open('" + second.toAbsolutePath() + "', 'w') as f:\n" +
+                        "    f.write('value = 2\\n')\n" +
+                        "import second\n");
+        try (Context context = newContext()) {
+            context.eval("python", addToPath(dir));
+            assertEquals(2, context.eval("python", "import first\nfirst.second.value").asInt());
+        }
+    }
+
+    @Test
+    public void sysPathChangedAfterScheduling() throws IOException {
+        // the pre-parser resolves 'shadowed' against the old sys.path, the import must not use it
+        Path dir = Files.createTempDirectory("preparse");
+        Path other = Files.createTempDirectory("preparse");
+        write(dir.resolve("shadowed.py"), "value = 1\n");
+        write(other.resolve("shadowed.py"), "value = 2\n");
+        write(dir.resolve("main.py"), "import sys\n" +
+                        "sys.path.insert(0, '" + other.toAbsolutePath() + "')\n" +
+                        "import shadowed\n");
+        try (Context context = newContext()) {
+            context.eval("python", addToPath(dir));
+            assertEquals(2, context.eval("python", "import main\nmain.shadowed.value").asInt());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.junit.Test;
+
+public class SharedCoreTests {
+
+    private static Context newContext(Engine engine) {
+        Context context = Context.newBuilder().engine(engine).allowAllAccess(true).option("python.SharedCore", "true").build();
+        context.initialize("python");
+        return context;
+    }
+
+    @Test
+    public void modulesAreIsolated() {
+        try (Engine engine = Engine.create()) {
+            Context first = newContext(engine);
+            Context second = newContext(engine);
+            try {
+                first.eval("python", "import sys, builtins, math\n" +
+                                "sys.foo = 1\n" +
+                                "builtins.foo = 2\n" +
+                                "math.pi = 3\n" +
+                                "sys.path.append('/foo')\n");
+                assertEquals(false, second.eval("python", "import sys; hasattr(sys, 'foo')").asBoolean());
+                assertEquals(false, second.eval("python", "import builtins; hasattr(builtins, 'foo')").asBoolean());
+                assertEquals(false, second.eval("python", "import math; math.pi == 3").asBoolean());
+                assertEquals(false, second.eval("python", "import sys; '/foo' in sys.path").asBoolean());
+                assertEquals(true, first.eval("python", "import math; math.pi == 3").asBoolean());
+            } finally {
+                first.close();
+                second.close();
+            }
+        }
+    }
+
+    @Test
+    public void sysInfoInSecondContext() {
+        try (Engine engine = Engine.create()) {
+            Context first = newContext(engine);
+            Context second = newContext(engine);
+            try {
+                first.eval("python", "import sys; sys.implementation.name = 'foo'");
+                assertEquals(3, second.eval("python", "import sys; sys.version_info.major").asInt());
+                assertEquals(true, second.eval("python", "import sys; sys.version_info.major == sys.version_info[0]").asBoolean());
+                assertEquals(true, second.eval("python", "import sys; sys.flags.optimize == sys.flags[10]").asBoolean());
+                assertEquals(true, second.eval("python", "import sys; sys.float_info.max == sys.float_info[0] > 0").asBoolean());
+                assertEquals("graalpython", second.eval("python", "import sys; sys.implementation.name").asString());
+            } finally {
+                first.close();
+                second.close();
+            }
+        }
+    }
+
+    @Test
+    public void contextsOnDifferentThreads() throws InterruptedException {
+        try (Engine engine = Engine.create()) {
+            Thread[] threads = new Thread[4];
+            int[] results = new int[threads.length];
+            for (int i = 0; i < threads.length; i++) {
+                final int n = i;
+                threads[i] = new Thread(() -> {
+                    try (Context context = newContext(engine)) {
+                        context.eval("python", "x = " + n);
+                        results[n] = context.eval("python", "x * 2").asInt();
+                    }
+                });
+                threads[i].start();
+            }
+            for (int i = 0; i < threads.length; i++) {
+                threads[i].join();
+                assertEquals(i * 2, results[i]);
+            }
+        }
+    }
+}
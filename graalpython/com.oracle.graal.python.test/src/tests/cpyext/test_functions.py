@@ -191,7 +191,60 @@ class TestPyObject(CPyExtTestCase):
     )
     # PyObject_AsReadBuffer
     # PyObject_AsWriteBuffer
-    # PyObject_GetBuffer
+    test_PyObject_GetBuffer = CPyExtFunction(
+        lambda args: (len(args[0]) * args[0].itemsize, args[0].itemsize, args[0].tobytes()[0]),
+        lambda: (
+            (array.array('b', [1, 2, 3]),),
+            (array.array('i', [7, 8]),),
+            (array.array('d', [1.5]),),
+        ),
+        code='''PyObject* wrap_PyObject_GetBuffer(PyObject* object) {
+            Py_buffer view;
+            PyObject* result;
+            if (PyObject_GetBuffer(object, &view, PyBUF_FORMAT) != 0) {
+                return NULL;
+            }
+            result = Py_BuildValue("nni", view.len, view.itemsize, (int) ((unsigned char*) view.buf)[0]);
+            PyBuffer_Release(&view);
+            return result;
+        }
+        ''',
+        resultspec="O",
+        argspec="O",
+        arguments=["PyObject* object"],
+        callfunction="wrap_PyObject_GetBuffer",
+        cmpfunc=unhandled_error_compare
+    )
+    test_PyObject_GetBuffer_blocks_resize = CPyExtFunction(
+        lambda args: (True, len(args[0]) + 1),
+        lambda: (
+            (array.array('b', [1, 2, 3]),),
+            (array.array('d', []),),
+        ),
+        code='''PyObject* wrap_PyObject_GetBuffer_blocks_resize(PyObject* object) {
+            Py_buffer view;
+            PyObject* result;
+            int blocked;
+            if (PyObject_GetBuffer(object, &view, PyBUF_SIMPLE) != 0) {
+                return NULL;
+            }
+            result = PyObject_CallMethod(object, "append", "i", 1);
+            blocked = result == NULL && PyErr_ExceptionMatches(PyExc_BufferError);
+            PyErr_Clear();
+            PyBuffer_Release(&view);
+            result = PyObject_CallMethod(object, "append", "i", 1);
+            if (result == NULL) {
+                return NULL;
+            }
+            return Py_BuildValue("On", blocked ? Py_True : Py_False, PyObject_Size(object));
+        }
+        ''',
+        resultspec="O",
+        argspec="O",
+        arguments=["PyObject* object"],
+        callfunction="wrap_PyObject_GetBuffer_blocks_resize",
+        cmpfunc=unhandled_error_compare
+    )
     test_PyObject_Format = CPyExtFunction(
         lambda args: args[0].__format__(args[1]),
         lambda: (
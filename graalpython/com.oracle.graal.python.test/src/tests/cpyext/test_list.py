@@ -198,6 +198,35 @@ class TestPyList(CPyExtTestCase):
         cmpfunc=unhandled_error_compare
     )
 
+    test_PyList_GET_ITEM_append = CPyExtFunction(
+        lambda args: args[0] + [args[1]] + args[0],
+        lambda: (
+            ([1,2,3,4], 5),
+            (["a", None], "b"),
+            ([], 0),
+        ),
+        code='''PyObject* wrap_PyList_GET_ITEM_append(PyObject* op, PyObject* newitem) {
+            PyObject* result = PyList_New(0);
+            Py_ssize_t n = PyList_GET_SIZE(op);
+            Py_ssize_t i;
+            for (i = 0; i < n; i++) {
+                PyList_Append(result, PyList_GET_ITEM(op, i));
+            }
+            PyList_Append(op, newitem);
+            PyList_Append(result, PyList_GET_ITEM(op, n));
+            for (i = 0; i < n; i++) {
+                PyList_Append(result, PyList_GET_ITEM(op, i));
+            }
+            return result;
+        }
+        ''',
+        resultspec="O",
+        argspec='OO',
+        arguments=["PyObject* op", "PyObject* newitem"],
+        callfunction="wrap_PyList_GET_ITEM_append",
+        cmpfunc=unhandled_error_compare
+    )
+
     test_PyList_Append = CPyExtFunction(
         _reference_append,
         lambda: (
@@ -100,6 +100,26 @@ class TestObject(object):
         tester = TestIndex()
         assert [0,1][tester] == 1
 
+    def test_memoryview(self):
+        TestBuffer = CPyExtType("TestBuffer",
+                                """
+                                static char test_buffer_data[] = "hello";
+
+                                int test_getbuffer(PyObject* self, Py_buffer* view, int flags) {
+                                    return PyBuffer_FillInfo(view, self, test_buffer_data, 5, 1, flags);
+                                }
+
+                                static PyBufferProcs test_buffer_procs = {
+                                    test_getbuffer,
+                                    NULL,
+                                };
+                                """,
+                                tp_as_buffer="&test_buffer_procs"
+        )
+        view = memoryview(TestBuffer())
+        assert view.tobytes() == b"hello", view.tobytes()
+        assert view[1] == ord("e"), view[1]
+
     def test_getattro(self):
         return # TODO: not working yet
         # XXX: Cludge to get type into C
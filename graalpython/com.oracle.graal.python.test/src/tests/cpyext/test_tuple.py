@@ -39,6 +39,16 @@ from . import CPyExtTestCase, CPyExtFunction, CPyExtFunctionOutVars, unhandled_e
 __dir__ = __file__.rpartition("/")[0]
 
 
+def _reference_getitem(args):
+    t = args[0]
+    pos = args[1]
+    if not isinstance(t, tuple):
+        raise SystemError
+    if pos < 0:
+        raise IndexError("tuple index out of range")
+    return t[pos]
+
+
 def _reference_getslice(args):
     t = args[0]
     start = args[1]
@@ -90,6 +100,22 @@ class TestPyTuple(CPyExtTestCase):
         arguments=["PyObject* tuple"],
     )
 
+    # PyTuple_GetItem
+    test_PyTuple_GetItem = CPyExtFunction(
+        _reference_getitem,
+        lambda: (
+            ((1, 2, 3), 0),
+            ((1, 2, 3), 2),
+            (("a", "b"), 5),
+            ((1, 2, 3), -1),
+            ([1, 2, 3], 0),
+        ),
+        resultspec="O",
+        argspec='On',
+        arguments=["PyObject* tuple", "Py_ssize_t pos"],
+        cmpfunc=unhandled_error_compare
+    )
+
     # PyTuple_GetSlice
     test_PyTuple_GetSlice = CPyExtFunctionOutVars(
         _reference_getslice,
@@ -239,6 +239,25 @@ class TestPyUnicode(CPyExtTestCase):
         cmpfunc=unhandled_error_compare
     )
 
+    test_PyUnicode_AsUTF8_repeated = CPyExtFunction(
+        lambda args: 1,
+        lambda: (
+            ("hello",),
+            ("hellö" * 100,),
+        ),
+        code="""int wrap_PyUnicode_AsUTF8_repeated(PyObject* s) {
+            const char* first = PyUnicode_AsUTF8(s);
+            const char* second = PyUnicode_AsUTF8(s);
+            return first == second && strcmp(first, second) == 0;
+        }
+        """,
+        resultspec="i",
+        argspec='O',
+        arguments=["PyObject* s"],
+        callfunction="wrap_PyUnicode_AsUTF8_repeated",
+        cmpfunc=unhandled_error_compare
+    )
+
     test_PyUnicode_AsUTF8String = CPyExtFunction(
         lambda args: args[0].encode("utf-8"),
         lambda: (
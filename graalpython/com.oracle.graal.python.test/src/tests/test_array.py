@@ -58,3 +58,115 @@ def test_create():
     from array import array
     a = array('b', b'x'*10)
     assert str(a) == "array('b', [120, 120, 120, 120, 120, 120, 120, 120, 120, 120])"
+
+
+def test_typecodes():
+    from array import array, typecodes
+    for typecode in typecodes:
+        a = array(typecode)
+        assert a.typecode == typecode
+        assert len(a) == 0
+    assert array('b').itemsize == 1
+    assert array('h').itemsize == 2
+    assert array('i').itemsize == 4
+    assert array('q').itemsize == 8
+    assert array('f').itemsize == 4
+    assert array('d').itemsize == 8
+    assert_raises(ValueError, array, 'x')
+
+
+def test_append_extend():
+    from array import array
+    a = array('i', [1, 2, 3])
+    a.append(4)
+    a.extend([5, 6])
+    a.extend(array('i', [7]))
+    a += array('i', [8])
+    assert a.tolist() == [1, 2, 3, 4, 5, 6, 7, 8]
+    assert a[-1] == 8
+    assert a[1:3] == array('i', [2, 3])
+    a[0] = 10
+    assert a[0] == 10
+    del a[0]
+    assert a.pop() == 8
+    a.insert(0, 0)
+    a.remove(4)
+    assert a.index(5) == 3
+    assert a.count(2) == 1
+    a.reverse()
+    assert a.tolist() == [7, 6, 5, 3, 2, 0]
+    assert_raises(TypeError, a.extend, array('d', [1.0]))
+
+
+def test_ranges():
+    from array import array
+    assert_raises(OverflowError, array, 'b', [128])
+    assert_raises(OverflowError, array, 'B', [-1])
+    assert_raises(OverflowError, array, 'h', [1 << 15])
+    assert_raises(OverflowError, array, 'I', [-1])
+    assert array('B', [255])[0] == 255
+    assert array('H', [65535])[0] == 65535
+    assert array('I', [0xffffffff])[0] == 0xffffffff
+    assert array('Q', [(1 << 64) - 1])[0] == (1 << 64) - 1
+    assert array('f', [0.5, 1.0]).tolist() == [0.5, 1.0]
+    assert array('u', 'hello').tounicode() == 'hello'
+    assert_raises(TypeError, array, 'i', [1.5])
+
+
+def test_bytes_roundtrip():
+    from array import array
+    a = array('h', [1, -2, 300])
+    b = a.tobytes()
+    assert len(b) == 6
+    c = array('h')
+    c.frombytes(b)
+    assert a == c
+    c.byteswap()
+    c.byteswap()
+    assert c.tolist() == [1, -2, 300]
+    assert array('h', b) == a
+    assert_raises(ValueError, c.frombytes, b'abc')
+
+
+def test_file_roundtrip():
+    import _pyio as pyio
+    import os
+    from array import array
+    file_name = "array_dump.bin"
+    a = array('d', [1.5, 2.5, 3.5])
+    try:
+        with pyio.open(file_name, 'wb') as f:
+            a.tofile(f)
+        b = array('d')
+        with pyio.open(file_name, 'rb') as f:
+            b.fromfile(f, 3)
+        assert a == b
+        with pyio.open(file_name, 'rb') as f:
+            assert_raises(EOFError, b.fromfile, f, 4)
+    finally:
+        os.unlink(file_name)
+
+
+def test_mul_and_slices():
+    from array import array
+    a = array('b', [1, 2]) * 3
+    assert a.tolist() == [1, 2, 1, 2, 1, 2]
+    del a[::2]
+    assert a.tolist() == [2, 2, 2]
+    a[0:1] = array('b', [7, 8])
+    assert a.tolist() == [7, 8, 2, 2]
+    assert repr(array('i')) == "array('i')"
+    assert repr(array('d', [1.0])) == "array('d', [1.0])"
+    assert repr(array('u', 'ab')) == "array('u', 'ab')"
+
+
+def test_mixed_int_and_long_items():
+    from array import array
+    assert array('L', [1, 2, 3]).index(2) == 1
+    assert 3 in array('q', [1, 2, 3])
+    assert array('d', [1.0, 2.0]).index(2) == 1
+    assert array('i', [1, 2, 3]) < array('L', [1, 2, 4])
+    assert array('L', [1, 2, 3]) < array('i', [1, 2, 4])
+    assert not array('i', [1, 2]) < array('q', [1, 2])
+    assert array('i', [1, 2]) < array('q', [1, 2, 0])
+    assert array('b', [1, 2]) == array('L', [1, 2])
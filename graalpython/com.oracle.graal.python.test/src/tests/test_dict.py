@@ -289,3 +289,88 @@ def test_create_seq_and_kw():
     d = dict(dict(a=1, b=2, c=3), d=4)
     for k in ['a', 'b', 'c', 'd']:
         assert k in d
+
+
+def test_int_keys():
+    d = {}
+    for i in range(100):
+        d[i * 7] = i
+    for i in range(0, 100, 2):
+        del d[i * 7]
+    assert len(d) == 50
+    assert list(d.keys()) == [i * 7 for i in range(1, 100, 2)]
+    assert all(d[i * 7] == i for i in range(1, 100, 2))
+    assert 14 not in d
+    for i in range(100, 200):
+        d[i * 7] = i
+    assert len(d) == 150
+    assert list(d.values())[:3] == [1, 3, 5]
+
+    d = {}
+    d[2 ** 40] = "big"
+    d[-1] = "negative"
+    assert d[2 ** 40] == "big"
+    assert d[-1] == "negative"
+    assert list(d) == [2 ** 40, -1]
+
+    d = {1: "one", 0: "zero"}
+    assert d[True] == "one"
+    assert d[1.0] == "one"
+    assert d[False] == "zero"
+    assert 1.5 not in d
+    assert "1" not in d
+    d[True] = "true"
+    assert d[1] == "true"
+    assert list(d.keys()) == [1, 0]
+    assert type(list(d.keys())[0]) == int
+
+
+def test_int_keys_generalize():
+    d = {}
+    d[1] = 1
+    d[2] = 2
+    d["a"] = 3
+    d[(1, 2)] = 4
+    assert list(d.items()) == [(1, 1), (2, 2), ("a", 3), ((1, 2), 4)]
+    assert d[2] == 2
+    del d[1]
+    assert list(d) == [2, "a", (1, 2)]
+
+    class IntLike:
+        def __hash__(self):
+            return 5
+
+        def __eq__(self, other):
+            return other == 5
+
+    d = {5: "five"}
+    assert d[IntLike()] == "five"
+    assert d.pop(IntLike()) == "five"
+    assert len(d) == 0
+
+
+def test_tuple_keys():
+    d = {}
+    for x in range(30):
+        for y in range(30):
+            d[(x, y)] = x * y
+    assert len(d) == 900
+    for x in range(30):
+        for y in range(30):
+            assert d[(x, y)] == x * y
+    assert (3, 'a') not in d
+    d[(3, 'a')] = 'str'
+    assert d[(3, 'a')] == 'str'
+    assert d[(1, 2)] == d[(True, 2)] == 2
+
+    t = (1, 'two', (3, 4))
+    assert hash(t) == hash((1, 'two', (3, 4)))
+    assert hash((1, 2)) != hash((2, 1))
+    assert {t: 1}[(1, 'two', (3, 4))] == 1
+    assert (1, [2]) == (1, [2])
+    try:
+        hash((1, [2]))
+    except TypeError:
+        pass
+    else:
+        assert False, "list in tuple must not be hashable"
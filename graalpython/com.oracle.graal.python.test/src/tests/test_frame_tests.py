@@ -72,3 +72,37 @@ def test_code():
 
 def test_builtins():
     assert print == sys._getframe().f_builtins["print"]
+
+
+def test_depth():
+    def foo():
+        return sys._getframe(1)
+    def bar():
+        return foo()
+    assert foo().f_code.co_name == test_depth.__code__.co_name
+    assert bar().f_code.co_name == "bar"
+    assert bar().f_back.f_code.co_name == test_depth.__code__.co_name
+
+
+def test_back_chain():
+    def inner():
+        return sys._getframe()
+    def outer():
+        return inner()
+    f = outer()
+    assert f.f_code.co_name == "inner"
+    assert f.f_back.f_code.co_name == "outer"
+    assert f.f_back.f_back.f_code.co_name == "test_back_chain"
+
+
+def test_globals():
+    assert sys._getframe().f_globals["test_globals"] is test_globals
+
+
+def test_too_deep():
+    try:
+        sys._getframe(1000000)
+    except ValueError:
+        pass
+    else:
+        assert False, "expected ValueError"
@@ -50,3 +50,76 @@ def test_name():
         assert "__name__ must be set to a string object" in str(e)
     else:
         assert False
+
+
+def test_keyword_mapping_per_call_site():
+    def f(a, b=2, c=3, **kwargs):
+        return a, b, c, kwargs
+
+    def call_site(x):
+        return f(x, c=x, extra=x, b=x)
+
+    for i in range(10):
+        assert call_site(i) == (i, i, i, {"extra": i})
+
+    def g(a, b=2, c=3, **kwargs):
+        return kwargs, c, b, a
+
+    results = []
+    for fn in [f, g, f, g]:
+        results.append(fn(1, c=5, d=6))
+    assert results == [(1, 2, 5, {"d": 6}), ({"d": 6}, 5, 2, 1)] * 2
+
+    def h(**kwargs):
+        return kwargs
+
+    for kw in [{"a": 1}, {"b": 2}, {"a": 1, "b": 2}]:
+        assert h(**kw) == kw
+
+
+def test_functions_translated_on_first_call():
+    def make_counter(start, step=1):
+        "a counter"
+        count = [start]
+
+        def counter():
+            count[0] += step
+            return count[0]
+        return counter
+
+    assert make_counter.__doc__ == "a counter"
+    c1 = make_counter(10)
+    c2 = make_counter(0, step=5)
+    assert c1() == 11
+    assert c2() == 5
+    assert c1() == 12
+    assert c2() == 10
+
+    fns = []
+    for i in range(3):
+        def f(x=i):
+            return [x * y for y in range(3)]
+        fns.append(f)
+    assert [fn() for fn in fns] == [[0, 0, 0], [0, 1, 2], [0, 2, 4]]
+
+    def not_called():
+        return undefined_name
+
+    assert not_called.__name__ == "not_called"
+    try:
+        not_called()
+    except NameError:
+        pass
+    else:
+        assert False
+
+
+def test_lazily_translated_class_qualname():
+    def outer():
+        def inner():
+            class C:
+                pass
+            return C
+        return inner()
+
+    assert outer().__qualname__ == "test_lazily_translated_class_qualname.<locals>.outer.<locals>.inner.<locals>.C"
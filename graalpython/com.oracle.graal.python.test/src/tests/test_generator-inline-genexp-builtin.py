@@ -36,3 +36,107 @@ def test_it():
     for i in range(10):
         result = call_generator_builtin(10, 100)
     assert result == 420
+
+
+def test_reducing_builtins():
+    xs = [1, 2, 3, 4]
+    assert sum(x * x for x in xs) == 30
+    assert sum(x / 2 for x in xs) == 5.0
+    assert any(x > 3 for x in xs)
+    assert not any(x > 4 for x in xs)
+    assert all(x > 0 for x in xs)
+    assert not all(x > 1 for x in xs)
+    assert list(x for x in xs if x % 2 == 0) == [2, 4]
+    assert tuple(x + y for x in xs for y in (0, 10) if x < 3) == (1, 11, 2, 12)
+    assert [str(x) for x in xs] == ['1', '2', '3', '4']
+    assert sum(x for x in []) == 0
+    assert any(x for x in []) is False
+    assert all(x for x in []) is True
+
+
+def test_closure_and_scope():
+    x = "outer"
+    factor = 3
+    assert sum(x * factor for x in range(4)) == 18
+    assert x == "outer"
+    fs = list(lambda: x for x in range(3))
+    assert [f() for f in fs] == [2, 2, 2]
+
+
+def test_nested_scopes():
+    assert sum(sum(y for y in range(x)) for x in range(5)) == 10
+    fs = [[lambda: (x, y) for y in range(2)] for x in range(2)]
+    assert [[f() for f in row] for row in fs] == [[(1, 1), (1, 1)], [(1, 1), (1, 1)]]
+    assert all(any(y == x for y in range(x + 1)) for x in range(3))
+
+
+def test_any_stops_early():
+    seen = []
+    def check(x):
+        seen.append(x)
+        return x == 2
+    assert any(check(x) for x in range(10))
+    assert seen == [0, 1, 2]
+
+
+def _call_sum():
+    return sum(x for x in range(3))
+
+
+def test_rebound_builtin():
+    assert _call_sum() == 3
+    g = globals()
+    g["sum"] = lambda gen: "shadowed %s" % type(gen).__name__
+    try:
+        assert _call_sum() == "shadowed generator"
+    finally:
+        del g["sum"]
+    assert _call_sum() == 3
+
+
+def test_stop_iteration_in_element():
+    def outcome(fn):
+        try:
+            return fn()
+        except RuntimeError:
+            # PEP 479
+            return "RuntimeError"
+
+    def inlined(consumer):
+        it = iter([1, 2, 3])
+        return outcome(lambda: consumer(next(it) for _ in range(5)))
+
+    def generator(consumer):
+        it = iter([1, 2, 3])
+        gen = (next(it) for _ in range(5))
+        return outcome(lambda: consumer(gen))
+
+    assert inlined(list) == generator(list)
+    assert inlined(tuple) == generator(tuple)
+    assert inlined(sum) == generator(sum)
+    assert inlined(all) == generator(all)
+
+    # a list comprehension is no generator, the StopIteration propagates
+    it = iter([1, 2, 3])
+    try:
+        [next(it) for _ in range(5)]
+    except StopIteration:
+        pass
+    else:
+        assert False
+
+
+def _sum_in_generator(n):
+    offset = 10
+    yield sum(x + offset for x in range(n))
+
+
+def test_rebound_builtin_in_generator():
+    assert list(_sum_in_generator(3)) == [33]
+    g = globals()
+    g["sum"] = lambda gen: list(gen)
+    try:
+        assert list(_sum_in_generator(3)) == [[10, 11, 12]]
+    finally:
+        del g["sum"]
+    assert list(_sum_in_generator(3)) == [33]
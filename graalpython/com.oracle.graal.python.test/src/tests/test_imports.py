@@ -89,3 +89,142 @@ def test_import_error():
 def test_import_some_star():
     import posix
     assert stat == posix.stat
+
+
+def test_import_lazy_core_module():
+    import time
+    import itertools
+    import _struct
+    assert sys.modules["time"] is time
+    assert hasattr(time, "struct_time")
+    assert list(itertools.product([1, 2], [3])) == [(1, 3), (2, 3)]
+    assert issubclass(_struct.error, Exception)
+    import time as time2
+    assert time2 is time
+
+
+def test_import_sees_sys_modules_changes():
+    def do_import():
+        import test_imports_fake_module
+        return test_imports_fake_module
+
+    fake = type(sys)("test_imports_fake_module")
+    sys.modules["test_imports_fake_module"] = fake
+    try:
+        for i in range(3):
+            assert do_import() is fake
+        other = type(sys)("test_imports_fake_module")
+        sys.modules["test_imports_fake_module"] = other
+        assert do_import() is other
+    finally:
+        del sys.modules["test_imports_fake_module"]
+
+
+def test_import_sees_custom_import():
+    import builtins
+
+    def do_import():
+        import sys
+        return sys
+
+    for i in range(3):
+        assert do_import() is sys
+    seen = []
+    original_import = builtins.__import__
+
+    def custom_import(name, *args, **kwargs):
+        seen.append(name)
+        return original_import(name, *args, **kwargs)
+
+    builtins.__import__ = custom_import
+    try:
+        assert do_import() is sys
+    finally:
+        builtins.__import__ = original_import
+    assert seen == ["sys"]
+
+
+def test_import_from_new_files():
+    import builtins
+    import importlib
+    import shutil
+    import tempfile
+    directory = tempfile.mkdtemp()
+    sys.path.insert(0, directory)
+    try:
+        with builtins.open(directory + "/test_imports_new_a.py", "w") as f:
+            f.write("value = 'a'\n")
+        importlib.invalidate_caches()
+        import test_imports_new_a
+        assert test_imports_new_a.value == "a"
+
+        # the directory listing is cached now, new files have to show up anyway
+        import os
+        os.mkdir(directory + "/test_imports_new_pkg")
+        with builtins.open(directory + "/test_imports_new_pkg/__init__.py", "w") as f:
+            f.write("value = 'pkg'\n")
+        with builtins.open(directory + "/test_imports_new_pkg/sub.py", "w") as f:
+            f.write("value = 'sub'\n")
+        importlib.invalidate_caches()
+        import test_imports_new_pkg.sub
+        assert test_imports_new_pkg.value == "pkg"
+        assert test_imports_new_pkg.sub.value == "sub"
+        assert test_imports_new_pkg.__path__ == [directory + "/test_imports_new_pkg"]
+
+        try:
+            import test_imports_new_missing
+        except ImportError:
+            pass
+        else:
+            assert False
+    finally:
+        sys.path.remove(directory)
+        for name in ["test_imports_new_a", "test_imports_new_pkg", "test_imports_new_pkg.sub"]:
+            sys.modules.pop(name, None)
+        shutil.rmtree(directory)
+
+
+def test_import_translates_functions_lazily():
+    import builtins
+    import importlib
+    import shutil
+    import tempfile
+    directory = tempfile.mkdtemp()
+    sys.path.insert(0, directory)
+    try:
+        with builtins.open(directory + "/test_imports_lazy.py", "w") as f:
+            f.write("def outer(start):\n"
+                    "    count = [start]\n"
+                    "    def inner():\n"
+                    "        class C:\n"
+                    "            pass\n"
+                    "        count[0] += 1\n"
+                    "        return count[0], C\n"
+                    "    return inner\n"
+                    "\n"
+                    "def broken():\n"
+                    "    return dict(a=1, 2)\n")
+        importlib.invalidate_caches()
+        try:
+            import test_imports_lazy
+        except SyntaxError:
+            # translated eagerly, like CPython does
+            assert sys.implementation.name != "graalpython"
+            return
+        inner = test_imports_lazy.outer(10)
+        count, C = inner()
+        assert count == 11
+        assert inner()[0] == 12
+        assert inner.__qualname__ == "outer.<locals>.inner"
+        assert C.__qualname__ == "outer.<locals>.inner.<locals>.C"
+        # the body of broken is only translated, and the error only found, on its first call
+        try:
+            test_imports_lazy.broken()
+        except SyntaxError:
+            pass
+        else:
+            assert False
+    finally:
+        sys.path.remove(directory)
+        sys.modules.pop("test_imports_lazy", None)
+        shutil.rmtree(directory)
@@ -310,3 +310,34 @@ def test_create_int_from_bool():
 
     assert int(SpecInt1()) == 1
     assert int(SpecInt0()) == 0
+
+def test_big_int_back_to_small():
+    big = 2 ** 64
+    assert big - (big - 1) == 1
+    assert (big * 3) // big == 3
+    assert (big + 5) % big == 5
+    assert (big * 7) >> 64 == 7
+    assert (big | 3) & 0xff == 3
+    assert hash(big - (big - 42)) == hash(42)
+    assert {big - (big - 42): 1}[42] == 1
+    x = big - 1
+    for i in range(3):
+        x = (x * 31 + i) % 1000003
+    assert x == ((((big - 1) * 31) % 1000003 * 31 + 1) % 1000003 * 31 + 2) % 1000003
+
+def test_huge_int_decimal_roundtrip():
+    big = 7 ** 20000 + 12345
+    s = str(big)
+    assert s.endswith(str(big % 10 ** 8).zfill(8))
+    assert int(s) == big
+    assert int("-" + s) == -big
+    assert repr(-big) == "-" + s
+    assert str(10 ** 5000) == "1" + "0" * 5000
+    assert int("0" * 3000 + "42") == 42
+    assert "{:,}".format(10 ** 6000).replace(",", "") == "1" + "0" * 6000
+    try:
+        int("1" * 3000 + "x")
+    except ValueError:
+        pass
+    else:
+        assert False, "expected ValueError"
@@ -214,3 +214,20 @@ if sys.implementation.name == "graalpython":
             assert True
         else:
             assert False, "requesting a non-existing host symbol should raise KeyError"
+
+    def test_foreign_array_iteration():
+        import java
+        try:
+            int_array_class = java.type("int[]")
+        except NotImplementedError as e:
+            assert "host lookup is not allowed" in str(e)
+        else:
+            arr = int_array_class(5)
+            for i in range(5):
+                arr[i] = i * 2
+            assert list(arr) == [0, 2, 4, 6, 8]
+            assert sorted(arr, reverse=True) == [8, 6, 4, 2, 0]
+            total = 0
+            for x in arr:
+                total += x
+            assert total == 20
@@ -0,0 +1,137 @@
+# Copyright (c) 2018, Oracle and/or its affiliates.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or data
+# (collectively the "Software"), free of charge and under any and all copyright
+# rights in the Software, and any and all patent rights owned or freely
+# licensable by each licensor hereunder covering either (i) the unmodified
+# Software as contributed to or provided by such licensor, or (ii) the Larger
+# Works (as defined below), to deal in both
+#
+# (a) the Software, and
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+#     one is included with the Software (each a "Larger Work" to which the
+#     Software is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+
+import array
+
+
+def assert_raises(err, fn, *args, **kwargs):
+    raised = False
+    try:
+        fn(*args, **kwargs)
+    except err:
+        raised = True
+    assert raised
+
+
+def test_bytes_view():
+    m = memoryview(b"abcdef")
+    assert len(m) == 6
+    assert m[0] == 97
+    assert m[-1] == 102
+    assert m.readonly
+    assert m.format == "B"
+    assert m.itemsize == 1
+    assert m.nbytes == 6
+    assert m.ndim == 1
+    assert m.shape == (6,)
+    assert m.strides == (1,)
+    assert m.tobytes() == b"abcdef"
+    assert m.tolist() == [97, 98, 99, 100, 101, 102]
+    assert m.hex() == "616263646566"
+    assert m == b"abcdef"
+    assert hash(m) == hash(b"abcdef")
+    assert_raises(TypeError, m.__setitem__, 0, 1)
+    assert_raises(IndexError, m.__getitem__, 6)
+    assert_raises(TypeError, memoryview, "abc")
+
+
+def test_slices_share_memory():
+    data = bytearray(b"0123456789")
+    m = memoryview(data)
+    assert not m.readonly
+    s = m[2:8:2]
+    assert s.tobytes() == b"246"
+    assert s.strides == (2,)
+    assert not s.c_contiguous
+    s[1] = ord("x")
+    assert data == bytearray(b"0123x56789")
+    assert m[::-1].tobytes() == b"98765x3210"
+    assert m[5:2].tobytes() == b""
+    m[0:3] = b"abc"
+    assert data == bytearray(b"abc3x56789")
+    m[1:4] = m[0:3]
+    assert data == bytearray(b"aabcx56789")
+    assert_raises(ValueError, m.__setitem__, slice(0, 3), b"ab")
+
+
+def test_array_view():
+    a = array.array("i", [1, 2, 3, 4])
+    m = memoryview(a)
+    assert m.format == "i"
+    assert m.itemsize == 4
+    assert m.nbytes == 16
+    assert m.tolist() == [1, 2, 3, 4]
+    m[1] = -5
+    assert a[1] == -5
+    assert m[1:3].tolist() == [-5, 3]
+    assert m == array.array("i", [1, -5, 3, 4])
+    assert m == array.array("d", [1, -5, 3, 4])
+    assert m != array.array("i", [1, 2, 3, 4])
+    assert_raises(ValueError, m.__setitem__, 0, 2 ** 40)
+    assert_raises(ValueError, hash, m)
+
+
+def test_cast():
+    data = bytearray(range(12))
+    m = memoryview(data)
+    h = m.cast("H")
+    assert h.itemsize == 2
+    assert len(h) == 6
+    assert h.cast("B").tobytes() == bytes(range(12))
+    c = m.cast("B", [3, 4])
+    assert c.ndim == 2
+    assert c.shape == (3, 4)
+    assert c.strides == (4, 1)
+    assert c.tolist() == [[0, 1, 2, 3], [4, 5, 6, 7], [8, 9, 10, 11]]
+    assert c[1, 2] == 6
+    c[2, 3] = 42
+    assert data[11] == 42
+    assert_raises(NotImplementedError, c.__getitem__, 0)
+    assert_raises(TypeError, m.cast, "B", [5, 5])
+    assert_raises(TypeError, m[::2].cast, "H")
+    assert_raises(TypeError, h.cast, "i")
+    assert_raises(ValueError, m.cast, "Z")
+
+
+def test_release():
+    m = memoryview(b"abc")
+    with m as view:
+        assert view[0] == 97
+    assert_raises(ValueError, len, m)
+    assert_raises(ValueError, m.tobytes)
+    assert "released" in repr(m)
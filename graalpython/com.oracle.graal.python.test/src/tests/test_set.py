@@ -144,3 +144,63 @@ def test_difference_update():
             s = set('abcdefghih')
             s.difference_update(C('cdc'), C('aba'))
             assert s == set('efghih')
+
+
+def test_union():
+    for C in set, frozenset:
+        s = C(range(10))
+        u = s.union(range(5, 15), {'a'})
+        assert type(u) == C
+        assert u == set(range(15)) | {'a'}
+        assert s == set(range(10))
+        assert s.union() == s
+    assert set('abc').union('cde', ['f']) == set('abcdef')
+
+
+def test_intersection():
+    for C in set, frozenset:
+        s = C(range(100))
+        i = s.intersection(range(50, 150), set(range(0, 100, 2)))
+        assert type(i) == C
+        assert i == set(range(50, 100, 2))
+        assert C('abcd').intersection('bcx') == set('bc')
+        assert C(range(3)).intersection(['a', 1, 2.0]) == {1, 2}
+        assert C(range(3)).intersection() == {0, 1, 2}
+    assert_raises(TypeError, set([1]).intersection, [[]])
+
+
+def test_symmetric_difference():
+    for C in set, frozenset:
+        s = C(range(10))
+        d = s.symmetric_difference(range(5, 15))
+        assert type(d) == C
+        assert d == set(range(5)) | set(range(10, 15))
+        assert C('abc').symmetric_difference('bcd') == set('ad')
+        assert C('abc') ^ C('bcd') == set('ad')
+        assert C([1, 'a']).symmetric_difference([1, 'b']) == {'a', 'b'}
+    assert_raises(PassThru, set().symmetric_difference, check_pass_thru())
+
+
+def test_int_and_str_sets_generalize():
+    s = set(range(5))
+    s.add('a')
+    s.add(2 ** 70)
+    s.add(5.0)
+    assert s == {0, 1, 2, 3, 4, 5, 'a', 2 ** 70}
+    assert 1.0 in s and True in s and 'a' in s and 'b' not in s
+    s.remove(True)
+    assert 1 not in s
+
+    s = set('abc')
+    s.add(1)
+    assert s == {'a', 'b', 'c', 1}
+    s.discard('a')
+    assert s == {'b', 'c', 1}
+
+    s = set(range(1000))
+    s.update(range(500, 1500))
+    assert len(s) == 1500
+    s.difference_update(range(0, 1500, 2))
+    assert s == set(range(1, 1500, 2))
+    s.difference_update(s)
+    assert s == set()
@@ -0,0 +1,125 @@
+# Copyright (c) 2018, Oracle and/or its affiliates.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or data
+# (collectively the "Software"), free of charge and under any and all copyright
+# rights in the Software, and any and all patent rights owned or freely
+# licensable by each licensor hereunder covering either (i) the unmodified
+# Software as contributed to or provided by such licensor, or (ii) the Larger
+# Works (as defined below), to deal in both
+#
+# (a) the Software, and
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+#     one is included with the Software (each a "Larger Work" to which the
+#     Software is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+
+import array
+import struct
+
+
+def assert_raises(err, fn, *args, **kwargs):
+    raised = False
+    try:
+        fn(*args, **kwargs)
+    except err:
+        raised = True
+    assert raised
+
+
+def test_calcsize():
+    assert struct.calcsize("<i") == 4
+    assert struct.calcsize("<bhiq") == 15
+    assert struct.calcsize("@bi") == 8
+    assert struct.calcsize("=bi") == 5
+    assert struct.calcsize("<3s2xd") == 13
+    assert struct.calcsize("") == 0
+    assert_raises(struct.error, struct.calcsize, "y")
+    assert_raises(struct.error, struct.calcsize, "<n")
+    assert_raises(struct.error, struct.calcsize, "12")
+
+
+def test_pack_unpack():
+    data = struct.pack(">hIq?c", -2, 4000000000, -(2 ** 62), True, b"x")
+    assert data == b"\xff\xfe\xee\x6b\x28\x00\xc0\x00\x00\x00\x00\x00\x00\x00\x01x"
+    assert struct.unpack(">hIq?c", data) == (-2, 4000000000, -(2 ** 62), True, b"x")
+    assert struct.unpack("<Q", b"\xff" * 8) == (2 ** 64 - 1,)
+    assert struct.unpack("<l", b"\xff\xff\xff\xff") == (-1,)
+    assert struct.unpack("<d", struct.pack("<d", 1.5)) == (1.5,)
+    assert struct.unpack("<f", struct.pack("<f", 0.25)) == (0.25,)
+    assert struct.pack("4s", b"ab") == b"ab\x00\x00"
+    assert struct.unpack("3s", b"abc") == (b"abc",)
+    assert struct.pack("5p", b"abcdefg") == b"\x04abcd"
+    assert struct.unpack("5p", b"\x02abcd") == (b"ab",)
+    assert struct.unpack("<2h", bytearray(b"\x01\x00\x02\x00")) == (1, 2)
+
+
+def test_errors():
+    assert_raises(struct.error, struct.pack, "<b", 128)
+    assert_raises(struct.error, struct.pack, "<H", -1)
+    assert_raises(struct.error, struct.pack, "<i", "x")
+    assert_raises(struct.error, struct.pack, "<d", "x")
+    assert_raises(struct.error, struct.pack, "<ii", 1)
+    assert_raises(struct.error, struct.unpack, "<i", b"abc")
+    assert_raises(TypeError, struct.unpack, "<i", "abcd")
+
+
+def test_struct_object():
+    s = struct.Struct("<ih")
+    assert s.size == 6
+    assert s.format == "<ih"
+    assert s.pack(1, 2) == b"\x01\x00\x00\x00\x02\x00"
+    assert s.unpack(b"\x01\x00\x00\x00\x02\x00") == (1, 2)
+    assert struct.Struct(b"<i").size == 4
+
+
+def test_buffers():
+    buf = bytearray(10)
+    struct.pack_into("<h", buf, 2, 0x1234)
+    assert buf[2:4] == bytearray(b"\x34\x12")
+    struct.pack_into("<h", buf, -2, 1)
+    assert buf[8:] == bytearray(b"\x01\x00")
+    assert struct.unpack_from("<h", buf, 2) == (0x1234,)
+    assert struct.unpack_from("<h", buf, offset=-2) == (1,)
+    assert_raises(struct.error, struct.unpack_from, "<q", buf, 4)
+    assert_raises(TypeError, struct.pack_into, "<h", b"abcd", 0, 1)
+
+    m = memoryview(buf)[2:6]
+    assert struct.unpack("<hh", m) == (0x1234, 0)
+    struct.pack_into("<h", m, 2, 7)
+    assert buf[4] == 7
+
+    a = array.array("i", [1, 2, 3])
+    assert struct.unpack_from("i", a, 4) == (2,)
+
+
+def test_iter_unpack():
+    data = struct.pack("<6h", 1, 2, 3, 4, 5, 6)
+    it = struct.iter_unpack("<hh", data)
+    assert it.__length_hint__() == 3
+    assert list(it) == [(1, 2), (3, 4), (5, 6)]
+    assert list(struct.Struct("<h").iter_unpack(b"")) == []
+    assert_raises(struct.error, struct.iter_unpack, "<hh", data[:-1])
+    assert_raises(struct.error, struct.iter_unpack, "", data)
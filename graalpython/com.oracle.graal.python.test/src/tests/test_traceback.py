@@ -66,3 +66,113 @@ def test_import():
     except ImportError:
         imported = False
     assert imported
+
+
+def test_lazy_traceback_in_handler():
+    def raiser():
+        raise KeyError("x")
+
+    for i in range(3):
+        try:
+            raiser()
+        except KeyError as e:
+            if i < 2:
+                # control flow use, the traceback is never looked at
+                assert e.args == ("x", )
+            else:
+                tb = e.__traceback__
+                assert tb is not None
+                while tb.tb_next is not None:
+                    tb = tb.tb_next
+                assert tb.tb_frame.f_code.co_name == "raiser"
+
+
+def test_lazy_traceback_escaping_handler():
+    def raiser():
+        raise KeyError("x")
+
+    def catcher():
+        try:
+            raiser()
+        except KeyError as e:
+            return e
+
+    def read_later(e):
+        return frame_names(e.__traceback__)
+
+    for i in range(3):
+        # the traceback is only read after the exception escaped its handler, it must not show
+        # the frames that were live at the read
+        names = read_later(catcher())
+        assert "raiser" in names, names
+        assert "read_later" not in names, names
+
+
+def frame_names(tb):
+    names = []
+    while tb is not None:
+        names.append(tb.tb_frame.f_code.co_name)
+        tb = tb.tb_next
+    return names
+
+
+def test_lazy_traceback_read_in_callee():
+    def raiser():
+        raise ValueError("x")
+
+    def read_exc_info():
+        return frame_names(sys.exc_info()[2])
+
+    def read_attribute(e):
+        return frame_names(e.__traceback__)
+
+    for i in range(3):
+        try:
+            raiser()
+        except:
+            names = read_exc_info()
+        assert names[-2:] == ["test_lazy_traceback_read_in_callee", "raiser"], names
+
+        try:
+            raiser()
+        except ValueError:
+            names = read_exc_info()
+        assert names[-2:] == ["test_lazy_traceback_read_in_callee", "raiser"], names
+
+        try:
+            raiser()
+        except ValueError as e:
+            names = read_attribute(e)
+        assert names[-2:] == ["test_lazy_traceback_read_in_callee", "raiser"], names
+
+
+def test_lazy_traceback_in_with_exit():
+    def raiser():
+        raise ValueError("x")
+
+    class Ignoring:
+        def __enter__(self):
+            return self
+
+        def __exit__(self, typ, value, tb):
+            return True
+
+    class Reading:
+        def __enter__(self):
+            return self
+
+        def __exit__(self, typ, value, tb):
+            self.tb = tb
+            self.names = frame_names(tb)
+            self.value = value
+            return True
+
+    for i in range(3):
+        with Ignoring():
+            raiser()
+
+        reading = Reading()
+        with reading:
+            raiser()
+        assert reading.names[-2:] == ["test_lazy_traceback_in_with_exit", "raiser"], reading.names
+        assert reading.value.__traceback__ is reading.tb
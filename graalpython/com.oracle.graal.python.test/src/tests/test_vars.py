@@ -72,3 +72,59 @@ def test_vars():
     assert_raises(TypeError, vars, 42, 42)
     assert_raises(TypeError, vars, 42)
     assert vars(C_get_vars()) == {'a': 2}
+
+
+def test_vars_instance_dict():
+    class Point:
+        def __init__(self, x, y):
+            self.x = x
+            self.y = y
+
+    p = Point(1, 2)
+    d = vars(p)
+    assert d is p.__dict__
+    assert list(d.items()) == [('x', 1), ('y', 2)]
+    assert list(d.values()) == [1, 2]
+    d['z'] = 3
+    assert p.z == 3
+
+    c = d.copy()
+    c[1] = 'one'
+    assert c == {'x': 1, 'y': 2, 'z': 3, 1: 'one'}
+    assert not hasattr(p, 'one')
+    assert d == {'x': 1, 'y': 2, 'z': 3}
+
+    q = Point(3, 4)
+    q.__dict__.clear()
+    assert vars(q) == {}
+    q.y = 5
+    q.x = 6
+    assert list(vars(q)) == ['y', 'x']
+    assert vars(Point(7, 8)) == {'x': 7, 'y': 8}
+
+
+def test_vars_non_str_keys():
+    class C:
+        pass
+
+    c = C()
+    c.a = 1
+    vars(c)[1] = "one"
+    vars(c).update({2: "two", "b": 3})
+    c.__dict__[(3, 4)] = "tuple"
+    assert c.a == 1 and c.b == 3
+    assert vars(c)[1] == "one"
+    assert c.__dict__[2] == "two"
+    assert 1.0 in c.__dict__
+    assert len(c.__dict__) == 5
+    assert c.__dict__ == {"a": 1, 1: "one", 2: "two", "b": 3, (3, 4): "tuple"}
+    assert dict(c.__dict__) == vars(c).copy()
+
+    c.c = 5
+    assert vars(c)["c"] == 5
+    del vars(c)[1]
+    assert 1 not in c.__dict__
+    assert c.__dict__.pop((3, 4)) == "tuple"
+    c.__dict__.clear()
+    assert vars(c) == {}
+    assert not hasattr(c, "a")
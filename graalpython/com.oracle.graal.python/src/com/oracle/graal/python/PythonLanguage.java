@@ -44,6 +44,7 @@ import com.oracle.graal.python.nodes.PNode;
 import com.oracle.graal.python.nodes.call.InvokeNode;
 import com.oracle.graal.python.nodes.control.TopLevelExceptionHandler;
 import com.oracle.graal.python.nodes.statement.ImportNode;
+import com.oracle.graal.python.parser.ImportPreParser;
 import com.oracle.graal.python.parser.PythonParserImpl;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonCore;
@@ -83,8 +84,10 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
     public static final String MIME_TYPE = "application/x-python";
     public static final String EXTENSION = ".py";
 
-    @CompilationFinal private PythonCore sharedCore;
+    @CompilationFinal private volatile PythonCore sharedCore;
+    private final Object sharedCoreLock = new Object();
     private final NodeFactory nodeFactory;
+    private final ImportPreParser importPreParser = new ImportPreParser();
 
     public PythonLanguage() {
         this.nodeFactory = NodeFactory.create(this);
@@ -94,6 +97,10 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
         return nodeFactory;
     }
 
+    public ImportPreParser getImportPreParser() {
+        return importPreParser;
+    }
+
     @Override
     protected void finalizeContext(PythonContext context) {
         context.runShutdownHooks();
@@ -112,11 +119,15 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
         context.setOut(newEnv.out());
         context.setErr(newEnv.err());
         context.initialize();
+        if (newEnv.getOptions().get(PythonOptions.SharedCore)) {
+            ((Python3Core) context.getCore()).exportCInterface(context);
+        }
         return true;
     }
 
     private static void ensureSysExecutable(PythonContext context) {
-        PythonModule sys = context.getCore().lookupBuiltinModule("sys");
+        // the context's own sys, which is a copy if the core is shared
+        PythonModule sys = context.getSysModule();
         sys.setAttribute("executable", Compiler.command(new Object[]{"com.oracle.svm.core.posix.GetExecutableName"}));
     }
 
@@ -136,8 +147,13 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
     @Override
     protected PythonContext createContext(Env env) {
         ensureHomeInOptions(env);
-        if (env.getOptions().get(PythonOptions.SharedCore) && sharedCore != null) {
-            return new PythonContext(this, env, sharedCore);
+        if (env.getOptions().get(PythonOptions.SharedCore)) {
+            synchronized (sharedCoreLock) {
+                if (sharedCore == null) {
+                    sharedCore = new Python3Core(this, new PythonParserImpl());
+                }
+                return new PythonContext(this, env, sharedCore);
+            }
         } else {
             Python3Core newCore = new Python3Core(this, new PythonParserImpl());
             return new PythonContext(this, env, newCore);
@@ -222,21 +238,24 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
 
     @Override
     protected void initializeContext(PythonContext context) throws Exception {
-        Python3Core core = (Python3Core) getCore();
-        boolean fullInit = !PythonOptions.getOption(context, PythonOptions.LazyInit);
+        Python3Core core = (Python3Core) context.getCore();
         if (context.getOptions().get(PythonOptions.SharedCore)) {
-            if (sharedCore == null) {
-                sharedCore = context.getCore();
-                core.bootstrap();
-            } else {
-                fullInit = false;
+            // the first context loads the core library for all contexts of this engine, so this
+            // cannot be deferred, and the others have to wait until it is complete
+            synchronized (sharedCoreLock) {
+                if (!core.isInitialized()) {
+                    core.bootstrap();
+                    core.initialize();
+                }
             }
+            context.initialize();
+            core.exportCInterface(context);
         } else {
             core.bootstrap();
-        }
-        context.initialize();
-        if (fullInit) {
-            core.initialize();
+            context.initialize();
+            if (!PythonOptions.getOption(context, PythonOptions.LazyInit)) {
+                core.initialize();
+            }
         }
     }
 
@@ -38,8 +38,10 @@ import java.net.URI;
 import java.net.URL;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.modules.ArrayModuleBuiltins;
@@ -66,6 +68,7 @@ import com.oracle.graal.python.builtins.modules.RandomModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.SREModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.SignalModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.StringModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.StructModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.SysModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.TimeModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.TruffleCextBuiltins;
@@ -114,6 +117,7 @@ import com.oracle.graal.python.builtins.objects.list.ListBuiltins;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.mappingproxy.MappingproxyBuiltins;
 import com.oracle.graal.python.builtins.objects.memoryview.BufferBuiltins;
+import com.oracle.graal.python.builtins.objects.memoryview.MemoryViewBuiltins;
 import com.oracle.graal.python.builtins.objects.method.BuiltinMethodBuiltins;
 import com.oracle.graal.python.builtins.objects.method.MethodBuiltins;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
@@ -128,6 +132,8 @@ import com.oracle.graal.python.builtins.objects.set.FrozenSetBuiltins;
 import com.oracle.graal.python.builtins.objects.set.SetBuiltins;
 import com.oracle.graal.python.builtins.objects.slice.SliceBuiltins;
 import com.oracle.graal.python.builtins.objects.str.StringBuiltins;
+import com.oracle.graal.python.builtins.objects.struct.StructBuiltins;
+import com.oracle.graal.python.builtins.objects.struct.StructUnpackIteratorBuiltins;
 import com.oracle.graal.python.builtins.objects.traceback.TracebackBuiltins;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.builtins.objects.tuple.TupleBuiltins;
@@ -182,20 +188,26 @@ public final class Python3Core implements PythonCore {
                     "_weakref",
                     "_io",
                     "set",
-                    "itertools",
                     "base_exception",
-                    "python_cext",
-                    "_sre",
                     "_collections",
-                    "memoryview",
                     "list",
                     "_codecs",
                     "bytes",
                     "float",
+    };
+
+    /**
+     * Core library files of builtin modules that do not patch any builtin types. These are not
+     * published in {@code sys.modules} and only loaded into a context when first imported.
+     */
+    private static final Set<String> LAZY_CORE_FILES = new HashSet<>(Arrays.asList(
+                    "python_cext",
+                    "_sre",
+                    "_struct",
+                    "itertools",
                     "time",
                     "unicodedata",
-                    "_locale",
-    };
+                    "_locale"));
 
     private static final Map<String, Object> BUILTIN_CONSTANTS = new HashMap<>();
     static {
@@ -248,6 +260,9 @@ public final class Python3Core implements PythonCore {
                     new ImpModuleBuiltins(),
                     new ArrayModuleBuiltins(),
                     new ArrayBuiltins(),
+                    new StructModuleBuiltins(),
+                    new StructBuiltins(),
+                    new StructUnpackIteratorBuiltins(),
                     new TimeModuleBuiltins(),
                     new MathModuleBuiltins(),
                     new MarshalModuleBuiltins(),
@@ -275,6 +290,7 @@ public final class Python3Core implements PythonCore {
                     new LocaleModuleBuiltins(),
                     new SysModuleBuiltins(),
                     new BufferBuiltins(),
+                    new MemoryViewBuiltins(),
                     new MethodDescrBuiltins(),
                     new ClassMethodDescrBuiltins(),
                     new BuiltinMethodBuiltins(),
@@ -297,7 +313,6 @@ public final class Python3Core implements PythonCore {
     private final PythonParser parser;
 
     @CompilationFinal private boolean initialized;
-    @CompilationFinal private boolean builtinsPatchesLoaded;
 
     // used in case PythonOptions.SharedCore is false
     @CompilationFinal private PythonContext singletonContext;
@@ -371,8 +386,10 @@ public final class Python3Core implements PythonCore {
 
     @Override
     public void loadBuiltinsPatches() {
-        if (initialized && !builtinsPatchesLoaded) {
-            builtinsPatchesLoaded = true;
+        PythonContext context = getContext();
+        if (initialized && !context.builtinsPatchesLoaded()) {
+            // the patches modify the modules of the current context
+            context.setBuiltinsPatchesLoaded();
             String coreHome = PythonCore.getCoreHomeOrFail();
             loadFile(__BUILTINS_PATCHES__, coreHome);
         }
@@ -422,7 +439,8 @@ public final class Python3Core implements PythonCore {
             PTuple tuple = (PTuple) value;
             assert tuple.getAttributeNames().isEmpty();
             Object[] contents = new Object[tuple.len()];
-            PTuple newTuple = factory.createTuple(contents);
+            // keep the class, sys.version_info and friends are instances of named tuple classes
+            PTuple newTuple = factory().createTuple(tuple.getPythonClass(), contents);
             replacements.put(tuple, newTuple);
             for (int i = 0; i < tuple.len(); i++) {
                 contents[i] = duplicate(replacements, tuple.getItem(i));
@@ -439,15 +457,23 @@ public final class Python3Core implements PythonCore {
             return newList;
         }
         assert value.getClass() == PythonObject.class;
-        // TODO: not sure what to do about these
-        return value;
+        // plain instances like sys.implementation or sys.stdout get their own copy per context
+        PythonObject object = (PythonObject) value;
+        PythonObject newObject = factory().createPythonObject(object.getPythonClass());
+        replacements.put(object, newObject);
+        for (String attr : object.getAttributeNames()) {
+            newObject.setAttribute(attr, duplicate(replacements, object.getAttribute(attr)));
+        }
+        return newObject;
     }
 
     public PythonModule createSysModule(PythonContext context) {
         Map<Object, Object> replacements = new HashMap<>();
         if (context.getOptions().get(PythonOptions.SharedCore)) {
-            for (PythonModule module : builtinModules.values()) {
-                duplicate(replacements, module);
+            for (Entry<String, PythonModule> entry : builtinModules.entrySet()) {
+                if (!LAZY_CORE_FILES.contains(entry.getKey())) {
+                    duplicate(replacements, entry.getValue());
+                }
             }
         } else {
             for (PythonModule module : builtinModules.values()) {
@@ -510,6 +536,35 @@ public final class Python3Core implements PythonCore {
         return builtinModules.get(name);
     }
 
+    @Override
+    @TruffleBoundary
+    public PythonModule loadBuiltinModule(String name) {
+        PythonModule module = builtinModules.get(name);
+        if (module == null || !initialized || !LAZY_CORE_FILES.contains(name)) {
+            return module;
+        }
+        PythonContext context = getContext();
+        Map<String, PythonModule> loadedModules = context.getLoadedCoreModules();
+        PythonModule loadedModule = loadedModules.get(name);
+        if (loadedModule == null) {
+            if (context.getOptions().get(PythonOptions.SharedCore)) {
+                // other contexts must not see what the core file adds to the module
+                loadedModule = (PythonModule) duplicate(new HashMap<>(), module);
+            } else {
+                loadedModule = module;
+            }
+            // register it first, the file may (indirectly) import itself
+            loadedModules.put(name, loadedModule);
+            try {
+                loadFile(name, PythonCore.getCoreHomeOrFail(), loadedModule);
+            } catch (RuntimeException e) {
+                loadedModules.remove(name);
+                throw e;
+            }
+        }
+        return loadedModule;
+    }
+
     public PythonBuiltinClass lookupType(PythonBuiltinClassType type) {
         return builtinTypes[type.ordinal()];
     }
@@ -600,7 +655,9 @@ public final class Python3Core implements PythonCore {
         PythonModule sysModule = builtinModules.get("sys");
         PDict sysModules = (PDict) sysModule.getAttribute("modules");
         for (Entry<String, PythonModule> entry : builtinModules.entrySet()) {
-            sysModules.setItem(entry.getKey(), entry.getValue());
+            if (!LAZY_CORE_FILES.contains(entry.getKey())) {
+                sysModules.setItem(entry.getKey(), entry.getValue());
+            }
         }
     }
 
@@ -613,8 +670,13 @@ public final class Python3Core implements PythonCore {
     public void exportCInterface(PythonContext context) {
         Env env = context.getEnv();
         if (env != null) {
-            env.exportSymbol("python_cext", builtinModules.get("python_cext"));
-            env.exportSymbol("python_builtins", builtinsModule);
+            // python_cext is exported when the C API is loaded
+            if (context.isInitialized()) {
+                // a context of a shared core has its own copies of the modules
+                env.exportSymbol("python_builtins", context.getBuiltins());
+            } else {
+                env.exportSymbol("python_builtins", builtinsModule);
+            }
 
             // export all exception classes for the C API
             for (PythonErrorType errorType : PythonErrorType.values()) {
@@ -783,12 +845,16 @@ public final class Python3Core implements PythonCore {
     }
 
     private void loadFile(String s, String prefix) {
-        PythonParseResult parsedModule = getParser().parse(this, getSource(s, prefix));
         PythonModule mod = lookupBuiltinModule(s);
         if (mod == null) {
             // use an anonymous module for the side-effects
             mod = factory().createPythonModule("__anonymous__");
         }
+        loadFile(s, prefix, mod);
+    }
+
+    private void loadFile(String s, String prefix, PythonModule mod) {
+        PythonParseResult parsedModule = getParser().parse(this, getSource(s, prefix));
         CallTarget callTarget = Truffle.getRuntime().createCallTarget(parsedModule.getRootNode());
         callTarget.call(PArguments.withGlobals(mod));
     }
@@ -101,7 +101,10 @@ public enum PythonBuiltinClassType {
     PythonNativeObject(com.oracle.graal.python.builtins.objects.cext.PythonNativeObject.class, "object"),
     PythonParseResult(com.oracle.graal.python.runtime.PythonParseResult.class, "code"),
     PZip(com.oracle.graal.python.builtins.objects.iterator.PZip.class, "zip"),
-    PBuffer(com.oracle.graal.python.builtins.objects.memoryview.PBuffer.class, "buffer");
+    PBuffer(com.oracle.graal.python.builtins.objects.memoryview.PBuffer.class, "buffer"),
+    PMemoryView(com.oracle.graal.python.builtins.objects.memoryview.PMemoryView.class, "memoryview"),
+    PStruct(com.oracle.graal.python.builtins.objects.struct.PStruct.class, "Struct"),
+    PStructUnpackIterator(com.oracle.graal.python.builtins.objects.struct.PStructUnpackIterator.class, "unpack_iterator");
 
     private final Class<?> clazz;
     private final String shortName;
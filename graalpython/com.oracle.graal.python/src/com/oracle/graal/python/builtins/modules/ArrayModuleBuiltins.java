@@ -28,12 +28,15 @@ package com.oracle.graal.python.builtins.modules;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
+import java.util.Arrays;
 import java.util.List;
 
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.array.PArray;
+import com.oracle.graal.python.builtins.objects.array.PTypedArray;
+import com.oracle.graal.python.builtins.objects.bytes.PIBytesLike;
 import com.oracle.graal.python.builtins.objects.range.PRange;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
 import com.oracle.graal.python.nodes.control.GetIteratorNode;
@@ -41,9 +44,6 @@ import com.oracle.graal.python.nodes.control.GetNextNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.runtime.exception.PException;
-import com.oracle.graal.python.runtime.sequence.PSequence;
-import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
-import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
@@ -59,6 +59,10 @@ public final class ArrayModuleBuiltins extends PythonBuiltins {
         return ArrayModuleBuiltinsFactory.getFactories();
     }
 
+    public ArrayModuleBuiltins() {
+        builtinConstants.put("typecodes", PTypedArray.TYPECODES);
+    }
+
     // array.array(typecode[, initializer])
     @Builtin(name = "array", minNumOfArguments = 2, maxNumOfArguments = 3, constructsClass = PArray.class)
     @GenerateNodeFactory
@@ -66,130 +70,83 @@ public final class ArrayModuleBuiltins extends PythonBuiltins {
 
         @Specialization(guards = "noInitializer(typeCode,initializer)")
         PArray array(PythonClass cls, String typeCode, @SuppressWarnings("unused") Object initializer) {
-            /**
-             * TODO @param typeCode should be a char, not a string
-             */
-            return makeEmptyArray(cls, typeCode.charAt(0));
+            return factory().createTypedArray(cls, checkTypeCode(typeCode), new byte[0]);
         }
 
         @Specialization
         PArray arrayWithRangeInitializer(PythonClass cls, String typeCode, PRange range) {
-            if (!typeCode.equals("i")) {
-                typeError(typeCode, range);
-            }
-
-            int[] intArray = new int[range.len()];
-
+            PTypedArray array = factory().createTypedArray(cls, checkTypeCode(typeCode), new byte[0]);
             int start = range.getStart();
-            int stop = range.getStop();
             int step = range.getStep();
-
-            int index = 0;
-            for (int i = start; i < stop; i += step) {
-                intArray[index++] = i;
+            int length = range.len();
+            for (int i = 0; i < length; i++) {
+                array.append(start + i * step);
             }
-
-            return factory().createIntArray(cls, intArray);
+            return array;
         }
 
         @Specialization
-        PArray arrayWithSequenceInitializer(PythonClass cls, String typeCode, String str) {
-            if (!typeCode.equals("c")) {
-                typeError(typeCode, str);
+        PArray arrayWithStringInitializer(PythonClass cls, String typeCode, String str) {
+            char type = checkTypeCode(typeCode);
+            if (type != 'u') {
+                throw raise(TypeError, "cannot use a str to initialize an array with typecode '%s'", typeCode);
             }
-
-            return factory().createCharArray(cls, str.toCharArray());
+            PTypedArray array = factory().createTypedArray(cls, type, new byte[0]);
+            appendCodePoints(array, str);
+            return array;
         }
 
-        /**
-         * @param cls
-         */
         @Specialization
-        PArray arrayWithSequenceInitializer(PythonClass cls, String typeCode, PSequence initializer,
-                        @Cached("create()") GetIteratorNode getIterator,
-                        @Cached("create()") GetNextNode next,
-                        @Cached("createBinaryProfile()") ConditionProfile errorProfile) {
-            SequenceStorage store;
-            switch (typeCode.charAt(0)) {
-                case 'i':
-                    Object iter = getIterator.executeWith(initializer);
-                    int[] intArray = new int[initializer.len()];
-                    int i = 0;
-
-                    while (true) {
-                        Object nextValue;
-                        try {
-                            nextValue = next.execute(iter);
-                        } catch (PException e) {
-                            e.expectStopIteration(getCore(), errorProfile);
-                            break;
-                        }
-                        if (nextValue instanceof Integer) {
-                            intArray[i++] = (int) nextValue;
-                        } else {
-                            CompilerDirectives.transferToInterpreter();
-                            operandTypeError();
-                        }
-                    }
-
-                    return factory().createIntArray(cls, intArray);
-                case 'd':
-                    store = initializer.getSequenceStorage();
-                    double[] doubleArray = new double[store.length()];
-
-                    for (i = 0; i < doubleArray.length; i++) {
-                        Object val = store.getItemNormalized(i);
-                        doubleArray[i] = (double) val;
-                    }
-
-                    return factory().createDoubleArray(cls, doubleArray);
-                case 'b':
-                    store = initializer.getSequenceStorage();
-                    byte[] byteArray = new byte[store.length()];
-
-                    for (i = 0; i < byteArray.length; i++) {
-                        Object val = store.getItemNormalized(i);
-                        if (val instanceof Number) {
-                            byteArray[i] = ((Number) val).byteValue();
-                        } else {
-                            throw raise(ValueError, "byte value expected");
-                        }
-                    }
-
-                    return factory().createByteArray(cls, byteArray);
-                default:
-                    return null;
+        PArray arrayWithBytesInitializer(PythonClass cls, String typeCode, PIBytesLike bytes) {
+            char type = checkTypeCode(typeCode);
+            if (bytes.len() % PTypedArray.itemSizeFor(type) != 0) {
+                throw raise(ValueError, "bytes length not a multiple of item size");
             }
+            return factory().createTypedArray(cls, type, bytes.getBytesExact());
         }
 
         @Specialization
-        PArray arrayWithObjectInitializer(@SuppressWarnings("unused") PythonClass cls, @SuppressWarnings("unused") String typeCode, Object initializer) {
-            throw new RuntimeException("Unsupported initializer " + initializer);
+        PArray arrayWithArrayInitializer(PythonClass cls, String typeCode, PTypedArray initializer) {
+            char type = checkTypeCode(typeCode);
+            if (type == initializer.getTypeCode()) {
+                return factory().createTypedArray(cls, type, Arrays.copyOf(initializer.getInternalByteArray(), initializer.getByteLength()));
+            }
+            PTypedArray array = factory().createTypedArray(cls, type, new byte[0]);
+            for (int i = 0; i < initializer.len(); i++) {
+                array.append(initializer.getItemNormalized(i));
+            }
+            return array;
         }
 
-        private PArray makeEmptyArray(PythonClass cls, char type) {
-            switch (type) {
-                case 'c':
-                case 'b':
-                case 'B':
-                    return factory().createCharArray(cls, new char[0]);
-                case 'i':
-                    return factory().createIntArray(cls, new int[0]);
-                case 'd':
-                    return factory().createDoubleArray(cls, new double[0]);
-                default:
-                    return null;
+        @Specialization(guards = "!noInitializer(typeCode,initializer)")
+        PArray arrayWithIterableInitializer(PythonClass cls, String typeCode, Object initializer,
+                        @Cached("create()") GetIteratorNode getIterator,
+                        @Cached("create()") GetNextNode next,
+                        @Cached("createBinaryProfile()") ConditionProfile errorProfile) {
+            PTypedArray array = factory().createTypedArray(cls, checkTypeCode(typeCode), new byte[0]);
+            Object iter = getIterator.executeWith(initializer);
+            while (true) {
+                Object nextValue;
+                try {
+                    nextValue = next.execute(iter);
+                } catch (PException e) {
+                    e.expectStopIteration(getCore(), errorProfile);
+                    return array;
+                }
+                array.append(nextValue);
             }
         }
 
-        @TruffleBoundary
-        private void typeError(String typeCode, Object initializer) {
-            throw raise(TypeError, "unsupported operand type: %s %s and 'array.array'", typeCode, initializer);
+        private char checkTypeCode(String typeCode) {
+            if (typeCode.length() != 1 || PTypedArray.itemSizeFor(typeCode.charAt(0)) < 0) {
+                throw raise(ValueError, "bad typecode (must be b, B, u, h, H, i, I, l, L, q, Q, f or d)");
+            }
+            return typeCode.charAt(0);
         }
 
         @TruffleBoundary
-        private static void operandTypeError() {
-            throw new RuntimeException("Unexpected argument type for array() ");
+        private static void appendCodePoints(PTypedArray array, String str) {
+            str.codePoints().forEach(codePoint -> array.append(new String(Character.toChars(codePoint))));
         }
     }
 }
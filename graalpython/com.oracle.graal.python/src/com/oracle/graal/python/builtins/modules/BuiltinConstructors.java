@@ -35,6 +35,7 @@ import static com.oracle.graal.python.nodes.BuiltinNames.FLOAT;
 import static com.oracle.graal.python.nodes.BuiltinNames.FROZENSET;
 import static com.oracle.graal.python.nodes.BuiltinNames.INT;
 import static com.oracle.graal.python.nodes.BuiltinNames.LIST;
+import static com.oracle.graal.python.nodes.BuiltinNames.MEMORYVIEW;
 import static com.oracle.graal.python.nodes.BuiltinNames.MODULE;
 import static com.oracle.graal.python.nodes.BuiltinNames.OBJECT;
 import static com.oracle.graal.python.nodes.BuiltinNames.RANGE;
@@ -64,11 +65,13 @@ import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PEllipsis;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.array.PTypedArray;
 import com.oracle.graal.python.builtins.objects.bytes.BytesUtils;
 import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PIBytesLike;
 import com.oracle.graal.python.builtins.objects.cell.PCell;
+import com.oracle.graal.python.builtins.objects.cext.PythonNativeObject;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes;
 import com.oracle.graal.python.builtins.objects.complex.PComplex;
@@ -105,6 +108,7 @@ import com.oracle.graal.python.builtins.objects.iterator.PZip;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.mappingproxy.PMappingproxy;
 import com.oracle.graal.python.builtins.objects.memoryview.PBuffer;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
 import com.oracle.graal.python.builtins.objects.method.PBuiltinMethod;
 import com.oracle.graal.python.builtins.objects.method.PMethod;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
@@ -124,11 +128,13 @@ import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
 import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.argument.CreateArgumentsNode;
+import com.oracle.graal.python.nodes.attributes.GetAttributeNode;
 import com.oracle.graal.python.nodes.attributes.LookupInheritedAttributeNode;
 import com.oracle.graal.python.nodes.attributes.WriteAttributeToObjectNode;
 import com.oracle.graal.python.nodes.builtins.ListNodes.ConstructListNode;
 import com.oracle.graal.python.nodes.builtins.TupleNodes;
 import com.oracle.graal.python.nodes.call.CallDispatchNode;
+import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.nodes.call.special.CallUnaryMethodNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallTernaryNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
@@ -138,6 +144,7 @@ import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonVarargsBuiltinNode;
 import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.statement.ImportNode;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.runtime.JavaTypeConversions;
 import com.oracle.graal.python.runtime.PythonParseResult;
@@ -153,6 +160,7 @@ import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.dsl.TypeSystemReference;
+import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.UnexpectedResultException;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
@@ -1523,6 +1531,55 @@ public final class BuiltinConstructors extends PythonBuiltins {
         }
     }
 
+    // memoryview(object)
+    @Builtin(name = MEMORYVIEW, fixedNumOfArguments = 2, constructsClass = PMemoryView.class)
+    @GenerateNodeFactory
+    public abstract static class MemoryViewNode extends PythonBuiltinNode {
+
+        @Specialization
+        PMemoryView doBytes(PythonClass cls, PBytes obj) {
+            return factory().createMemoryView(cls, obj, true, 'B', 1, 0, obj.len(), 1, null);
+        }
+
+        @Specialization
+        PMemoryView doByteArray(PythonClass cls, PByteArray obj) {
+            return factory().createMemoryView(cls, obj, false, 'B', 1, 0, obj.len(), 1, null);
+        }
+
+        @Specialization
+        PMemoryView doTypedArray(PythonClass cls, PTypedArray obj) {
+            return factory().createMemoryView(cls, obj, false, obj.getTypeCode(), obj.getItemSize(), 0, obj.len(), obj.getItemSize(), null);
+        }
+
+        @Specialization
+        PMemoryView doMemoryView(PythonClass cls, PMemoryView obj) {
+            obj.checkReleased();
+            return obj.copy(factory(), cls);
+        }
+
+        /**
+         * Native exporters implement the buffer protocol in C, so their views are created by the C
+         * implementation in the {@code _memoryview} module.
+         */
+        @Specialization
+        Object doNative(VirtualFrame frame, @SuppressWarnings("unused") PythonClass cls, PythonNativeObject obj,
+                        @Cached("createImportMemoryView()") ImportNode importNode,
+                        @Cached("create()") GetAttributeNode getMemoryViewNode,
+                        @Cached("create()") CallNode callNode) {
+            Object nativeMemoryView = getMemoryViewNode.execute(importNode.execute(frame), "memoryview");
+            return callNode.execute(nativeMemoryView, new Object[]{obj}, PKeyword.EMPTY_KEYWORDS);
+        }
+
+        protected static ImportNode createImportMemoryView() {
+            return new ImportNode("_memoryview");
+        }
+
+        @Fallback
+        PMemoryView doGeneric(@SuppressWarnings("unused") Object cls, Object obj) {
+            throw raise(TypeError, "memoryview: a bytes-like object is required, not '%p'", obj);
+        }
+    }
+
     // method_descriptor
     @Builtin(name = "method_descriptor", constructsClass = PMethodDescriptor.class)
     @GenerateNodeFactory
@@ -41,6 +41,7 @@ package com.oracle.graal.python.builtins.modules;
 import static com.oracle.graal.python.nodes.SpecialAttributeNames.__FILE__;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ImportError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.NotImplementedError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
 
 import java.io.IOException;
 import java.net.URI;
@@ -53,16 +54,20 @@ import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PythonAbstractObject;
 import com.oracle.graal.python.builtins.objects.cext.CExtNodes.AsPythonObjectNode;
+import com.oracle.graal.python.builtins.objects.cext.NativeWrappers.PythonObjectNativeWrapper;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes.SetItemNode;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
 import com.oracle.graal.python.nodes.call.special.CallUnaryMethodNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.runtime.ModulePathCache.Match;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.PythonParseResult;
 import com.oracle.graal.python.runtime.exception.PException;
@@ -137,6 +142,7 @@ public class ImpModuleBuiltins extends PythonBuiltins {
     @ImportStatic(Message.class)
     public abstract static class CreateDynamic extends PythonBuiltinNode {
         protected static final String INITIALIZE_CAPI = "initialize_capi";
+        protected static final String ERROR_HANDLER = "error_handler";
         private static final String LLVM_LANGUAGE = "llvm";
         @Child private SetItemNode setItemNode;
 
@@ -209,6 +215,9 @@ public class ImpModuleBuiltins extends PythonBuiltins {
             if (!getContext().capiWasLoaded()) {
                 Env env = getContext().getEnv();
                 CompilerDirectives.transferToInterpreterAndInvalidate();
+                // the C API module is only loaded once it is needed
+                PythonModule cext = getCore().loadBuiltinModule("python_cext");
+                env.exportSymbol("python_cext", cext);
                 TruffleFile capiFile = env.getTruffleFile(PythonCore.getCoreHome(env) + PythonCore.FILE_SEPARATOR + "capi.bc");
                 Object capi = null;
                 try {
@@ -219,8 +228,8 @@ public class ImpModuleBuiltins extends PythonBuiltins {
                 // call into Python to initialize python_cext module globals
                 ReadAttributeFromObjectNode readNode = ReadAttributeFromObjectNode.create();
                 CallUnaryMethodNode callNode = CallUnaryMethodNode.create();
-                callNode.executeObject(readNode.execute(getContext().getCore().lookupBuiltinModule("python_cext"), INITIALIZE_CAPI), capi);
-                getContext().setCapiWasLoaded();
+                callNode.executeObject(readNode.execute(cext, INITIALIZE_CAPI), capi);
+                getContext().setCapiWasLoaded(PythonObjectNativeWrapper.wrap((PythonAbstractObject) readNode.execute(cext, ERROR_HANDLER)));
             }
         }
 
@@ -289,7 +298,7 @@ public class ImpModuleBuiltins extends PythonBuiltins {
             if ("built-in".equals(origin)) {
                 for (String bm : getCore().builtinModuleNames()) {
                     if (bm.equals(name)) {
-                        return getCore().lookupBuiltinModule(bm);
+                        return getCore().loadBuiltinModule(bm);
                     }
                 }
             }
@@ -297,6 +306,41 @@ public class ImpModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "_truffle_find_in_path_entry", fixedNumOfArguments = 3)
+    @GenerateNodeFactory
+    public abstract static class FindInPathEntryNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        public Object run(String path, String name, PTuple suffixes) {
+            Object[] items = suffixes.getArray();
+            String[] suffixStrings = new String[items.length];
+            for (int i = 0; i < items.length; i++) {
+                if (!(items[i] instanceof String)) {
+                    throw raise(TypeError, "file suffixes must be strings");
+                }
+                suffixStrings[i] = (String) items[i];
+            }
+            Match match = getContext().getModulePathCache().find(getContext().getEnv(), path, name, suffixStrings);
+            if (match == null) {
+                return PNone.NONE;
+            }
+            return factory().createTuple(new Object[]{
+                            match.filePath == null ? PNone.NONE : match.filePath,
+                            match.suffixIndex,
+                            match.packagePath == null ? PNone.NONE : match.packagePath});
+        }
+    }
+
+    @Builtin(name = "_truffle_invalidate_path_entry", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class InvalidatePathEntryNode extends PythonBuiltinNode {
+        @Specialization
+        public Object run(String path) {
+            getContext().getModulePathCache().invalidate(path);
+            return PNone.NONE;
+        }
+    }
+
     @Builtin(name = "_truffle_bootstrap_file_into_module", fixedNumOfArguments = 2)
     @GenerateNodeFactory
     public abstract static class TruffleImportStar extends PythonBuiltinNode {
@@ -68,6 +68,7 @@ import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.modules.PosixModuleBuiltinsFactory.ConvertPathlikeObjectNodeGen;
 import com.oracle.graal.python.builtins.modules.PosixModuleBuiltinsFactory.StatNodeFactory;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.array.PTypedArray;
 import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
@@ -776,6 +777,23 @@ public class PosixModuleBuiltins extends PythonBuiltins {
             return writeStd(fd, data.getBytesExact());
         }
 
+        @Specialization(guards = "fd == 0 || fd > 2")
+        @TruffleBoundary
+        Object write(int fd, PTypedArray data) {
+            // hand the array's own buffer to the channel; there is no need for a copy
+            try {
+                return getFileChannel(fd).write(ByteBuffer.wrap(data.getInternalByteArray(), 0, data.getByteLength()));
+            } catch (NonWritableChannelException | IOException e) {
+                throw raise(OSError, e.getMessage());
+            }
+        }
+
+        @Specialization(guards = {"fd <= 2", "fd > 0"})
+        @TruffleBoundary
+        Object writeStd(int fd, PTypedArray data) {
+            return writeStd(fd, Arrays.copyOf(data.getInternalByteArray(), data.getByteLength()));
+        }
+
         @Specialization
         Object writePInt(PInt fd, Object data,
                         @Cached("create()") WriteNode recursive) {
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.StructModuleBuiltinsFactory.GetStructFormatNodeGen;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.struct.PStruct;
+import com.oracle.graal.python.builtins.objects.struct.PStructUnpackIterator;
+import com.oracle.graal.python.builtins.objects.struct.StructBuiltins;
+import com.oracle.graal.python.builtins.objects.struct.StructFormat;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.graal.python.nodes.PBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+@CoreFunctions(defineModule = "_struct")
+public final class StructModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return StructModuleBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Compiles a format string. Call sites that always use the same format string, which is the
+     * common case, keep the compiled format and skip the cache lookup.
+     */
+    abstract static class GetStructFormatNode extends PBaseNode {
+
+        public abstract StructFormat execute(Object format);
+
+        @Specialization(guards = "cachedFormat.equals(format)", limit = "3")
+        StructFormat doCached(@SuppressWarnings("unused") String format,
+                        @SuppressWarnings("unused") @Cached("format") String cachedFormat,
+                        @Cached("get(cachedFormat)") StructFormat structFormat) {
+            return structFormat;
+        }
+
+        @Specialization(replaces = "doCached")
+        StructFormat doString(String format) {
+            return StructFormat.get(format);
+        }
+
+        @Specialization
+        StructFormat doPString(PString format) {
+            return StructFormat.get(format.getValue());
+        }
+
+        @Specialization
+        StructFormat doBytes(PBytes format) {
+            return StructFormat.get(decode(format));
+        }
+
+        @Fallback
+        StructFormat doGeneric(Object format) {
+            throw raise(TypeError, "Struct() argument 1 must be a str or bytes object, not %p", format);
+        }
+
+        protected static StructFormat get(String format) {
+            return StructFormat.get(format);
+        }
+
+        @TruffleBoundary
+        private static String decode(PBytes format) {
+            return new String(format.getBytesExact(), StandardCharsets.US_ASCII);
+        }
+
+        public static GetStructFormatNode create() {
+            return GetStructFormatNodeGen.create();
+        }
+    }
+
+    // _struct.Struct(format)
+    @Builtin(name = "Struct", fixedNumOfArguments = 2, constructsClass = PStruct.class)
+    @GenerateNodeFactory
+    abstract static class StructNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PStruct construct(PythonClass cls, Object format,
+                        @Cached("create()") GetStructFormatNode getFormat) {
+            return factory().createStruct(cls, getFormat.execute(format));
+        }
+    }
+
+    @Builtin(name = "unpack_iterator", takesVariableArguments = true, takesVariableKeywords = true, constructsClass = PStructUnpackIterator.class, isPublic = false)
+    @GenerateNodeFactory
+    abstract static class UnpackIteratorTypeNode extends PythonBuiltinNode {
+        @SuppressWarnings("unused")
+        @Specialization
+        Object iterator(Object args, Object kwargs) {
+            throw raise(TypeError, "cannot create 'unpack_iterator' instances");
+        }
+    }
+
+    // _struct.calcsize(format)
+    @Builtin(name = "calcsize", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class CalcSizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        int calcsize(Object format,
+                        @Cached("create()") GetStructFormatNode getFormat) {
+            return getFormat.execute(format).getSize();
+        }
+    }
+
+    // _struct.pack(format, v1, v2, ...)
+    @Builtin(name = "pack", minNumOfArguments = 1, takesVariableArguments = true)
+    @GenerateNodeFactory
+    abstract static class PackNode extends PythonBuiltinNode {
+        @Specialization
+        PBytes pack(Object format, Object[] args,
+                        @Cached("create()") GetStructFormatNode getFormat) {
+            return factory().createBytes(getFormat.execute(format).pack(args));
+        }
+    }
+
+    // _struct.pack_into(format, buffer, offset, v1, v2, ...)
+    @Builtin(name = "pack_into", minNumOfArguments = 3, takesVariableArguments = true)
+    @GenerateNodeFactory
+    abstract static class PackIntoNode extends PythonBuiltinNode {
+        @Specialization
+        PNone packInto(Object format, Object buffer, Object offset, Object[] args,
+                        @Cached("create()") GetStructFormatNode getFormat) {
+            getFormat.execute(format).packInto(buffer, StructBuiltins.toOffset(offset), args);
+            return PNone.NONE;
+        }
+    }
+
+    // _struct.unpack(format, buffer)
+    @Builtin(name = "unpack", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class UnpackNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTuple unpack(Object format, Object buffer,
+                        @Cached("create()") GetStructFormatNode getFormat) {
+            return factory().createTuple(getFormat.execute(format).unpack(buffer));
+        }
+    }
+
+    // _struct.unpack_from(format, buffer, offset=0)
+    @Builtin(name = "unpack_from", fixedNumOfArguments = 2, keywordArguments = {"offset"})
+    @GenerateNodeFactory
+    abstract static class UnpackFromNode extends PythonBuiltinNode {
+        @Specialization
+        PTuple unpackFrom(Object format, Object buffer, @SuppressWarnings("unused") PNone offset,
+                        @Cached("create()") GetStructFormatNode getFormat) {
+            return factory().createTuple(getFormat.execute(format).unpackFrom(buffer, 0));
+        }
+
+        @Specialization(guards = "!isNoValue(offset)")
+        PTuple unpackFrom(Object format, Object buffer, Object offset,
+                        @Cached("create()") GetStructFormatNode getFormat) {
+            return factory().createTuple(getFormat.execute(format).unpackFrom(buffer, StructBuiltins.toOffset(offset)));
+        }
+    }
+
+    // _struct.iter_unpack(format, buffer)
+    @Builtin(name = "iter_unpack", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class IterUnpackNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PStructUnpackIterator iterUnpack(Object format, Object buffer,
+                        @Cached("create()") GetStructFormatNode getFormat) {
+            StructFormat structFormat = getFormat.execute(format);
+            return factory().createStructUnpackIterator(structFormat, buffer, structFormat.getRecordCount(buffer));
+        }
+    }
+
+    // _struct._clearcache()
+    @Builtin(name = "_clearcache", fixedNumOfArguments = 0)
+    @GenerateNodeFactory
+    abstract static class ClearCacheNode extends PythonBuiltinNode {
+        @Specialization
+        PNone clearCache() {
+            StructFormat.clearCache();
+            return PNone.NONE;
+        }
+    }
+}
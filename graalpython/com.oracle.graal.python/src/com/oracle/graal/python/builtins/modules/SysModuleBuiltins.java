@@ -38,8 +38,6 @@
  */
 package com.oracle.graal.python.builtins.modules;
 
-import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
-
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.nio.ByteOrder;
@@ -52,6 +50,7 @@ import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.frame.PFrame;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
@@ -60,17 +59,12 @@ import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
-import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.Truffle;
-import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.TruffleOptions;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.frame.VirtualFrame;
-import com.oracle.truffle.api.nodes.DirectCallNode;
-import com.oracle.truffle.api.nodes.RootNode;
 
 @CoreFunctions(defineModule = "sys")
 public class SysModuleBuiltins extends PythonBuiltins {
@@ -201,55 +195,25 @@ public class SysModuleBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public static abstract class GetFrameNode extends PythonBuiltinNode {
 
-        @Child private DirectCallNode call;
-
         @Specialization
         Object first(@SuppressWarnings("unused") PNone arg) {
             return counted(0);
         }
 
         /*
-         * This is necessary for the time being to be compatible with the old TruffleException
-         * behavior. (it only captures the frames if a CallTarget boundary is crossed)
+         * The frames are found by walking the stack with read-only access, so neither the caller
+         * nor any other function on the stack is asked to materialize or pass its frame. The PFrame
+         * object is only created for the requested frame; older frames are only reified if Python
+         * code follows f_back.
          */
-        private static final class GetStackTraceRootNode extends RootNode {
-
-            protected GetStackTraceRootNode(TruffleLanguage<?> language) {
-                super(language);
-            }
-
-            @Override
-            public Object execute(VirtualFrame frame) {
-                CompilerDirectives.transferToInterpreter();
-                throw PythonLanguage.getCore().raise(ValueError);
-            }
-
-            @Override
-            public boolean isCaptureFramesForTrace() {
-                return true;
-            }
-        }
-
         @Specialization
         @TruffleBoundary
         Object counted(int num) {
-            if (call == null) {
-                CompilerDirectives.transferToInterpreterAndInvalidate();
-                GetStackTraceRootNode rootNode = new GetStackTraceRootNode(getRootNode().getLanguage(PythonLanguage.class));
-                call = insert(Truffle.getRuntime().createDirectCallNode(Truffle.getRuntime().createCallTarget(rootNode)));
-            }
-            int actual = num + 1; // skip dummy frame
-            try {
-                call.call(new Object[0]);
-                throw raise(PythonErrorType.SystemError, "should not reach here");
-            } catch (PException e) {
-                PBaseException exception = e.getExceptionObject();
-                exception.reifyException();
-                if (actual >= exception.getStackTrace().size()) {
-                    throw raiseCallStackDepth();
-                }
-                return exception.getPFrame(factory(), Math.max(0, actual));
+            PFrame.Reference reference = PFrame.Reference.capture(Math.max(0, num));
+            if (reference == null) {
+                throw raiseCallStackDepth();
             }
+            return reference.getPFrame(factory());
         }
 
         @Specialization(rewriteOn = ArithmeticException.class)
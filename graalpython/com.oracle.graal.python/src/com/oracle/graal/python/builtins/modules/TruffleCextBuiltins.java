@@ -49,6 +49,7 @@ import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.oracle.graal.python.PythonLanguage;
@@ -59,6 +60,7 @@ import com.oracle.graal.python.builtins.modules.TruffleCextBuiltinsFactory.GetBy
 import com.oracle.graal.python.builtins.modules.TruffleCextBuiltinsFactory.PNativeToPTypeNodeGen;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PythonAbstractObject;
+import com.oracle.graal.python.builtins.objects.array.PTypedArray;
 import com.oracle.graal.python.builtins.objects.bytes.BytesBuiltins;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.cext.CArrayWrappers.CByteArrayWrapper;
@@ -69,6 +71,8 @@ import com.oracle.graal.python.builtins.objects.cext.NativeWrappers.PythonNative
 import com.oracle.graal.python.builtins.objects.cext.NativeWrappers.PythonObjectNativeWrapper;
 import com.oracle.graal.python.builtins.objects.cext.PythonNativeClass;
 import com.oracle.graal.python.builtins.objects.cext.UnicodeObjectNodes.UnicodeAsWideCharNode;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes;
 import com.oracle.graal.python.builtins.objects.complex.PComplex;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
@@ -77,6 +81,7 @@ import com.oracle.graal.python.builtins.objects.floats.PFloat;
 import com.oracle.graal.python.builtins.objects.function.Arity;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.slice.PSlice;
 import com.oracle.graal.python.builtins.objects.slice.PSlice.SliceInfo;
 import com.oracle.graal.python.builtins.objects.str.PString;
@@ -103,6 +108,7 @@ import com.oracle.graal.python.runtime.exception.ExceptionUtils;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.SetSequenceStorageItem;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -750,6 +756,194 @@ public class TruffleCextBuiltins extends PythonBuiltins {
         }
     }
 
+    /**
+     * Base class for C API functions that are called directly from C through a function pointer
+     * resolved once at C API initialization (see {@code initialize_upcall_functions} in
+     * {@code capi.c}). Such calls bypass the {@code PyTruffle_Cext_Upcall} landing function, so
+     * arguments arrive in their Sulong representation and results must be converted back here.
+     */
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    abstract static class NativeEntryPoint extends NativeBuiltin {
+        @Child private CExtNodes.AsPythonObjectNode asPythonObjectNode;
+        @Child private CExtNodes.ToSulongNode toSulongNode;
+
+        protected Object asPythonObject(Object o) {
+            if (asPythonObjectNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                asPythonObjectNode = insert(CExtNodes.AsPythonObjectNode.create());
+            }
+            return asPythonObjectNode.execute(o);
+        }
+
+        protected Object toSulong(Object o) {
+            if (toSulongNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                toSulongNode = insert(CExtNodes.ToSulongNode.create());
+            }
+            return toSulongNode.execute(o);
+        }
+
+        /**
+         * The value that C code interprets as {@code NULL} (i.e. {@code ERROR_MARKER}).
+         */
+        protected Object getNativeNull() {
+            return getContext().getNativeNull();
+        }
+
+        protected Object raiseNativeNull(PythonErrorType errType, String fmt, Object... args) {
+            return raiseNative(getNativeNull(), errType, fmt, args);
+        }
+
+        protected <T> T raiseBadInternalCall(T defaultValue, Object obj) {
+            return raiseNative(defaultValue, SystemError, "bad argument to internal function, was '%s' (type '%p')", obj, obj);
+        }
+    }
+
+    @Builtin(name = "PyTuple_GetItem", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class PyTuple_GetItem extends NativeEntryPoint {
+        @Specialization
+        Object doGeneric(Object tupleObj, long position) {
+            Object tuple = asPythonObject(tupleObj);
+            if (!(tuple instanceof PTuple)) {
+                return raiseBadInternalCall(getNativeNull(), tuple);
+            }
+            Object[] store = ((PTuple) tuple).getArray();
+            if (position < 0 || position >= store.length) {
+                return raiseNativeNull(PythonErrorType.IndexError, "tuple index out of range");
+            }
+            return toSulong(store[(int) position]);
+        }
+    }
+
+    @Builtin(name = "PyList_GetItem", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class PyList_GetItem extends NativeEntryPoint {
+        @Specialization
+        Object doGeneric(Object listObj, long position) {
+            Object list = asPythonObject(listObj);
+            if (!(list instanceof PList)) {
+                return raiseBadInternalCall(getNativeNull(), list);
+            }
+            PList pList = (PList) list;
+            if (position < 0 || position >= pList.len()) {
+                return raiseNativeNull(PythonErrorType.IndexError, "list index out of range");
+            }
+            return toSulong(pList.getItem((int) position));
+        }
+    }
+
+    @Builtin(name = "PyList_SetItem", fixedNumOfArguments = 3)
+    @GenerateNodeFactory
+    abstract static class PyList_SetItem extends NativeEntryPoint {
+        @Specialization
+        int doGeneric(Object listObj, long position, Object element,
+                        @Cached("create()") SetSequenceStorageItem setItemNode) {
+            Object list = asPythonObject(listObj);
+            if (!(list instanceof PList)) {
+                return raiseBadInternalCall(-1, list);
+            }
+            PList pList = (PList) list;
+            if (position < 0 || position >= pList.len()) {
+                return raiseNative(-1, PythonErrorType.IndexError, "list assignment index out of range");
+            }
+            // goes through the node so that typed storages are generalized for foreign values
+            setItemNode.setItem(pList, (int) position, asPythonObject(element));
+            return 0;
+        }
+    }
+
+    @Builtin(name = "PyDict_GetItem", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class PyDict_GetItem extends NativeEntryPoint {
+        @Specialization
+        Object doGeneric(Object dictObj, Object keyObj,
+                        @Cached("create()") HashingStorageNodes.GetItemNode getItemNode) {
+            Object dict = asPythonObject(dictObj);
+            if (!(dict instanceof PDict)) {
+                // like CPython, a non-dict argument is not an error here
+                return getNativeNull();
+            }
+            Object value;
+            try {
+                value = getItemNode.execute(((PDict) dict).getDictStorage(), asPythonObject(keyObj));
+            } catch (PException e) {
+                // like CPython, errors while hashing or comparing the key are suppressed
+                return getNativeNull();
+            }
+            return value == null ? getNativeNull() : toSulong(value);
+        }
+    }
+
+    /**
+     * Returns the {@code pos}-th entry of the dict as a {@code (key, value)} tuple, or the error
+     * marker if there are no more entries.
+     */
+    @Builtin(name = "PyDict_Next", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class PyDict_Next extends NativeEntryPoint {
+        @Specialization
+        Object doGeneric(Object dictObj, long pos) {
+            Object dict = asPythonObject(dictObj);
+            if (!(dict instanceof PDict)) {
+                return getNativeNull();
+            }
+            HashingStorage storage = ((PDict) dict).getDictStorage();
+            if (pos < 0 || pos >= storage.length()) {
+                return getNativeNull();
+            }
+            DictEntry entry = getEntry(storage, pos);
+            if (entry == null) {
+                return getNativeNull();
+            }
+            return toSulong(factory().createTuple(new Object[]{entry.getKey(), entry.getValue()}));
+        }
+
+        @TruffleBoundary
+        private static DictEntry getEntry(HashingStorage storage, long pos) {
+            long i = 0;
+            for (DictEntry entry : storage.entries()) {
+                if (i++ == pos) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+    }
+
+    @Builtin(name = "PyLong_AsPrimitive", fixedNumOfArguments = 4)
+    @GenerateNodeFactory
+    abstract static class PyLong_AsPrimitive extends NativeEntryPoint {
+        @Child private TrufflePInt_AsPrimitive asPrimitiveNode;
+        @Child private LookupAndCallUnaryNode callIntNode;
+
+        @Specialization
+        Object doGeneric(Object objPtr, int signed, long targetTypeSize, Object targetTypeName) {
+            Object obj = asPythonObject(objPtr);
+            if (!(obj instanceof Integer || obj instanceof Long || obj instanceof PInt)) {
+                Object original = obj;
+                if (callIntNode == null) {
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
+                    callIntNode = insert(LookupAndCallUnaryNode.create(SpecialMethodNames.__INT__));
+                }
+                try {
+                    obj = callIntNode.executeObject(obj);
+                } catch (PException e) {
+                    transformToNative(e);
+                    return -1;
+                }
+                if (obj == PNone.NO_VALUE) {
+                    return raiseNative(-1, PythonErrorType.TypeError, "an integer is required (got type %p)", original);
+                }
+            }
+            if (asPrimitiveNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                asPrimitiveNode = insert(TruffleCextBuiltinsFactory.TrufflePInt_AsPrimitiveFactory.create(null));
+            }
+            return asPrimitiveNode.executeWith(obj, signed, targetTypeSize, asPythonObject(targetTypeName));
+        }
+    }
+
     abstract static class NativeUnicodeBuiltin extends NativeBuiltin {
         private static final int NATIVE_ORDER = 0;
         private static Charset UTF32;
@@ -792,6 +986,8 @@ public class TruffleCextBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class TrufflePInt_AsPrimitive extends NativeBuiltin {
 
+        abstract Object executeWith(Object obj, Object signed, Object targetTypeSize, Object targetTypeName);
+
         @Specialization(guards = "targetTypeSize == 4")
         int doInt4(int obj, @SuppressWarnings("unused") int signed, @SuppressWarnings("unused") long targetTypeSize, @SuppressWarnings("unused") String targetTypeName) {
             return obj;
@@ -931,6 +1127,10 @@ public class TruffleCextBuiltins extends PythonBuiltins {
 
         @Specialization(guards = "isNoValue(errors)")
         Object doUnicode(PString s, @SuppressWarnings("unused") PNone errors, Object error_marker) {
+            return doStrict(s, error_marker);
+        }
+
+        protected Object doStrict(PString s, Object error_marker) {
             return doUnicode(s, "strict", error_marker);
         }
 
@@ -969,6 +1169,24 @@ public class TruffleCextBuiltins extends PythonBuiltins {
         protected _PyUnicode_AsUTF8String() {
             super(StandardCharsets.UTF_8);
         }
+
+        /*
+         * Strings are immutable, so (like CPython) we remember the strict UTF-8 encoding on the
+         * string. Repeated 'PyUnicode_AsUTF8' calls then also reuse the native copy of the bytes.
+         */
+        @Override
+        protected Object doStrict(PString s, Object error_marker) {
+            PBytes cached = s.getUtf8Bytes();
+            if (cached == null) {
+                Object result = super.doStrict(s, error_marker);
+                if (!(result instanceof PBytes)) {
+                    return result;
+                }
+                cached = (PBytes) result;
+                s.setUtf8Bytes(cached);
+            }
+            return cached;
+        }
     }
 
     @Builtin(name = "_PyTruffle_Unicode_AsLatin1String", fixedNumOfArguments = 3)
@@ -1130,7 +1348,20 @@ public class TruffleCextBuiltins extends PythonBuiltins {
     abstract static class PyTruffle_Bytes_AsString extends NativeBuiltin {
         @Specialization
         Object doBytes(PBytes bytes, @SuppressWarnings("unused") Object errorMarker) {
-            return new CByteArrayWrapper(bytes.getInternalByteArray());
+            // reuse the wrapper so that its native copy is only created once
+            CByteArrayWrapper wrapper = bytes.getCharPointer();
+            if (wrapper == null) {
+                wrapper = new CByteArrayWrapper(getExactByteArray(bytes));
+                bytes.setCharPointer(wrapper);
+            }
+            return wrapper;
+        }
+
+        @TruffleBoundary
+        private static byte[] getExactByteArray(PBytes bytes) {
+            byte[] internal = bytes.getInternalByteArray();
+            int len = bytes.len();
+            return internal.length == len ? internal : Arrays.copyOf(internal, len);
         }
 
         @Specialization
@@ -1228,6 +1459,26 @@ public class TruffleCextBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "PyTruffle_Array_AddExports", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class PyTruffle_Array_AddExports extends NativeBuiltin {
+
+        @Specialization
+        int doArray(PTypedArray array, int delta) {
+            array.addExports(delta);
+            return 0;
+        }
+
+        @Specialization(guards = "isArray(nativeWrapper)")
+        int doNativeWrapper(PythonNativeWrapper nativeWrapper, int delta) {
+            return doArray((PTypedArray) nativeWrapper.getDelegate(), delta);
+        }
+
+        protected static boolean isArray(PythonNativeWrapper nativeWrapper) {
+            return nativeWrapper.getDelegate() instanceof PTypedArray;
+        }
+    }
+
     @Builtin(name = "PyTruffle_ThreadState_GetDict", fixedNumOfArguments = 0)
     @GenerateNodeFactory
     abstract static class PyTruffle_ThreadState_GetDict extends NativeBuiltin {
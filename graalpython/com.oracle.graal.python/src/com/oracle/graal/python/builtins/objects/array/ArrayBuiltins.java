@@ -27,23 +27,51 @@ package com.oracle.graal.python.builtins.objects.array;
 
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__ADD__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__CONTAINS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__DELITEM__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__IADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__IMUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ITER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LEN__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__MUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__RMUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETITEM__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.BufferError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.EOFError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
 import java.util.Arrays;
 import java.util.List;
 
+import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.bytes.PIBytesLike;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.slice.PSlice;
+import com.oracle.graal.python.builtins.objects.slice.PSlice.SliceInfo;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallBinaryNode;
+import com.oracle.graal.python.nodes.control.GetIteratorNode;
+import com.oracle.graal.python.nodes.control.GetNextNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.sequence.PSequence;
+import com.oracle.graal.python.runtime.sequence.SequenceUtil.NormalizeIndexNode;
 import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
@@ -53,6 +81,8 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.TypeSystemReference;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(extendClasses = PArray.class)
 public class ArrayBuiltins extends PythonBuiltins {
@@ -65,6 +95,15 @@ public class ArrayBuiltins extends PythonBuiltins {
     @Builtin(name = __ADD__, fixedNumOfArguments = 2)
     @GenerateNodeFactory
     abstract static class AddNode extends PythonBuiltinNode {
+        @Specialization
+        PTypedArray doPTypedArray(PTypedArray left, PTypedArray right) {
+            checkSameKind(left, right);
+            byte[] joined = new byte[left.getByteLength() + right.getByteLength()];
+            System.arraycopy(left.getInternalByteArray(), 0, joined, 0, left.getByteLength());
+            System.arraycopy(right.getInternalByteArray(), 0, joined, left.getByteLength(), right.getByteLength());
+            return factory().createTypedArray(left.getPythonClass(), left.getTypeCode(), joined);
+        }
+
         @Specialization
         PLongArray doPArray(PLongArray left, PLongArray right) {
             long[] joined = new long[left.len() + right.len()];
@@ -101,6 +140,11 @@ public class ArrayBuiltins extends PythonBuiltins {
     @Builtin(name = __RMUL__, fixedNumOfArguments = 2)
     @GenerateNodeFactory
     abstract static class RMulNode extends PythonBuiltinNode {
+        @Specialization
+        PTypedArray doIntPTypedArray(PTypedArray right, int left) {
+            return factory().createTypedArray(right.getPythonClass(), right.getTypeCode(), repeat(right, left));
+        }
+
         @Specialization
         PLongArray doIntPArray(PLongArray right, int left) {
             long[] newArray = new long[left * right.len()];
@@ -158,6 +202,12 @@ public class ArrayBuiltins extends PythonBuiltins {
     @Builtin(name = __CONTAINS__, fixedNumOfArguments = 2)
     @GenerateNodeFactory
     abstract static class ContainsNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        boolean contains(PTypedArray self, Object other,
+                        @Cached("create(__EQ__, __EQ__)") LookupAndCallBinaryNode equalNode) {
+            return indexOf(self, other, equalNode) != -1;
+        }
+
         @Specialization
         boolean contains(PSequence self, Object other) {
             return self.index(other) != -1;
@@ -178,6 +228,11 @@ public class ArrayBuiltins extends PythonBuiltins {
     abstract static class EqNode extends PythonBuiltinNode {
         protected abstract boolean executeWith(Object left, Object right);
 
+        @Specialization
+        boolean doPTypedArray(PTypedArray left, PTypedArray right) {
+            return left.equalsTypedArray(right);
+        }
+
         @Specialization(guards = "areBothIntStorage(left,right)")
         boolean doPArrayInt(PArray left, PArray right) {
             IntSequenceStorage leftStore = (IntSequenceStorage) left.getSequenceStorage();
@@ -211,6 +266,12 @@ public class ArrayBuiltins extends PythonBuiltins {
     @Builtin(name = __STR__, fixedNumOfArguments = 1)
     @GenerateNodeFactory
     abstract static class StrNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        String str(PTypedArray self) {
+            return self.toString();
+        }
+
         @Specialization
         @TruffleBoundary
         String str(PArray self) {
@@ -232,4 +293,475 @@ public class ArrayBuiltins extends PythonBuiltins {
             return String.format("array('%s', %s)", typeCode, array);
         }
     }
+
+    @Builtin(name = __REPR__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends StrNode {
+    }
+
+    @Builtin(name = __NE__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        boolean doPTypedArray(PTypedArray left, PTypedArray right) {
+            return !left.equalsTypedArray(right);
+        }
+    }
+
+    @Builtin(name = __IADD__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class IAddNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTypedArray doPTypedArray(PTypedArray left, PTypedArray right) {
+            checkSameKind(left, right);
+            checkResize(left, left.len() + right.len());
+            left.extend(right);
+            return left;
+        }
+    }
+
+    @Builtin(name = __IMUL__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class IMulNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTypedArray doPTypedArray(PTypedArray self, int times) {
+            checkResize(self, self.len() * Math.max(times, 0));
+            byte[] repeated = repeat(self, times);
+            self.clear();
+            self.appendBytes(repeated, 0, repeated.length);
+            return self;
+        }
+    }
+
+    @Builtin(name = __LEN__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class LenNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        int len(PTypedArray self) {
+            return self.len();
+        }
+    }
+
+    @Builtin(name = __ITER__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class IterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object iter(PTypedArray self) {
+            return factory().createSequenceIterator(self);
+        }
+    }
+
+    @Builtin(name = __GETITEM__, fixedNumOfArguments = 2)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class GetItemNode extends PythonBinaryBuiltinNode {
+        @Child private NormalizeIndexNode normalize = NormalizeIndexNode.create();
+
+        @Specialization
+        Object doInt(PTypedArray self, int idx) {
+            return self.getItemNormalized(normalize.forArray(idx, self.len()));
+        }
+
+        @Specialization
+        Object doLong(PTypedArray self, long idx) {
+            return self.getItemNormalized(normalize.forArray(idx, self.len()));
+        }
+
+        @Specialization
+        Object doSlice(PTypedArray self, PSlice slice) {
+            return self.getSlice(factory(), slice);
+        }
+    }
+
+    @Builtin(name = __SETITEM__, fixedNumOfArguments = 3)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class SetItemNode extends PythonTernaryBuiltinNode {
+        @Child private NormalizeIndexNode normalize = NormalizeIndexNode.create();
+
+        @Specialization
+        PNone doInt(PTypedArray self, int idx, Object value) {
+            self.setItemNormalized(normalize.forArrayAssign(idx, self.len()), value);
+            return PNone.NONE;
+        }
+
+        @Specialization
+        PNone doLong(PTypedArray self, long idx, Object value) {
+            self.setItemNormalized(normalize.forArrayAssign(idx, self.len()), value);
+            return PNone.NONE;
+        }
+
+        @Specialization
+        PNone doSlice(PTypedArray self, PSlice slice, PTypedArray value) {
+            SliceInfo info = slice.computeActualIndices(self.len());
+            if (info.step == 1) {
+                checkResize(self, self.len() - info.length + value.len());
+            }
+            self.setSlice(slice, value);
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "!isPTypedArray(value)")
+        PNone doSlice(@SuppressWarnings("unused") PTypedArray self, @SuppressWarnings("unused") PSlice slice, Object value) {
+            throw raise(TypeError, "can only assign array (not \"%p\") to array slice", value);
+        }
+
+        protected static boolean isPTypedArray(Object value) {
+            return value instanceof PTypedArray;
+        }
+    }
+
+    @Builtin(name = __DELITEM__, fixedNumOfArguments = 2)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class DelItemNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PNone doLong(PTypedArray self, long idx) {
+            checkResizable(self);
+            self.delItem(toIndex(idx));
+            return PNone.NONE;
+        }
+
+        @Specialization
+        PNone doSlice(PTypedArray self, PSlice slice) {
+            checkResize(self, self.len() - slice.computeActualIndices(self.len()).length);
+            self.delSlice(slice);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "typecode", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class TypeCodeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        String typeCode(PTypedArray self) {
+            return String.valueOf(self.getTypeCode());
+        }
+    }
+
+    @Builtin(name = "itemsize", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ItemSizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        int itemSize(PTypedArray self) {
+            return self.getItemSize();
+        }
+    }
+
+    @Builtin(name = "append", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class AppendNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PNone append(PTypedArray self, Object value) {
+            checkResizable(self);
+            self.append(value);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "extend", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class ExtendNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PNone extend(PTypedArray self, PTypedArray other) {
+            if (self.getTypeCode() != other.getTypeCode()) {
+                throw raise(TypeError, "can only extend with array of same kind");
+            }
+            checkResize(self, self.len() + other.len());
+            self.extend(other);
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "!isPTypedArray(iterable)")
+        PNone extend(PTypedArray self, Object iterable,
+                        @Cached("create()") GetIteratorNode getIterator,
+                        @Cached("create()") GetNextNode next,
+                        @Cached("createBinaryProfile()") ConditionProfile errorProfile) {
+            Object iter = getIterator.executeWith(iterable);
+            while (true) {
+                Object value;
+                try {
+                    value = next.execute(iter);
+                } catch (PException e) {
+                    e.expectStopIteration(getCore(), errorProfile);
+                    return PNone.NONE;
+                }
+                checkResizable(self);
+                self.append(value);
+            }
+        }
+
+        protected static boolean isPTypedArray(Object value) {
+            return value instanceof PTypedArray;
+        }
+    }
+
+    @Builtin(name = "insert", fixedNumOfArguments = 3)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class InsertNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PNone insert(PTypedArray self, long idx, Object value) {
+            checkResizable(self);
+            self.insert((int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, idx)), value);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "pop", minNumOfArguments = 1, maxNumOfArguments = 2)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class PopNode extends PythonBuiltinNode {
+        @Specialization
+        Object pop(PTypedArray self, @SuppressWarnings("unused") PNone idx) {
+            return pop(self, -1);
+        }
+
+        @Specialization
+        Object pop(PTypedArray self, long idx) {
+            if (self.len() == 0) {
+                throw raise(IndexError, "pop from empty array");
+            }
+            checkResizable(self);
+            return self.pop(toIndex(idx));
+        }
+    }
+
+    @Builtin(name = "remove", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class RemoveNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PNone remove(PTypedArray self, Object value,
+                        @Cached("create(__EQ__, __EQ__)") LookupAndCallBinaryNode equalNode) {
+            int idx = indexOf(self, value, equalNode);
+            if (idx == -1) {
+                throw raise(ValueError, "array.remove(x): x not in array");
+            }
+            checkResizable(self);
+            self.delItem(idx);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "index", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class IndexNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        int index(PTypedArray self, Object value,
+                        @Cached("create(__EQ__, __EQ__)") LookupAndCallBinaryNode equalNode) {
+            int idx = indexOf(self, value, equalNode);
+            if (idx == -1) {
+                throw raise(ValueError, "array.index(x): x not in array");
+            }
+            return idx;
+        }
+    }
+
+    @Builtin(name = "count", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class CountNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        int count(PTypedArray self, Object value,
+                        @Cached("create(__EQ__, __EQ__)") LookupAndCallBinaryNode equalNode) {
+            int count = 0;
+            for (int i = 0; i < self.len(); i++) {
+                if (equalNode.executeObject(self.getItemNormalized(i), value) == Boolean.TRUE) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    @Builtin(name = "reverse", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class ReverseNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PNone reverse(PTypedArray self) {
+            self.reverse();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "byteswap", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class ByteSwapNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PNone byteswap(PTypedArray self) {
+            self.byteswap();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "frombytes", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class FromBytesNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PNone frombytes(PTypedArray self, PIBytesLike bytes) {
+            if (bytes.len() % self.getItemSize() != 0) {
+                throw raise(ValueError, "bytes length not a multiple of item size");
+            }
+            checkResize(self, self.len() + bytes.len() / self.getItemSize());
+            self.appendBytes(bytes.getInternalByteArray(), 0, bytes.len());
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "tobytes", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class ToBytesNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PBytes tobytes(PTypedArray self) {
+            return factory().createBytes(Arrays.copyOf(self.getInternalByteArray(), self.getByteLength()));
+        }
+    }
+
+    @Builtin(name = "fromlist", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class FromListNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PNone fromlist(PTypedArray self, PList list) {
+            // convert all items first, so that a bad item leaves the array unchanged
+            PTypedArray converted = factory().createTypedArray(self.getTypeCode(), new byte[0]);
+            for (int i = 0; i < list.len(); i++) {
+                converted.append(list.getItem(i));
+            }
+            checkResize(self, self.len() + converted.len());
+            self.extend(converted);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "tolist", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class ToListNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PList tolist(PTypedArray self) {
+            Object[] items = new Object[self.len()];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = self.getItemNormalized(i);
+            }
+            return factory().createList(items);
+        }
+    }
+
+    @Builtin(name = "fromunicode", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class FromUnicodeNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        PNone fromunicode(PTypedArray self, String str) {
+            if (self.getTypeCode() != 'u') {
+                throw raise(ValueError, "fromunicode() may only be called on unicode type arrays");
+            }
+            checkResize(self, self.len() + str.codePointCount(0, str.length()));
+            str.codePoints().forEach(codePoint -> self.append(new String(Character.toChars(codePoint))));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "tounicode", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class ToUnicodeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        String tounicode(PTypedArray self) {
+            if (self.getTypeCode() != 'u') {
+                throw raise(ValueError, "tounicode() may only be called on unicode type arrays");
+            }
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < self.len(); i++) {
+                sb.append((String) self.getItemNormalized(i));
+            }
+            return sb.toString();
+        }
+    }
+
+    @Builtin(name = "fromfile", fixedNumOfArguments = 3)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class FromFileNode extends PythonTernaryBuiltinNode {
+        @Child private LookupAndCallBinaryNode readNode = LookupAndCallBinaryNode.create("read");
+
+        @Specialization
+        PNone fromfile(PTypedArray self, Object file, long n) {
+            if (n < 0) {
+                throw raise(ValueError, "negative count");
+            }
+            long nbytes = n * self.getItemSize();
+            Object data = readNode.executeObject(file, nbytes);
+            if (!(data instanceof PBytes)) {
+                throw raise(TypeError, "read() didn't return bytes");
+            }
+            PBytes bytes = (PBytes) data;
+            int usable = bytes.len() - bytes.len() % self.getItemSize();
+            checkResize(self, self.len() + usable / self.getItemSize());
+            self.appendBytes(bytes.getInternalByteArray(), 0, usable);
+            if (bytes.len() != nbytes) {
+                throw raise(EOFError, "read() didn't return enough bytes");
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "tofile", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class ToFileNode extends PythonBinaryBuiltinNode {
+        @Child private LookupAndCallBinaryNode writeNode = LookupAndCallBinaryNode.create("write");
+
+        @Specialization
+        PNone tofile(PTypedArray self, Object file) {
+            // a single write, so that file objects backed by a channel do one bulk transfer
+            writeNode.executeObject(file, factory().createBytes(Arrays.copyOf(self.getInternalByteArray(), self.getByteLength())));
+            return PNone.NONE;
+        }
+    }
+
+    private static void checkSameKind(PTypedArray left, PTypedArray right) {
+        if (left.getTypeCode() != right.getTypeCode()) {
+            throw PythonLanguage.getCore().raise(TypeError, "bad argument type for built-in operation");
+        }
+    }
+
+    /**
+     * Like CPython, an array must not change its size while a buffer on it is exported, because
+     * the buffer would no longer match the items.
+     */
+    private static void checkResizable(PTypedArray array) {
+        if (array.isExported()) {
+            throw PythonLanguage.getCore().raise(BufferError, "cannot resize an array that is exporting buffers");
+        }
+    }
+
+    private static void checkResize(PTypedArray array, int newLength) {
+        if (newLength != array.len()) {
+            checkResizable(array);
+        }
+    }
+
+    private static byte[] repeat(PTypedArray array, int times) {
+        int byteLength = array.getByteLength();
+        byte[] repeated = new byte[Math.max(times, 0) * byteLength];
+        for (int i = 0; i < times; i++) {
+            System.arraycopy(array.getInternalByteArray(), 0, repeated, i * byteLength, byteLength);
+        }
+        return repeated;
+    }
+
+    private static int indexOf(PTypedArray array, Object value, LookupAndCallBinaryNode equalNode) {
+        for (int i = 0; i < array.len(); i++) {
+            if (equalNode.executeObject(array.getItemNormalized(i), value) == Boolean.TRUE) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int toIndex(long idx) {
+        if (idx < Integer.MIN_VALUE || idx > Integer.MAX_VALUE) {
+            throw PythonLanguage.getCore().raise(IndexError, "array index out of range");
+        }
+        return (int) idx;
+    }
 }
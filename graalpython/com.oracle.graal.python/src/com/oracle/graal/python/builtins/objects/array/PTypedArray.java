@@ -0,0 +1,443 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.array;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigInteger;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.slice.PSlice;
+import com.oracle.graal.python.builtins.objects.slice.PSlice.SliceInfo;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.graal.python.runtime.JavaTypeConversions;
+import com.oracle.graal.python.runtime.PrimitiveCodec;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.PSequence;
+import com.oracle.graal.python.runtime.sequence.SequenceUtil;
+import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * The {@code array.array} object. All typecodes share one growable byte buffer which holds the
+ * items in native byte order, exactly as a C {@code array} would lay them out. This makes
+ * {@code tobytes}, {@code tofile} and the buffer protocol simple views of the internal byte array.
+ */
+public final class PTypedArray extends PArray {
+
+    public static final String TYPECODES = "bBuhHiIlLqQfd";
+
+    private final char typeCode;
+    private final int itemSize;
+    private final ByteSequenceStorage buffer;
+    /** the number of buffers handed out through the buffer protocol and not yet released */
+    private int exports;
+
+    public PTypedArray(PythonClass clazz, char typeCode, byte[] bytes) {
+        super(clazz);
+        assert bytes.length % itemSizeFor(typeCode) == 0;
+        this.typeCode = typeCode;
+        this.itemSize = itemSizeFor(typeCode);
+        this.buffer = new ByteSequenceStorage(bytes);
+    }
+
+    /**
+     * Returns the size in bytes of one item of the given typecode, or {@code -1} if the typecode
+     * is not supported.
+     */
+    public static int itemSizeFor(char typeCode) {
+        return TYPECODES.indexOf(typeCode) >= 0 ? PrimitiveCodec.sizeOf(typeCode) : -1;
+    }
+
+    public char getTypeCode() {
+        return typeCode;
+    }
+
+    public int getItemSize() {
+        return itemSize;
+    }
+
+    public byte[] getInternalByteArray() {
+        return buffer.getInternalByteArray();
+    }
+
+    public int getByteLength() {
+        return buffer.length();
+    }
+
+    public boolean isExported() {
+        return exports > 0;
+    }
+
+    public void addExports(int delta) {
+        assert exports + delta >= 0;
+        exports += delta;
+    }
+
+    public byte getRawByte(int byteIndex) {
+        return buffer.getInternalByteArray()[byteIndex];
+    }
+
+    public void setRawByte(int byteIndex, byte value) {
+        buffer.getInternalByteArray()[byteIndex] = value;
+    }
+
+    @Override
+    public int len() {
+        return buffer.length() / itemSize;
+    }
+
+    @Override
+    public Object getItem(int idx) {
+        return getItemNormalized(normalize(idx, "array index out of range"));
+    }
+
+    @Override
+    public Object getItemNormalized(int idx) {
+        return PrimitiveCodec.unpack(typeCode, itemSize, readRaw(idx * itemSize));
+    }
+
+    public void setItem(int idx, Object value) {
+        setItemNormalized(normalize(idx, "array assignment index out of range"), value);
+    }
+
+    public void setItemNormalized(int idx, Object value) {
+        writeRaw(idx * itemSize, encode(value));
+    }
+
+    public void append(Object value) {
+        long raw = encode(value);
+        int offset = growBy(itemSize);
+        writeRaw(offset, raw);
+    }
+
+    /**
+     * Appends raw, native-ordered item bytes. The caller ensures that {@code length} is a multiple
+     * of the item size.
+     */
+    public void appendBytes(byte[] bytes, int start, int length) {
+        int offset = growBy(length);
+        System.arraycopy(bytes, start, buffer.getInternalByteArray(), offset, length);
+    }
+
+    public void extend(PTypedArray other) {
+        appendBytes(other.getInternalByteArray(), 0, other.getByteLength());
+    }
+
+    public void insert(int idx, Object value) {
+        long raw = encode(value);
+        int length = len();
+        int index = idx < 0 ? Math.max(0, idx + length) : Math.min(idx, length);
+        int offset = index * itemSize;
+        int oldByteLength = growBy(itemSize);
+        byte[] bytes = buffer.getInternalByteArray();
+        System.arraycopy(bytes, offset, bytes, offset + itemSize, oldByteLength - offset);
+        writeRaw(offset, raw);
+    }
+
+    @Override
+    public void delItem(int idx) {
+        deleteItemsInBound(normalize(idx, "array assignment index out of range"), 1);
+    }
+
+    public void delSlice(PSlice slice) {
+        SliceInfo info = slice.computeActualIndices(len());
+        if (info.length == 0) {
+            return;
+        }
+        int step = info.step;
+        int start = info.start;
+        if (step < 0) {
+            // delete the same items in ascending order
+            start += (info.length - 1) * step;
+            step = -step;
+        }
+        if (step == 1) {
+            deleteItemsInBound(start, info.length);
+            return;
+        }
+        byte[] bytes = buffer.getInternalByteArray();
+        int length = len();
+        int target = start;
+        for (int i = start; i < length; i++) {
+            if (i >= start + info.length * step || (i - start) % step != 0) {
+                System.arraycopy(bytes, i * itemSize, bytes, target * itemSize, itemSize);
+                target++;
+            }
+        }
+        buffer.setNewLength(target * itemSize);
+    }
+
+    public Object pop(int idx) {
+        int index = normalize(idx, "pop index out of range");
+        Object result = getItemNormalized(index);
+        deleteItemsInBound(index, 1);
+        return result;
+    }
+
+    public void clear() {
+        buffer.setNewLength(0);
+    }
+
+    public void reverse() {
+        byte[] bytes = buffer.getInternalByteArray();
+        for (int lo = 0, hi = len() - 1; lo < hi; lo++, hi--) {
+            for (int k = 0; k < itemSize; k++) {
+                byte tmp = bytes[lo * itemSize + k];
+                bytes[lo * itemSize + k] = bytes[hi * itemSize + k];
+                bytes[hi * itemSize + k] = tmp;
+            }
+        }
+    }
+
+    public void byteswap() {
+        byte[] bytes = buffer.getInternalByteArray();
+        for (int offset = 0; offset < buffer.length(); offset += itemSize) {
+            for (int lo = offset, hi = offset + itemSize - 1; lo < hi; lo++, hi--) {
+                byte tmp = bytes[lo];
+                bytes[lo] = bytes[hi];
+                bytes[hi] = tmp;
+            }
+        }
+    }
+
+    @Override
+    public int index(Object value) {
+        for (int i = 0; i < len(); i++) {
+            if (itemEquals(getItemNormalized(i), value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public PTypedArray getSlice(PythonObjectFactory factory, int start, int stop, int step, int length) {
+        byte[] bytes = buffer.getInternalByteArray();
+        byte[] newBytes = new byte[length * itemSize];
+        if (step == 1) {
+            System.arraycopy(bytes, start * itemSize, newBytes, 0, newBytes.length);
+        } else {
+            for (int i = start, j = 0; j < length; i += step, j++) {
+                System.arraycopy(bytes, i * itemSize, newBytes, j * itemSize, itemSize);
+            }
+        }
+        return factory.createTypedArray(getPythonClass(), typeCode, newBytes);
+    }
+
+    @Override
+    public void setSlice(PSlice slice, PSequence value) {
+        SliceInfo info = slice.computeActualIndices(len());
+        setSliceInBound(info.start, info.stop, info.step, info.length, value);
+    }
+
+    @Override
+    public void setSlice(int start, int stop, int step, PSequence value) {
+        int normalizedStart = SequenceUtil.normalizeSliceStart(start, step, len(), "array assignment index out of range");
+        int normalizedStop = SequenceUtil.normalizeSliceStop(stop, step, len(), "array assignment index out of range");
+        setSliceInBound(normalizedStart, normalizedStop, step, SequenceUtil.sliceLength(normalizedStart, normalizedStop, step), value);
+    }
+
+    private void setSliceInBound(int start, int stop, int step, int sliceLength, PSequence value) {
+        if (!(value instanceof PTypedArray) || ((PTypedArray) value).typeCode != typeCode) {
+            throw PythonLanguage.getCore().raise(TypeError, "can only assign array (not \"%p\") to array slice", value);
+        }
+        PTypedArray other = (PTypedArray) value;
+        byte[] src = other == this ? buffer.getInternalByteArray().clone() : other.getInternalByteArray();
+        int otherLength = other.len();
+        if (step == 1) {
+            int oldLength = Math.max(stop - start, 0);
+            if (otherLength > oldLength) {
+                int tail = buffer.length() - (start + oldLength) * itemSize;
+                growBy((otherLength - oldLength) * itemSize);
+                byte[] bytes = buffer.getInternalByteArray();
+                System.arraycopy(bytes, (start + oldLength) * itemSize, bytes, (start + otherLength) * itemSize, tail);
+            } else if (otherLength < oldLength) {
+                deleteItemsInBound(start + otherLength, oldLength - otherLength);
+            }
+            System.arraycopy(src, 0, buffer.getInternalByteArray(), start * itemSize, otherLength * itemSize);
+        } else {
+            if (otherLength != sliceLength) {
+                throw PythonLanguage.getCore().raise(ValueError, "attempt to assign array of size %d to extended slice of size %d", otherLength, sliceLength);
+            }
+            byte[] bytes = buffer.getInternalByteArray();
+            for (int i = start, j = 0; j < sliceLength; i += step, j++) {
+                System.arraycopy(src, j * itemSize, bytes, i * itemSize, itemSize);
+            }
+        }
+    }
+
+    @Override
+    @TruffleBoundary
+    public boolean lessThan(PSequence sequence) {
+        int length = len();
+        int otherLength = sequence.len();
+        for (int i = 0; i < length && i < otherLength; i++) {
+            Object left = getItemNormalized(i);
+            Object right = sequence.getItem(i);
+            if (!itemEquals(left, right)) {
+                if (left instanceof String && right instanceof String) {
+                    return ((String) left).compareTo((String) right) < 0;
+                }
+                return compareNumbers(left, right) < 0;
+            }
+        }
+        return length < otherLength;
+    }
+
+    public boolean equalsTypedArray(PTypedArray other) {
+        if (typeCode == other.typeCode && typeCode != 'f' && typeCode != 'd') {
+            // integral items are equal iff their bytes are equal
+            return buffer.equals(other.buffer);
+        }
+        int length = len();
+        if (length != other.len()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            Object left = getItemNormalized(i);
+            Object right = other.getItemNormalized(i);
+            if (!itemEquals(left, right)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long encode(Object value) {
+        return PrimitiveCodec.pack(typeCode, itemSize, value);
+    }
+
+    /**
+     * Compares items like Python's {@code ==}: numbers by value regardless of their Java type, so
+     * that {@code 2}, {@code 2L} and {@code 2.0} are equal.
+     */
+    @TruffleBoundary
+    private static boolean itemEquals(Object left, Object right) {
+        if (isNumber(left) && isNumber(right)) {
+            return compareNumbers(left, right) == 0;
+        }
+        return left.equals(right);
+    }
+
+    private static boolean isNumber(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Boolean || value instanceof PInt || value instanceof Double || value instanceof PFloat;
+    }
+
+    @TruffleBoundary
+    private static int compareNumbers(Object left, Object right) {
+        if (left instanceof Double || right instanceof Double || left instanceof PFloat || right instanceof PFloat) {
+            return Double.compare(PrimitiveCodec.toDouble(left), PrimitiveCodec.toDouble(right));
+        }
+        return toBigInteger(left).compareTo(toBigInteger(right));
+    }
+
+    private static BigInteger toBigInteger(Object value) {
+        if (value instanceof PInt) {
+            return ((PInt) value).getValue();
+        }
+        return BigInteger.valueOf(PrimitiveCodec.toLong(value));
+    }
+
+    private long readRaw(int offset) {
+        return PrimitiveCodec.readRaw(buffer.getInternalByteArray(), offset, itemSize, PrimitiveCodec.NATIVE_LITTLE_ENDIAN);
+    }
+
+    private void writeRaw(int offset, long raw) {
+        PrimitiveCodec.writeRaw(buffer.getInternalByteArray(), offset, itemSize, raw, PrimitiveCodec.NATIVE_LITTLE_ENDIAN);
+    }
+
+    /**
+     * Grows the buffer by {@code byteCount} bytes and returns the old byte length, i.e., the
+     * offset of the first new byte.
+     */
+    private int growBy(int byteCount) {
+        int oldByteLength = buffer.length();
+        buffer.ensureCapacity(oldByteLength + byteCount);
+        buffer.setNewLength(oldByteLength + byteCount);
+        return oldByteLength;
+    }
+
+    private void deleteItemsInBound(int index, int count) {
+        byte[] bytes = buffer.getInternalByteArray();
+        int from = (index + count) * itemSize;
+        System.arraycopy(bytes, from, bytes, index * itemSize, buffer.length() - from);
+        buffer.setNewLength(buffer.length() - count * itemSize);
+    }
+
+    private int normalize(int idx, String outOfBoundsMessage) {
+        int length = len();
+        int index = idx < 0 ? idx + length : idx;
+        if (index < 0 || index >= length) {
+            throw PythonLanguage.getCore().raise(IndexError, outOfBoundsMessage);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        CompilerAsserts.neverPartOfCompilation();
+        int length = len();
+        StringBuilder buf = new StringBuilder("array('").append(typeCode).append('\'');
+        if (length == 0) {
+            return buf.append(')').toString();
+        }
+        if (typeCode == 'u') {
+            buf.append(", '");
+            for (int i = 0; i < length; i++) {
+                buf.append((String) getItemNormalized(i));
+            }
+            return buf.append("')").toString();
+        }
+        buf.append(", [");
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                buf.append(", ");
+            }
+            Object item = getItemNormalized(i);
+            buf.append(item instanceof Double ? JavaTypeConversions.doubleToString((double) item) : item.toString());
+        }
+        return buf.append("])").toString();
+    }
+}
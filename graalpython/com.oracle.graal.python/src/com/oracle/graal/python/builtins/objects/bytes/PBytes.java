@@ -31,6 +31,7 @@ import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueErr
 import java.util.Arrays;
 
 import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.cext.CArrayWrappers.CByteArrayWrapper;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
@@ -46,6 +47,9 @@ public final class PBytes extends PImmutableSequence implements PIBytesLike {
 
     private final ByteSequenceStorage store;
 
+    /** The {@code char*} view handed out to C extensions; bytes are immutable, so it can be reused. */
+    private CByteArrayWrapper charPointer;
+
     public PBytes(PythonClass cls, byte[] bytes) {
         super(cls);
         store = new ByteSequenceStorage(bytes);
@@ -128,6 +132,14 @@ public final class PBytes extends PImmutableSequence implements PIBytesLike {
         return BytesUtils.join(core, store.getInternalByteArray(), values);
     }
 
+    public CByteArrayWrapper getCharPointer() {
+        return charPointer;
+    }
+
+    public void setCharPointer(CByteArrayWrapper charPointer) {
+        this.charPointer = charPointer;
+    }
+
     @Override
     public byte[] getInternalByteArray() {
         return store.getInternalByteArray();
@@ -38,6 +38,8 @@
  */
 package com.oracle.graal.python.builtins.objects.cext;
 
+import java.nio.charset.StandardCharsets;
+
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.objects.PNone;
@@ -363,7 +365,7 @@ public abstract class CExtNodes {
         Object doString(String str,
                         @Cached("createExecute(1)") Node executeNode) {
             try {
-                return ForeignAccess.sendExecute(executeNode, getTruffleStringToCstr(), str, str.length());
+                return ForeignAccess.sendExecute(executeNode, getTruffleStringToCstr(), str, utf8Length(str));
             } catch (UnsupportedTypeException | ArityException | UnsupportedMessageException e) {
                 throw e.raise();
             }
@@ -373,12 +375,43 @@ public abstract class CExtNodes {
         Object doByteArray(byte[] arr,
                         @Cached("createExecute(2)") Node executeNode) {
             try {
-                return ForeignAccess.sendExecute(executeNode, getTruffleByteArrayToNative(), getContext().getEnv().asGuestValue(arr), arr.length);
+                // Handing the bytes over as a Latin-1 string lets the C side copy them with a
+                // single 'polyglot_as_string' instead of reading them element by element.
+                return ForeignAccess.sendExecute(executeNode, getTruffleByteArrayToNative(), asLatin1String(arr), arr.length);
             } catch (UnsupportedTypeException | ArityException | UnsupportedMessageException e) {
                 throw e.raise();
             }
         }
 
+        @TruffleBoundary
+        private static String asLatin1String(byte[] arr) {
+            return new String(arr, StandardCharsets.ISO_8859_1);
+        }
+
+        /**
+         * Computes the size of the UTF-8 encoding of {@code str}. Unpaired surrogates are counted
+         * with three bytes, which is more than the encoder actually produces for them, so the
+         * result is always big enough for the C buffer.
+         */
+        @TruffleBoundary
+        private static int utf8Length(String str) {
+            int len = 0;
+            for (int i = 0; i < str.length(); i++) {
+                char c = str.charAt(i);
+                if (c < 0x80) {
+                    len++;
+                } else if (c < 0x800) {
+                    len += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < str.length() && Character.isLowSurrogate(str.charAt(i + 1))) {
+                    len += 4;
+                    i++;
+                } else {
+                    len += 3;
+                }
+            }
+            return len;
+        }
+
         TruffleObject getTruffleStringToCstr() {
             if (truffle_string_to_cstr == null) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -45,6 +45,11 @@ public abstract class NativeCAPISymbols {
     public static final String FUN_PY_OBJECT_HANDLE_FOR_JAVA_OBJECT = "PyObjectHandle_ForJavaObject";
     public static final String FUN_PY_OBJECT_HANDLE_FOR_JAVA_TYPE = "PyObjectHandle_ForJavaType";
     public static final String FUN_NATIVE_HANDLE_FOR_ARRAY = "NativeHandle_ForArray";
+    public static final String FUN_PY_TRUFFLE_OBJECT_ARRAY_NEW = "PyTruffle_Object_Array_New";
+    public static final String FUN_PY_TRUFFLE_OBJECT_ARRAY_RESIZE = "PyTruffle_Object_Array_Resize";
+    public static final String FUN_PY_TRUFFLE_OBJECT_ARRAY_FREE = "PyTruffle_Object_Array_Free";
+    public static final String FUN_PY_TRUFFLE_OBJECT_ARRAY_GET = "PyTruffle_Object_Array_Get";
+    public static final String FUN_PY_TRUFFLE_OBJECT_ARRAY_SET = "PyTruffle_Object_Array_Set";
     public static final String FUN_PY_NONE_HANDLE = "PyNoneHandle";
     public static final String FUN_WHCAR_SIZE = "PyTruffle_Wchar_Size";
     public static final String FUN_PY_TRUFFLE_CSTR_TO_STRING = "PyTruffle_CstrToString";
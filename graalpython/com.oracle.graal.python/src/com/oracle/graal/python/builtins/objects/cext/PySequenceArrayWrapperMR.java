@@ -38,7 +38,9 @@
  */
 package com.oracle.graal.python.builtins.objects.cext;
 
+import com.oracle.graal.python.builtins.objects.array.PTypedArray;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.bytes.PIBytesLike;
 import com.oracle.graal.python.builtins.objects.cext.CExtNodes.ToSulongNode;
 import com.oracle.graal.python.builtins.objects.cext.NativeWrappers.PySequenceArrayWrapper;
 import com.oracle.graal.python.builtins.objects.cext.PySequenceArrayWrapperMRFactory.ReadArrayItemNodeGen;
@@ -148,6 +150,12 @@ public class PySequenceArrayWrapperMR {
             return tuple.getInternalByteArray()[(int) idx];
         }
 
+        @Specialization
+        Object doTypedArray(PTypedArray array, long idx) {
+            // arrays are exposed as their raw bytes
+            return array.getRawByte((int) idx);
+        }
+
         @Specialization(guards = {"!isTuple(object)", "!isList(object)"})
         Object doGeneric(Object object, long idx,
                         @Cached("create(__GETITEM__)") LookupAndCallBinaryNode getItemNode) {
@@ -200,6 +208,12 @@ public class PySequenceArrayWrapperMR {
             return value;
         }
 
+        @Specialization
+        Object doTypedArray(PTypedArray array, long idx, byte value) {
+            array.setRawByte((int) idx, value);
+            return value;
+        }
+
         protected static ListBuiltins.SetItemNode createListSetItem() {
             return ListBuiltinsFactory.SetItemNodeFactory.create();
         }
@@ -222,12 +236,21 @@ public class PySequenceArrayWrapperMR {
     }
 
     static class ToNativeArrayNode extends TransformToNativeNode {
+        private static final long SIZEOF_PY_OBJECT_PTR = 8L;
+
         @CompilationFinal private TruffleObject PyObjectHandle_FromJavaObject;
         @Child private PCallNativeNode callNativeBinary;
 
         public Object execute(PySequenceArrayWrapper object) {
-            // TODO correct element size
-            return ensureIsPointer(callBinaryIntoCapi(getNativeHandleForArray(), object, 8L));
+            return ensureIsPointer(callBinaryIntoCapi(getNativeHandleForArray(), object, getElementSize(object.getDelegate())));
+        }
+
+        /**
+         * Byte-like delegates and typed arrays are indexed per byte; all other sequences hold
+         * {@code PyObject*} elements.
+         */
+        private static long getElementSize(Object delegate) {
+            return delegate instanceof PIBytesLike || delegate instanceof PTypedArray ? 1L : SIZEOF_PY_OBJECT_PTR;
         }
 
         private TruffleObject getNativeHandleForArray() {
@@ -44,6 +44,7 @@ import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.Layout;
 import com.oracle.truffle.api.object.ObjectType;
+import com.oracle.truffle.api.object.Property;
 import com.oracle.truffle.api.object.Shape;
 
 public abstract class DynamicObjectStorage extends HashingStorage {
@@ -107,13 +108,17 @@ public abstract class DynamicObjectStorage extends HashingStorage {
         return wrapJavaIterable(store.getShape().getKeys());
     }
 
+    /**
+     * The values are read through the locations of the shape, which is shared by all stores with
+     * the same keys, instead of looking up each key again.
+     */
     @Override
     @TruffleBoundary
     public Iterable<Object> values() {
         ArrayList<Object> entries = new ArrayList<>(store.size());
         Shape shape = store.getShape();
-        for (Object key : shape.getKeys()) {
-            entries.add(store.get(key));
+        for (Property property : shape.getPropertyList()) {
+            entries.add(property.get(store, shape));
         }
         return wrapJavaIterable(entries);
     }
@@ -123,16 +128,20 @@ public abstract class DynamicObjectStorage extends HashingStorage {
     public Iterable<DictEntry> entries() {
         ArrayList<DictEntry> entries = new ArrayList<>(store.size());
         Shape shape = store.getShape();
-        for (Object key : shape.getKeys()) {
-            entries.add(new DictEntry(key, store.get(key)));
+        for (Property property : shape.getPropertyList()) {
+            entries.add(new DictEntry(property.getKey(), property.get(store, shape)));
         }
         return wrapJavaIterable(entries);
     }
 
+    /**
+     * Goes back to the root of the current shape tree, so that the store of an instance keeps
+     * sharing its shapes with the other instances of its class.
+     */
     @Override
     @TruffleBoundary
     public void clear() {
-        store.setShapeAndResize(store.getShape(), EMPTY_SHAPE);
+        store.setShapeAndResize(store.getShape(), store.getShape().getRoot());
         store.updateShape();
     }
 
@@ -156,16 +165,127 @@ public abstract class DynamicObjectStorage extends HashingStorage {
         }
     }
 
+    /**
+     * The storage of an instance dictionary, backed by the object itself. Instances of a class
+     * start from the same shape tree, so all instances with the same attributes share one shape
+     * for their keys and only hold their values.
+     *
+     * Keys that are not strings can never be attribute names, so they are kept in a separate map
+     * next to the object. This way the object's attributes and the string keys of the dictionary
+     * always stay the same.
+     */
     public static class PythonObjectDictStorage extends DynamicObjectStorage {
+        private EconomicMapStorage nonStringKeys;
+
         public PythonObjectDictStorage(DynamicObject store) {
             super(store);
         }
 
+        @Override
+        public int length() {
+            return super.length() + (nonStringKeys == null ? 0 : nonStringKeys.length());
+        }
+
+        @Override
+        @TruffleBoundary
+        public boolean hasKey(Object key, Equivalence eq) {
+            if (key instanceof String) {
+                return super.hasKey(key, eq);
+            }
+            return nonStringKeys != null && nonStringKeys.hasKey(key, eq);
+        }
+
+        @Override
+        @TruffleBoundary
+        public Object getItem(Object key, Equivalence eq) {
+            if (key instanceof String) {
+                return super.getItem(key, eq);
+            }
+            return nonStringKeys == null ? null : nonStringKeys.getItem(key, eq);
+        }
+
+        @Override
+        @TruffleBoundary
+        public void setItem(Object key, Object value, Equivalence eq) {
+            if (key instanceof String) {
+                super.setItem(key, value, eq);
+            } else {
+                if (nonStringKeys == null) {
+                    nonStringKeys = EconomicMapStorage.create(false);
+                }
+                nonStringKeys.setItem(key, value, eq);
+            }
+        }
+
+        @Override
+        @TruffleBoundary
+        public boolean remove(Object key, Equivalence eq) {
+            if (key instanceof String) {
+                return super.remove(key, eq);
+            }
+            return nonStringKeys != null && nonStringKeys.remove(key, eq);
+        }
+
+        @Override
+        @TruffleBoundary
+        public Iterable<Object> keys() {
+            if (nonStringKeys == null) {
+                return super.keys();
+            }
+            ArrayList<Object> keys = new ArrayList<>(length());
+            super.keys().forEach(keys::add);
+            nonStringKeys.keys().forEach(keys::add);
+            return wrapJavaIterable(keys);
+        }
+
+        @Override
+        @TruffleBoundary
+        public Iterable<Object> values() {
+            if (nonStringKeys == null) {
+                return super.values();
+            }
+            ArrayList<Object> values = new ArrayList<>(length());
+            super.values().forEach(values::add);
+            nonStringKeys.values().forEach(values::add);
+            return wrapJavaIterable(values);
+        }
+
+        @Override
+        @TruffleBoundary
+        public Iterable<DictEntry> entries() {
+            if (nonStringKeys == null) {
+                return super.entries();
+            }
+            ArrayList<DictEntry> entries = new ArrayList<>(length());
+            super.entries().forEach(entries::add);
+            nonStringKeys.entries().forEach(entries::add);
+            return wrapJavaIterable(entries);
+        }
+
+        @Override
+        @TruffleBoundary
+        public void clear() {
+            super.clear();
+            nonStringKeys = null;
+        }
+
+        /**
+         * A copy is not backed by an object anymore, so it becomes an ordinary dictionary storage
+         * that can be generalized. It still starts with the shared shape of the instance, unless
+         * there are keys that are not strings.
+         */
         @Override
         @TruffleBoundary
         public HashingStorage copy(Equivalence eq) {
             assert eq == HashingStorage.DEFAULT_EQIVALENCE;
-            return new PythonObjectDictStorage(getStore().copy(getStore().getShape()));
+            if (nonStringKeys == null || nonStringKeys.length() == 0) {
+                return new FastDictStorage(getStore().copy(getStore().getShape()));
+            }
+            EconomicMapStorage copy = EconomicMapStorage.create(length(), false);
+            for (DictEntry entry : entries()) {
+                copy.setItem(entry.getKey(), entry.getValue(), getSlowPathEquivalence(entry.getKey()));
+            }
+            return copy;
         }
     }
 
@@ -42,6 +42,7 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.truffle.api.CompilerAsserts;
 
 /**
@@ -229,6 +230,10 @@ public class EconomicMapStorage extends HashingStorage implements Iterable<Objec
         if (key == entryKey) {
             return true;
         }
+        if (key instanceof PTuple && entryKey instanceof PTuple && !PTuple.mayBeEqual((PTuple) key, (PTuple) entryKey)) {
+            // tuples cache their hash, different hashes mean that __eq__ need not be called
+            return false;
+        }
         if (strategy != null) {
             return strategy.equals(key, entryKey);
         }
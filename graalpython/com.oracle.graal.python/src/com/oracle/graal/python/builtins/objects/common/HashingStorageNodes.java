@@ -40,7 +40,6 @@ package com.oracle.graal.python.builtins.objects.common;
 
 import static com.oracle.graal.python.builtins.objects.common.HashingStorage.DEFAULT_EQIVALENCE;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
-import static com.oracle.graal.python.runtime.exception.PythonErrorType.KeyError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
@@ -65,6 +64,7 @@ import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
+import com.oracle.graal.python.builtins.objects.set.PBaseSet;
 import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
 import com.oracle.graal.python.nodes.PBaseNode;
@@ -231,6 +231,10 @@ public abstract class HashingStorageNodes {
             return getClass(s).isBuiltin();
         }
 
+        protected static boolean isSet(PHashingCollection container) {
+            return container instanceof PBaseSet;
+        }
+
         protected EconomicMapStorage switchToEconomicMap(PHashingCollection container, HashingStorage storage) {
             // We cannot store this key in the dynamic object -> switch to generic store
             EconomicMapStorage newStorage = EconomicMapStorage.create(storage.length() + 1, false);
@@ -492,6 +496,11 @@ public abstract class HashingStorageNodes {
             return readUncached(storage, name);
         }
 
+        @Specialization(guards = {"!isJavaString(name)", "isHashable(name)"})
+        protected boolean readNonString(PythonObjectDictStorage storage, Object name) {
+            return storage.hasKey(name, getEquivalence());
+        }
+
         @Specialization(guards = "!isJavaString(name)")
         @SuppressWarnings("unused")
         protected boolean readUncached(DynamicObjectStorage storage, Object name) {
@@ -503,6 +512,31 @@ public abstract class HashingStorageNodes {
             return storage.hasKey(key, getEquivalence());
         }
 
+        @Specialization
+        protected boolean contains(LongMapStorage storage, int key) {
+            return storage.getItem(key) != null;
+        }
+
+        @Specialization
+        protected boolean contains(LongMapStorage storage, long key) {
+            return storage.getItem(key) != null;
+        }
+
+        @Specialization(guards = "isHashable(key)")
+        protected boolean contains(LongMapStorage storage, Object key) {
+            return storage.hasKey(key, getEquivalence());
+        }
+
+        @Specialization
+        protected boolean contains(StringMapStorage storage, String key) {
+            return storage.hasKey(key);
+        }
+
+        @Specialization(guards = "isHashable(key)")
+        protected boolean contains(StringMapStorage storage, Object key) {
+            return storage.hasKey(key, getEquivalence());
+        }
+
         @Specialization(guards = "isHashable(key)")
         protected boolean contains(HashMapStorage storage, Object key) {
             return storage.hasKey(key, getEquivalence());
@@ -581,6 +615,16 @@ public abstract class HashingStorageNodes {
             return storage.hasKey(key, getEquivalence());
         }
 
+        @Specialization(guards = "isHashable(key)")
+        protected boolean contains(LongMapStorage storage, Object key) {
+            return storage.hasKey(key, getEquivalence());
+        }
+
+        @Specialization(guards = "isHashable(key)")
+        protected boolean contains(StringMapStorage storage, Object key) {
+            return storage.hasKey(key, getEquivalence());
+        }
+
         @Specialization(guards = "isHashable(key)")
         protected boolean contains(HashMapStorage storage, Object key) {
             return storage.hasKey(key, getEquivalence());
@@ -605,21 +649,52 @@ public abstract class HashingStorageNodes {
 
         public abstract void execute(PHashingCollection container, HashingStorage storage, Object key, Object value);
 
-        @Specialization
+        @Specialization(guards = "isSet(container)")
+        protected void doEmptySetStorage(PHashingCollection container, @SuppressWarnings("unused") EmptyStorage storage, String key, Object value) {
+            // sets do not benefit from object shapes, use a string storage with cached hashes
+            StringMapStorage newStorage = new StringMapStorage();
+            newStorage.setItem(key, value);
+            container.setDictStorage(newStorage);
+        }
+
+        @Specialization(guards = {"isSet(container)", "wrappedString(key)"})
+        protected void doEmptySetStorage(PHashingCollection container, @SuppressWarnings("unused") EmptyStorage storage, PString key, Object value) {
+            StringMapStorage newStorage = new StringMapStorage();
+            newStorage.setItem(key.getValue(), value);
+            container.setDictStorage(newStorage);
+        }
+
+        @Specialization(guards = "!isSet(container)")
         protected void doEmptyStorage(PHashingCollection container, EmptyStorage storage, String key, Object value) {
             // immediately replace storage since empty storage is immutable
             DynamicObjectStorage newStorage = switchToFastDictStorage(container, storage);
             doDynamicObjectUpdateShape(container, newStorage, key, value);
         }
 
-        @Specialization(guards = "wrappedString(key)")
+        @Specialization(guards = {"!isSet(container)", "wrappedString(key)"})
         protected void doEmptyStorage(PHashingCollection container, EmptyStorage storage, PString key, Object value) {
             // immediately replace storage since empty storage is immutable
             DynamicObjectStorage newStorage = switchToFastDictStorage(container, storage);
             doDynamicObjectUpdateShape(container, newStorage, key.getValue(), value);
         }
 
-        @Specialization(guards = {"!isJavaString(key)", "isHashable(key)"})
+        @Specialization
+        protected void doEmptyStorage(PHashingCollection container, @SuppressWarnings("unused") EmptyStorage storage, int key, Object value) {
+            // immediately replace storage since empty storage is immutable
+            LongMapStorage newStorage = new LongMapStorage();
+            newStorage.setItem(key, value);
+            container.setDictStorage(newStorage);
+        }
+
+        @Specialization
+        protected void doEmptyStorage(PHashingCollection container, @SuppressWarnings("unused") EmptyStorage storage, long key, Object value) {
+            // immediately replace storage since empty storage is immutable
+            LongMapStorage newStorage = new LongMapStorage();
+            newStorage.setItem(key, value);
+            container.setDictStorage(newStorage);
+        }
+
+        @Specialization(guards = {"!isJavaString(key)", "!isInteger(key)", "isHashable(key)"})
         protected void doEmptyStorage(PHashingCollection container, @SuppressWarnings("unused") EmptyStorage storage, Object key, Object value) {
             // immediately replace storage since empty storage is immutable
             EconomicMapStorage newStorage = EconomicMapStorage.create(false);
@@ -835,9 +910,9 @@ public abstract class HashingStorageNodes {
         }
 
         @Specialization(guards = {"!isJavaString(key)", "isHashable(key)"})
-        @SuppressWarnings("unused")
-        protected void doDynamicObjectGeneralize(PHashingCollection container, PythonObjectDictStorage storage, Object key, Object value) {
-            throw raise(KeyError, "unsupported key: %p", key);
+        protected void doDynamicObjectNonString(@SuppressWarnings("unused") PHashingCollection container, PythonObjectDictStorage storage, Object key, Object value) {
+            // the object's attributes stay as they are, only string keys are attributes
+            storage.setItem(key, value, getEquivalence());
         }
 
         @Specialization(guards = {"!isJavaString(key)", "isHashable(key)"})
@@ -859,6 +934,36 @@ public abstract class HashingStorageNodes {
             storage.setItem(key, value, getEquivalence());
         }
 
+        @Specialization
+        protected void doLongMap(@SuppressWarnings("unused") PHashingCollection container, LongMapStorage storage, int key, Object value) {
+            storage.setItem(key, value);
+        }
+
+        @Specialization
+        protected void doLongMap(@SuppressWarnings("unused") PHashingCollection container, LongMapStorage storage, long key, Object value) {
+            storage.setItem(key, value);
+        }
+
+        @Specialization(guards = {"!isInteger(key)", "isHashable(key)"})
+        protected void doLongMapGeneralize(PHashingCollection container, LongMapStorage storage, Object key, Object value) {
+            switchToEconomicMap(container, storage).setItem(key, value, getEquivalence());
+        }
+
+        @Specialization
+        protected void doStringMap(@SuppressWarnings("unused") PHashingCollection container, StringMapStorage storage, String key, Object value) {
+            storage.setItem(key, value);
+        }
+
+        @Specialization(guards = "wrappedString(key)")
+        protected void doStringMap(@SuppressWarnings("unused") PHashingCollection container, StringMapStorage storage, PString key, Object value) {
+            storage.setItem(key.getValue(), value);
+        }
+
+        @Specialization(guards = {"!isJavaString(key)", "isHashable(key)"})
+        protected void doStringMapGeneralize(PHashingCollection container, StringMapStorage storage, Object key, Object value) {
+            switchToEconomicMap(container, storage).setItem(key, value, getEquivalence());
+        }
+
         @Specialization(guards = "isHashable(key)")
         protected void doHashMap(@SuppressWarnings("unused") PHashingCollection container, HashMapStorage storage, Object key, Object value) {
             storage.setItem(key, value, getEquivalence());
@@ -974,6 +1079,11 @@ public abstract class HashingStorageNodes {
             return doDynamicObjectUncachedPString(storage, name);
         }
 
+        @Specialization(guards = {"!isJavaString(key)", "isHashable(key)"})
+        Object doDynamicObjectNonString(PythonObjectDictStorage storage, Object key) {
+            return storage.getItem(key, getEquivalence());
+        }
+
         @Specialization(guards = {"!isJavaString(key)", "isHashable(key)"})
         @SuppressWarnings("unused")
         Object doDynamicObject(DynamicObjectStorage storage, Object key) {
@@ -1017,6 +1127,31 @@ public abstract class HashingStorageNodes {
             return storage.getItem(key, getEquivalence());
         }
 
+        @Specialization
+        Object doLongMap(LongMapStorage storage, int key) {
+            return storage.getItem(key);
+        }
+
+        @Specialization
+        Object doLongMap(LongMapStorage storage, long key) {
+            return storage.getItem(key);
+        }
+
+        @Specialization(guards = {"!isInteger(key)", "isHashable(key)"})
+        Object doLongMapGeneric(LongMapStorage storage, Object key) {
+            return storage.getItem(key, getEquivalence());
+        }
+
+        @Specialization
+        Object doStringMap(StringMapStorage storage, String key) {
+            return storage.getItem(key);
+        }
+
+        @Specialization(guards = "isHashable(key)")
+        Object doStringMapGeneric(StringMapStorage storage, Object key) {
+            return storage.getItem(key, getEquivalence());
+        }
+
         @Specialization(guards = "isHashable(key)")
         Object doGeneric(HashMapStorage storage, Object key) {
             return storage.getItem(key, getEquivalence());
@@ -1174,6 +1309,11 @@ public abstract class HashingStorageNodes {
             return storage.remove(key.getValue(), DEFAULT_EQIVALENCE);
         }
 
+        @Specialization(guards = {"!isJavaString(key)", "isHashable(key)"})
+        protected boolean doDynamicObjectNonString(@SuppressWarnings("unused") PHashingCollection container, PythonObjectDictStorage storage, Object key) {
+            return storage.remove(key, getEquivalence());
+        }
+
         @SuppressWarnings("unused")
         @Specialization(guards = "!isJavaString(key)")
         protected boolean doDynamicObject(PHashingCollection container, DynamicObjectStorage storage, Object key) {
@@ -1185,6 +1325,21 @@ public abstract class HashingStorageNodes {
             return storage.remove(key, getEquivalence());
         }
 
+        @Specialization
+        protected boolean doLongMap(@SuppressWarnings("unused") PHashingCollection container, LongMapStorage storage, Object key) {
+            return storage.remove(key, getEquivalence());
+        }
+
+        @Specialization
+        protected boolean doStringMap(@SuppressWarnings("unused") PHashingCollection container, StringMapStorage storage, String key) {
+            return storage.remove(key);
+        }
+
+        @Specialization
+        protected boolean doStringMap(@SuppressWarnings("unused") PHashingCollection container, StringMapStorage storage, Object key) {
+            return storage.remove(key, getEquivalence());
+        }
+
         @Specialization
         protected boolean doHashMap(@SuppressWarnings("unused") PHashingCollection container, HashMapStorage storage, Object key) {
             return storage.remove(key, getEquivalence());
@@ -1238,6 +1393,11 @@ public abstract class HashingStorageNodes {
         @Child private SetItemNode setItemNode;
 
         public HashingStorage execute(HashingStorage left, HashingStorage right) {
+            if (left instanceof LongMapStorage && right instanceof LongMapStorage) {
+                return ((LongMapStorage) left).intersection((LongMapStorage) right);
+            } else if (left instanceof StringMapStorage && right instanceof StringMapStorage) {
+                return ((StringMapStorage) left).intersection((StringMapStorage) right);
+            }
             EconomicMapStorage newStorage = EconomicMapStorage.create(false);
             if (left.length() != 0 && right.length() != 0) {
                 if (containsKeyNode == null) {
@@ -1266,6 +1426,11 @@ public abstract class HashingStorageNodes {
     public static class UnionNode extends Node {
 
         public HashingStorage execute(HashingStorage left, HashingStorage right) {
+            if (left instanceof LongMapStorage && right instanceof LongMapStorage) {
+                return ((LongMapStorage) left).union((LongMapStorage) right);
+            } else if (left instanceof StringMapStorage && right instanceof StringMapStorage) {
+                return ((StringMapStorage) left).union((StringMapStorage) right);
+            }
             EconomicMapStorage newStorage = EconomicMapStorage.create(false);
             newStorage.addAll(left);
             newStorage.addAll(right);
@@ -1281,6 +1446,16 @@ public abstract class HashingStorageNodes {
 
         public abstract HashingStorage execute(HashingStorage left, HashingStorage right);
 
+        @Specialization
+        public HashingStorage doLongMap(LongMapStorage left, LongMapStorage right) {
+            return left.difference(right);
+        }
+
+        @Specialization
+        public HashingStorage doStringMap(StringMapStorage left, StringMapStorage right) {
+            return left.difference(right);
+        }
+
         @Specialization(guards = "left.length() == 0")
         @SuppressWarnings("unused")
         public HashingStorage doLeftEmpty(HashingStorage left, HashingStorage right) {
@@ -1311,4 +1486,43 @@ public abstract class HashingStorageNodes {
         }
     }
 
+    public static class SymmetricDiffNode extends Node {
+
+        @Child private ContainsKeyNode containsKeyNode;
+        @Child private SetItemNode setItemNode;
+
+        public HashingStorage execute(HashingStorage left, HashingStorage right) {
+            if (left instanceof LongMapStorage && right instanceof LongMapStorage) {
+                return ((LongMapStorage) left).symmetricDifference((LongMapStorage) right);
+            } else if (left instanceof StringMapStorage && right instanceof StringMapStorage) {
+                return ((StringMapStorage) left).symmetricDifference((StringMapStorage) right);
+            }
+            if (containsKeyNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                containsKeyNode = insert(ContainsKeyNode.create());
+            }
+            if (setItemNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                setItemNode = insert(SetItemNode.create());
+            }
+
+            EconomicMapStorage newStorage = EconomicMapStorage.create(false);
+            for (Object leftKey : left.keys()) {
+                if (!containsKeyNode.execute(right, leftKey)) {
+                    setItemNode.execute(null, newStorage, leftKey, PNone.NO_VALUE);
+                }
+            }
+            for (Object rightKey : right.keys()) {
+                if (!containsKeyNode.execute(left, rightKey)) {
+                    setItemNode.execute(null, newStorage, rightKey, PNone.NO_VALUE);
+                }
+            }
+            return newStorage;
+        }
+
+        public static SymmetricDiffNode create() {
+            return new SymmetricDiffNode();
+        }
+    }
+
 }
@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.common;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.oracle.truffle.api.CompilerAsserts;
+
+/**
+ * A storage for maps whose keys are all Python {@code int} values that fit into a Java
+ * {@code long}. Keys are kept unboxed and no {@code __hash__} or {@code __eq__} calls are necessary
+ * to find them.
+ *
+ * Like {@link EconomicMapStorage}, the entries are kept in insertion order in the flat arrays
+ * {@link #keys} and {@link #values}; removed entries have a {@code null} value until the arrays are
+ * compacted. The open addressing hash table {@link #table} with linear probing maps a key to the
+ * entry index plus one. It has at least twice as many slots as there are entries, so a probe
+ * always ends at an empty slot.
+ *
+ * Only {@code int} and {@code long} keys can be stored, {@link #setItem} throws an
+ * {@link UnmodifiableStorageException} for any other key. The storage nodes then generalize to an
+ * {@link EconomicMapStorage}.
+ */
+public final class LongMapStorage extends HashingStorage {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private static final int EMPTY = 0;
+    private static final int DELETED = -1;
+
+    private long[] keys;
+    private Object[] values;
+    private int[] table;
+
+    /**
+     * Number of entries including removed entries.
+     */
+    private int totalEntries;
+
+    /**
+     * Number of entries that are not removed.
+     */
+    private int size;
+
+    public LongMapStorage() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public LongMapStorage(int expectedSize) {
+        int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(expectedSize, 1) - 1) << 1);
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.table = new int[capacity << 1];
+    }
+
+    private LongMapStorage(LongMapStorage other) {
+        this.keys = other.keys.clone();
+        this.values = other.values.clone();
+        this.table = other.table.clone();
+        this.totalEntries = other.totalEntries;
+        this.size = other.size;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int findEntry(long key) {
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        while (true) {
+            int entry = table[slot];
+            if (entry == EMPTY) {
+                return -1;
+            } else if (entry != DELETED && keys[entry - 1] == key) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public Object getItem(long key) {
+        int index = findEntry(key);
+        return index == -1 ? null : values[index];
+    }
+
+    public void setItem(long key, Object value) {
+        assert value != null;
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        int freeSlot = -1;
+        while (true) {
+            int entry = table[slot];
+            if (entry == EMPTY) {
+                break;
+            } else if (entry == DELETED) {
+                if (freeSlot == -1) {
+                    freeSlot = slot;
+                }
+            } else if (keys[entry - 1] == key) {
+                values[entry - 1] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (totalEntries == keys.length) {
+            resize();
+            setItem(key, value);
+            return;
+        }
+        keys[totalEntries] = key;
+        values[totalEntries] = value;
+        totalEntries++;
+        size++;
+        table[freeSlot == -1 ? slot : freeSlot] = totalEntries;
+    }
+
+    public boolean remove(long key) {
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        while (true) {
+            int entry = table[slot];
+            if (entry == EMPTY) {
+                return false;
+            } else if (entry != DELETED && keys[entry - 1] == key) {
+                table[slot] = DELETED;
+                values[entry - 1] = null;
+                size--;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Adds all entries of another storage of the same kind, without boxing or hashing the keys.
+     */
+    public void addAll(LongMapStorage other) {
+        for (int i = 0; i < other.totalEntries; i++) {
+            if (other.values[i] != null) {
+                setItem(other.keys[i], other.values[i]);
+            }
+        }
+    }
+
+    public LongMapStorage union(LongMapStorage other) {
+        LongMapStorage result = new LongMapStorage(this);
+        result.addAll(other);
+        return result;
+    }
+
+    /**
+     * Returns the entries of this storage whose keys are also in {@code other}. Iterates the
+     * smaller storage.
+     */
+    public LongMapStorage intersection(LongMapStorage other) {
+        if (other.size < size) {
+            return other.intersection(this);
+        }
+        LongMapStorage result = new LongMapStorage(size);
+        for (int i = 0; i < totalEntries; i++) {
+            if (values[i] != null && other.findEntry(keys[i]) != -1) {
+                result.setItem(keys[i], values[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the entries of this storage whose keys are not in {@code other}.
+     */
+    public LongMapStorage difference(LongMapStorage other) {
+        LongMapStorage result = new LongMapStorage(size);
+        for (int i = 0; i < totalEntries; i++) {
+            if (values[i] != null && other.findEntry(keys[i]) == -1) {
+                result.setItem(keys[i], values[i]);
+            }
+        }
+        return result;
+    }
+
+    public LongMapStorage symmetricDifference(LongMapStorage other) {
+        LongMapStorage result = difference(other);
+        for (int i = 0; i < other.totalEntries; i++) {
+            if (other.values[i] != null && findEntry(other.keys[i]) == -1) {
+                result.setItem(other.keys[i], other.values[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compacts the entries, and doubles the capacity if more than half of the entries are in use.
+     */
+    private void resize() {
+        int capacity = keys.length;
+        if (size >= capacity >> 1) {
+            capacity <<= 1;
+        }
+        long[] newKeys = new long[capacity];
+        Object[] newValues = new Object[capacity];
+        int[] newTable = new int[capacity << 1];
+        int mask = newTable.length - 1;
+        int j = 0;
+        for (int i = 0; i < totalEntries; i++) {
+            if (values[i] != null) {
+                newKeys[j] = keys[i];
+                newValues[j] = values[i];
+                int slot = hash(keys[i]) & mask;
+                while (newTable[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                newTable[slot] = ++j;
+            }
+        }
+        keys = newKeys;
+        values = newValues;
+        table = newTable;
+        totalEntries = j;
+    }
+
+    /**
+     * Converts keys that may be equal to an {@code int} without calling {@code __eq__}. Returns
+     * {@code null} if the key may only be equal to an {@code int} by a user defined {@code __eq__}.
+     */
+    private static Long toLongKey(Object key) {
+        if (key instanceof Integer) {
+            return (long) (int) key;
+        } else if (key instanceof Long) {
+            return (Long) key;
+        } else if (key instanceof Boolean) {
+            return (boolean) key ? 1L : 0L;
+        }
+        return null;
+    }
+
+    private static boolean cannotEqualInt(Object key) {
+        if (key instanceof String) {
+            return true;
+        } else if (key instanceof Double) {
+            double d = (double) key;
+            return d != Math.rint(d) || d < -0x1p63 || d >= 0x1p63;
+        }
+        return false;
+    }
+
+    private static Object boxKey(long key) {
+        if (key == (int) key) {
+            return (int) key;
+        }
+        return key;
+    }
+
+    /**
+     * Finds the entry of a key that is not an {@code int} but equal to one, comparing the hash
+     * first like the other storages do.
+     */
+    private int findEntry(Object key, Equivalence eq) {
+        if (key instanceof Double) {
+            return findEntry((long) (double) key);
+        }
+        int hash = eq.hashCode(key);
+        for (int i = 0; i < totalEntries; i++) {
+            if (values[i] != null && (int) keys[i] == hash && eq.equals(key, boxKey(keys[i]))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int length() {
+        return size;
+    }
+
+    @Override
+    public boolean hasKey(Object key, Equivalence eq) {
+        return getItem(key, eq) != null;
+    }
+
+    @Override
+    public Object getItem(Object key, Equivalence eq) {
+        Long longKey = toLongKey(key);
+        if (longKey != null) {
+            return getItem((long) longKey);
+        } else if (cannotEqualInt(key)) {
+            return null;
+        }
+        int index = findEntry(key, eq);
+        return index == -1 ? null : values[index];
+    }
+
+    @Override
+    public void setItem(Object key, Object value, Equivalence eq) {
+        if (key instanceof Integer) {
+            setItem((int) key, value);
+        } else if (key instanceof Long) {
+            setItem((long) key, value);
+        } else {
+            throw UnmodifiableStorageException.INSTANCE;
+        }
+    }
+
+    @Override
+    public boolean remove(Object key, Equivalence eq) {
+        Long longKey = toLongKey(key);
+        if (longKey != null) {
+            return remove((long) longKey);
+        } else if (cannotEqualInt(key)) {
+            return false;
+        }
+        int index = findEntry(key, eq);
+        return index != -1 && remove(keys[index]);
+    }
+
+    private abstract class EntryIterator<T> implements Iterator<T> {
+        private int index = nextIndex(0);
+
+        private int nextIndex(int start) {
+            int i = start;
+            while (i < totalEntries && values[i] == null) {
+                i++;
+            }
+            return i;
+        }
+
+        public boolean hasNext() {
+            return index < totalEntries;
+        }
+
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T result = get(index);
+            index = nextIndex(index + 1);
+            return result;
+        }
+
+        protected abstract T get(int i);
+    }
+
+    @Override
+    public Iterable<Object> keys() {
+        return new Iterable<Object>() {
+            public Iterator<Object> iterator() {
+                return new EntryIterator<Object>() {
+                    @Override
+                    protected Object get(int i) {
+                        return boxKey(keys[i]);
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Iterable<Object> values() {
+        return new Iterable<Object>() {
+            public Iterator<Object> iterator() {
+                return new EntryIterator<Object>() {
+                    @Override
+                    protected Object get(int i) {
+                        return values[i];
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Iterable<DictEntry> entries() {
+        return new Iterable<DictEntry>() {
+            public Iterator<DictEntry> iterator() {
+                return new EntryIterator<DictEntry>() {
+                    @Override
+                    protected DictEntry get(int i) {
+                        return new DictEntry(boxKey(keys[i]), values[i]);
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, 0, totalEntries, null);
+        Arrays.fill(table, EMPTY);
+        totalEntries = 0;
+        size = 0;
+    }
+
+    @Override
+    public HashingStorage copy(Equivalence eq) {
+        return new LongMapStorage(this);
+    }
+
+    @Override
+    public String toString() {
+        CompilerAsserts.neverPartOfCompilation();
+        StringBuilder builder = new StringBuilder("map(size=").append(size).append(", {");
+        String sep = "";
+        for (DictEntry entry : entries()) {
+            builder.append(sep).append(entry.getKey()).append("=").append(entry.getValue());
+            sep = ", ";
+        }
+        return builder.append("})").toString();
+    }
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.common;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.truffle.api.CompilerAsserts;
+
+/**
+ * A storage for sets and maps whose keys are all Python {@code str} values. The keys are stored
+ * together with their hash codes, so neither probing nor growing the table needs to compute a hash
+ * again, and two keys are only compared if their hashes match.
+ *
+ * The layout is the same as in {@link LongMapStorage}: the entries are kept in insertion order in
+ * the flat arrays {@link #keys}, {@link #hashes} and {@link #values}; removed entries have a
+ * {@code null} value until the arrays are compacted. The open addressing hash table {@link #table}
+ * with linear probing maps a key to the entry index plus one.
+ *
+ * Only {@code str} keys can be stored, {@link #setItem} throws an
+ * {@link UnmodifiableStorageException} for any other key. The storage nodes then generalize to an
+ * {@link EconomicMapStorage}.
+ */
+public final class StringMapStorage extends HashingStorage {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private static final int EMPTY = 0;
+    private static final int DELETED = -1;
+
+    private String[] keys;
+    private int[] hashes;
+    private Object[] values;
+    private int[] table;
+
+    /**
+     * Number of entries including removed entries.
+     */
+    private int totalEntries;
+
+    /**
+     * Number of entries that are not removed.
+     */
+    private int size;
+
+    public StringMapStorage() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public StringMapStorage(int expectedSize) {
+        int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(expectedSize, 1) - 1) << 1);
+        this.keys = new String[capacity];
+        this.hashes = new int[capacity];
+        this.values = new Object[capacity];
+        this.table = new int[capacity << 1];
+    }
+
+    private StringMapStorage(StringMapStorage other) {
+        this.keys = other.keys.clone();
+        this.hashes = other.hashes.clone();
+        this.values = other.values.clone();
+        this.table = other.table.clone();
+        this.totalEntries = other.totalEntries;
+        this.size = other.size;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private int findEntry(String key, int hash) {
+        int mask = table.length - 1;
+        int slot = spread(hash) & mask;
+        while (true) {
+            int entry = table[slot];
+            if (entry == EMPTY) {
+                return -1;
+            } else if (entry != DELETED && hashes[entry - 1] == hash && key.equals(keys[entry - 1])) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public Object getItem(String key) {
+        int index = findEntry(key, key.hashCode());
+        return index == -1 ? null : values[index];
+    }
+
+    public boolean hasKey(String key) {
+        return findEntry(key, key.hashCode()) != -1;
+    }
+
+    public void setItem(String key, Object value) {
+        setItem(key, key.hashCode(), value);
+    }
+
+    private void setItem(String key, int hash, Object value) {
+        assert value != null;
+        int mask = table.length - 1;
+        int slot = spread(hash) & mask;
+        int freeSlot = -1;
+        while (true) {
+            int entry = table[slot];
+            if (entry == EMPTY) {
+                break;
+            } else if (entry == DELETED) {
+                if (freeSlot == -1) {
+                    freeSlot = slot;
+                }
+            } else if (hashes[entry - 1] == hash && key.equals(keys[entry - 1])) {
+                values[entry - 1] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (totalEntries == keys.length) {
+            resize();
+            setItem(key, hash, value);
+            return;
+        }
+        keys[totalEntries] = key;
+        hashes[totalEntries] = hash;
+        values[totalEntries] = value;
+        totalEntries++;
+        size++;
+        table[freeSlot == -1 ? slot : freeSlot] = totalEntries;
+    }
+
+    public boolean remove(String key) {
+        int hash = key.hashCode();
+        int mask = table.length - 1;
+        int slot = spread(hash) & mask;
+        while (true) {
+            int entry = table[slot];
+            if (entry == EMPTY) {
+                return false;
+            } else if (entry != DELETED && hashes[entry - 1] == hash && key.equals(keys[entry - 1])) {
+                table[slot] = DELETED;
+                keys[entry - 1] = null;
+                values[entry - 1] = null;
+                size--;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Adds all entries of another storage of the same kind, without boxing or hashing the keys.
+     */
+    public void addAll(StringMapStorage other) {
+        for (int i = 0; i < other.totalEntries; i++) {
+            if (other.values[i] != null) {
+                setItem(other.keys[i], other.hashes[i], other.values[i]);
+            }
+        }
+    }
+
+    public StringMapStorage union(StringMapStorage other) {
+        StringMapStorage result = new StringMapStorage(this);
+        result.addAll(other);
+        return result;
+    }
+
+    /**
+     * Returns the entries of this storage whose keys are also in {@code other}. Iterates the
+     * smaller storage.
+     */
+    public StringMapStorage intersection(StringMapStorage other) {
+        if (other.size < size) {
+            return other.intersection(this);
+        }
+        StringMapStorage result = new StringMapStorage(size);
+        for (int i = 0; i < totalEntries; i++) {
+            if (values[i] != null && other.findEntry(keys[i], hashes[i]) != -1) {
+                result.setItem(keys[i], hashes[i], values[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the entries of this storage whose keys are not in {@code other}.
+     */
+    public StringMapStorage difference(StringMapStorage other) {
+        StringMapStorage result = new StringMapStorage(size);
+        for (int i = 0; i < totalEntries; i++) {
+            if (values[i] != null && other.findEntry(keys[i], hashes[i]) == -1) {
+                result.setItem(keys[i], hashes[i], values[i]);
+            }
+        }
+        return result;
+    }
+
+    public StringMapStorage symmetricDifference(StringMapStorage other) {
+        StringMapStorage result = difference(other);
+        for (int i = 0; i < other.totalEntries; i++) {
+            if (other.values[i] != null && findEntry(other.keys[i], other.hashes[i]) == -1) {
+                result.setItem(other.keys[i], other.hashes[i], other.values[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compacts the entries, and doubles the capacity if more than half of the entries are in use.
+     * The cached hashes are reused, no key is hashed again.
+     */
+    private void resize() {
+        int capacity = keys.length;
+        if (size >= capacity >> 1) {
+            capacity <<= 1;
+        }
+        String[] newKeys = new String[capacity];
+        int[] newHashes = new int[capacity];
+        Object[] newValues = new Object[capacity];
+        int[] newTable = new int[capacity << 1];
+        int mask = newTable.length - 1;
+        int j = 0;
+        for (int i = 0; i < totalEntries; i++) {
+            if (values[i] != null) {
+                newKeys[j] = keys[i];
+                newHashes[j] = hashes[i];
+                newValues[j] = values[i];
+                int slot = spread(hashes[i]) & mask;
+                while (newTable[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                newTable[slot] = ++j;
+            }
+        }
+        keys = newKeys;
+        hashes = newHashes;
+        values = newValues;
+        table = newTable;
+        totalEntries = j;
+    }
+
+    /**
+     * Returns the Java string of keys that are equal to a {@code str} without calling
+     * {@code __eq__}, or {@code null} if the key may only be equal to a {@code str} by a user
+     * defined {@code __eq__}.
+     */
+    private static String toStringKey(Object key) {
+        if (key instanceof String) {
+            return (String) key;
+        } else if (key instanceof PString && ((PString) key).getPythonClass().isBuiltin()) {
+            return ((PString) key).getValue();
+        }
+        return null;
+    }
+
+    private static boolean cannotEqualString(Object key) {
+        return key instanceof Integer || key instanceof Long || key instanceof Double || key instanceof Boolean;
+    }
+
+    /**
+     * Finds the entry of a key that is not a {@code str} but may be equal to one. The cached hashes
+     * are compared first, so {@code __eq__} is only called for candidates.
+     */
+    private int findEntry(Object key, Equivalence eq) {
+        int hash = eq.hashCode(key);
+        for (int i = 0; i < totalEntries; i++) {
+            if (values[i] != null && hashes[i] == hash && eq.equals(key, keys[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int length() {
+        return size;
+    }
+
+    @Override
+    public boolean hasKey(Object key, Equivalence eq) {
+        return getItem(key, eq) != null;
+    }
+
+    @Override
+    public Object getItem(Object key, Equivalence eq) {
+        String stringKey = toStringKey(key);
+        if (stringKey != null) {
+            return getItem(stringKey);
+        } else if (cannotEqualString(key)) {
+            return null;
+        }
+        int index = findEntry(key, eq);
+        return index == -1 ? null : values[index];
+    }
+
+    @Override
+    public void setItem(Object key, Object value, Equivalence eq) {
+        String stringKey = toStringKey(key);
+        if (stringKey != null) {
+            setItem(stringKey, value);
+        } else {
+            throw UnmodifiableStorageException.INSTANCE;
+        }
+    }
+
+    @Override
+    public boolean remove(Object key, Equivalence eq) {
+        String stringKey = toStringKey(key);
+        if (stringKey != null) {
+            return remove(stringKey);
+        } else if (cannotEqualString(key)) {
+            return false;
+        }
+        int index = findEntry(key, eq);
+        return index != -1 && remove(keys[index]);
+    }
+
+    private abstract class EntryIterator<T> implements Iterator<T> {
+        private int index = nextIndex(0);
+
+        private int nextIndex(int start) {
+            int i = start;
+            while (i < totalEntries && values[i] == null) {
+                i++;
+            }
+            return i;
+        }
+
+        public boolean hasNext() {
+            return index < totalEntries;
+        }
+
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T result = get(index);
+            index = nextIndex(index + 1);
+            return result;
+        }
+
+        protected abstract T get(int i);
+    }
+
+    @Override
+    public Iterable<Object> keys() {
+        return new Iterable<Object>() {
+            public Iterator<Object> iterator() {
+                return new EntryIterator<Object>() {
+                    @Override
+                    protected Object get(int i) {
+                        return keys[i];
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Iterable<Object> values() {
+        return new Iterable<Object>() {
+            public Iterator<Object> iterator() {
+                return new EntryIterator<Object>() {
+                    @Override
+                    protected Object get(int i) {
+                        return values[i];
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Iterable<DictEntry> entries() {
+        return new Iterable<DictEntry>() {
+            public Iterator<DictEntry> iterator() {
+                return new EntryIterator<DictEntry>() {
+                    @Override
+                    protected DictEntry get(int i) {
+                        return new DictEntry(keys[i], values[i]);
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, totalEntries, null);
+        Arrays.fill(values, 0, totalEntries, null);
+        Arrays.fill(table, EMPTY);
+        totalEntries = 0;
+        size = 0;
+    }
+
+    @Override
+    public HashingStorage copy(Equivalence eq) {
+        return new StringMapStorage(this);
+    }
+
+    @Override
+    public String toString() {
+        CompilerAsserts.neverPartOfCompilation();
+        StringBuilder builder = new StringBuilder("map(size=").append(size).append(", {");
+        String sep = "";
+        for (DictEntry entry : entries()) {
+            builder.append(sep).append(entry.getKey()).append("=").append(entry.getValue());
+            sep = ", ";
+        }
+        return builder.append("})").toString();
+    }
+}
@@ -25,6 +25,7 @@
  */
 package com.oracle.graal.python.builtins.objects.dict;
 
+import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.objects.common.DynamicObjectStorage;
 import com.oracle.graal.python.builtins.objects.common.DynamicObjectStorage.FastDictStorage;
 import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
@@ -33,6 +34,7 @@ import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage.UnmodifiableStorageException;
 import com.oracle.graal.python.builtins.objects.common.KeywordsStorage;
+import com.oracle.graal.python.builtins.objects.common.LongMapStorage;
 import com.oracle.graal.python.builtins.objects.common.PHashingCollection;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
@@ -65,7 +67,12 @@ public final class PDict extends PHashingCollection {
         try {
             dictStorage.setItem(key, value, HashingStorage.getSlowPathEquivalence(key));
         } catch (UnmodifiableStorageException e) {
-            HashingStorage newDictStorage = createNewStorage(key instanceof String, size() + 1);
+            boolean isLongMap = dictStorage instanceof LongMapStorage;
+            HashingStorage newDictStorage = createNewStorage(key instanceof String && !isLongMap, size() + 1);
+            if (isLongMap) {
+                // a long map storage only holds int keys, generalize it
+                newDictStorage.addAll(dictStorage, PythonLanguage.getContext().getSlowPathEquivalence());
+            }
             newDictStorage.setItem(key, value, HashingStorage.getSlowPathEquivalence(key));
             dictStorage = newDictStorage;
         }
@@ -53,8 +53,10 @@ import com.oracle.graal.python.nodes.function.BuiltinFunctionRootNode;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.formatting.ErrorMessageFormatter;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.TruffleStackTraceElement;
 import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.nodes.RootNode;
@@ -74,6 +76,20 @@ public final class PBaseException extends PythonObject {
     private List<TruffleStackTraceElement> stackTrace;
     private PTraceback[] traceback;
 
+    /**
+     * The assumption of the except-site that caught this exception without capturing its stack.
+     * If the traceback is observed anyway, the assumption is invalidated so that the site reifies
+     * eagerly from then on.
+     */
+    private Assumption lazilyCaughtAssumption;
+
+    /**
+     * The root of the function whose handler lazily caught this exception. Frames that are deeper
+     * on the stack than this one when the traceback is finally built belong to whoever reads the
+     * traceback and are left out.
+     */
+    private RootNode catchingRoot;
+
     public PBaseException(PythonClass cls, PTuple args) {
         super(cls);
         this.args = args;
@@ -112,6 +128,7 @@ public final class PBaseException extends PythonObject {
     }
 
     public void setTraceback(PTraceback traceback) {
+        traceback.getException().reifyException();
         this.traceback = traceback.getException().traceback;
     }
 
@@ -159,6 +176,26 @@ public final class PBaseException extends PythonObject {
         return stackTrace;
     }
 
+    /**
+     * Defers capturing the stack of an exception that was caught by a handler which so far never
+     * had its traceback observed. No frames are walked or materialized here, this only happens if
+     * the traceback is read later on. See {@link #reifyException()}.
+     */
+    public void setLazilyCaught(Assumption exceptSiteAssumption, RootNode handlerRoot) {
+        this.lazilyCaughtAssumption = exceptSiteAssumption;
+        this.catchingRoot = handlerRoot;
+    }
+
+    /**
+     * Captures the stack right away for a handler that is known to observe tracebacks. Any state
+     * left from an earlier lazy catch of this exception is dropped, its handler was already left.
+     */
+    public void setEagerlyCaught() {
+        this.lazilyCaughtAssumption = null;
+        this.catchingRoot = null;
+        reifyException();
+    }
+
     /**
      * This function must be called before handing out exceptions into the Python value space,
      * because otherwise the stack will not be correct if the exception object escapes the current
@@ -167,8 +204,21 @@ public final class PBaseException extends PythonObject {
     @TruffleBoundary
     public void reifyException() {
         if (stackTrace == null && traceback == null) {
+            if (lazilyCaughtAssumption != null) {
+                lazilyCaughtAssumption.invalidate();
+                lazilyCaughtAssumption = null;
+            }
+            int propagatedFrames = -1;
+            if (catchingRoot != null) {
+                // the frames the exception passed through on its way to the handler
+                List<TruffleStackTraceElement> propagated = TruffleStackTraceElement.getStackTrace(exception);
+                propagatedFrames = propagated == null ? 0 : propagated.size();
+            }
             TruffleStackTraceElement.fillIn(exception);
             stackTrace = new ArrayList<>(TruffleStackTraceElement.getStackTrace(exception));
+            if (propagatedFrames >= 0) {
+                removeReaderFrames(propagatedFrames);
+            }
             Iterator<TruffleStackTraceElement> iter = stackTrace.iterator();
             while (iter.hasNext()) {
                 TruffleStackTraceElement element = iter.next();
@@ -185,6 +235,51 @@ public final class PBaseException extends PythonObject {
         }
     }
 
+    /**
+     * The stack of a lazily caught exception is only filled in where its traceback is read, which
+     * may be in a function called from the handler. Those frames are dropped, up to the frame of the
+     * handler. If the exception escaped its handler before the traceback was read, the handler's
+     * frame is gone and the traceback ends with the frames the exception propagated through.
+     */
+    private void removeReaderFrames(int propagatedFrames) {
+        List<TruffleStackTraceElement> current = stackTrace.subList(propagatedFrames, stackTrace.size());
+        int handlerIndex = 0;
+        while (handlerIndex < current.size()) {
+            RootCallTarget target = current.get(handlerIndex).getTarget();
+            if (target != null && target.getRootNode() == catchingRoot) {
+                break;
+            }
+            handlerIndex++;
+        }
+        current.subList(0, handlerIndex).clear();
+        catchingRoot = null;
+    }
+
+    /**
+     * Returns the traceback of this exception without capturing the stack yet, for handing it to
+     * code that may never look at it, like {@code __exit__} methods. The stack is captured when
+     * the traceback is first accessed.
+     */
+    public PTraceback getLazyTraceback(PythonObjectFactory factory) {
+        if (traceback != null) {
+            return getTraceback(factory, traceback.length - 1);
+        }
+        return factory.createTraceback(this, PTraceback.UNRESOLVED_INDEX);
+    }
+
+    /**
+     * Called by a traceback from {@link #getLazyTraceback} on its first access. Returns the index
+     * of the outermost entry, which the lazy traceback now stands for.
+     */
+    public int resolveLazyTraceback(PTraceback lazyTraceback) {
+        reifyException();
+        int index = traceback.length - 1;
+        if (index >= 0 && traceback[index] == null) {
+            traceback[index] = lazyTraceback;
+        }
+        return index;
+    }
+
     @TruffleBoundary
     public PFrame getPFrame(PythonObjectFactory factory, int index) {
         assert index >= 0 && index < stackTrace.size() : "PBaseException.getPFrame index out of bounds";
@@ -188,6 +188,11 @@ public final class FrameBuiltins extends PythonBuiltins {
     public abstract static class GetBackrefNode extends PythonBuiltinNode {
         @Specialization
         Object get(PFrame self) {
+            PFrame.Reference reference = self.getReference();
+            if (reference != null) {
+                PFrame.Reference back = reference.getBack();
+                return back == null ? PNone.NONE : back.getPFrame(factory());
+            }
             PTraceback traceback = self.getException().getTraceback(factory(), self.getIndex() + 1);
             if (traceback == null) {
                 return PNone.NONE;
@@ -40,20 +40,28 @@ package com.oracle.graal.python.builtins.objects.frame;
 
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.graal.python.nodes.PClosureRootNode;
 import com.oracle.graal.python.nodes.function.ClassBodyRootNode;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.TruffleStackTraceElement;
 import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.frame.FrameInstance;
+import com.oracle.truffle.api.frame.FrameInstanceVisitor;
 import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.api.source.SourceSection;
 
 public final class PFrame extends PythonBuiltinObject {
 
     private final PBaseException exception;
     private final int index;
+    private final Reference reference;
     private PDict localsDict;
 
     private final boolean inClassScope;
@@ -64,6 +72,7 @@ public final class PFrame extends PythonBuiltinObject {
         super(cls);
         this.exception = exception;
         this.index = index;
+        this.reference = null;
 
         TruffleStackTraceElement truffleStackTraceElement = exception.getStackTrace().get(index);
         this.frame = truffleStackTraceElement.getFrame();
@@ -71,6 +80,20 @@ public final class PFrame extends PythonBuiltinObject {
         this.inClassScope = truffleStackTraceElement.getTarget().getRootNode() instanceof ClassBodyRootNode;
     }
 
+    public PFrame(PythonClass cls, Reference reference) {
+        super(cls);
+        this.exception = null;
+        this.index = -1;
+        this.reference = reference;
+        this.frame = reference.frame;
+        this.location = reference.callNode;
+        this.inClassScope = reference.inClassScope;
+    }
+
+    /**
+     * Can be null if this frame was obtained by walking the stack (e.g. {@code sys._getframe})
+     * rather than from a traceback.
+     */
     public PBaseException getException() {
         return exception;
     }
@@ -79,6 +102,13 @@ public final class PFrame extends PythonBuiltinObject {
         return index;
     }
 
+    /**
+     * Can be null if this frame was created from a traceback.
+     */
+    public Reference getReference() {
+        return reference;
+    }
+
     public Frame getFrame() {
         return frame;
     }
@@ -116,4 +146,78 @@ public final class PFrame extends PythonBuiltinObject {
         }
         return factory.createDict();
     }
+
+    /**
+     * A cheap handle on a Python frame that was live on the Truffle stack when it was captured.
+     * It only holds the read-only frame and the call node that was active in it; the
+     * {@link PFrame} object is only allocated once Python code asks for it. Capturing a reference
+     * never requests a materialized or writable frame, so it neither deoptimizes the callers nor
+     * forces them to pass their frame on every future call.
+     */
+    public static final class Reference {
+        private final Frame frame;
+        private final Node callNode;
+        private final boolean inClassScope;
+        private Reference back;
+
+        private Reference(Frame frame, Node callNode, boolean inClassScope) {
+            this.frame = frame;
+            this.callNode = callNode;
+            this.inClassScope = inClassScope;
+        }
+
+        public Frame getFrame() {
+            return frame;
+        }
+
+        public Reference getBack() {
+            return back;
+        }
+
+        public PFrame getPFrame(PythonObjectFactory factory) {
+            PFrame pFrame = PArguments.getPFrame(frame);
+            if (pFrame == null) {
+                pFrame = factory.createPFrame(this);
+                PArguments.setPFrame(frame, pFrame);
+            }
+            return pFrame;
+        }
+
+        /**
+         * Walks the Truffle stack and returns the Python frame at the given depth (0 being the
+         * innermost Python frame) or {@code null} if the stack is not deep enough. Only frames of
+         * Python code are counted, builtin and top level exception handler frames are skipped.
+         *
+         * The frames below the requested one are captured right away, because {@code f_back} may be
+         * read after they returned, and a {@link FrameInstance} cannot be revisited once the stack
+         * walk is over.
+         */
+        @TruffleBoundary
+        public static Reference capture(int depth) {
+            Reference[] result = new Reference[2];
+            int[] count = new int[]{0};
+            Truffle.getRuntime().iterateFrames(new FrameInstanceVisitor<Object>() {
+                @Override
+                public Object visitFrame(FrameInstance frameInstance) {
+                    RootNode rootNode = ((RootCallTarget) frameInstance.getCallTarget()).getRootNode();
+                    if (rootNode instanceof PClosureRootNode) {
+                        if (count[0] >= depth) {
+                            // frames above the requested one are never read, so don't touch them
+                            Frame readOnlyFrame = frameInstance.getFrame(FrameInstance.FrameAccess.READ_ONLY);
+                            Reference current = new Reference(readOnlyFrame, frameInstance.getCallNode(), rootNode instanceof ClassBodyRootNode);
+                            if (result[0] == null) {
+                                result[0] = current;
+                            } else {
+                                result[1].back = current;
+                            }
+                            result[1] = current;
+                        }
+                        count[0]++;
+                    }
+                    return null;
+                }
+            });
+            return result[0];
+        }
+    }
 }
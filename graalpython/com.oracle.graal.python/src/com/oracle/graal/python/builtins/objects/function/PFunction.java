@@ -32,7 +32,10 @@ import com.oracle.graal.python.builtins.objects.cell.PCell;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
+import com.oracle.graal.python.nodes.function.LazyFunctionCallTarget;
 import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.frame.FrameDescriptor;
@@ -44,14 +47,26 @@ public class PFunction extends PythonObject implements PythonCallable {
     private final String name;
     private final String enclosingClassName;
     private final Arity arity;
-    private final RootCallTarget callTarget;
+    @CompilationFinal private RootCallTarget callTarget;
+    private final LazyFunctionCallTarget lazyCallTarget;
     private final FrameDescriptor frameDescriptor;
     private final PythonObject globals;
     private final PCell[] closure;
     private final boolean isStatic;
 
     public PFunction(PythonClass clazz, String name, String enclosingClassName, Arity arity, RootCallTarget callTarget, FrameDescriptor frameDescriptor, PythonObject globals, PCell[] closure) {
+        this(clazz, name, enclosingClassName, arity, callTarget, null, frameDescriptor, globals, closure);
+    }
+
+    public PFunction(PythonClass clazz, String name, String enclosingClassName, Arity arity, LazyFunctionCallTarget lazyCallTarget, FrameDescriptor frameDescriptor, PythonObject globals,
+                    PCell[] closure) {
+        this(clazz, name, enclosingClassName, arity, null, lazyCallTarget, frameDescriptor, globals, closure);
+    }
+
+    private PFunction(PythonClass clazz, String name, String enclosingClassName, Arity arity, RootCallTarget callTarget, LazyFunctionCallTarget lazyCallTarget, FrameDescriptor frameDescriptor,
+                    PythonObject globals, PCell[] closure) {
         super(clazz);
+        this.lazyCallTarget = lazyCallTarget;
         this.name = name;
         this.isStatic = name.equals(SpecialMethodNames.__NEW__);
         this.enclosingClassName = enclosingClassName;
@@ -64,7 +79,7 @@ public class PFunction extends PythonObject implements PythonCallable {
     }
 
     public PFunction copyWithGlobals(PythonObject newGlobals) {
-        return new PFunction(getPythonClass(), name, enclosingClassName, arity, callTarget, frameDescriptor, newGlobals, closure);
+        return new PFunction(getPythonClass(), name, enclosingClassName, arity, callTarget, lazyCallTarget, frameDescriptor, newGlobals, closure);
     }
 
     @TruffleBoundary
@@ -79,6 +94,11 @@ public class PFunction extends PythonObject implements PythonCallable {
 
     @Override
     public RootCallTarget getCallTarget() {
+        if (callTarget == null) {
+            // the body is translated when the function is first called
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            callTarget = lazyCallTarget.get();
+        }
         return callTarget;
     }
 
@@ -93,7 +113,7 @@ public class PFunction extends PythonObject implements PythonCallable {
     }
 
     public RootNode getFunctionRootNode() {
-        return callTarget.getRootNode();
+        return getCallTarget().getRootNode();
     }
 
     @Override
@@ -70,6 +70,7 @@ import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.dsl.TypeSystemReference;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(extendClasses = PInt.class, pythonClassTypes = PythonBuiltinClassType.PInt)
 public class IntBuiltins extends PythonBuiltins {
@@ -81,6 +82,7 @@ public class IntBuiltins extends PythonBuiltins {
 
     private abstract static class IntBinaryBuiltinNode extends PythonBinaryBuiltinNode {
         BranchProfile divisionByZeroProfile = BranchProfile.create();
+        ConditionProfile fitsInLongProfile = ConditionProfile.createBinaryProfile();
 
         protected void raiseDivisionByZero(boolean cond) {
             if (cond) {
@@ -88,6 +90,27 @@ public class IntBuiltins extends PythonBuiltins {
                 throw raise(PythonErrorType.ZeroDivisionError, "division by zero");
             }
         }
+
+        /**
+         * Returns the result of a {@link BigInteger} operation as a {@code long} if it fits, such
+         * that values which overflowed only temporarily get back onto the primitive fast path.
+         */
+        protected Object narrow(BigInteger value) {
+            if (fitsInLongProfile.profile(fitsInLong(value))) {
+                return longValue(value);
+            }
+            return factory().createInt(value);
+        }
+    }
+
+    @TruffleBoundary
+    static boolean fitsInLong(BigInteger value) {
+        return value.bitLength() < Long.SIZE;
+    }
+
+    @TruffleBoundary
+    static long longValue(BigInteger value) {
+        return value.longValue();
     }
 
     @Builtin(name = SpecialMethodNames.__ROUND__, minNumOfArguments = 1, maxNumOfArguments = 2)
@@ -116,7 +139,7 @@ public class IntBuiltins extends PythonBuiltins {
     @Builtin(name = SpecialMethodNames.__ADD__, fixedNumOfArguments = 2)
     @GenerateNodeFactory
     @TypeSystemReference(PythonArithmeticTypes.class)
-    public abstract static class AddNode extends PythonBinaryBuiltinNode {
+    public abstract static class AddNode extends IntBinaryBuiltinNode {
 
         @Specialization(rewriteOn = ArithmeticException.class)
         int add(int left, int right) {
@@ -144,8 +167,8 @@ public class IntBuiltins extends PythonBuiltins {
         }
 
         @Specialization
-        PInt add(PInt left, PInt right) {
-            return factory().createInt(op(left.getValue(), right.getValue()));
+        Object add(PInt left, PInt right) {
+            return narrow(op(left.getValue(), right.getValue()));
         }
 
         @TruffleBoundary
@@ -168,7 +191,7 @@ public class IntBuiltins extends PythonBuiltins {
     @Builtin(name = SpecialMethodNames.__SUB__, fixedNumOfArguments = 2)
     @GenerateNodeFactory
     @TypeSystemReference(PythonArithmeticTypes.class)
-    public abstract static class SubNode extends PythonBinaryBuiltinNode {
+    public abstract static class SubNode extends IntBinaryBuiltinNode {
 
         @Specialization(rewriteOn = ArithmeticException.class)
         int doII(int x, int y) throws ArithmeticException {
@@ -201,8 +224,8 @@ public class IntBuiltins extends PythonBuiltins {
         }
 
         @Specialization
-        PInt doPIntPInt(PInt left, PInt right) {
-            return factory().createInt(op(left.getValue(), right.getValue()));
+        Object doPIntPInt(PInt left, PInt right) {
+            return narrow(op(left.getValue(), right.getValue()));
         }
 
         @TruffleBoundary
@@ -220,7 +243,7 @@ public class IntBuiltins extends PythonBuiltins {
     @Builtin(name = SpecialMethodNames.__RSUB__, fixedNumOfArguments = 2)
     @GenerateNodeFactory
     @TypeSystemReference(PythonArithmeticTypes.class)
-    public abstract static class RSubNode extends PythonBinaryBuiltinNode {
+    public abstract static class RSubNode extends IntBinaryBuiltinNode {
 
         @Specialization(rewriteOn = ArithmeticException.class)
         int doII(int y, int x) throws ArithmeticException {
@@ -253,8 +276,8 @@ public class IntBuiltins extends PythonBuiltins {
         }
 
         @Specialization
-        PInt doPIntPInt(PInt right, PInt left) {
-            return factory().createInt(op(left.getValue(), right.getValue()));
+        Object doPIntPInt(PInt right, PInt left) {
+            return narrow(op(left.getValue(), right.getValue()));
         }
 
         @TruffleBoundary
@@ -409,21 +432,21 @@ public class IntBuiltins extends PythonBuiltins {
         }
 
         @Specialization
-        PInt doLPi(long left, PInt right) {
+        Object doLPi(long left, PInt right) {
             raiseDivisionByZero(right.isZero());
-            return factory().createInt(op(BigInteger.valueOf(left), right.getValue()));
+            return narrow(op(BigInteger.valueOf(left), right.getValue()));
         }
 
         @Specialization
-        PInt doPiL(PInt left, long right) {
+        Object doPiL(PInt left, long right) {
             raiseDivisionByZero(right == 0);
-            return factory().createInt(op(left.getValue(), BigInteger.valueOf(right)));
+            return narrow(op(left.getValue(), BigInteger.valueOf(right)));
         }
 
         @Specialization
-        PInt doPiPi(PInt left, PInt right) {
+        Object doPiPi(PInt left, PInt right) {
             raiseDivisionByZero(right.isZero());
-            return factory().createInt(op(left.getValue(), right.getValue()));
+            return narrow(op(left.getValue(), right.getValue()));
         }
 
         @TruffleBoundary
@@ -462,21 +485,21 @@ public class IntBuiltins extends PythonBuiltins {
         }
 
         @Specialization
-        PInt doPiL(PInt right, long left) {
+        Object doPiL(PInt right, long left) {
             raiseDivisionByZero(right.isZero());
-            return factory().createInt(op(BigInteger.valueOf(left), right.getValue()));
+            return narrow(op(BigInteger.valueOf(left), right.getValue()));
         }
 
         @Specialization
-        PInt doLPi(long right, PInt left) {
+        Object doLPi(long right, PInt left) {
             raiseDivisionByZero(right == 0);
-            return factory().createInt(op(left.getValue(), BigInteger.valueOf(right)));
+            return narrow(op(left.getValue(), BigInteger.valueOf(right)));
         }
 
         @Specialization
-        PInt doPiPi(PInt right, PInt left) {
+        Object doPiPi(PInt right, PInt left) {
             raiseDivisionByZero(right.isZero());
-            return factory().createInt(op(left.getValue(), right.getValue()));
+            return narrow(op(left.getValue(), right.getValue()));
         }
 
         @TruffleBoundary
@@ -510,29 +533,29 @@ public class IntBuiltins extends PythonBuiltins {
         @Specialization
         Object doLPi(long left, PInt right) {
             raiseDivisionByZero(right.isZero());
-            return factory().createInt(op(BigInteger.valueOf(left), right.getValue()));
+            return narrow(op(BigInteger.valueOf(left), right.getValue()));
         }
 
         @Specialization(guards = "right >= 0")
         Object doPiL(PInt left, long right) {
             raiseDivisionByZero(right == 0);
-            return factory().createInt(op(left.getValue(), BigInteger.valueOf(right)));
+            return narrow(op(left.getValue(), BigInteger.valueOf(right)));
         }
 
         @Specialization(guards = "right.isZeroOrPositive()")
         Object doPiPi(PInt left, PInt right) {
             raiseDivisionByZero(right.isZero());
-            return factory().createInt(op(left.getValue(), right.getValue()));
+            return narrow(op(left.getValue(), right.getValue()));
         }
 
         @Specialization(guards = "right < 0")
         Object doPiLNeg(PInt left, long right) {
-            return factory().createInt(opNeg(left.getValue(), BigInteger.valueOf(right)));
+            return narrow(opNeg(left.getValue(), BigInteger.valueOf(right)));
         }
 
         @Specialization(guards = "!right.isZeroOrPositive()")
         Object doPiPiNeg(PInt left, PInt right) {
-            return factory().createInt(opNeg(left.getValue(), right.getValue()));
+            return narrow(opNeg(left.getValue(), right.getValue()));
         }
 
         @TruffleBoundary
@@ -558,7 +581,7 @@ public class IntBuiltins extends PythonBuiltins {
     @Builtin(name = SpecialMethodNames.__MUL__, fixedNumOfArguments = 2)
     @GenerateNodeFactory
     @TypeSystemReference(PythonArithmeticTypes.class)
-    abstract static class MulNode extends PythonBinaryBuiltinNode {
+    abstract static class MulNode extends IntBinaryBuiltinNode {
 
         @Specialization(rewriteOn = ArithmeticException.class)
         int doII(int x, int y) throws ArithmeticException {
@@ -581,12 +604,12 @@ public class IntBuiltins extends PythonBuiltins {
 
         @Specialization
         Object doPIntLong(PInt left, long right) {
-            return factory().createInt(op(left.getValue(), BigInteger.valueOf(right)));
+            return narrow(op(left.getValue(), BigInteger.valueOf(right)));
         }
 
         @Specialization
-        PInt doPIntPInt(PInt left, PInt right) {
-            return factory().createInt(op(left.getValue(), right.getValue()));
+        Object doPIntPInt(PInt left, PInt right) {
+            return narrow(op(left.getValue(), right.getValue()));
         }
 
         @TruffleBoundary
@@ -686,9 +709,14 @@ public class IntBuiltins extends PythonBuiltins {
         }
 
         @Specialization
-        PInt doPInt(PInt left, PInt right, @SuppressWarnings("unused") PNone none) {
+        Object doPInt(PInt left, PInt right, @SuppressWarnings("unused") PNone none,
+                        @Cached("createBinaryProfile()") ConditionProfile fitsInLongProfile) {
             try {
-                return factory().createInt(op(left.getValue(), right.getValue().longValueExact()));
+                BigInteger value = op(left.getValue(), right.getValue().longValueExact());
+                if (fitsInLongProfile.profile(fitsInLong(value))) {
+                    return longValue(value);
+                }
+                return factory().createInt(value);
             } catch (ArithmeticException e) {
                 // fall through to normal computation
             }
@@ -932,7 +960,7 @@ public class IntBuiltins extends PythonBuiltins {
     @Builtin(name = SpecialMethodNames.__LSHIFT__, fixedNumOfArguments = 2)
     @TypeSystemReference(PythonArithmeticTypes.class)
     @GenerateNodeFactory
-    abstract static class LShiftNode extends PythonBinaryBuiltinNode {
+    abstract static class LShiftNode extends IntBinaryBuiltinNode {
         @Specialization(rewriteOn = ArithmeticException.class)
         int doII(int left, int right) {
             raiseNegativeShiftCount(right < 0);
@@ -981,21 +1009,21 @@ public class IntBuiltins extends PythonBuiltins {
         }
 
         @Specialization
-        PInt doPiI(PInt left, int right) {
+        Object doPiI(PInt left, int right) {
             raiseNegativeShiftCount(right < 0);
             return doGuardedBiI(left.getValue(), right);
         }
 
-        protected PInt doGuardedBiI(BigInteger left, int right) {
+        protected Object doGuardedBiI(BigInteger left, int right) {
             try {
-                return factory().createInt(op(left, right));
+                return narrow(op(left, right));
             } catch (ArithmeticException e) {
                 throw raise(PythonErrorType.OverflowError);
             }
         }
 
         @Specialization
-        PInt doPiL(PInt left, long right) {
+        Object doPiL(PInt left, long right) {
             int rightI = (int) right;
             if (rightI == right) {
                 return doPiI(left, rightI);
@@ -1005,10 +1033,10 @@ public class IntBuiltins extends PythonBuiltins {
         }
 
         @Specialization
-        PInt doPiPi(PInt left, PInt right) {
+        Object doPiPi(PInt left, PInt right) {
             raiseNegativeShiftCount(!right.isZeroOrPositive());
             try {
-                return factory().createInt(op(left.getValue(), right.intValueExact()));
+                return narrow(op(left.getValue(), right.intValueExact()));
             } catch (ArithmeticException e) {
                 throw raise(PythonErrorType.OverflowError);
             }
@@ -1036,7 +1064,7 @@ public class IntBuiltins extends PythonBuiltins {
     @Builtin(name = SpecialMethodNames.__RSHIFT__, fixedNumOfArguments = 2)
     @TypeSystemReference(PythonArithmeticTypes.class)
     @GenerateNodeFactory
-    abstract static class RShiftNode extends PythonBinaryBuiltinNode {
+    abstract static class RShiftNode extends IntBinaryBuiltinNode {
         @Specialization(rewriteOn = ArithmeticException.class)
         int doII(int left, int right) {
             raiseNegativeShiftCount(right < 0);
@@ -1050,27 +1078,27 @@ public class IntBuiltins extends PythonBuiltins {
         }
 
         @Specialization
-        PInt doLPi(long left, PInt right) {
+        Object doLPi(long left, PInt right) {
             raiseNegativeShiftCount(!right.isZeroOrPositive());
-            return factory().createInt(op(BigInteger.valueOf(left), right.intValue()));
+            return narrow(op(BigInteger.valueOf(left), right.intValue()));
         }
 
         @Specialization
-        PInt doPiI(PInt left, int right) {
+        Object doPiI(PInt left, int right) {
             raiseNegativeShiftCount(right < 0);
-            return factory().createInt(op(left.getValue(), right));
+            return narrow(op(left.getValue(), right));
         }
 
         @Specialization
-        PInt doPiL(PInt left, long right) {
+        Object doPiL(PInt left, long right) {
             raiseNegativeShiftCount(right < 0);
-            return factory().createInt(op(left.getValue(), (int) right));
+            return narrow(op(left.getValue(), (int) right));
         }
 
         @Specialization
-        PInt doPInt(PInt left, PInt right) {
+        Object doPInt(PInt left, PInt right) {
             raiseNegativeShiftCount(!right.isZeroOrPositive());
-            return factory().createInt(op(left.getValue(), right.intValue()));
+            return narrow(op(left.getValue(), right.intValue()));
         }
 
         private void raiseNegativeShiftCount(boolean cond) {
@@ -1092,7 +1120,7 @@ public class IntBuiltins extends PythonBuiltins {
 
     }
 
-    abstract static class BinaryBitwiseNode extends PythonBinaryBuiltinNode {
+    abstract static class BinaryBitwiseNode extends IntBinaryBuiltinNode {
 
         @SuppressWarnings("unused")
         protected int op(int left, int right) {
@@ -1120,18 +1148,18 @@ public class IntBuiltins extends PythonBuiltins {
         }
 
         @Specialization
-        PInt doPInt(long left, PInt right) {
-            return factory().createInt(op(BigInteger.valueOf(left), right.getValue()));
+        Object doPInt(long left, PInt right) {
+            return narrow(op(BigInteger.valueOf(left), right.getValue()));
         }
 
         @Specialization
-        PInt doPInt(PInt left, long right) {
-            return factory().createInt(op(left.getValue(), BigInteger.valueOf(right)));
+        Object doPInt(PInt left, long right) {
+            return narrow(op(left.getValue(), BigInteger.valueOf(right)));
         }
 
         @Specialization
-        PInt doPInt(PInt left, PInt right) {
-            return factory().createInt(op(left.getValue(), right.getValue()));
+        Object doPInt(PInt left, PInt right) {
+            return narrow(op(left.getValue(), right.getValue()));
         }
 
         @SuppressWarnings("unused")
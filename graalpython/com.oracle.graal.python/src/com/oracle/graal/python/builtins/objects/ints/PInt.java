@@ -29,6 +29,7 @@ import java.math.BigInteger;
 
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.graal.python.runtime.BigIntegerConversion;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
 public final class PInt extends PythonBuiltinObject {
@@ -83,7 +84,7 @@ public final class PInt extends PythonBuiltinObject {
     @Override
     @TruffleBoundary
     public String toString() {
-        return value.toString();
+        return BigIntegerConversion.toDecimalString(value);
     }
 
     @TruffleBoundary
@@ -70,4 +70,13 @@ public class PForeignArrayIterator extends PythonBuiltinObject {
         return cursor++;
     }
 
+    /**
+     * Moves the cursor to the end and returns the index it was at before.
+     */
+    public int exhaust() {
+        int start = cursor;
+        cursor = size;
+        return start;
+    }
+
 }
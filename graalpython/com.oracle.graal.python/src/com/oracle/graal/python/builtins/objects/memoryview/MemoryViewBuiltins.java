@@ -0,0 +1,499 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.memoryview;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ENTER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EXIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LEN__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETITEM__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.array.PTypedArray;
+import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.slice.PSlice;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.graal.python.runtime.PrimitiveCodec;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.PSequence;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.TypeSystemReference;
+
+@CoreFunctions(extendClasses = PMemoryView.class)
+public class MemoryViewBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return MemoryViewBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = __LEN__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class LenNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        int len(PMemoryView self) {
+            self.checkReleased();
+            return self.len();
+        }
+    }
+
+    @Builtin(name = __GETITEM__, fixedNumOfArguments = 2)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class GetItemNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object doInt(PMemoryView self, int idx) {
+            self.checkReleased();
+            return self.getItem(idx);
+        }
+
+        @Specialization
+        Object doLong(PMemoryView self, long idx) {
+            self.checkReleased();
+            return self.getItem(toIndex(idx));
+        }
+
+        @Specialization
+        Object doSlice(PMemoryView self, PSlice slice) {
+            self.checkReleased();
+            return self.getSlice(factory(), slice.computeActualIndices(self.len()));
+        }
+
+        @Specialization
+        Object doTuple(PMemoryView self, PTuple indices) {
+            self.checkReleased();
+            return self.getItem(toIndices(indices));
+        }
+
+        @Fallback
+        Object doGeneric(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object idx) {
+            throw raise(TypeError, "memoryview: invalid slice key");
+        }
+    }
+
+    @Builtin(name = __SETITEM__, fixedNumOfArguments = 3)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class SetItemNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PNone doInt(PMemoryView self, int idx, Object value) {
+            self.checkReleased();
+            self.setItem(idx, value);
+            return PNone.NONE;
+        }
+
+        @Specialization
+        PNone doLong(PMemoryView self, long idx, Object value) {
+            self.checkReleased();
+            self.setItem(toIndex(idx), value);
+            return PNone.NONE;
+        }
+
+        @Specialization
+        PNone doSlice(PMemoryView self, PSlice slice, Object value) {
+            self.checkReleased();
+            self.setSlice(slice.computeActualIndices(self.len()), asView(factory(), value));
+            return PNone.NONE;
+        }
+
+        @Specialization
+        PNone doTuple(PMemoryView self, PTuple indices, Object value) {
+            self.checkReleased();
+            self.setItem(toIndices(indices), value);
+            return PNone.NONE;
+        }
+
+        @Fallback
+        Object doGeneric(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object idx, @SuppressWarnings("unused") Object value) {
+            throw raise(TypeError, "memoryview: invalid slice key");
+        }
+    }
+
+    @Builtin(name = __EQ__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        boolean eq(PMemoryView self, PMemoryView other) {
+            if (self == other) {
+                return true;
+            } else if (self.isReleased() || other.isReleased()) {
+                return false;
+            }
+            return self.equalsView(other);
+        }
+
+        @Fallback
+        Object doGeneric(Object self, Object other) {
+            if (self instanceof PMemoryView && isExporter(other)) {
+                return !((PMemoryView) self).isReleased() && ((PMemoryView) self).equalsView(asView(factory(), other));
+            }
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __NE__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        boolean ne(PMemoryView self, PMemoryView other) {
+            if (self == other) {
+                return false;
+            } else if (self.isReleased() || other.isReleased()) {
+                return true;
+            }
+            return !self.equalsView(other);
+        }
+
+        @Fallback
+        Object doGeneric(Object self, Object other) {
+            if (self instanceof PMemoryView && isExporter(other)) {
+                return ((PMemoryView) self).isReleased() || !((PMemoryView) self).equalsView(asView(factory(), other));
+            }
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __HASH__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        int hash(PMemoryView self) {
+            self.checkReleased();
+            if (!self.isReadOnly()) {
+                throw raise(ValueError, "cannot hash writable memoryview object");
+            } else if (!PMemoryView.isByteFormat(self.getFormat())) {
+                throw raise(ValueError, "memoryview: hashing is restricted to formats 'B', 'b' or 'c'");
+            }
+            // equal to the hash of the bytes object with the same contents
+            return Arrays.hashCode(self.toBytes());
+        }
+    }
+
+    @Builtin(name = __REPR__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        String repr(PMemoryView self) {
+            return self.toString();
+        }
+    }
+
+    @Builtin(name = __ENTER__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class EnterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PMemoryView enter(PMemoryView self) {
+            self.checkReleased();
+            return self;
+        }
+    }
+
+    @Builtin(name = __EXIT__, fixedNumOfArguments = 4)
+    @GenerateNodeFactory
+    abstract static class ExitNode extends PythonBuiltinNode {
+        @Specialization
+        PNone exit(PMemoryView self, @SuppressWarnings("unused") Object type, @SuppressWarnings("unused") Object value, @SuppressWarnings("unused") Object traceback) {
+            self.release();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "release", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class ReleaseNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PNone release(PMemoryView self) {
+            self.release();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "tobytes", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class ToBytesNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PBytes tobytes(PMemoryView self) {
+            self.checkReleased();
+            return factory().createBytes(self.toBytes());
+        }
+    }
+
+    @Builtin(name = "tolist", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class ToListNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PList tolist(PMemoryView self) {
+            self.checkReleased();
+            return toNestedList(factory(), self.toFlatArray(), self.getShape(), 0, 0);
+        }
+
+        @TruffleBoundary
+        private static PList toNestedList(PythonObjectFactory factory, Object[] items, int[] shape, int dim, int start) {
+            if (dim == shape.length - 1) {
+                return factory.createList(Arrays.copyOfRange(items, start, start + shape[dim]));
+            }
+            int chunk = 1;
+            for (int i = dim + 1; i < shape.length; i++) {
+                chunk *= shape[i];
+            }
+            Object[] rows = new Object[shape[dim]];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = toNestedList(factory, items, shape, dim + 1, start + i * chunk);
+            }
+            return factory.createList(rows);
+        }
+    }
+
+    @Builtin(name = "hex", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class HexNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        String hex(PMemoryView self) {
+            self.checkReleased();
+            byte[] bytes = self.toBytes();
+            StringBuilder sb = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        }
+    }
+
+    @Builtin(name = "cast", fixedNumOfArguments = 2, keywordArguments = {"shape"})
+    @GenerateNodeFactory
+    abstract static class CastNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PMemoryView cast(PMemoryView self, String format, @SuppressWarnings("unused") PNone shape) {
+            self.checkReleased();
+            return self.cast(factory(), parseFormat(format), null);
+        }
+
+        @Specialization
+        PMemoryView cast(PMemoryView self, String format, PSequence shape) {
+            self.checkReleased();
+            int[] newShape = new int[shape.len()];
+            if (newShape.length == 0) {
+                throw raise(TypeError, "memoryview: zero-dimensional views are not supported");
+            }
+            for (int i = 0; i < newShape.length; i++) {
+                newShape[i] = toIndex(PrimitiveCodec.toLong(shape.getItem(i)));
+            }
+            return self.cast(factory(), parseFormat(format), newShape);
+        }
+
+        @Fallback
+        Object doGeneric(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object format, @SuppressWarnings("unused") Object shape) {
+            throw raise(TypeError, "memoryview: format argument must be a string and shape must be a list or tuple");
+        }
+
+        private char parseFormat(String format) {
+            String code = format.startsWith("@") ? format.substring(1) : format;
+            if (code.length() != 1 || PrimitiveCodec.sizeOf(code.charAt(0)) < 0) {
+                throw raise(ValueError, "memoryview: destination format must be a native single character format prefixed with an optional '@'");
+            }
+            return code.charAt(0);
+        }
+    }
+
+    @Builtin(name = "format", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class FormatNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        String format(PMemoryView self) {
+            self.checkReleased();
+            return String.valueOf(self.getFormat());
+        }
+    }
+
+    @Builtin(name = "itemsize", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ItemSizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        int itemSize(PMemoryView self) {
+            self.checkReleased();
+            return self.getItemSize();
+        }
+    }
+
+    @Builtin(name = "nbytes", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class NBytesNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        int nbytes(PMemoryView self) {
+            self.checkReleased();
+            return self.getNBytes();
+        }
+    }
+
+    @Builtin(name = "ndim", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class NDimNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        int ndim(PMemoryView self) {
+            self.checkReleased();
+            return self.getNDim();
+        }
+    }
+
+    @Builtin(name = "shape", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ShapeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTuple shape(PMemoryView self) {
+            self.checkReleased();
+            return factory().createTuple(boxAll(self.getShape()));
+        }
+    }
+
+    @Builtin(name = "strides", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class StridesNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTuple strides(PMemoryView self) {
+            self.checkReleased();
+            return factory().createTuple(boxAll(self.getStrides()));
+        }
+    }
+
+    @Builtin(name = "readonly", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ReadOnlyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        boolean readonly(PMemoryView self) {
+            self.checkReleased();
+            return self.isReadOnly();
+        }
+    }
+
+    @Builtin(name = "c_contiguous", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class CContiguousNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        boolean contiguous(PMemoryView self) {
+            self.checkReleased();
+            return self.isCContiguous();
+        }
+    }
+
+    @Builtin(name = "obj", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ObjNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object obj(PMemoryView self) {
+            self.checkReleased();
+            return self.getObject();
+        }
+    }
+
+    static boolean isExporter(Object obj) {
+        return obj instanceof PBytes || obj instanceof PByteArray || obj instanceof PTypedArray;
+    }
+
+    /**
+     * Returns a view of the given buffer exporter, used as the right-hand side of comparisons and
+     * slice assignments.
+     */
+    static PMemoryView asView(PythonObjectFactory factory, Object obj) {
+        if (obj instanceof PMemoryView) {
+            ((PMemoryView) obj).checkReleased();
+            return (PMemoryView) obj;
+        } else if (obj instanceof PTypedArray) {
+            PTypedArray array = (PTypedArray) obj;
+            return factory.createMemoryView(array, false, array.getTypeCode(), array.getItemSize(), array.len());
+        } else if (obj instanceof PBytes || obj instanceof PByteArray) {
+            PSequence bytes = (PSequence) obj;
+            return factory.createMemoryView(obj, obj instanceof PBytes, 'B', 1, bytes.len());
+        }
+        throw PythonLanguage.getCore().raise(TypeError, "a bytes-like object is required, not '%p'", obj);
+    }
+
+    static int toIndex(long idx) {
+        if (idx != (int) idx) {
+            throw PythonLanguage.getCore().raise(TypeError, "memoryview: index %d does not fit into an int", idx);
+        }
+        return (int) idx;
+    }
+
+    static int[] toIndices(PTuple indices) {
+        Object[] items = indices.getArray();
+        int[] result = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            result[i] = toIndex(PrimitiveCodec.toLong(items[i]));
+        }
+        return result;
+    }
+
+    private static Object[] boxAll(int[] values) {
+        Object[] result = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+}
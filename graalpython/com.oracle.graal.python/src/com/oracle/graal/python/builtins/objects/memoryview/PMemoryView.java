@@ -38,13 +38,401 @@
  */
 package com.oracle.graal.python.builtins.objects.memoryview;
 
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.BufferError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.NotImplementedError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.Arrays;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.array.PTypedArray;
+import com.oracle.graal.python.builtins.objects.bytes.PIBytesLike;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.builtins.objects.slice.PSlice.SliceInfo;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.graal.python.runtime.PrimitiveCodec;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A {@code memoryview} over the bytes of a {@code bytes}, {@code bytearray} or
+ * {@code array.array} object. The view never copies: it is described by a byte offset into the
+ * exporter's storage, the number of items, the distance in bytes between two items and the item
+ * format. Slicing a one-dimensional view only adjusts these values, and writes go straight to the
+ * exporter's storage. Multi-dimensional views are always C-contiguous and can only be created with
+ * {@code cast}.
+ */
+public final class PMemoryView extends PythonBuiltinObject {
+
+    private static final byte[] EMPTY_BYTES = new byte[0];
 
-public class PMemoryView extends PythonBuiltinObject {
+    private final Object obj;
+    private final boolean readonly;
+    private final char format;
+    private final int itemSize;
+    private final int offset;
+    private final int length;
+    private final int stride;
+    /** The shape of a view with more than one dimension or {@code null}. */
+    private final int[] shape;
+    private boolean released;
 
-    public PMemoryView(PythonClass cls) {
+    public PMemoryView(PythonClass cls, Object obj, boolean readonly, char format, int itemSize, int offset, int length, int stride, int[] shape) {
         super(cls);
+        assert obj instanceof PIBytesLike || obj instanceof PTypedArray;
+        this.obj = obj;
+        this.readonly = readonly;
+        this.format = format;
+        this.itemSize = itemSize;
+        this.offset = offset;
+        this.length = length;
+        this.stride = stride;
+        this.shape = shape;
+    }
+
+    public Object getObject() {
+        return obj;
+    }
+
+    public boolean isReadOnly() {
+        return readonly;
+    }
+
+    public char getFormat() {
+        return format;
+    }
+
+    public int getItemSize() {
+        return itemSize;
+    }
+
+    public boolean isReleased() {
+        return released;
+    }
+
+    public void release() {
+        released = true;
+    }
+
+    public void checkReleased() {
+        if (released) {
+            throw PythonLanguage.getCore().raise(ValueError, "operation forbidden on released memoryview object");
+        }
+    }
+
+    public int len() {
+        return length;
+    }
+
+    public int getNDim() {
+        return shape == null ? 1 : shape.length;
+    }
+
+    public int[] getShape() {
+        return shape == null ? new int[]{length} : shape.clone();
+    }
+
+    public int[] getStrides() {
+        if (shape == null) {
+            return new int[]{stride};
+        }
+        int[] strides = new int[shape.length];
+        int current = itemSize;
+        for (int i = shape.length - 1; i >= 0; i--) {
+            strides[i] = current;
+            current *= shape[i];
+        }
+        return strides;
+    }
+
+    public int getNBytes() {
+        int count = itemSize;
+        for (int dim : getShape()) {
+            count *= dim;
+        }
+        return count;
+    }
+
+    public boolean isCContiguous() {
+        return shape != null || stride == itemSize || length <= 1;
+    }
+
+    /**
+     * Returns the exporter's current storage. The exporter may have grown since the view was
+     * created, so this has to be fetched again for every access.
+     */
+    private byte[] getBaseBytes() {
+        if (obj instanceof PTypedArray) {
+            return ((PTypedArray) obj).getInternalByteArray();
+        } else if (((PIBytesLike) obj).len() == 0) {
+            return EMPTY_BYTES;
+        }
+        return ((PIBytesLike) obj).getInternalByteArray();
+    }
+
+    private int getBaseByteLength() {
+        if (obj instanceof PTypedArray) {
+            return ((PTypedArray) obj).getByteLength();
+        }
+        return ((PIBytesLike) obj).len();
+    }
+
+    /**
+     * Returns the exporter's storage for callers that access the viewed bytes directly. They
+     * start at {@link #getBufferOffset()} and span {@link #getNBytes()} bytes, so only C-contiguous
+     * views can be accessed this way.
+     */
+    public byte[] getBufferBytes() {
+        checkReleased();
+        if (!isCContiguous()) {
+            throw PythonLanguage.getCore().raise(BufferError, "memoryview: underlying buffer is not C-contiguous");
+        }
+        int nbytes = getNBytes();
+        if (nbytes > 0) {
+            checkedPosition(offset + nbytes - itemSize);
+        }
+        return getBaseBytes();
+    }
+
+    public int getBufferOffset() {
+        return offset;
+    }
+
+    private int checkedPosition(int bytePosition) {
+        if (bytePosition < 0 || bytePosition + itemSize > getBaseByteLength()) {
+            throw PythonLanguage.getCore().raise(IndexError, "memoryview: underlying buffer was resized");
+        }
+        return bytePosition;
     }
 
+    private Object readItemAt(byte[] bytes, int bytePosition) {
+        long raw = PrimitiveCodec.readRaw(bytes, checkedPosition(bytePosition), itemSize, PrimitiveCodec.NATIVE_LITTLE_ENDIAN);
+        return PrimitiveCodec.unpack(format, itemSize, raw);
+    }
+
+    private long packItem(Object value) {
+        try {
+            return PrimitiveCodec.pack(format, itemSize, value);
+        } catch (PException e) {
+            PythonCore core = PythonLanguage.getCore();
+            if (e.getType() != core.getErrorClass(OverflowError)) {
+                throw e;
+            }
+            throw core.raise(ValueError, "memoryview: invalid value for format '%s'", String.valueOf(format));
+        }
+    }
+
+    private int normalize(int idx, int dimLength, int dim) {
+        int index = idx < 0 ? idx + dimLength : idx;
+        if (index < 0 || index >= dimLength) {
+            throw PythonLanguage.getCore().raise(IndexError, "index out of bounds on dimension %d", dim + 1);
+        }
+        return index;
+    }
+
+    private void checkOneDimensional(String message) {
+        if (shape != null) {
+            throw PythonLanguage.getCore().raise(NotImplementedError, message);
+        }
+    }
+
+    private void checkWritable() {
+        if (readonly) {
+            throw PythonLanguage.getCore().raise(TypeError, "cannot modify read-only memory");
+        }
+    }
+
+    public Object getItem(int idx) {
+        checkOneDimensional("multi-dimensional sub-views are not implemented");
+        return readItemAt(getBaseBytes(), offset + normalize(idx, length, 0) * stride);
+    }
+
+    public void setItem(int idx, Object value) {
+        checkWritable();
+        checkOneDimensional("sub-views are not implemented");
+        long raw = packItem(value);
+        int position = checkedPosition(offset + normalize(idx, length, 0) * stride);
+        PrimitiveCodec.writeRaw(getBaseBytes(), position, itemSize, raw, PrimitiveCodec.NATIVE_LITTLE_ENDIAN);
+    }
+
+    private int positionOf(int[] indices) {
+        int[] viewShape = getShape();
+        if (indices.length < viewShape.length) {
+            throw PythonLanguage.getCore().raise(NotImplementedError, "sub-views are not implemented");
+        } else if (indices.length > viewShape.length) {
+            throw PythonLanguage.getCore().raise(TypeError, "cannot index %d-dimension view with %d-element tuple", viewShape.length, indices.length);
+        }
+        int[] strides = getStrides();
+        int position = offset;
+        for (int dim = 0; dim < indices.length; dim++) {
+            position += normalize(indices[dim], viewShape[dim], dim) * strides[dim];
+        }
+        return position;
+    }
+
+    public Object getItem(int[] indices) {
+        return readItemAt(getBaseBytes(), positionOf(indices));
+    }
+
+    public void setItem(int[] indices, Object value) {
+        checkWritable();
+        long raw = packItem(value);
+        int position = checkedPosition(positionOf(indices));
+        PrimitiveCodec.writeRaw(getBaseBytes(), position, itemSize, raw, PrimitiveCodec.NATIVE_LITTLE_ENDIAN);
+    }
+
+    /**
+     * Creates a new view of the same items, as done by {@code memoryview(view)}.
+     */
+    public PMemoryView copy(PythonObjectFactory factory, PythonClass cls) {
+        return factory.createMemoryView(cls, obj, readonly, format, itemSize, offset, length, stride, shape);
+    }
+
+    /**
+     * Creates a view of the items selected by the slice. No bytes are copied.
+     */
+    public PMemoryView getSlice(PythonObjectFactory factory, SliceInfo info) {
+        checkOneDimensional("multi-dimensional slicing is not implemented");
+        int newOffset = info.length == 0 ? offset : offset + info.start * stride;
+        return factory.createMemoryView(getPythonClass(), obj, readonly, format, itemSize, newOffset, info.length, stride * info.step, null);
+    }
+
+    /**
+     * Copies the items of {@code value} into the items selected by the slice. The source bytes are
+     * copied first, so overlapping views of the same exporter are handled correctly.
+     */
+    public void setSlice(SliceInfo info, PMemoryView value) {
+        checkWritable();
+        checkOneDimensional("memoryview slice assignments are currently restricted to ndim = 1");
+        if (value.getNDim() != 1 || value.length != info.length || value.format != format || value.itemSize != itemSize) {
+            throw PythonLanguage.getCore().raise(ValueError, "memoryview assignment: lvalue and rvalue have different structures");
+        }
+        byte[] source = value.toBytes();
+        byte[] bytes = getBaseBytes();
+        for (int i = 0, position = offset + info.start * stride; i < info.length; i++, position += stride * info.step) {
+            System.arraycopy(source, i * itemSize, bytes, checkedPosition(position), itemSize);
+        }
+    }
+
+    /**
+     * Returns a copy of the viewed items in C order.
+     */
+    public byte[] toBytes() {
+        byte[] bytes = getBaseBytes();
+        if (isCContiguous()) {
+            int nbytes = getNBytes();
+            if (nbytes == 0) {
+                return EMPTY_BYTES;
+            }
+            checkedPosition(offset + nbytes - itemSize);
+            return Arrays.copyOfRange(bytes, offset, offset + nbytes);
+        }
+        byte[] result = new byte[length * itemSize];
+        for (int i = 0, position = offset; i < length; i++, position += stride) {
+            System.arraycopy(bytes, checkedPosition(position), result, i * itemSize, itemSize);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the unpacked items in C order, flattening all dimensions.
+     */
+    public Object[] toFlatArray() {
+        byte[] bytes = getBaseBytes();
+        int count = getNBytes() / itemSize;
+        Object[] result = new Object[count];
+        if (isCContiguous()) {
+            for (int i = 0; i < count; i++) {
+                result[i] = readItemAt(bytes, offset + i * itemSize);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                result[i] = readItemAt(bytes, offset + i * stride);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reinterprets the viewed bytes with a new format and optionally a new shape. Like CPython,
+     * only C-contiguous views can be cast and one of the two formats must be a byte format.
+     */
+    public PMemoryView cast(PythonObjectFactory factory, char newFormat, int[] newShape) {
+        if (!isCContiguous()) {
+            throw PythonLanguage.getCore().raise(TypeError, "memoryview: casts are restricted to C-contiguous views");
+        } else if (shape != null && newShape != null) {
+            throw PythonLanguage.getCore().raise(TypeError, "memoryview: cast must be 1D -> ND or ND -> 1D");
+        } else if (!isByteFormat(format) && !isByteFormat(newFormat)) {
+            throw PythonLanguage.getCore().raise(TypeError, "memoryview: cannot cast between two non-byte formats");
+        }
+        int newItemSize = PrimitiveCodec.sizeOf(newFormat);
+        int nbytes = getNBytes();
+        if (newShape == null) {
+            if (nbytes % newItemSize != 0) {
+                throw PythonLanguage.getCore().raise(TypeError, "memoryview: length is not a multiple of itemsize");
+            }
+            return factory.createMemoryView(getPythonClass(), obj, readonly, newFormat, newItemSize, offset, nbytes / newItemSize, newItemSize, null);
+        }
+        int product = newItemSize;
+        for (int dim : newShape) {
+            if (dim <= 0) {
+                throw PythonLanguage.getCore().raise(ValueError, "memoryview.cast(): elements of shape must be integers > 0");
+            }
+            product *= dim;
+        }
+        if (product != nbytes) {
+            throw PythonLanguage.getCore().raise(TypeError, "memoryview: product(shape) * itemsize != buffer size");
+        }
+        int[] viewShape = newShape.length == 1 ? null : newShape.clone();
+        return factory.createMemoryView(getPythonClass(), obj, readonly, newFormat, newItemSize, offset, newShape[0], nbytes / newShape[0], viewShape);
+    }
+
+    public static boolean isByteFormat(char format) {
+        return format == 'B' || format == 'b' || format == 'c';
+    }
+
+    /**
+     * Returns whether this view holds the same shape and values as {@code other}. Views of the same
+     * integral format are compared byte-wise, all others item by item.
+     */
+    @TruffleBoundary
+    public boolean equalsView(PMemoryView other) {
+        if (!Arrays.equals(getShape(), other.getShape())) {
+            return false;
+        } else if (format == other.format && format != 'f' && format != 'd') {
+            return Arrays.equals(toBytes(), other.toBytes());
+        }
+        Object[] left = toFlatArray();
+        Object[] right = other.toFlatArray();
+        for (int i = 0; i < left.length; i++) {
+            if (!itemEquals(left[i], right[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean itemEquals(Object left, Object right) {
+        if (left instanceof Double || right instanceof Double) {
+            return isNumber(left) && isNumber(right) && PrimitiveCodec.toDouble(left) == PrimitiveCodec.toDouble(right);
+        } else if ((left instanceof Integer || left instanceof Long) && (right instanceof Integer || right instanceof Long)) {
+            return ((Number) left).longValue() == ((Number) right).longValue();
+        }
+        return left.equals(right);
+    }
+
+    private static boolean isNumber(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Double || value instanceof PInt;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(released ? "<released memory at 0x%x>" : "<memory at 0x%x>", hashCode());
+    }
 }
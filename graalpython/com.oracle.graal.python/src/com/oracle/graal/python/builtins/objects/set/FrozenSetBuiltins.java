@@ -32,6 +32,7 @@ import static com.oracle.graal.python.nodes.SpecialMethodNames.__ITER__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__LEN__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__LE__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__SUB__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__XOR__;
 
 import java.util.List;
 
@@ -41,7 +42,9 @@ import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNotImplemented;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes;
+import com.oracle.graal.python.builtins.objects.set.SetNodes.GetSetStorageNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -166,6 +169,108 @@ public final class FrozenSetBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = __XOR__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class XorNode extends PythonBinaryBuiltinNode {
+        @Child private HashingStorageNodes.SymmetricDiffNode symmetricDiffNode = HashingStorageNodes.SymmetricDiffNode.create();
+
+        @Specialization
+        PBaseSet doPBaseSet(PSet left, PBaseSet right) {
+            return factory().createSet(symmetricDiffNode.execute(left.getDictStorage(), right.getDictStorage()));
+        }
+
+        @Specialization
+        PBaseSet doPBaseSet(PFrozenSet left, PBaseSet right) {
+            return factory().createFrozenSet(symmetricDiffNode.execute(left.getDictStorage(), right.getDictStorage()));
+        }
+    }
+
+    /**
+     * Base class for the set operations that accept any number of iterables. The operation is
+     * applied storage by storage, so sets with a specialized storage never box their elements.
+     */
+    abstract static class SetOperationNode extends PythonBuiltinNode {
+        @Child private GetSetStorageNode getStorageNode = GetSetStorageNode.create();
+        @Child private HashingStorageNodes.CopyNode copyNode;
+
+        protected abstract HashingStorage apply(HashingStorage left, HashingStorage right);
+
+        protected HashingStorage applyAll(PBaseSet self, Object[] others) {
+            HashingStorage result = self.getDictStorage();
+            if (others.length == 0) {
+                if (copyNode == null) {
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
+                    copyNode = insert(HashingStorageNodes.CopyNode.create());
+                }
+                return copyNode.execute(result);
+            }
+            for (Object other : others) {
+                result = apply(result, getStorageNode.execute(other));
+            }
+            return result;
+        }
+
+        @Specialization
+        PBaseSet doSet(PSet self, Object[] others) {
+            return factory().createSet(applyAll(self, others));
+        }
+
+        @Specialization
+        PBaseSet doFrozenSet(PFrozenSet self, Object[] others) {
+            return factory().createFrozenSet(applyAll(self, others));
+        }
+    }
+
+    @Builtin(name = "union", minNumOfArguments = 1, takesVariableArguments = true)
+    @GenerateNodeFactory
+    abstract static class UnionNode extends SetOperationNode {
+        @Child private HashingStorageNodes.UnionNode unionNode = HashingStorageNodes.UnionNode.create();
+
+        @Override
+        protected HashingStorage apply(HashingStorage left, HashingStorage right) {
+            return unionNode.execute(left, right);
+        }
+    }
+
+    @Builtin(name = "intersection", minNumOfArguments = 1, takesVariableArguments = true)
+    @GenerateNodeFactory
+    abstract static class IntersectionNode extends SetOperationNode {
+        @Child private HashingStorageNodes.IntersectNode intersectNode = HashingStorageNodes.IntersectNode.create();
+
+        @Override
+        protected HashingStorage apply(HashingStorage left, HashingStorage right) {
+            return intersectNode.execute(left, right);
+        }
+    }
+
+    @Builtin(name = "difference", minNumOfArguments = 1, takesVariableArguments = true)
+    @GenerateNodeFactory
+    abstract static class DifferenceNode extends SetOperationNode {
+        @Child private HashingStorageNodes.DiffNode diffNode = HashingStorageNodes.DiffNode.create();
+
+        @Override
+        protected HashingStorage apply(HashingStorage left, HashingStorage right) {
+            return diffNode.execute(left, right);
+        }
+    }
+
+    @Builtin(name = "symmetric_difference", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class SymmetricDifferenceNode extends PythonBinaryBuiltinNode {
+        @Child private HashingStorageNodes.SymmetricDiffNode symmetricDiffNode = HashingStorageNodes.SymmetricDiffNode.create();
+        @Child private GetSetStorageNode getStorageNode = GetSetStorageNode.create();
+
+        @Specialization
+        PBaseSet doSet(PSet self, Object other) {
+            return factory().createSet(symmetricDiffNode.execute(self.getDictStorage(), getStorageNode.execute(other)));
+        }
+
+        @Specialization
+        PBaseSet doFrozenSet(PFrozenSet self, Object other) {
+            return factory().createFrozenSet(symmetricDiffNode.execute(self.getDictStorage(), getStorageNode.execute(other)));
+        }
+    }
+
     @Builtin(name = __CONTAINS__, fixedNumOfArguments = 2)
     @GenerateNodeFactory
     abstract static class ContainsNode extends PythonBinaryBuiltinNode {
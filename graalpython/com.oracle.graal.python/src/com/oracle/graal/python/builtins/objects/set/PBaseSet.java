@@ -25,7 +25,7 @@
  */
 package com.oracle.graal.python.builtins.objects.set;
 
-import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
+import com.oracle.graal.python.builtins.objects.common.EmptyStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.PHashingCollection;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage.Equivalence;
@@ -33,11 +33,11 @@ import com.oracle.graal.python.builtins.objects.type.PythonClass;
 
 public abstract class PBaseSet extends PHashingCollection {
 
-    protected final HashingStorage set;
+    protected HashingStorage set;
 
     public PBaseSet(PythonClass clazz) {
         super(clazz);
-        this.set = EconomicMapStorage.create(true);
+        this.set = new EmptyStorage();
     }
 
     public PBaseSet(PythonClass clazz, HashingStorage set) {
@@ -62,4 +62,13 @@ public abstract class PBaseSet extends PHashingCollection {
     public HashingStorage getDictStorage() {
         return set;
     }
+
+    /**
+     * Replaces the storage, e.g. when a specialized storage has to be generalized. This is also
+     * allowed for frozen sets while they are being constructed.
+     */
+    @Override
+    public void setDictStorage(HashingStorage newStorage) {
+        set = newStorage;
+    }
 }
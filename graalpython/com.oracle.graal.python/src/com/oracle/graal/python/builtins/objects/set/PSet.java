@@ -25,8 +25,11 @@
  */
 package com.oracle.graal.python.builtins.objects.set;
 
+import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.UnmodifiableStorageException;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
 
 public final class PSet extends PBaseSet {
@@ -41,7 +44,15 @@ public final class PSet extends PBaseSet {
 
     // add
     public void add(Object o) {
-        this.set.setItem(o, PNone.NO_VALUE, HashingStorage.getSlowPathEquivalence(o));
+        try {
+            this.set.setItem(o, PNone.NO_VALUE, HashingStorage.getSlowPathEquivalence(o));
+        } catch (UnmodifiableStorageException e) {
+            // empty or specialized storage, generalize it
+            HashingStorage newSet = EconomicMapStorage.create(size() + 1, true);
+            newSet.addAll(set, PythonLanguage.getContext().getSlowPathEquivalence());
+            newSet.setItem(o, PNone.NO_VALUE, HashingStorage.getSlowPathEquivalence(o));
+            this.set = newSet;
+        }
     }
 
     // remove
@@ -66,9 +77,4 @@ public final class PSet extends PBaseSet {
     public void clear() {
         set.clear();
     }
-
-    @Override
-    public void setDictStorage(HashingStorage newStorage) {
-        throw new RuntimeException("set has fixed storage");
-    }
 }
@@ -35,7 +35,9 @@ import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes;
+import com.oracle.graal.python.builtins.objects.set.SetNodes.GetSetStorageNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
@@ -97,6 +99,48 @@ public final class SetBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "update", minNumOfArguments = 1, takesVariableArguments = true)
+    @GenerateNodeFactory
+    public abstract static class UpdateNode extends PythonBuiltinNode {
+
+        @Specialization
+        public Object update(PSet self, Object[] others,
+                        @Cached("create()") GetSetStorageNode getStorageNode,
+                        @Cached("create()") HashingStorageNodes.SetItemNode setItemNode) {
+            for (Object other : others) {
+                HashingStorage storage = getStorageNode.execute(other);
+                if (storage != self.getDictStorage()) {
+                    for (Object key : storage.keys()) {
+                        setItemNode.execute(self, self.getDictStorage(), key, PNone.NO_VALUE);
+                    }
+                }
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "difference_update", minNumOfArguments = 1, takesVariableArguments = true)
+    @GenerateNodeFactory
+    public abstract static class DifferenceUpdateNode extends PythonBuiltinNode {
+
+        @Specialization
+        public Object differenceUpdate(PSet self, Object[] others,
+                        @Cached("create()") GetSetStorageNode getStorageNode,
+                        @Cached("create()") HashingStorageNodes.DelItemNode delItemNode) {
+            for (Object other : others) {
+                HashingStorage storage = getStorageNode.execute(other);
+                if (storage == self.getDictStorage()) {
+                    self.clear();
+                } else {
+                    for (Object key : storage.keys()) {
+                        delItemNode.execute(self, self.getDictStorage(), key);
+                    }
+                }
+            }
+            return PNone.NONE;
+        }
+    }
+
     @Builtin(name = "remove", fixedNumOfArguments = 2)
     @GenerateNodeFactory
     abstract static class RemoveNode extends PythonBinaryBuiltinNode {
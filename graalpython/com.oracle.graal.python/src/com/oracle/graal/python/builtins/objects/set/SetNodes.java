@@ -42,6 +42,7 @@ import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeErro
 
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes.SetItemNode;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
 import com.oracle.graal.python.nodes.PBaseNode;
@@ -123,4 +124,32 @@ public abstract class SetNodes {
             return SetNodesFactory.ConstructSetNodeGen.create();
         }
     }
+
+    /**
+     * Returns the storage of a set or frozen set, or the storage of a new set with the elements of
+     * any other iterable. The result must not be modified.
+     */
+    public abstract static class GetSetStorageNode extends PBaseNode {
+        @Child private ConstructSetNode constructSetNode;
+
+        public abstract HashingStorage execute(Object value);
+
+        @Specialization
+        HashingStorage doSet(PBaseSet set) {
+            return set.getDictStorage();
+        }
+
+        @Fallback
+        HashingStorage doIterable(Object iterable) {
+            if (constructSetNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                constructSetNode = insert(ConstructSetNode.create());
+            }
+            return constructSetNode.executeWith(iterable).getDictStorage();
+        }
+
+        public static GetSetStorageNode create() {
+            return SetNodesFactory.GetSetStorageNodeGen.create();
+        }
+    }
 }
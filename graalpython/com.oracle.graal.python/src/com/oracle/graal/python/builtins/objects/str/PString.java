@@ -25,6 +25,7 @@
  */
 package com.oracle.graal.python.builtins.objects.str;
 
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.graal.python.runtime.sequence.PImmutableSequence;
@@ -35,6 +36,9 @@ public final class PString extends PImmutableSequence {
 
     private final String value;
 
+    /** The UTF-8 encoding of this string, as requested by {@code PyUnicode_AsUTF8}. */
+    private PBytes utf8Bytes;
+
     public PString(PythonClass clazz, String value) {
         super(clazz);
         this.value = value;
@@ -44,6 +48,14 @@ public final class PString extends PImmutableSequence {
         return value;
     }
 
+    public PBytes getUtf8Bytes() {
+        return utf8Bytes;
+    }
+
+    public void setUtf8Bytes(PBytes utf8Bytes) {
+        this.utf8Bytes = utf8Bytes;
+    }
+
     @Override
     public int len() {
         return value.length();
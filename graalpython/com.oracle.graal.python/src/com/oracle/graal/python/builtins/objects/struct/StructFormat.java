@@ -0,0 +1,449 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.struct;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.array.PTypedArray;
+import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
+import com.oracle.graal.python.builtins.objects.bytes.PIBytesLike;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.graal.python.runtime.PrimitiveCodec;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A compiled {@code struct} format string. Compiling resolves byte order, item sizes, alignment
+ * and repeat counts once, so packing and unpacking only walk the precomputed item offsets.
+ * Compiled formats are immutable and shared through a process-wide cache which, like CPython's,
+ * is simply emptied once it grows too large.
+ */
+public final class StructFormat {
+
+    private static final int MAX_CACHE_SIZE = 100;
+    private static final byte[] EMPTY_BYTES = new byte[0];
+    private static final ConcurrentHashMap<String, StructFormat> CACHE = new ConcurrentHashMap<>();
+
+    private final String format;
+    private final boolean littleEndian;
+    /** Format code, byte offset and size of every item that consumes or produces a value. */
+    private final char[] codes;
+    private final int[] offsets;
+    private final int[] sizes;
+    private final int size;
+
+    private StructFormat(String format, boolean littleEndian, char[] codes, int[] offsets, int[] sizes, int size) {
+        this.format = format;
+        this.littleEndian = littleEndian;
+        this.codes = codes;
+        this.offsets = offsets;
+        this.sizes = sizes;
+        this.size = size;
+    }
+
+    @TruffleBoundary
+    public static StructFormat get(String format) {
+        StructFormat result = CACHE.get(format);
+        if (result == null) {
+            result = compile(format);
+            if (CACHE.size() >= MAX_CACHE_SIZE) {
+                CACHE.clear();
+            }
+            CACHE.put(format, result);
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getValueCount() {
+        return codes.length;
+    }
+
+    @TruffleBoundary
+    private static StructFormat compile(String format) {
+        int pos = 0;
+        boolean nativeMode = true;
+        boolean littleEndian = PrimitiveCodec.NATIVE_LITTLE_ENDIAN;
+        if (!format.isEmpty()) {
+            switch (format.charAt(0)) {
+                case '@':
+                    pos++;
+                    break;
+                case '=':
+                    nativeMode = false;
+                    pos++;
+                    break;
+                case '<':
+                    nativeMode = false;
+                    littleEndian = true;
+                    pos++;
+                    break;
+                case '>':
+                case '!':
+                    nativeMode = false;
+                    littleEndian = false;
+                    pos++;
+                    break;
+            }
+        }
+
+        char[] codes = new char[8];
+        int[] offsets = new int[8];
+        int[] sizes = new int[8];
+        int count = 0;
+        long offset = 0;
+        while (pos < format.length()) {
+            char c = format.charAt(pos++);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            int repeat = 1;
+            if (c >= '0' && c <= '9') {
+                long number = c - '0';
+                while (pos < format.length() && Character.isDigit(format.charAt(pos))) {
+                    number = number * 10 + (format.charAt(pos++) - '0');
+                    if (number > Integer.MAX_VALUE) {
+                        throw raiseError("total struct size too long");
+                    }
+                }
+                if (pos == format.length()) {
+                    throw raiseError("repeat count given without format specifier");
+                }
+                repeat = (int) number;
+                c = format.charAt(pos++);
+            }
+            int itemSize = itemSize(c, nativeMode);
+            if (c == 'x') {
+                offset += repeat;
+            } else if (c == 's' || c == 'p') {
+                if (count == codes.length) {
+                    codes = Arrays.copyOf(codes, count * 2);
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                    sizes = Arrays.copyOf(sizes, count * 2);
+                }
+                codes[count] = c;
+                offsets[count] = (int) offset;
+                sizes[count] = repeat;
+                count++;
+                offset += repeat;
+            } else {
+                for (int i = 0; i < repeat; i++) {
+                    if (nativeMode) {
+                        offset = (offset + itemSize - 1) / itemSize * itemSize;
+                    }
+                    if (count == codes.length) {
+                        codes = Arrays.copyOf(codes, count * 2);
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                        sizes = Arrays.copyOf(sizes, count * 2);
+                    }
+                    codes[count] = c;
+                    offsets[count] = (int) offset;
+                    sizes[count] = itemSize;
+                    count++;
+                    offset += itemSize;
+                }
+            }
+            if (offset > Integer.MAX_VALUE) {
+                throw raiseError("total struct size too long");
+            }
+        }
+        return new StructFormat(format, littleEndian, Arrays.copyOf(codes, count), Arrays.copyOf(offsets, count), Arrays.copyOf(sizes, count), (int) offset);
+    }
+
+    private static int itemSize(char code, boolean nativeMode) {
+        switch (code) {
+            case 'x':
+            case 's':
+            case 'p':
+            case 'c':
+            case 'b':
+            case 'B':
+            case '?':
+                return 1;
+            case 'h':
+            case 'H':
+                return 2;
+            case 'i':
+            case 'I':
+            case 'f':
+                return 4;
+            case 'l':
+            case 'L':
+                return nativeMode ? PrimitiveCodec.sizeOf(code) : 4;
+            case 'q':
+            case 'Q':
+            case 'd':
+                return 8;
+            case 'n':
+            case 'N':
+            case 'P':
+                if (nativeMode) {
+                    return PrimitiveCodec.sizeOf(code);
+                }
+                break;
+        }
+        throw raiseError("bad char in struct format");
+    }
+
+    /**
+     * Packs {@code values} into {@code dest} starting at {@code destOffset}. The caller ensures
+     * that the destination is large enough.
+     */
+    public void pack(Object[] values, byte[] dest, int destOffset) {
+        if (values.length != codes.length) {
+            throw raiseError("pack expected %d items for packing (got %d)", codes.length, values.length);
+        }
+        Arrays.fill(dest, destOffset, destOffset + size, (byte) 0);
+        for (int i = 0; i < codes.length; i++) {
+            char code = codes[i];
+            int position = destOffset + offsets[i];
+            if (code == 's' || code == 'p') {
+                packBytes(code, values[i], dest, position, sizes[i]);
+            } else {
+                PrimitiveCodec.writeRaw(dest, position, sizes[i], packItem(code, sizes[i], values[i]), littleEndian);
+            }
+        }
+    }
+
+    private static void packBytes(char code, Object value, byte[] dest, int position, int length) {
+        if (!(value instanceof PIBytesLike)) {
+            throw raiseError("argument for '%s' must be a bytes object", String.valueOf(code));
+        }
+        PIBytesLike bytes = (PIBytesLike) value;
+        int available = bytes.len();
+        if (code == 's') {
+            if (available > 0) {
+                System.arraycopy(bytes.getInternalByteArray(), 0, dest, position, Math.min(available, length));
+            }
+        } else if (length > 0) {
+            int count = Math.min(Math.min(available, length - 1), 255);
+            if (count > 0) {
+                System.arraycopy(bytes.getInternalByteArray(), 0, dest, position + 1, count);
+            }
+            dest[position] = (byte) count;
+        }
+    }
+
+    private static long packItem(char code, int itemSize, Object value) {
+        try {
+            return PrimitiveCodec.pack(code, itemSize, value);
+        } catch (PException e) {
+            PythonCore core = PythonLanguage.getCore();
+            if (e.getType() == core.getErrorClass(OverflowError)) {
+                throw raiseError("argument out of range");
+            } else if (e.getType() != core.getErrorClass(TypeError)) {
+                throw e;
+            } else if (code == 'c') {
+                throw raiseError("char format requires a bytes object of length 1");
+            } else if (code == 'f' || code == 'd') {
+                throw raiseError("required argument is not a float");
+            }
+            throw raiseError("required argument is not an integer");
+        }
+    }
+
+    /**
+     * Unpacks one record starting at {@code srcOffset}. The caller ensures that the source holds
+     * at least {@link #getSize()} bytes from there.
+     */
+    public Object[] unpack(byte[] src, int srcOffset) {
+        Object[] result = new Object[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            char code = codes[i];
+            int position = srcOffset + offsets[i];
+            if (code == 's') {
+                result[i] = PythonObjectFactory.get().createBytes(Arrays.copyOfRange(src, position, position + sizes[i]));
+            } else if (code == 'p') {
+                int length = sizes[i] == 0 ? 0 : Math.min(src[position] & 0xFF, sizes[i] - 1);
+                result[i] = PythonObjectFactory.get().createBytes(Arrays.copyOfRange(src, position + 1, position + 1 + length));
+            } else {
+                result[i] = PrimitiveCodec.unpack(code, sizes[i], PrimitiveCodec.readRaw(src, position, sizes[i], littleEndian));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Packs {@code values} into a new byte array.
+     */
+    public byte[] pack(Object[] values) {
+        byte[] result = new byte[size];
+        pack(values, result, 0);
+        return result;
+    }
+
+    /**
+     * Packs {@code values} directly into the storage of a writable buffer object. A negative
+     * offset counts from the end of the buffer.
+     */
+    public void packInto(Object buffer, int offset, Object[] values) {
+        byte[] bytes = getWritableBytes(buffer);
+        int length = getBufferLength(buffer);
+        int start = offset;
+        if (start < 0) {
+            if (start + size > 0) {
+                throw raiseError("no space to pack %d bytes at offset %d", size, offset);
+            } else if (start + length < 0) {
+                throw raiseError("offset %d out of range for %d-byte buffer", offset, length);
+            }
+            start += length;
+        }
+        if (length - start < size) {
+            throw raiseError("pack_into requires a buffer of at least %d bytes", size + start);
+        }
+        if (values.length != codes.length) {
+            throw raiseError("pack_into expected %d items for packing (got %d)", codes.length, values.length);
+        }
+        pack(values, bytes, getBufferStart(buffer) + start);
+    }
+
+    /**
+     * Unpacks a buffer object holding exactly one record.
+     */
+    public Object[] unpack(Object buffer) {
+        byte[] bytes = getReadableBytes(buffer);
+        if (getBufferLength(buffer) != size) {
+            throw raiseError("unpack requires a bytes object of length %d", size);
+        }
+        return unpack(bytes, getBufferStart(buffer));
+    }
+
+    /**
+     * Unpacks one record at {@code offset} of a buffer object. A negative offset counts from the
+     * end of the buffer.
+     */
+    public Object[] unpackFrom(Object buffer, int offset) {
+        byte[] bytes = getReadableBytes(buffer);
+        int length = getBufferLength(buffer);
+        int start = offset;
+        if (start < 0) {
+            if (start + length < 0) {
+                throw raiseError("offset %d out of range for %d-byte buffer", offset, length);
+            }
+            start += length;
+        }
+        if (length - start < size) {
+            throw raiseError("unpack_from requires a buffer of at least %d bytes", size + start);
+        }
+        return unpack(bytes, getBufferStart(buffer) + start);
+    }
+
+    /**
+     * Returns the number of records in a buffer object for {@code iter_unpack}, checking that it
+     * holds a whole number of them.
+     */
+    public int getRecordCount(Object buffer) {
+        getReadableBytes(buffer);
+        if (size == 0) {
+            throw raiseError("cannot iteratively unpack with a struct of length 0");
+        }
+        int length = getBufferLength(buffer);
+        if (length % size != 0) {
+            throw raiseError("iterative unpacking requires a buffer of a multiple of %d bytes", size);
+        }
+        return length / size;
+    }
+
+    /**
+     * Returns the storage of a buffer object. The bytes start at {@link #getBufferStart(Object)}
+     * and are accessed in place, without copying.
+     */
+    public static byte[] getReadableBytes(Object buffer) {
+        if (buffer instanceof PIBytesLike) {
+            PIBytesLike bytes = (PIBytesLike) buffer;
+            return bytes.len() == 0 ? EMPTY_BYTES : bytes.getInternalByteArray();
+        } else if (buffer instanceof PTypedArray) {
+            return ((PTypedArray) buffer).getInternalByteArray();
+        } else if (buffer instanceof PMemoryView) {
+            return ((PMemoryView) buffer).getBufferBytes();
+        }
+        throw PythonLanguage.getCore().raise(TypeError, "a bytes-like object is required, not '%p'", buffer);
+    }
+
+    private static byte[] getWritableBytes(Object buffer) {
+        if (buffer instanceof PByteArray || buffer instanceof PTypedArray || buffer instanceof PMemoryView && !((PMemoryView) buffer).isReadOnly()) {
+            return getReadableBytes(buffer);
+        }
+        throw PythonLanguage.getCore().raise(TypeError, "argument must be read-write bytes-like object, not %p", buffer);
+    }
+
+    public static int getBufferStart(Object buffer) {
+        return buffer instanceof PMemoryView ? ((PMemoryView) buffer).getBufferOffset() : 0;
+    }
+
+    public static int getBufferLength(Object buffer) {
+        if (buffer instanceof PTypedArray) {
+            return ((PTypedArray) buffer).getByteLength();
+        } else if (buffer instanceof PMemoryView) {
+            return ((PMemoryView) buffer).getNBytes();
+        }
+        return ((PIBytesLike) buffer).len();
+    }
+
+    /**
+     * Raises {@code struct.error}, which is defined by the Python part of the {@code _struct}
+     * module.
+     */
+    @TruffleBoundary
+    public static PException raiseError(String message, Object... args) {
+        PythonCore core = PythonLanguage.getCore();
+        PythonClass errorClass = (PythonClass) core.loadBuiltinModule("_struct").getAttribute("error");
+        return core.raise(core.factory().createBaseException(errorClass, message, args), null);
+    }
+}
@@ -54,8 +54,14 @@ public final class PTraceback extends PythonBuiltinObject {
 
     @CompilationFinal(dimensions = 1) public static final Object[] TB_DIR_FIELDS = new Object[]{TB_FRAME, TB_NEXT, TB_LASTI, TB_LINENO};
 
+    /**
+     * The index of a traceback whose exception did not capture its stack yet, see
+     * {@link PBaseException#getLazyTraceback}.
+     */
+    public static final int UNRESOLVED_INDEX = -1;
+
     private final PBaseException exception;
-    private final int index;
+    private int index;
     private PFrame frame;
 
     public PTraceback(PythonClass clazz, PBaseException exception, int index) {
@@ -69,12 +75,15 @@ public final class PTraceback extends PythonBuiltinObject {
     }
 
     public int getIndex() {
+        if (index == UNRESOLVED_INDEX) {
+            index = exception.resolveLazyTraceback(this);
+        }
         return index;
     }
 
     public PFrame getPFrame(PythonObjectFactory factory) {
         if (frame == null) {
-            return frame = exception.getPFrame(factory, index);
+            return frame = exception.getPFrame(factory, getIndex());
         }
         return frame;
     }
@@ -40,6 +40,12 @@ public final class PTuple extends PImmutableSequence implements Comparable<Objec
 
     private final Object[] array;
 
+    /**
+     * The result of {@code __hash__}, cached because tuples are immutable. Zero means that it was
+     * not computed yet.
+     */
+    private long hash;
+
     public PTuple(PythonClass cls, Object[] elements) {
         super(cls);
         array = elements;
@@ -49,6 +55,21 @@ public final class PTuple extends PImmutableSequence implements Comparable<Objec
         return array;
     }
 
+    public long getHash() {
+        return hash;
+    }
+
+    public void setHash(long hash) {
+        this.hash = hash;
+    }
+
+    /**
+     * Returns {@code false} if the cached hashes show that two tuples cannot be equal.
+     */
+    public static boolean mayBeEqual(PTuple left, PTuple right) {
+        return left.hash == 0 || right.hash == 0 || left.hash == right.hash;
+    }
+
     @Override
     public int len() {
         return array.length;
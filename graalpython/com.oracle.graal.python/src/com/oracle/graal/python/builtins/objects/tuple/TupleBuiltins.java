@@ -63,6 +63,7 @@ import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.dsl.TypeSystemReference;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(extendClasses = PTuple.class)
 public class TupleBuiltins extends PythonBuiltins {
@@ -353,16 +354,32 @@ public class TupleBuiltins extends PythonBuiltins {
         @Specialization(guards = "left.len() == right.len()")
         boolean doPTuple(PTuple left, PTuple right,
                         @Cached("create(__EQ__, __EQ__, __EQ__)") BinaryComparisonNode eqNode) {
-            for (int i = 0; i < left.len(); i++) {
-                Object oleft = left.getItem(i);
-                Object oright = right.getItem(i);
-                if (!eqNode.executeBool(oleft, oright)) {
+            Object[] leftArray = left.getArray();
+            Object[] rightArray = right.getArray();
+            for (int i = 0; i < leftArray.length; i++) {
+                Object oleft = leftArray[i];
+                Object oright = rightArray[i];
+                // ints and strings are compared directly, without calling __eq__
+                if (oleft instanceof Integer && oright instanceof Integer) {
+                    if ((int) oleft != (int) oright) {
+                        return false;
+                    }
+                } else if (oleft instanceof String && oright instanceof String) {
+                    if (!stringEquals((String) oleft, (String) oright)) {
+                        return false;
+                    }
+                } else if (oleft != oright && !eqNode.executeBool(oleft, oright)) {
                     return false;
                 }
             }
             return true;
         }
 
+        @TruffleBoundary
+        private static boolean stringEquals(String left, String right) {
+            return left.equals(right);
+        }
+
         @Specialization(guards = "left.len() != right.len()")
         @SuppressWarnings("unused")
         boolean doPTuple(PTuple left, PTuple right) {
@@ -376,6 +393,68 @@ public class TupleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = SpecialMethodNames.__HASH__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+
+        /**
+         * The hash is computed like CPython does, and then cached in the tuple. The hashes of ints
+         * and strings are computed directly, without calling {@code __hash__}.
+         */
+        @Specialization
+        long hash(PTuple self,
+                        @Cached("create(__HASH__)") LookupAndCallUnaryNode hashNode,
+                        @Cached("createBinaryProfile()") ConditionProfile cachedProfile) {
+            long hash = self.getHash();
+            if (cachedProfile.profile(hash != 0)) {
+                return hash;
+            }
+            Object[] array = self.getArray();
+            long multiplier = 1000003;
+            hash = 0x345678;
+            for (int i = 0; i < array.length; i++) {
+                hash = (hash ^ hashElement(array[i], hashNode)) * multiplier;
+                int remaining = array.length - i - 1;
+                multiplier += 82520 + remaining + remaining;
+            }
+            hash += 97531;
+            if (hash == -1) {
+                hash = -2;
+            }
+            self.setHash(hash);
+            return hash;
+        }
+
+        private long hashElement(Object element, LookupAndCallUnaryNode hashNode) {
+            if (element instanceof Integer) {
+                return (int) element;
+            } else if (element instanceof Long) {
+                return (long) element;
+            } else if (element instanceof String) {
+                return stringHash((String) element);
+            }
+            Object hash = hashNode.executeObject(element);
+            if (hash instanceof Integer) {
+                return (int) hash;
+            } else if (hash instanceof Long) {
+                return (long) hash;
+            } else if (hash instanceof PInt) {
+                return pintHash((PInt) hash);
+            }
+            throw raise(TypeError, "__hash__ method should return an integer");
+        }
+
+        @TruffleBoundary
+        private static long stringHash(String element) {
+            return element.hashCode();
+        }
+
+        @TruffleBoundary
+        private static long pintHash(PInt hash) {
+            return hash.longValue();
+        }
+    }
+
     @Builtin(name = SpecialMethodNames.__NE__, fixedNumOfArguments = 2)
     @GenerateNodeFactory
     abstract static class NeNode extends PythonBinaryBuiltinNode {
@@ -93,6 +93,90 @@ public abstract class ApplyKeywordsNode extends Node {
         return SearchNamedParameterNodeGen.create();
     }
 
+    static String[] getNames(PKeyword[] keywords) {
+        String[] names = new String[keywords.length];
+        for (int i = 0; i < keywords.length; i++) {
+            names[i] = keywords[i].getName();
+        }
+        return names;
+    }
+
+    @ExplodeLoop
+    static boolean namesMatch(PKeyword[] keywords, String[] names) {
+        for (int i = 0; i < names.length; i++) {
+            if (!names[i].equals(keywords[i].getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Maps each keyword to the index of the parameter it binds to, or {@code -1} if it goes to the
+     * keyword arguments of the callee.
+     */
+    static int[] getParameterIndices(Arity calleeArity, String[] names) {
+        String[] parameters = calleeArity.getParameterIds();
+        int[] indices = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            indices[i] = -1;
+            for (int j = 0; j < parameters.length; j++) {
+                if (parameters[j].equals(names[i])) {
+                    indices[i] = j;
+                    break;
+                }
+            }
+        }
+        return indices;
+    }
+
+    static int countUnused(int[] indices) {
+        int count = 0;
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] == -1) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The keyword names of a call site usually never change, so the mapping to the parameters of
+     * the callee is computed once and applying it only needs to copy the values.
+     */
+    @Specialization(guards = {"kwLen == keywords.length", "argLen == arguments.length", "calleeArity == cachedArity", "namesMatch(keywords, cachedNames)"})
+    @ExplodeLoop
+    Object[] applyMapped(Arity calleeArity, Object[] arguments, PKeyword[] keywords,
+                    @Cached("keywords.length") int kwLen,
+                    @Cached("arguments.length") int argLen,
+                    @Cached("getUserArgumentLength(arguments)") int userArgLen,
+                    @SuppressWarnings("unused") @Cached("calleeArity") Arity cachedArity,
+                    @Cached(value = "getNames(keywords)", dimensions = 1) String[] cachedNames,
+                    @Cached("cachedArity.getParameterIds().length") int paramLen,
+                    @Cached(value = "getParameterIndices(cachedArity, cachedNames)", dimensions = 1) int[] indices,
+                    @Cached("countUnused(indices)") int unusedLen) {
+        Object[] combined = arguments;
+        if (paramLen > userArgLen) {
+            combined = PArguments.create(paramLen);
+            for (int i = 0; i < argLen; i++) {
+                combined[i] = arguments[i];
+            }
+        }
+        PKeyword[] unusedKeywords = unusedLen == 0 ? PKeyword.EMPTY_KEYWORDS : new PKeyword[unusedLen];
+        int unusedIdx = 0;
+        for (int i = 0; i < kwLen; i++) {
+            int keywordIdx = indices[i];
+            if (keywordIdx != -1) {
+                assert PArguments.getArgument(combined, keywordIdx) == null : calleeArity.getFunctionName() + " got multiple values for argument '" + cachedNames[i] + "'";
+                PArguments.setArgument(combined, keywordIdx, keywords[i].getValue());
+            } else {
+                unusedKeywords[unusedIdx++] = keywords[i];
+            }
+        }
+        PArguments.setKeywordArguments(combined, unusedKeywords);
+        return combined;
+    }
+
     @Specialization(guards = {"kwLen == keywords.length", "argLen == arguments.length", "calleeArity == cachedArity"})
     @ExplodeLoop
     Object[] applyCached(Arity calleeArity, Object[] arguments, PKeyword[] keywords,
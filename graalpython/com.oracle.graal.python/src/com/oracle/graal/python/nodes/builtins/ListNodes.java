@@ -48,6 +48,7 @@ import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.modules.MathGuards;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.iterator.PForeignArrayIterator;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.slice.PSlice;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
@@ -63,6 +64,7 @@ import com.oracle.graal.python.nodes.builtins.ListNodesFactory.IndexNodeGen;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.control.GetIteratorNode;
 import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.interop.ForeignArrayToStorageNode;
 import com.oracle.graal.python.nodes.object.GetClassNode;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.runtime.exception.PException;
@@ -86,6 +88,13 @@ public abstract class ListNodes {
         public abstract PList execute(PythonClass cls, Object iterable);
 
         @Specialization
+        public PList createForeign(PythonClass cls, PForeignArrayIterator iterator,
+                        @Cached("create()") ForeignArrayToStorageNode toStorageNode) {
+            int start = iterator.exhaust();
+            return factory().createList(cls, toStorageNode.execute(iterator.getForeignArray(), start, iterator.getSize()));
+        }
+
+        @Specialization(guards = "!isForeignArrayIterator(iterator)")
         public PList create(PythonClass cls, Object iterator,
                         @Cached("create()") GetNextNode next,
                         @Cached("createBinaryProfile()") ConditionProfile errorProfile) {
@@ -102,6 +111,10 @@ public abstract class ListNodes {
             }
         }
 
+        protected static boolean isForeignArrayIterator(Object iterator) {
+            return iterator instanceof PForeignArrayIterator;
+        }
+
         public static CreateListFromIteratorNode create() {
             return CreateListFromIteratorNodeGen.create();
         }
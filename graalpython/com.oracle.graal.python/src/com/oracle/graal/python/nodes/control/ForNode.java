@@ -27,12 +27,14 @@ package com.oracle.graal.python.nodes.control;
 
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.iterator.PDoubleIterator;
+import com.oracle.graal.python.builtins.objects.iterator.PForeignArrayIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PIntegerIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PLongIterator;
 import com.oracle.graal.python.nodes.PBaseNode;
 import com.oracle.graal.python.nodes.PNode;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.frame.WriteNode;
+import com.oracle.graal.python.nodes.interop.PForeignToPTypeNode;
 import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
@@ -46,6 +48,11 @@ import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.FrameSlotKind;
 import com.oracle.truffle.api.frame.FrameSlotTypeException;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.Message;
+import com.oracle.truffle.api.interop.UnknownIdentifierException;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.api.nodes.RepeatingNode;
 import com.oracle.truffle.api.profiles.ConditionProfile;
@@ -75,7 +82,7 @@ final class ForRepeatingNode extends PBaseNode implements RepeatingNode {
     }
 }
 
-@ImportStatic({PythonOptions.class, SpecialMethodNames.class})
+@ImportStatic({PythonOptions.class, SpecialMethodNames.class, Message.class})
 abstract class ForNextElementNode extends PBaseNode {
 
     @Child PNode target;
@@ -124,6 +131,23 @@ abstract class ForNextElementNode extends PBaseNode {
     }
 
     @Specialization
+    protected boolean doForeignArrayIterator(VirtualFrame frame, PForeignArrayIterator iterator,
+                    @Cached("READ.createNode()") Node readNode,
+                    @Cached("create()") PForeignToPTypeNode fromForeignNode) {
+        if (iterator.getCursor() >= iterator.getSize()) {
+            return false;
+        }
+        Object element;
+        try {
+            element = ForeignAccess.sendRead(readNode, iterator.getForeignArray(), iterator.advance());
+        } catch (UnknownIdentifierException | UnsupportedMessageException e) {
+            return false;
+        }
+        ((WriteNode) target).doWrite(frame, fromForeignNode.executeConvert(element));
+        return true;
+    }
+
+    @Specialization(guards = "!isForeignArrayIterator(object)")
     protected boolean doIterator(VirtualFrame frame, Object object,
                     @Cached("create()") GetNextNode next,
                     @Cached("createBinaryProfile()") ConditionProfile errorProfile) {
@@ -135,6 +159,10 @@ abstract class ForNextElementNode extends PBaseNode {
             return false;
         }
     }
+
+    protected static boolean isForeignArrayIterator(Object object) {
+        return object instanceof PForeignArrayIterator;
+    }
 }
 
 @NodeInfo(shortName = "for")
@@ -91,6 +91,11 @@ public abstract class ReadCallerFrameNode extends PNode {
 
     @TruffleBoundary
     private Frame getCallerFrame() {
+        if (frameAccess == FrameInstance.FrameAccess.READ_ONLY) {
+            // a read-only view can be taken from the stack without the caller's cooperation, so
+            // there is no reason to make every future caller pass its materialized frame
+            return Truffle.getRuntime().getCallerFrame().getFrame(frameAccess);
+        }
         rootNodeStartSendingOwnFrame();
         return Truffle.getRuntime().getCallerFrame().getFrame(frameAccess).materialize();
     }
@@ -32,6 +32,8 @@ import com.oracle.graal.python.nodes.PNode;
 import com.oracle.graal.python.parser.DefinitionCellSlots;
 import com.oracle.graal.python.parser.ExecutionCellSlots;
 import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.VirtualFrame;
@@ -42,7 +44,8 @@ public class FunctionDefinitionNode extends ExpressionDefinitionNode {
     protected final String functionName;
     protected final String enclosingClassName;
     protected final PythonCore core;
-    protected final RootCallTarget callTarget;
+    @CompilationFinal protected RootCallTarget callTarget;
+    private final LazyFunctionCallTarget lazyCallTarget;
     protected final FrameDescriptor frameDescriptor;
     protected final Arity arity;
 
@@ -55,6 +58,24 @@ public class FunctionDefinitionNode extends ExpressionDefinitionNode {
         this.enclosingClassName = enclosingClassName;
         this.core = core;
         this.callTarget = callTarget;
+        this.lazyCallTarget = null;
+        this.frameDescriptor = frameDescriptor;
+        this.arity = arity;
+        this.defaults = defaults;
+    }
+
+    /**
+     * Creates a definition whose function body is translated on the first call of any of the
+     * functions it creates.
+     */
+    public FunctionDefinitionNode(String functionName, String enclosingClassName, PythonCore core, Arity arity, PNode defaults, LazyFunctionCallTarget lazyCallTarget,
+                    FrameDescriptor frameDescriptor, DefinitionCellSlots definitionCellSlots, ExecutionCellSlots executionCellSlots) {
+        super(definitionCellSlots, executionCellSlots);
+        this.functionName = functionName;
+        this.enclosingClassName = enclosingClassName;
+        this.core = core;
+        this.callTarget = null;
+        this.lazyCallTarget = lazyCallTarget;
         this.frameDescriptor = frameDescriptor;
         this.arity = arity;
         this.defaults = defaults;
@@ -65,6 +86,14 @@ public class FunctionDefinitionNode extends ExpressionDefinitionNode {
         defaults.executeVoid(frame);
 
         PCell[] closure = getClosureFromLocals(frame);
+        if (callTarget == null) {
+            RootCallTarget translated = lazyCallTarget.getIfTranslated();
+            if (translated == null) {
+                return factory().createFunction(functionName, enclosingClassName, arity, lazyCallTarget, frameDescriptor, PArguments.getGlobals(frame), closure);
+            }
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            callTarget = translated;
+        }
         return factory().createFunction(functionName, enclosingClassName, arity, callTarget, frameDescriptor, PArguments.getGlobals(frame), closure);
     }
 
@@ -73,6 +102,9 @@ public class FunctionDefinitionNode extends ExpressionDefinitionNode {
     }
 
     public RootNode getFunctionRoot() {
+        if (callTarget == null) {
+            return lazyCallTarget.get().getRootNode();
+        }
         return callTarget.getRootNode();
     }
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.nodes.function;
+
+import java.util.function.Supplier;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.cell.PCell;
+import com.oracle.graal.python.builtins.objects.function.PArguments;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.nodes.PNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.parser.DefinitionCellSlots;
+import com.oracle.graal.python.parser.ExecutionCellSlots;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.DirectCallNode;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+/**
+ * A call like {@code sum(x * x for x in xs)} or {@code [x for x in xs]} where a builtin consumes a
+ * generator expression right away. Besides the generator expression, the translator creates a
+ * plain function for the comprehension that runs the loop to completion and accumulates the result
+ * the way the builtin would. As long as the callee is the builtin of the current context, that
+ * function is called instead of creating a generator, so there is no materialized generator frame
+ * and no resumption per element. If the name was rebound, the generator expression is translated
+ * and the callee is called with a generator object.
+ */
+public final class InlinedGeneratorExpressionCallNode extends ExpressionDefinitionNode {
+
+    @Child private PNode callee;
+    @Child private PNode generatorExpression;
+    private Supplier<PNode> generatorExpressionTranslation;
+    @Child private DirectCallNode inlinedCall;
+    @Child private CallNode genericCall;
+
+    private final String builtinName;
+    private final boolean resultAsTuple;
+    private final ConditionProfile isBuiltinProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile cachedContextProfile = ConditionProfile.createBinaryProfile();
+    @CompilationFinal private PythonContext cachedContext;
+    @CompilationFinal private Object cachedBuiltin;
+
+    public InlinedGeneratorExpressionCallNode(String builtinName, boolean resultAsTuple, PNode callee, Supplier<PNode> generatorExpression, RootCallTarget inlinedCallTarget,
+                    DefinitionCellSlots definitionCellSlots, ExecutionCellSlots executionCellSlots) {
+        super(definitionCellSlots, executionCellSlots);
+        this.builtinName = builtinName;
+        this.resultAsTuple = resultAsTuple;
+        this.callee = callee;
+        this.generatorExpressionTranslation = generatorExpression;
+        this.inlinedCall = Truffle.getRuntime().createDirectCallNode(inlinedCallTarget);
+    }
+
+    public String getBuiltinName() {
+        return builtinName;
+    }
+
+    private boolean isBuiltin(Object calleeValue) {
+        PythonContext context = PythonLanguage.getContext();
+        if (cachedContext == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            cachedContext = context;
+            cachedBuiltin = lookupBuiltin(context);
+        }
+        if (cachedContextProfile.profile(context == cachedContext)) {
+            return calleeValue == cachedBuiltin;
+        }
+        return calleeValue == lookupBuiltin(context);
+    }
+
+    @TruffleBoundary
+    private Object lookupBuiltin(PythonContext context) {
+        PythonModule builtins = context.getCore().isInitialized() ? context.getBuiltins() : context.getCore().lookupBuiltinModule("builtins");
+        return builtins.getAttribute(builtinName);
+    }
+
+    private Object callGeneric(VirtualFrame frame, Object calleeValue) {
+        if (genericCall == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            generatorExpression = insert(translateGeneratorExpression(PArguments.getGeneratorFrame(frame) != null));
+            genericCall = insert(CallNode.create());
+        }
+        return genericCall.execute(calleeValue, new Object[]{generatorExpression.execute(frame)}, PKeyword.EMPTY_KEYWORDS);
+    }
+
+    @TruffleBoundary
+    private PNode translateGeneratorExpression(boolean inGenerator) {
+        PNode result = generatorExpressionTranslation.get();
+        if (inGenerator && result instanceof GeneratorExpressionNode) {
+            // the generator translator of the enclosing generator did not see it
+            ((GeneratorExpressionNode) result).setEnclosingFrameGenerator(true);
+        }
+        // the parse tree is not needed anymore
+        generatorExpressionTranslation = null;
+        return result;
+    }
+
+    @Override
+    public Object execute(VirtualFrame frame) {
+        Object calleeValue = callee.execute(frame);
+        if (!isBuiltinProfile.profile(isBuiltin(calleeValue))) {
+            return callGeneric(frame, calleeValue);
+        }
+
+        Object[] arguments = PArguments.create();
+        PArguments.setGlobals(arguments, PArguments.getGlobals(frame));
+
+        PCell[] closure;
+        Frame generatorFrame = PArguments.getGeneratorFrame(frame);
+        if (generatorFrame != null) {
+            closure = getClosureFromLocals(generatorFrame);
+        } else {
+            closure = getClosureFromLocals(frame);
+        }
+        PArguments.setClosure(arguments, closure);
+
+        Object result = inlinedCall.call(arguments);
+        if (resultAsTuple) {
+            return factory().createTuple(((PList) result).getSequenceStorage().getCopyOfInternalArray());
+        }
+        return result;
+    }
+}
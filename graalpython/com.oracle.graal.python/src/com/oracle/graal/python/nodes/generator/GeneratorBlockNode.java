@@ -29,16 +29,29 @@ import java.util.List;
 
 import com.oracle.graal.python.nodes.PNode;
 import com.oracle.graal.python.nodes.control.BaseBlockNode;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.NodeUtil;
 
 public final class GeneratorBlockNode extends BaseBlockNode implements GeneratorControlNode {
 
     private final int indexSlot;
 
+    /**
+     * Whether the statement at the same position contains a {@link YieldNode}. The block index is
+     * the resume target of the block and only needs to be stored before statements that can
+     * suspend the generator; all other statements are just skipped over on resumption.
+     */
+    @CompilationFinal(dimensions = 1) private final boolean[] mayYield;
+
     public GeneratorBlockNode(PNode[] statements, int indexSlot) {
         super(statements);
         this.indexSlot = indexSlot;
+        this.mayYield = new boolean[statements.length];
+        for (int i = 0; i < statements.length; i++) {
+            mayYield[i] = !NodeUtil.findAllNodeInstances(statements[i], YieldNode.class).isEmpty();
+        }
     }
 
     public static GeneratorBlockNode create(PNode[] statements, int indexSlot) {
@@ -58,16 +71,18 @@ public final class GeneratorBlockNode extends BaseBlockNode implements Generator
     @Override
     public Object execute(VirtualFrame frame) {
         Object result = null;
+        // the resume target is read once, the statements before it have already been executed
+        final int resumeIndex = getIndex(frame, indexSlot);
 
         for (int i = 0; i < statements.length; i++) {
-            final int currentIndex = getIndex(frame, indexSlot);
-
-            if (i < currentIndex) {
+            if (i < resumeIndex) {
                 continue;
             }
 
+            if (mayYield[i]) {
+                setIndex(frame, indexSlot, i);
+            }
             result = statements[i].execute(frame);
-            setIndex(frame, indexSlot, currentIndex + 1);
         }
 
         reset(frame);
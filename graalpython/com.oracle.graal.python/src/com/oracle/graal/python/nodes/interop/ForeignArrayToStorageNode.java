@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.nodes.interop;
+
+import java.util.Arrays;
+
+import com.oracle.graal.python.nodes.PBaseNode;
+import com.oracle.graal.python.runtime.PythonOptions;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.EmptySequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.Message;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.interop.UnknownIdentifierException;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+/**
+ * Copies the elements {@code [from, to)} of a foreign array into a sequence storage in a single
+ * pass over the interop {@code READ} message. As long as the elements are all {@code int} or all
+ * {@code double}, they are written straight into a primitive array, so e.g. a Java {@code int[]}
+ * ends up in an {@link IntSequenceStorage} without an intermediate boxed copy.
+ */
+public final class ForeignArrayToStorageNode extends PBaseNode {
+
+    @Child private Node readNode = Message.READ.createNode();
+    @Child private PForeignToPTypeNode fromForeignNode = PForeignToPTypeNode.create();
+
+    private final ConditionProfile intProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile doubleProfile = ConditionProfile.createBinaryProfile();
+
+    public SequenceStorage execute(TruffleObject foreignArray, int from, int to) {
+        int length = to - from;
+        if (length <= 0) {
+            return EmptySequenceStorage.INSTANCE;
+        }
+        boolean unbox = PythonOptions.getOption(getContext(), PythonOptions.UnboxSequenceStorage);
+        int[] ints = null;
+        double[] doubles = null;
+        Object[] objects = null;
+        int i = 0;
+        for (; i < length; i++) {
+            Object element;
+            try {
+                element = fromForeignNode.executeConvert(ForeignAccess.sendRead(readNode, foreignArray, from + i));
+            } catch (UnknownIdentifierException | UnsupportedMessageException e) {
+                // the array shrank underneath us; iteration would stop here as well
+                break;
+            }
+            if (i == 0 && unbox) {
+                if (element instanceof Integer) {
+                    ints = new int[length];
+                } else if (element instanceof Double) {
+                    doubles = new double[length];
+                }
+            }
+            if (ints != null) {
+                if (intProfile.profile(element instanceof Integer)) {
+                    ints[i] = (int) element;
+                    continue;
+                }
+                objects = generalize(ints, i, length);
+                ints = null;
+            } else if (doubles != null) {
+                if (doubleProfile.profile(element instanceof Double)) {
+                    doubles[i] = (double) element;
+                    continue;
+                }
+                objects = generalize(doubles, i, length);
+                doubles = null;
+            } else if (objects == null) {
+                objects = new Object[length];
+            }
+            objects[i] = element;
+        }
+        if (i == 0) {
+            return EmptySequenceStorage.INSTANCE;
+        } else if (ints != null) {
+            return new IntSequenceStorage(i == length ? ints : Arrays.copyOf(ints, i));
+        } else if (doubles != null) {
+            return new DoubleSequenceStorage(i == length ? doubles : Arrays.copyOf(doubles, i));
+        } else {
+            return new ObjectSequenceStorage(i == length ? objects : Arrays.copyOf(objects, i));
+        }
+    }
+
+    private static Object[] generalize(int[] ints, int filled, int length) {
+        Object[] objects = new Object[length];
+        for (int j = 0; j < filled; j++) {
+            objects[j] = ints[j];
+        }
+        return objects;
+    }
+
+    private static Object[] generalize(double[] doubles, int filled, int length) {
+        Object[] objects = new Object[length];
+        for (int j = 0; j < filled; j++) {
+            objects[j] = doubles[j];
+        }
+        return objects;
+    }
+
+    public static ForeignArrayToStorageNode create() {
+        return new ForeignArrayToStorageNode();
+    }
+}
@@ -41,15 +41,23 @@ package com.oracle.graal.python.nodes.statement;
 import static com.oracle.graal.python.nodes.BuiltinNames.GLOBALS;
 import static com.oracle.graal.python.nodes.BuiltinNames.LOCALS;
 import static com.oracle.graal.python.nodes.BuiltinNames.__IMPORT__;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.__PATH__;
 
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.function.PFunction;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.function.PythonCallable;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
 import com.oracle.graal.python.nodes.call.InvokeNode;
 import com.oracle.graal.python.nodes.object.GetDictNode;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.instrumentation.StandardTags;
 import com.oracle.truffle.api.instrumentation.Tag;
 
@@ -57,6 +65,12 @@ public abstract class AbstractImportNode extends StatementNode {
 
     @Child private InvokeNode invokeNode;
     @Child private GetDictNode getDictNode;
+    @Child private ReadAttributeFromObjectNode readImportNode;
+    @Child private ReadAttributeFromObjectNode readPathNode;
+    @Child private HashingStorageNodes.GetItemNode getModuleNode;
+
+    @CompilationFinal private RootCallTarget coreImportTarget;
+    @CompilationFinal private boolean fastPathFailed;
 
     public AbstractImportNode() {
         super();
@@ -87,9 +101,68 @@ public abstract class AbstractImportNode extends StatementNode {
         if (!getCore().isInitialized()) {
             return getCore().lookupBuiltinModule(name);
         }
+        if (level == 0 && !fastPathFailed) {
+            Object module = lookupImportedModule(name, fromList);
+            if (module != null) {
+                return module;
+            }
+        }
         return __import__(name, globals, fromList, level);
     }
 
+    /**
+     * Returns what {@code __import__} would return for an absolute import of a module that is
+     * already in {@code sys.modules}, or {@code null} if the import has to go through
+     * {@code __import__}. This is only valid as long as {@code builtins.__import__} is the one
+     * installed by the core library.
+     */
+    private Object lookupImportedModule(String name, String[] fromList) {
+        if (readImportNode == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            readImportNode = insert(ReadAttributeFromObjectNode.create());
+            readPathNode = insert(ReadAttributeFromObjectNode.create());
+            getModuleNode = insert(HashingStorageNodes.GetItemNode.create());
+            Object coreImport = getCore().lookupBuiltinModule("builtins").getAttribute(__IMPORT__);
+            if (coreImport instanceof PFunction) {
+                coreImportTarget = ((PFunction) coreImport).getCallTarget();
+            } else {
+                fastPathFailed = true;
+                return null;
+            }
+        }
+        Object builtinImport = readImportNode.execute(getContext().getBuiltins(), __IMPORT__);
+        if (!(builtinImport instanceof PFunction) || ((PFunction) builtinImport).getCallTarget() != coreImportTarget) {
+            // a custom __import__ has to see every import
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            fastPathFailed = true;
+            return null;
+        }
+        PDict sysModules = getContext().getSysModules();
+        Object module = getModuleNode.execute(sysModules.getDictStorage(), name);
+        if (!(module instanceof PythonModule)) {
+            return null;
+        }
+        if (fromList.length == 0) {
+            String topLevelName = getTopLevelName(name);
+            if (topLevelName == null) {
+                return module;
+            }
+            // 'import a.b' binds the top level package
+            Object topLevel = getModuleNode.execute(sysModules.getDictStorage(), topLevelName);
+            return topLevel instanceof PythonModule ? topLevel : null;
+        } else if (readPathNode.execute(module, __PATH__) == PNone.NO_VALUE) {
+            // only packages may need to import submodules for the from list
+            return module;
+        }
+        return null;
+    }
+
+    @TruffleBoundary
+    private static String getTopLevelName(String name) {
+        int dot = name.indexOf('.');
+        return dot < 0 ? null : name.substring(0, dot);
+    }
+
     Object __import__(String name, Object globals, String[] fromList, int level) {
         PFunction builtinImport = (PFunction) getContext().getBuiltins().getAttribute(__IMPORT__);
         Object[] importArguments = PArguments.create(1);
@@ -33,9 +33,14 @@ import com.oracle.graal.python.nodes.frame.WriteNode;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.exception.ExceptionHandledException;
 import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.instrumentation.GenerateWrapper;
 import com.oracle.truffle.api.instrumentation.ProbeNode;
+import com.oracle.truffle.api.nodes.RootNode;
 
 @GenerateWrapper
 public class ExceptNode extends StatementNode {
@@ -44,16 +49,26 @@ public class ExceptNode extends StatementNode {
     @Child private PNode exceptType;
     @Child private PNode exceptName;
 
+    /*
+     * Most handlers (think of KeyError or StopIteration used for control flow) never look at the
+     * traceback, neither through the bound name nor through sys.exc_info(). The stack is only
+     * captured when the traceback is read, until this site has seen it observed once.
+     */
+    private final Assumption tracebackNeverObserved;
+    @CompilationFinal private RootNode handlerRoot;
+
     public ExceptNode(PNode body, PNode exceptType, PNode exceptName) {
         this.body = body;
         this.exceptName = exceptName;
         this.exceptType = exceptType;
+        this.tracebackNeverObserved = Truffle.getRuntime().createAssumption("except-site traceback never observed");
     }
 
     public ExceptNode(ExceptNode original) {
         this.body = original.body;
         this.exceptName = original.exceptName;
         this.exceptType = original.exceptType;
+        this.tracebackNeverObserved = original.tracebackNeverObserved;
     }
 
     public void executeExcept(VirtualFrame frame, PException e) {
@@ -101,15 +116,27 @@ public class ExceptNode extends StatementNode {
             if (type != null) {
                 if (exceptName != null) {
                     ((WriteNode) exceptName).doWrite(frame, e.getExceptionObject());
-                    e.getExceptionObject().reifyException();
                 }
             } else {
                 return false;
             }
         }
+        if (tracebackNeverObserved.isValid()) {
+            e.getExceptionObject().setLazilyCaught(tracebackNeverObserved, getHandlerRoot());
+        } else {
+            e.getExceptionObject().setEagerlyCaught();
+        }
         return true;
     }
 
+    private RootNode getHandlerRoot() {
+        if (handlerRoot == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            handlerRoot = getRootNode();
+        }
+        return handlerRoot;
+    }
+
     @Override
     public Object execute(VirtualFrame frame) {
         return null;
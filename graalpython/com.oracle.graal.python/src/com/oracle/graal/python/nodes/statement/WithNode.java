@@ -28,6 +28,7 @@ package com.oracle.graal.python.nodes.statement;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
 
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.exception.PBaseException;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.nodes.PNode;
@@ -38,11 +39,16 @@ import com.oracle.graal.python.nodes.datamodel.IsCallableNode;
 import com.oracle.graal.python.nodes.expression.CastToBooleanNode;
 import com.oracle.graal.python.nodes.frame.WriteNode;
 import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
 
 @NodeChildren({@NodeChild(value = "withContext", type = PNode.class)})
 public abstract class WithNode extends StatementNode {
@@ -56,6 +62,13 @@ public abstract class WithNode extends StatementNode {
     @Child private CastToBooleanNode toBooleanNode;
     @Child private CreateArgumentsNode createArgs;
 
+    /*
+     * Most __exit__ methods never look at the traceback they are passed, so it only captures the
+     * stack on its first access, until this site has seen a traceback observed once.
+     */
+    private final Assumption tracebackNeverObserved = Truffle.getRuntime().createAssumption("with-site traceback never observed");
+    @CompilationFinal private RootNode handlerRoot;
+
     protected WithNode(PNode targetNode, PNode body) {
         this.targetNode = targetNode;
         this.body = body;
@@ -128,10 +141,16 @@ public abstract class WithNode extends StatementNode {
             throw raise(TypeError, "%p is not callable", exitCallable);
         }
 
-        e.getExceptionObject().reifyException();
+        PBaseException value = e.getExceptionObject();
+        Object trace;
+        if (tracebackNeverObserved.isValid()) {
+            value.setLazilyCaught(tracebackNeverObserved, getHandlerRoot());
+            trace = value.getLazyTraceback(factory());
+        } else {
+            value.setEagerlyCaught();
+            trace = value.getTraceback(factory());
+        }
         Object type = e.getType();
-        Object value = e.getExceptionObject();
-        Object trace = e.getExceptionObject().getTraceback(factory());
         Object returnValue = exitDispatch.executeCall(exitCallable, createArgs.execute(withObject, type, value, trace), new PKeyword[0]);
         // If exit handler returns 'true', suppress
         if (toBooleanNode.executeWith(returnValue)) {
@@ -140,4 +159,12 @@ public abstract class WithNode extends StatementNode {
         // else re-raise exception
         throw e;
     }
+
+    private RootNode getHandlerRoot() {
+        if (handlerRoot == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            handlerRoot = getRootNode();
+        }
+        return handlerRoot;
+    }
 }
@@ -33,6 +33,7 @@ import com.oracle.graal.python.builtins.objects.array.PArray;
 import com.oracle.graal.python.builtins.objects.array.PCharArray;
 import com.oracle.graal.python.builtins.objects.array.PDoubleArray;
 import com.oracle.graal.python.builtins.objects.array.PIntArray;
+import com.oracle.graal.python.builtins.objects.array.PTypedArray;
 import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
@@ -172,6 +173,12 @@ public abstract class SetItemNode extends StatementNode implements WriteNode {
         return PNone.NONE;
     }
 
+    @Specialization
+    public Object doPTypedArray(PTypedArray primary, int index, Object value) {
+        primary.setItemNormalized(normalize.forArrayAssign(index, primary.len()), value);
+        return PNone.NONE;
+    }
+
     @Specialization
     public Object doSpecialObject(PythonObject primary, int index, Object value,
                     @Cached("create()") GetattributeNode getSetitemNode,
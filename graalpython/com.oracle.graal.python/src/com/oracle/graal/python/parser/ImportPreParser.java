@@ -0,0 +1,447 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.parser.antlr.Builder;
+import com.oracle.graal.python.parser.antlr.Python3Parser;
+import com.oracle.graal.python.runtime.ModulePathCache;
+import com.oracle.graal.python.runtime.ModulePathCache.Match;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+
+/**
+ * Parses the source files of modules that are likely to be imported soon on a small thread pool
+ * owned by the engine, so that the import chain of an application can use several cores. After a
+ * module was parsed, the modules named by its import statements outside of functions and classes
+ * are resolved against a snapshot of {@code sys.path} and parsed in the background. The parse trees
+ * are cached per engine, keyed by path and modification time, until the module is compiled, and
+ * are only used if the source text that is compiled then is exactly the text that was parsed.
+ */
+public final class ImportPreParser {
+    private static final String[] SOURCE_SUFFIXES = new String[]{".py"};
+    private static final Set<OpenOption> READ = Collections.singleton(StandardOpenOption.READ);
+    // modules that are scheduled but never imported are not evicted, so the cache is bounded
+    private static final int MAX_ENTRIES = 512;
+    private static final Pattern CODING_COOKIE = Pattern.compile("^[ \\t\\f]*#.*?coding[:=][ \\t]*([-\\w.]+)");
+    private static final Pattern BLANK_LINE = Pattern.compile("^[ \\t\\f]*(?:[#\\r\\n]|$)");
+    private static final int MAX_THREADS = 4;
+    // idle threads end, so that an unused engine does not keep any
+    private static final long KEEP_ALIVE_SECONDS = 10;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile ExecutorService executor;
+
+    private static final class Entry {
+        private final long mtime;
+        private final Future<Result> task;
+
+        private Entry(long mtime, Future<Result> task) {
+            this.mtime = mtime;
+            this.task = task;
+        }
+    }
+
+    /**
+     * An import statement together with what the importing thread knew when it was scheduled.
+     */
+    private static final class Request {
+        private final int level;
+        private final String[] names;
+        private final String[] fromlist;
+        /** {@code loaded[i]} tells if the first {@code i + 1} names are in {@code sys.modules} */
+        private final boolean[] loaded;
+
+        private Request(int level, String[] names, String[] fromlist, boolean[] loaded) {
+            this.level = level;
+            this.names = names;
+            this.fromlist = fromlist;
+            this.loaded = loaded;
+        }
+    }
+
+    private static final class Result {
+        private final String text;
+        private final ParserRuleContext tree;
+
+        private Result(String text, ParserRuleContext tree) {
+            this.text = text;
+            this.tree = tree;
+        }
+    }
+
+    /**
+     * Returns the parse tree of {@code text} if it was parsed in the background for
+     * {@code path}, waiting for a running parse to finish. Returns {@code null} if the file was not
+     * pre-parsed, could not be parsed or had a different content.
+     */
+    @TruffleBoundary
+    public ParserRuleContext take(String path, String text) {
+        Entry entry = entries.remove(path);
+        if (entry == null) {
+            return null;
+        }
+        Result result;
+        try {
+            result = entry.task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+        if (result == null || !result.text.equals(text)) {
+            return null;
+        }
+        return result.tree;
+    }
+
+    /**
+     * Starts parsing the modules imported by the module {@code tree} parsed from {@code path}.
+     * Modules that are already in {@code sys.modules} are skipped. Only the import statements are
+     * collected on the calling thread; the modules are looked up in the file system by the pool.
+     */
+    @TruffleBoundary
+    public void scheduleImports(PythonContext context, String path, ParseTree tree) {
+        List<Request> requests = new ArrayList<>();
+        collectImports(context, tree, requests);
+        if (requests.isEmpty()) {
+            return;
+        }
+        Env env = context.getEnv();
+        ModulePathCache pathCache = context.getModulePathCache();
+        String[] sysPath = getSysPath(context);
+        getExecutor().execute(() -> {
+            for (Request request : requests) {
+                scheduleModule(env, pathCache, sysPath, path, request);
+            }
+        });
+    }
+
+    private static void collectImports(PythonContext context, ParseTree tree, List<Request> requests) {
+        if (tree instanceof Python3Parser.FuncdefContext || tree instanceof Python3Parser.ClassdefContext) {
+            return;
+        } else if (tree instanceof Python3Parser.Import_nameContext) {
+            for (Python3Parser.Dotted_as_nameContext name : ((Python3Parser.Import_nameContext) tree).dotted_as_names().dotted_as_name()) {
+                addRequest(context, 0, getNames(name.dotted_name()), null, requests);
+            }
+        } else if (tree instanceof Python3Parser.Import_fromContext) {
+            Python3Parser.Import_fromContext importFrom = (Python3Parser.Import_fromContext) tree;
+            int level = 0;
+            for (int i = 1; i < importFrom.getChildCount(); i++) {
+                String text = importFrom.getChild(i).getText();
+                if (text.equals(".")) {
+                    level += 1;
+                } else if (text.equals("...")) {
+                    level += 3;
+                } else {
+                    break;
+                }
+            }
+            String[] names = importFrom.dotted_name() == null ? new String[0] : getNames(importFrom.dotted_name());
+            String[] fromlist = null;
+            if (importFrom.import_as_names() != null) {
+                fromlist = new String[importFrom.import_as_names().import_as_name().size()];
+                for (int i = 0; i < fromlist.length; i++) {
+                    fromlist[i] = importFrom.import_as_names().import_as_name(i).NAME(0).getText();
+                }
+            }
+            addRequest(context, level, names, fromlist, requests);
+        } else {
+            for (int i = 0; i < tree.getChildCount(); i++) {
+                ParseTree child = tree.getChild(i);
+                if (!(child instanceof TerminalNode)) {
+                    collectImports(context, child, requests);
+                }
+            }
+        }
+    }
+
+    private static void addRequest(PythonContext context, int level, String[] names, String[] fromlist, List<Request> requests) {
+        boolean[] loaded = new boolean[names.length];
+        if (level == 0) {
+            if (names.length == 0 || isLoaded(context, names, names.length)) {
+                return;
+            }
+            for (int i = 0; i < names.length; i++) {
+                loaded[i] = isLoaded(context, names, i + 1);
+            }
+        }
+        requests.add(new Request(level, names, fromlist, loaded));
+    }
+
+    private static String[] getNames(Python3Parser.Dotted_nameContext dottedName) {
+        String[] names = new String[dottedName.NAME().size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = dottedName.NAME(i).getText();
+        }
+        return names;
+    }
+
+    private void scheduleModule(Env env, ModulePathCache pathCache, String[] sysPath, String path, Request request) {
+        String[] names = request.names;
+        String packagePath;
+        int first = 0;
+        if (request.level > 0) {
+            TruffleFile dir = env.getTruffleFile(path).getParent();
+            for (int i = 1; i < request.level && dir != null; i++) {
+                dir = dir.getParent();
+            }
+            if (dir == null) {
+                return;
+            }
+            packagePath = dir.getPath();
+        } else {
+            Match match = findInSysPath(env, pathCache, sysPath, names[0]);
+            if (match == null) {
+                return;
+            }
+            if (!request.loaded[0]) {
+                schedule(env, match.filePath);
+            }
+            packagePath = match.packagePath;
+            first = 1;
+        }
+        for (int i = first; i < names.length && packagePath != null; i++) {
+            Match match = pathCache.find(env, packagePath, names[i], SOURCE_SUFFIXES);
+            if (match == null) {
+                return;
+            }
+            if (request.level > 0 || !request.loaded[i]) {
+                schedule(env, match.filePath);
+            }
+            packagePath = match.packagePath;
+        }
+        if (request.fromlist != null && packagePath != null) {
+            // the imported names may be submodules of the package
+            for (String name : request.fromlist) {
+                Match match = pathCache.find(env, packagePath, name, SOURCE_SUFFIXES);
+                if (match != null) {
+                    schedule(env, match.filePath);
+                }
+            }
+        }
+    }
+
+    private static boolean isLoaded(PythonContext context, String[] names, int length) {
+        return context.getSysModules().hasKey(String.join(".", Arrays.copyOf(names, length)));
+    }
+
+    /**
+     * Copies the string entries of {@code sys.path}, since the list must not be read from the pool.
+     */
+    private static String[] getSysPath(PythonContext context) {
+        Object sysPath = context.getSysModule().getAttribute("path");
+        if (!(sysPath instanceof PList)) {
+            return new String[0];
+        }
+        PList list = (PList) sysPath;
+        List<String> result = new ArrayList<>(list.len());
+        for (int i = 0; i < list.len(); i++) {
+            Object entry = list.getItem(i);
+            if (entry instanceof PString) {
+                entry = ((PString) entry).getValue();
+            }
+            if (entry instanceof String && !((String) entry).isEmpty()) {
+                result.add((String) entry);
+            }
+        }
+        return result.toArray(new String[0]);
+    }
+
+    private static Match findInSysPath(Env env, ModulePathCache pathCache, String[] sysPath, String name) {
+        for (String entry : sysPath) {
+            Match match = pathCache.find(env, entry, name, SOURCE_SUFFIXES);
+            if (match != null) {
+                return match;
+            }
+        }
+        return null;
+    }
+
+    private ExecutorService getExecutor() {
+        ExecutorService result = executor;
+        if (result == null) {
+            synchronized (this) {
+                result = executor;
+                if (result == null) {
+                    int threads = Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+                    ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "python-import-preparser");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    pool.allowCoreThreadTimeOut(true);
+                    executor = result = pool;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void schedule(Env env, String filePath) {
+        if (filePath == null) {
+            return;
+        }
+        TruffleFile file = env.getTruffleFile(filePath);
+        long mtime;
+        try {
+            mtime = file.getLastModifiedTime().toMillis();
+        } catch (IOException | SecurityException e) {
+            return;
+        }
+        if (entries.size() >= MAX_ENTRIES && !entries.containsKey(filePath)) {
+            return;
+        }
+        entries.compute(filePath, (key, entry) -> {
+            if (entry != null && entry.mtime == mtime) {
+                return entry;
+            }
+            return new Entry(mtime, getExecutor().submit(() -> parse(file)));
+        });
+    }
+
+    private static Result parse(TruffleFile file) {
+        try {
+            String text;
+            try (SeekableByteChannel channel = file.newByteChannel(READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        break;
+                    }
+                }
+                text = decodeSource(buffer.array(), buffer.position());
+            }
+            Python3Parser parser = new Builder.Parser(text).build();
+            parser.setErrorHandler(new PythonErrorStrategy());
+            return new Result(text, PythonParserImpl.parseWithSLLFirst(parser, Python3Parser::file_input));
+        } catch (Exception e) {
+            // the error is reported when the module is really imported
+            return null;
+        }
+    }
+
+    /**
+     * Decodes the source bytes like importlib's {@code decode_source}: a UTF-8 BOM or a PEP 263
+     * coding cookie selects the charset, UTF-8 is the default, and line endings are translated to
+     * {@code '\n'}.
+     */
+    static String decodeSource(byte[] bytes, int length) {
+        int start = 0;
+        Charset charset = StandardCharsets.UTF_8;
+        if (length >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF) {
+            start = 3;
+        } else {
+            String encoding = findCodingCookie(bytes, length);
+            if (encoding != null) {
+                charset = Charset.forName(normalizeEncodingName(encoding));
+            }
+        }
+        return new String(bytes, start, length - start, charset).replace("\r\n", "\n").replace('\r', '\n');
+    }
+
+    /**
+     * The cookie must be in the first line, or in the second line if the first one is blank or a
+     * comment.
+     */
+    private static String findCodingCookie(byte[] bytes, int length) {
+        int lineStart = 0;
+        for (int line = 0; line < 2 && lineStart < length; line++) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && bytes[lineEnd] != '\n' && bytes[lineEnd] != '\r') {
+                lineEnd++;
+            }
+            String text = new String(bytes, lineStart, lineEnd - lineStart, StandardCharsets.ISO_8859_1);
+            Matcher matcher = CODING_COOKIE.matcher(text);
+            if (matcher.find()) {
+                return matcher.group(1);
+            } else if (!BLANK_LINE.matcher(text).find()) {
+                return null;
+            }
+            lineStart = lineEnd < length && bytes[lineEnd] == '\r' && lineEnd + 1 < length && bytes[lineEnd + 1] == '\n' ? lineEnd + 2 : lineEnd + 1;
+        }
+        return null;
+    }
+
+    /**
+     * Maps the spellings of UTF-8 and Latin-1 that Python accepts to Java charset names, like
+     * {@code tokenize._get_normal_name}.
+     */
+    private static String normalizeEncodingName(String encoding) {
+        String name = encoding.substring(0, Math.min(encoding.length(), 12)).toLowerCase(Locale.ROOT).replace('_', '-');
+        if (name.equals("utf-8") || name.startsWith("utf-8-")) {
+            return "UTF-8";
+        } else if (name.equals("latin-1") || name.equals("iso-8859-1") || name.equals("iso-latin-1") ||
+                        name.startsWith("latin-1-") || name.startsWith("iso-8859-1-") || name.startsWith("iso-latin-1-")) {
+            return "ISO-8859-1";
+        }
+        return encoding;
+    }
+}
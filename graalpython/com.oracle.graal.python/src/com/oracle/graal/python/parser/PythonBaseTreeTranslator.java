@@ -25,13 +25,18 @@
  */
 package com.oracle.graal.python.parser;
 
+import static com.oracle.graal.python.nodes.BuiltinNames.ALL;
+import static com.oracle.graal.python.nodes.BuiltinNames.ANY;
 import static com.oracle.graal.python.nodes.BuiltinNames.DICT;
 import static com.oracle.graal.python.nodes.BuiltinNames.LIST;
 import static com.oracle.graal.python.nodes.BuiltinNames.SET;
+import static com.oracle.graal.python.nodes.BuiltinNames.SUM;
 import static com.oracle.graal.python.nodes.BuiltinNames.SUPER;
+import static com.oracle.graal.python.nodes.BuiltinNames.TUPLE;
 import static com.oracle.graal.python.nodes.BuiltinNames.__BUILD_CLASS__;
 import static com.oracle.graal.python.nodes.SpecialAttributeNames.__CLASS__;
 import static com.oracle.graal.python.nodes.SpecialAttributeNames.__DOC__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.StopIteration;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.SyntaxError;
 
 import java.math.BigInteger;
@@ -42,8 +47,10 @@ import java.util.Collection;
 import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.Token;
@@ -85,6 +92,8 @@ import com.oracle.graal.python.nodes.function.FunctionDefinitionNode;
 import com.oracle.graal.python.nodes.function.FunctionRootNode;
 import com.oracle.graal.python.nodes.function.GeneratorExpressionNode;
 import com.oracle.graal.python.nodes.function.GeneratorFunctionDefinitionNode;
+import com.oracle.graal.python.nodes.function.InlinedGeneratorExpressionCallNode;
+import com.oracle.graal.python.nodes.function.LazyFunctionCallTarget;
 import com.oracle.graal.python.nodes.literal.LiteralNode;
 import com.oracle.graal.python.nodes.literal.StarredExpressionNode;
 import com.oracle.graal.python.nodes.literal.StringLiteralNode;
@@ -95,7 +104,9 @@ import com.oracle.graal.python.nodes.statement.RaiseNode;
 import com.oracle.graal.python.nodes.subscript.GetItemNode;
 import com.oracle.graal.python.parser.antlr.Python3BaseVisitor;
 import com.oracle.graal.python.parser.antlr.Python3Parser;
+import com.oracle.graal.python.runtime.BigIntegerConversion;
 import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.Truffle;
@@ -113,9 +124,26 @@ public abstract class PythonBaseTreeTranslator<T> extends Python3BaseVisitor<Obj
     protected final AssignmentTranslator assigns;
     protected final Source source;
     protected final String name;
+    protected final boolean lazyFunctions;
+    // qualified name prefix of the functions enclosing a lazily translated function body
+    private final String qualnamePrefix;
 
     public PythonBaseTreeTranslator(PythonCore core, String name, TranslationEnvironment environment, Source source) {
+        this(core, name, environment, source, false);
+    }
+
+    /**
+     * @param lazyFunctions if {@code true}, the bodies of plain functions are only translated when
+     *            the function is first called
+     */
+    public PythonBaseTreeTranslator(PythonCore core, String name, TranslationEnvironment environment, Source source, boolean lazyFunctions) {
+        this(core, name, environment, source, lazyFunctions, null);
+    }
+
+    private PythonBaseTreeTranslator(PythonCore core, String name, TranslationEnvironment environment, Source source, boolean lazyFunctions, String qualnamePrefix) {
+        this.qualnamePrefix = qualnamePrefix;
         this.name = name;
+        this.lazyFunctions = lazyFunctions;
         this.core = core;
         this.source = source;
         this.factory = core.getLanguage().getNodeFactory();
@@ -295,6 +323,10 @@ public abstract class PythonBaseTreeTranslator<T> extends Python3BaseVisitor<Obj
     }
 
     private PNode visitCallTo(PNode owner, Python3Parser.ArglistContext arglist) {
+        if (owner instanceof ReadGlobalOrBuiltinNode && arglist != null && arglist.argument().size() == 1 && arglist.argument(0).comp_for() != null &&
+                        isInlineableGeneratorConsumer(((ReadGlobalOrBuiltinNode) owner).getAttributeId())) {
+            return createInlinedGeneratorExpressionCall(((ReadGlobalOrBuiltinNode) owner).getAttributeId(), owner, arglist.argument(0), true);
+        }
         List<PNode> argumentNodes = new ArrayList<>();
         List<PNode> keywords = new ArrayList<>();
         PNode[] splatArguments = new PNode[2];
@@ -307,6 +339,116 @@ public abstract class PythonBaseTreeTranslator<T> extends Python3BaseVisitor<Obj
         return callNode;
     }
 
+    private boolean isInlineableGeneratorConsumer(String calleeName) {
+        if (!PythonOptions.getOption(core.getContext(), PythonOptions.InlineGeneratorCalls)) {
+            return false;
+        }
+        switch (calleeName) {
+            case LIST:
+            case TUPLE:
+            case SUM:
+            case ANY:
+            case ALL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Translates the comprehension {@code ctx} into a plain function that runs the loop to
+     * completion and accumulates what the builtin {@code calleeName} would compute from the
+     * generator. This translation uses copies of the scopes, so that it does not touch the frame
+     * descriptors of the generator. The generator expression itself is only translated if the
+     * callee turns out not to be the builtin. See {@link InlinedGeneratorExpressionCallNode}.
+     *
+     * @param isGeneratorExpression if {@code true}, a {@code StopIteration} raised while computing
+     *            an element ends the loop, as it ends the generator that is inlined here
+     */
+    private PNode createInlinedGeneratorExpressionCall(String calleeName, PNode callee, ParserRuleContext ctx, boolean isGeneratorExpression) {
+        Supplier<PNode> generatorExpression = createLazyComprehension(core, name, source, environment.createForCurrentScope(ctx), ctx, lazyFunctions, getEnclosingQualname(ctx.getParent()));
+        Map<ParserRuleContext, ScopeInfo> generatorScopes = environment.swapScopes(environment.copyScopes(ctx));
+        try {
+            environment.beginScope(ctx, ScopeInfo.ScopeKind.Generator);
+            PNode element = asBlockOrPNode(ctx.getChild(0).accept(this));
+            FrameSlot accumulator = TranslationEnvironment.makeTempLocalVariable(environment.getCurrentFrame());
+            PNode init;
+            PNode accumulate;
+            switch (calleeName) {
+                case LIST:
+                case TUPLE:
+                    init = factory.createWriteLocal(factory.createListLiteral(new PNode[0]), accumulator);
+                    accumulate = factory.createListAppend(factory.createReadLocal(accumulator), element);
+                    break;
+                case SUM:
+                    init = factory.createWriteLocal(factory.createIntegerLiteral(0), accumulator);
+                    accumulate = factory.createWriteLocal(factory.createBinaryOperation("+", factory.createReadLocal(accumulator), element), accumulator);
+                    break;
+                case ANY:
+                    // stop at the first true element
+                    init = factory.createWriteLocal(factory.createBooleanLiteral(false), accumulator);
+                    accumulate = factory.createIf(factory.createYesNode(element),
+                                    factory.createBlock(factory.createWriteLocal(factory.createBooleanLiteral(true), accumulator), factory.createReturn()), EmptyNode.create());
+                    break;
+                case ALL:
+                    // stop at the first false element
+                    init = factory.createWriteLocal(factory.createBooleanLiteral(true), accumulator);
+                    accumulate = factory.createIf(CastToBooleanNode.createIfFalseNode(element),
+                                    factory.createBlock(factory.createWriteLocal(factory.createBooleanLiteral(false), accumulator), factory.createReturn()), EmptyNode.create());
+                    break;
+                default:
+                    throw new IllegalStateException("cannot inline generator expression consumed by " + calleeName);
+            }
+            PNode loop = createGeneratorExpression(ctx.getChild(Python3Parser.Comp_forContext.class, 0), accumulate);
+            SourceSection srcSection = loop.getSourceSection();
+            if (isGeneratorExpression) {
+                ExceptNode endOfIteration = new ExceptNode(EmptyNode.create(), factory.getBuiltin(StopIteration.name()), null);
+                loop = factory.createTryExceptElseFinallyNode(loop, new ExceptNode[]{endOfIteration}, EmptyNode.create(), EmptyNode.create());
+            }
+            PNode body = new ReturnTargetNode(factory.createBlock(init, loop, factory.createReturn()), factory.createReadLocal(accumulator));
+            body.assignSourceSection(srcSection);
+            String functionName = "generator_exp:" + ctx.getStart().getLine();
+            FunctionRootNode funcRoot = factory.createFunctionRoot(srcSection, functionName, false, environment.getCurrentFrame(), body, environment.getExecutionCellSlots());
+            return new InlinedGeneratorExpressionCallNode(calleeName, calleeName.equals(TUPLE), callee, generatorExpression,
+                            Truffle.getRuntime().createCallTarget(funcRoot), environment.getDefinitionCellSlots(), environment.getExecutionCellSlots());
+        } finally {
+            environment.endScope(ctx);
+            environment.swapScopes(generatorScopes);
+            // the lazy translation only needs the subtree of the comprehension
+            ctx.parent = null;
+        }
+    }
+
+    /**
+     * Does not capture the translator, so that the supplier only keeps the parse subtree of the
+     * comprehension alive.
+     */
+    private static Supplier<PNode> createLazyComprehension(PythonCore core, String name, Source source, TranslationEnvironment environment, ParserRuleContext ctx, boolean lazyFunctions,
+                    String qualnamePrefix) {
+        return () -> {
+            synchronized (environment.getTranslationLock()) {
+                return new ComprehensionTranslator(core, name, environment, source, ctx, lazyFunctions, qualnamePrefix).getTranslationResult();
+            }
+        };
+    }
+
+    /**
+     * Translates a comprehension into a generator expression in the scope enclosing it.
+     */
+    private static final class ComprehensionTranslator extends PythonBaseTreeTranslator<PNode> {
+        private final PNode result;
+
+        ComprehensionTranslator(PythonCore core, String name, TranslationEnvironment environment, Source source, ParserRuleContext ctx, boolean lazyFunctions, String qualnamePrefix) {
+            super(core, name, environment, source, lazyFunctions, qualnamePrefix);
+            this.result = createComprehensionExpression(ctx);
+        }
+
+        @Override
+        public PNode getTranslationResult() {
+            return result;
+        }
+    }
+
     private PNode visitSubscriptFrom(PNode owner, Python3Parser.TrailerContext t) {
         List<PNode> subscriptlist = asList(visitSubscriptlist(t.subscriptlist()));
         PNode rhs;
@@ -404,6 +546,9 @@ public abstract class PythonBaseTreeTranslator<T> extends Python3BaseVisitor<Obj
             return factory.createDictLiteral();
         } else if (ctx.getChild(0).getText().equals("[")) { // list
             if (ctx.testlist_comp() != null && ctx.testlist_comp().comp_for() != null) {
+                if (isInlineableGeneratorConsumer(LIST)) {
+                    return createInlinedGeneratorExpressionCall(LIST, factory.getBuiltin(LIST), ctx.testlist_comp(), false);
+                }
                 return factory.callBuiltin(LIST, (PNode) super.visitAtom(ctx));
             } else {
                 return factory.createListLiteral(asList(super.visitAtom(ctx)));
@@ -431,7 +576,7 @@ public abstract class PythonBaseTreeTranslator<T> extends Python3BaseVisitor<Obj
         }
     }
 
-    private PNode createComprehensionExpression(ParserRuleContext ctx) {
+    protected PNode createComprehensionExpression(ParserRuleContext ctx) {
         return createComprehensionExpression(ctx, c -> asBlockOrPNode(c.getChild(0).accept(this)));
     }
 
@@ -751,16 +896,8 @@ public abstract class PythonBaseTreeTranslator<T> extends Python3BaseVisitor<Obj
         } else if (intString.length() < maxDecimalIntegerLength) {
             return factory.createIntegerLiteral(Integer.parseInt(intString, radix));
         }
-        // Won't fit into integer literal, parse digit by digit into big integer
-        BigInteger integer = BigInteger.ZERO;
-        BigInteger bigRadix = BigInteger.valueOf(radix);
-        byte[] bytes = intString.getBytes();
-        int pow = 0;
-        for (int i = bytes.length - 1; i >= 0; i--) {
-            BigInteger next = BigInteger.valueOf(Integer.parseInt(new String(new byte[]{bytes[i]}), radix));
-            integer = integer.add(next.multiply(bigRadix.pow(pow)));
-            pow += 1;
-        }
+        // Won't fit into integer literal, parse into big integer
+        BigInteger integer = radix == 10 ? BigIntegerConversion.parseDecimal(intString) : new BigInteger(intString, radix);
         try {
             return factory.createIntegerLiteral(integer.intValueExact());
         } catch (ArithmeticException e) {
@@ -1382,6 +1519,10 @@ public abstract class PythonBaseTreeTranslator<T> extends Python3BaseVisitor<Obj
         PNode argumentLoads = visitArgs(ctx.parameters().typedargslist());
         Arity arity = createArity(funcName, argumentLoads);
 
+        if (isLazyTranslationCandidate(ctx)) {
+            return createLazyFunctionDefinition(ctx, funcName, enclosingClassName, argumentLoads, arity);
+        }
+
         /**
          * Function body
          */
@@ -1390,11 +1531,7 @@ public abstract class PythonBaseTreeTranslator<T> extends Python3BaseVisitor<Obj
         if (bodyNodes.size() > 0 && bodyNodes.get(0) instanceof StringLiteralNode) {
             doc = bodyNodes.remove(0);
         }
-        PNode body = asBlockOrPNode(bodyNodes);
-
-        body = factory.createBlock(argumentLoads, body);
-        body = new ReturnTargetNode(body, factory.createReadLocal(environment.getReturnSlot()));
-        deriveSourceSection(ctx, body);
+        PNode body = createFunctionBody(ctx, argumentLoads, bodyNodes);
 
         /**
          * Defaults
@@ -1423,6 +1560,10 @@ public abstract class PythonBaseTreeTranslator<T> extends Python3BaseVisitor<Obj
         }
         environment.endScope(ctx);
 
+        return createFunctionDefinitionWrite(funcName, funcDef, doc);
+    }
+
+    private PNode createFunctionDefinitionWrite(String funcName, PNode funcDef, PNode doc) {
         ReadNode funcVar = environment.findVariable(funcName);
         if (doc == null) {
             return funcVar.makeWriteNode(funcDef);
@@ -1434,6 +1575,109 @@ public abstract class PythonBaseTreeTranslator<T> extends Python3BaseVisitor<Obj
         }
     }
 
+    protected PNode createFunctionBody(Python3Parser.FuncdefContext ctx, PNode argumentLoads, List<PNode> bodyNodes) {
+        PNode body = asBlockOrPNode(bodyNodes);
+        body = factory.createBlock(argumentLoads, body);
+        body = new ReturnTargetNode(body, factory.createReadLocal(environment.getReturnSlot()));
+        deriveSourceSection(ctx, body);
+        return body;
+    }
+
+    /**
+     * Only the bodies of plain functions are translated lazily. Whether a function is a generator
+     * or needs a {@code __class__} cell for {@code super()} is only found out while translating its
+     * body, so functions that may contain a {@code yield} or {@code super} are translated right
+     * away.
+     *
+     * This is a known deviation from CPython: syntax errors that only the translator detects, like
+     * a positional argument after a keyword argument, are raised when a lazily translated function
+     * is first called, and not at all if it is never called. The
+     * {@code python.LazyFunctionTranslation} option turns lazy translation off.
+     */
+    private boolean isLazyTranslationCandidate(Python3Parser.FuncdefContext ctx) {
+        return lazyFunctions && !environment.isInGeneratorScope() && ctx.suite().simple_stmt() == null && !mayChangeScope(ctx.suite());
+    }
+
+    private static boolean mayChangeScope(ParseTree tree) {
+        if (tree instanceof TerminalNode) {
+            Token token = ((TerminalNode) tree).getSymbol();
+            return token.getType() == Python3Parser.YIELD || (token.getType() == Python3Parser.NAME && token.getText().equals(SUPER));
+        }
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            if (mayChangeScope(tree.getChild(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private PNode createLazyFunctionDefinition(Python3Parser.FuncdefContext ctx, String funcName, String enclosingClassName, PNode argumentLoads, Arity arity) {
+        /**
+         * The doc string is needed when the function is defined, so a leading string statement is
+         * translated right away.
+         */
+        PNode doc = null;
+        Python3Parser.StmtContext firstStmt = ctx.suite().stmt(0);
+        if (firstStmt.simple_stmt() != null && firstStmt.getStart().getType() == Python3Parser.STRING) {
+            List<PNode> firstNodes = asList(firstStmt.accept(this));
+            if (firstNodes.size() > 0 && firstNodes.get(0) instanceof StringLiteralNode) {
+                doc = firstNodes.get(0);
+            }
+        }
+
+        PNode defaults = createDefaultArgumentsNode();
+        FrameDescriptor fd = environment.getCurrentFrame();
+        String fullName = enclosingClassName == null ? funcName : enclosingClassName + '.' + funcName;
+        SourceSection sourceSection = deriveSourceSection(ctx);
+        ExecutionCellSlots executionCellSlots = environment.getExecutionCellSlots();
+        TranslationEnvironment bodyEnvironment = environment.createForCurrentScope(ctx);
+        LazyFunctionCallTarget lazyCallTarget = createLazyCallTarget(core, name, source, bodyEnvironment, ctx, argumentLoads, sourceSection, fullName, fd, executionCellSlots,
+                        getEnclosingQualname(ctx.getParent()));
+        PNode funcDef = new FunctionDefinitionNode(funcName, enclosingClassName, core, arity, defaults, lazyCallTarget, fd, environment.getDefinitionCellSlots(), executionCellSlots);
+        environment.endScope(ctx);
+        // the lazy translation only needs the subtree of the function
+        ctx.parent = null;
+
+        return createFunctionDefinitionWrite(funcName, funcDef, doc);
+    }
+
+    /**
+     * Does not capture the translator, so that the call target only keeps the parse subtree of the
+     * function alive.
+     */
+    private static LazyFunctionCallTarget createLazyCallTarget(PythonCore core, String name, Source source, TranslationEnvironment bodyEnvironment, Python3Parser.FuncdefContext ctx,
+                    PNode argumentLoads, SourceSection sourceSection, String fullName, FrameDescriptor fd, ExecutionCellSlots executionCellSlots, String qualnamePrefix) {
+        return new LazyFunctionCallTarget(() -> {
+            synchronized (bodyEnvironment.getTranslationLock()) {
+                PNode body = new FunctionBodyTranslator(core, name, bodyEnvironment, source, ctx, argumentLoads, qualnamePrefix).getTranslationResult();
+                FunctionRootNode funcRoot = core.getLanguage().getNodeFactory().createFunctionRoot(sourceSection, fullName, false, fd, body, executionCellSlots);
+                return Truffle.getRuntime().createCallTarget(funcRoot);
+            }
+        });
+    }
+
+    /**
+     * Translates the body of a function definition in the scope of that function, once the
+     * function is first called.
+     */
+    private static final class FunctionBodyTranslator extends PythonBaseTreeTranslator<PNode> {
+        private final PNode result;
+
+        FunctionBodyTranslator(PythonCore core, String name, TranslationEnvironment environment, Source source, Python3Parser.FuncdefContext ctx, PNode argumentLoads, String qualnamePrefix) {
+            super(core, name, environment, source, true, qualnamePrefix);
+            List<PNode> bodyNodes = asList(ctx.suite().accept(this));
+            if (bodyNodes.size() > 0 && bodyNodes.get(0) instanceof StringLiteralNode) {
+                bodyNodes.remove(0);
+            }
+            this.result = createFunctionBody(ctx, argumentLoads, bodyNodes);
+        }
+
+        @Override
+        public PNode getTranslationResult() {
+            return result;
+        }
+    }
+
     public PNode visitArgs(ParserRuleContext ctx) {
         if (ctx == null) {
             return EmptyNode.create();
@@ -1635,23 +1879,28 @@ public abstract class PythonBaseTreeTranslator<T> extends Python3BaseVisitor<Obj
         }
     }
 
-    private static String calculateQualname(Python3Parser.ClassdefContext ctx) {
+    private String calculateQualname(Python3Parser.ClassdefContext ctx) {
+        String enclosing = getEnclosingQualname(ctx.getParent());
         String className = ctx.NAME().getText();
-        ParserRuleContext parent = ctx.getParent();
-        Deque<String> stack = new ArrayDeque<>();
-        stack.push(className);
+        return enclosing == null ? className : enclosing + "." + className;
+    }
 
-        while (parent != null) {
-            if (parent instanceof Python3Parser.FuncdefContext) {
-                Python3Parser.FuncdefContext funcdefContext = (Python3Parser.FuncdefContext) parent;
+    /**
+     * Returns the qualified name prefix ({@code "f.<locals>"}) that the functions enclosing
+     * {@code parent} give to the definitions in it, or {@code null} if there are none.
+     */
+    private String getEnclosingQualname(ParserRuleContext parent) {
+        Deque<String> stack = new ArrayDeque<>();
+        for (ParserRuleContext current = parent; current != null; current = current.getParent()) {
+            if (current instanceof Python3Parser.FuncdefContext) {
                 stack.push("<locals>");
-                stack.push(funcdefContext.NAME().getText());
+                stack.push(((Python3Parser.FuncdefContext) current).NAME().getText());
             }
-
-            parent = parent.getParent();
         }
-
-        return String.join(".", stack);
+        if (qualnamePrefix != null) {
+            stack.push(qualnamePrefix);
+        }
+        return stack.isEmpty() ? null : String.join(".", stack);
     }
 
     @Override
@@ -27,18 +27,27 @@ package com.oracle.graal.python.parser;
 
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.SyntaxError;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.ANTLRErrorStrategy;
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CodePointCharStream;
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.nodes.PNode;
 import com.oracle.graal.python.parser.antlr.Builder;
 import com.oracle.graal.python.parser.antlr.Python3Parser;
 import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.PythonParseResult;
 import com.oracle.graal.python.runtime.PythonParser;
 import com.oracle.graal.python.runtime.exception.PException;
@@ -65,6 +74,33 @@ public final class PythonParserImpl implements PythonParser {
         return parser;
     }
 
+    /**
+     * Parses {@code rule} with SLL prediction first, which is much faster and enough for almost
+     * all input, and without reporting errors. Only if that fails, the rule is parsed again with
+     * full LL prediction, which then also reports the syntax errors. The DFA caches of the
+     * generated parser and lexer are static, so they are shared by all parsers and contexts.
+     */
+    public static <T extends ParserRuleContext> T parseWithSLLFirst(Python3Parser parser, Function<Python3Parser, T> rule) {
+        List<ANTLRErrorListener> listeners = new ArrayList<>(parser.getErrorListeners());
+        ANTLRErrorStrategy errorHandler = parser.getErrorHandler();
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        try {
+            return rule.apply(parser);
+        } catch (ParseCancellationException e) {
+            // a syntax error or an input that needs full context, retry below
+        } finally {
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            parser.setErrorHandler(errorHandler);
+            for (ANTLRErrorListener listener : listeners) {
+                parser.addErrorListener(listener);
+            }
+        }
+        parser.reset();
+        return rule.apply(parser);
+    }
+
     @TruffleBoundary
     private static ParserRuleContext preParseWithAntlr(PythonCore core, Source source) {
         String path = source.getURI().toString();
@@ -74,18 +110,18 @@ public final class PythonParserImpl implements PythonParser {
         Python3Parser parser = getPython3Parser(fromString);
         ParserRuleContext input;
         if (!core.isInitialized()) {
-            input = cachedParseTrees.computeIfAbsent(fileDirAndName, (key) -> parser.file_input());
+            input = cachedParseTrees.computeIfAbsent(fileDirAndName, (key) -> parseWithSLLFirst(parser, Python3Parser::file_input));
         } else {
             try {
                 if (source.isInteractive()) {
-                    input = parser.single_input();
+                    input = parseWithSLLFirst(parser, Python3Parser::single_input);
                 } else {
-                    input = parser.file_input();
+                    input = parseWithSLLFirst(parser, Python3Parser::file_input);
                 }
             } catch (Exception e) {
                 try {
                     parser.reset();
-                    input = parser.eval_input();
+                    input = parseWithSLLFirst(parser, Python3Parser::eval_input);
                 } catch (Exception e2) {
                     if (source.isInteractive() && e instanceof PIncompleteSourceException) {
                         ((PIncompleteSourceException) e).setSource(source);
@@ -104,11 +140,11 @@ public final class PythonParserImpl implements PythonParser {
         Python3Parser parser = getPython3Parser(source.getCharacters().toString());
         ParserRuleContext input;
         try {
-            input = parser.single_input();
+            input = parseWithSLLFirst(parser, Python3Parser::single_input);
         } catch (Exception e) {
             try {
                 parser.reset();
-                input = parser.eval_input();
+                input = parseWithSLLFirst(parser, Python3Parser::eval_input);
             } catch (Exception e2) {
                 Node location = getLocation(source, PythonErrorStrategy.getLine(e));
                 throw core.raise(SyntaxError, location, e.getMessage());
@@ -134,7 +170,12 @@ public final class PythonParserImpl implements PythonParser {
     @Override
     @TruffleBoundary
     public PythonParseResult parse(PythonCore core, Source source) {
-        return translateParseResult(core, source.getName(), preParseWithAntlr(core, source), source);
+        ParserRuleContext input = preParseWithAntlr(core, source);
+        if (core.isInitialized() && source.getPath() != null && isBackgroundImportParsing(core)) {
+            core.getLanguage().getImportPreParser().scheduleImports(core.getContext(), source.getPath(), input);
+        }
+        // the core library is translated eagerly, it may be shared by several contexts
+        return translateParseResult(core, source.getName(), input, source, null, core.isInitialized() && isLazyFunctionTranslation(core));
     }
 
     @Override
@@ -149,7 +190,7 @@ public final class PythonParserImpl implements PythonParser {
         Python3Parser parser = getPython3Parser(expression);
         ParserRuleContext input;
         try {
-            input = parser.eval_input();
+            input = parseWithSLLFirst(parser, Python3Parser::eval_input);
         } catch (Exception e) {
             throw handleParserError(core, e);
         }
@@ -161,15 +202,23 @@ public final class PythonParserImpl implements PythonParser {
     @Override
     @TruffleBoundary
     public PythonParseResult parseExec(PythonCore core, String expression, String filename) {
-        Python3Parser parser = getPython3Parser(expression);
-        ParserRuleContext input;
-        try {
-            input = parser.file_input();
-        } catch (Exception e) {
-            throw handleParserError(core, e);
+        // importlib compiles the source of modules with their path as file name
+        boolean isModuleFile = filename.endsWith(PythonLanguage.EXTENSION) && core.isInitialized();
+        boolean preParse = isModuleFile && isBackgroundImportParsing(core);
+        ParserRuleContext input = preParse ? core.getLanguage().getImportPreParser().take(filename, expression) : null;
+        if (input == null) {
+            Python3Parser parser = getPython3Parser(expression);
+            try {
+                input = parseWithSLLFirst(parser, Python3Parser::file_input);
+            } catch (Exception e) {
+                throw handleParserError(core, e);
+            }
+        }
+        if (preParse) {
+            core.getLanguage().getImportPreParser().scheduleImports(core.getContext(), filename, input);
         }
         Source source = Source.newBuilder(expression).name(filename).mimeType(PythonLanguage.MIME_TYPE).build();
-        return translateParseResult(core, filename, input, source);
+        return translateParseResult(core, filename, input, source, null, isModuleFile && isLazyFunctionTranslation(core));
     }
 
     @Override
@@ -178,7 +227,7 @@ public final class PythonParserImpl implements PythonParser {
         Python3Parser parser = getPython3Parser(expression);
         ParserRuleContext input;
         try {
-            input = parser.single_input();
+            input = parseWithSLLFirst(parser, Python3Parser::single_input);
         } catch (Exception e) {
             throw handleParserError(core, e);
         }
@@ -199,15 +248,27 @@ public final class PythonParserImpl implements PythonParser {
         return input.NAME() != null;
     }
 
+    private static boolean isBackgroundImportParsing(PythonCore core) {
+        return PythonOptions.getOption(core.getContext(), PythonOptions.BackgroundImportParsing);
+    }
+
+    private static boolean isLazyFunctionTranslation(PythonCore core) {
+        return PythonOptions.getOption(core.getContext(), PythonOptions.LazyFunctionTranslation);
+    }
+
     private static PException handleParserError(PythonCore core, Exception e) {
         return core.raise(SyntaxError, e.getMessage());
     }
 
     private static PythonParseResult translateParseResult(PythonCore core, String name, ParserRuleContext input, Source source) {
-        return translateParseResult(core, name, input, source, null);
+        return translateParseResult(core, name, input, source, null, false);
     }
 
     private static PythonParseResult translateParseResult(PythonCore core, String name, ParserRuleContext input, Source source, Frame frame) {
+        return translateParseResult(core, name, input, source, frame, false);
+    }
+
+    private static PythonParseResult translateParseResult(PythonCore core, String name, ParserRuleContext input, Source source, Frame frame, boolean lazyFunctions) {
         // ensure builtins patches are loaded before parsing
         core.loadBuiltinsPatches();
         TranslationEnvironment environment = new TranslationEnvironment(core.getLanguage());
@@ -215,7 +276,7 @@ public final class PythonParserImpl implements PythonParser {
                         (env, trackCells) -> new ScopeTranslator<>(core, env, source.isInteractive(), trackCells),
                         (env) -> env.setFreeVarsInRootScope(frame));
 
-        PythonTreeTranslator treeTranslator = new PythonTreeTranslator(core, name, input, environment, source);
+        PythonTreeTranslator treeTranslator = new PythonTreeTranslator(core, name, input, environment, source, lazyFunctions);
         return treeTranslator.getTranslationResult();
     }
 
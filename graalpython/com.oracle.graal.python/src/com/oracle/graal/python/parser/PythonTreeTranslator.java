@@ -51,7 +51,11 @@ public class PythonTreeTranslator extends PythonBaseTreeTranslator<PythonParseRe
     private PythonParseResult result;
 
     public PythonTreeTranslator(PythonCore core, String name, ParserRuleContext input, TranslationEnvironment environment, Source source) {
-        super(core, name, environment, source);
+        this(core, name, input, environment, source, false);
+    }
+
+    public PythonTreeTranslator(PythonCore core, String name, ParserRuleContext input, TranslationEnvironment environment, Source source, boolean lazyFunctions) {
+        super(core, name, environment, source, lazyFunctions);
         RootNode rootNode = null;
 
         try {
@@ -28,6 +28,7 @@ package com.oracle.graal.python.parser;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.oracle.graal.python.nodes.PNode;
@@ -87,6 +88,38 @@ public class ScopeInfo {
         }
     }
 
+    private ScopeInfo(ScopeInfo original, ScopeInfo parent, boolean registerInParent) {
+        this.scopeId = original.scopeId;
+        this.scopeKind = original.scopeKind;
+        this.frameDescriptor = original.frameDescriptor.copy();
+        this.parent = parent;
+        this.explicitGlobalVariables.addAll(original.explicitGlobalVariables);
+        this.explicitNonlocalVariables.addAll(original.explicitNonlocalVariables);
+        this.cellVars.addAll(original.cellVars);
+        this.freeVars.addAll(original.freeVars);
+        if (registerInParent) {
+            this.parent.childScopes.add(this);
+        }
+    }
+
+    /**
+     * Copies this scope and all scopes nested in it, each with its own frame descriptor. The copy
+     * has the same parent but is not registered as one of its children. {@code copies} receives
+     * the copy of every scope in the tree.
+     */
+    public ScopeInfo copyTree(Map<ScopeInfo, ScopeInfo> copies) {
+        return copyTree(parent, false, copies);
+    }
+
+    private ScopeInfo copyTree(ScopeInfo newParent, boolean registerInParent, Map<ScopeInfo, ScopeInfo> copies) {
+        ScopeInfo copy = new ScopeInfo(this, newParent, registerInParent);
+        copies.put(this, copy);
+        for (ScopeInfo child : childScopes) {
+            child.copyTree(copy, true, copies);
+        }
+        return copy;
+    }
+
     public Set<ScopeInfo> getChildScopes() {
         return childScopes;
     }
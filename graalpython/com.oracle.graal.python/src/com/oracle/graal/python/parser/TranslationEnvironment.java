@@ -35,6 +35,7 @@ import java.util.Map;
 import java.util.function.Function;
 
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
 
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.objects.cell.PCell;
@@ -61,17 +62,71 @@ public class TranslationEnvironment implements CellFrameSlotSupplier {
     private ScopeInfo globalScope;
     private int scopeLevel;
 
+    // where a translation using this environment starts
+    private final ScopeInfo entryScope;
+    private final int entryScopeLevel;
+    private final Object translationLock;
+
     private static final String TEMP_LOCAL_PREFIX = "<>temp_";
     private int listComprehensionSlotCounter = 0;
 
     public TranslationEnvironment(PythonLanguage language) {
         this.factory = language.getNodeFactory();
         scopeInfos = new HashMap<>();
+        entryScope = null;
+        entryScopeLevel = 0;
+        translationLock = new Object();
+    }
+
+    private TranslationEnvironment(TranslationEnvironment outer, Map<ParserRuleContext, ScopeInfo> scopeInfos) {
+        this.factory = outer.factory;
+        this.scopeInfos = scopeInfos;
+        this.globalScope = outer.globalScope;
+        this.entryScope = outer.currentScope;
+        this.entryScopeLevel = outer.scopeLevel;
+        this.translationLock = outer.translationLock;
+        this.listComprehensionSlotCounter = outer.listComprehensionSlotCounter;
+        reset();
+    }
+
+    /**
+     * Creates an environment that continues in the current scope, to translate {@code subtree}
+     * later. It only knows the scopes inside {@code subtree}, so it does not keep the rest of the
+     * parse tree alive.
+     */
+    public TranslationEnvironment createForCurrentScope(ParserRuleContext subtree) {
+        Map<ParserRuleContext, ScopeInfo> subtreeScopes = new HashMap<>();
+        collectScopes(subtree, subtreeScopes);
+        return new TranslationEnvironment(this, subtreeScopes);
+    }
+
+    private void collectScopes(ParseTree tree, Map<ParserRuleContext, ScopeInfo> result) {
+        if (tree instanceof ParserRuleContext) {
+            ScopeInfo info = scopeInfos.get(tree);
+            if (info != null) {
+                result.put((ParserRuleContext) tree, info);
+            }
+        }
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            collectScopes(tree.getChild(i), result);
+        }
+    }
+
+    /**
+     * Translations of different parts of the same source share the scope infos, so they must
+     * not run concurrently.
+     */
+    public Object getTranslationLock() {
+        return translationLock;
     }
 
     public TranslationEnvironment reset() {
-        scopeLevel = 0;
-        listComprehensionSlotCounter = 0;
+        scopeLevel = entryScopeLevel;
+        if (entryScope != null) {
+            currentScope = entryScope;
+        } else {
+            listComprehensionSlotCounter = 0;
+        }
         return this;
     }
 
@@ -95,6 +150,42 @@ public class TranslationEnvironment implements CellFrameSlotSupplier {
         }
     }
 
+    /**
+     * Copies the scope infos of {@code ctx} and of all scopes nested in it, so that the subtree can
+     * be translated once more without adding frame slots to the descriptors of the first
+     * translation. The copies are used after {@link #swapScopes} installs them.
+     */
+    public Map<ParserRuleContext, ScopeInfo> copyScopes(ParserRuleContext ctx) {
+        Map<ScopeInfo, ScopeInfo> copies = new HashMap<>();
+        scopeInfos.get(ctx).copyTree(copies);
+        Map<ParserRuleContext, ScopeInfo> result = new HashMap<>();
+        collectScopeCopies(ctx, copies, result);
+        return result;
+    }
+
+    private void collectScopeCopies(ParseTree tree, Map<ScopeInfo, ScopeInfo> copies, Map<ParserRuleContext, ScopeInfo> result) {
+        if (tree instanceof ParserRuleContext) {
+            ScopeInfo copy = copies.get(scopeInfos.get(tree));
+            if (copy != null) {
+                result.put((ParserRuleContext) tree, copy);
+            }
+        }
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            collectScopeCopies(tree.getChild(i), copies, result);
+        }
+    }
+
+    /**
+     * Installs the given scope infos and returns the ones they replaced.
+     */
+    public Map<ParserRuleContext, ScopeInfo> swapScopes(Map<ParserRuleContext, ScopeInfo> scopes) {
+        Map<ParserRuleContext, ScopeInfo> replaced = new HashMap<>();
+        for (Map.Entry<ParserRuleContext, ScopeInfo> entry : scopes.entrySet()) {
+            replaced.put(entry.getKey(), scopeInfos.put(entry.getKey(), entry.getValue()));
+        }
+        return replaced;
+    }
+
     public void endScope(ParserRuleContext ctx) {
         scopeLevel--;
         scopeInfos.put(ctx, currentScope);
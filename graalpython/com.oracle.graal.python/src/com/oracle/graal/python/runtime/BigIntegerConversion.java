@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import java.math.BigInteger;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Conversion of very large integers from and to their decimal string representation. Both
+ * directions split the number at a power of ten of the form {@code 10^(2^k)} and recurse on the
+ * halves, so the cost is dominated by the (subquadratic) multiplication and division of
+ * {@link BigInteger} instead of the quadratic digit-by-digit conversion. The powers of ten are
+ * shared by all conversions.
+ */
+public final class BigIntegerConversion {
+
+    /** Numbers with at most this many bits are converted by {@link BigInteger#toString()}. */
+    private static final int TO_STRING_THRESHOLD_BITS = 8192;
+
+    /** Strings with at most this many digits are parsed by {@link BigInteger#BigInteger(String)}. */
+    private static final int PARSE_THRESHOLD_DIGITS = 2048;
+
+    private static final double LOG10_2 = 0.30102999566398114;
+
+    /* POWERS_OF_TEN[k] == 10^(2^k); grown on demand */
+    private static volatile BigInteger[] powersOfTen = {BigInteger.TEN};
+
+    private BigIntegerConversion() {
+    }
+
+    private static BigInteger powerOfTen(int k) {
+        BigInteger[] powers = powersOfTen;
+        if (k < powers.length) {
+            return powers[k];
+        }
+        synchronized (BigIntegerConversion.class) {
+            powers = powersOfTen;
+            if (k >= powers.length) {
+                BigInteger[] grown = new BigInteger[k + 1];
+                System.arraycopy(powers, 0, grown, 0, powers.length);
+                for (int i = powers.length; i <= k; i++) {
+                    grown[i] = grown[i - 1].multiply(grown[i - 1]);
+                }
+                powersOfTen = grown;
+                powers = grown;
+            }
+            return powers[k];
+        }
+    }
+
+    /**
+     * Same result as {@link BigInteger#toString()}.
+     */
+    @TruffleBoundary
+    public static String toDecimalString(BigInteger value) {
+        if (value.bitLength() <= TO_STRING_THRESHOLD_BITS) {
+            return value.toString();
+        }
+        StringBuilder sb = new StringBuilder((int) (value.bitLength() * LOG10_2) + 2);
+        if (value.signum() < 0) {
+            sb.append('-');
+            toDecimal(value.negate(), 0, sb);
+        } else {
+            toDecimal(value, 0, sb);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends the decimal digits of the non-negative {@code value}, zero-padded to {@code digits}
+     * characters if {@code digits > 0}.
+     */
+    private static void toDecimal(BigInteger value, int digits, StringBuilder sb) {
+        int bitLength = value.bitLength();
+        if (bitLength <= TO_STRING_THRESHOLD_BITS) {
+            String s = value.toString();
+            for (int i = s.length(); i < digits; i++) {
+                sb.append('0');
+            }
+            sb.append(s);
+            return;
+        }
+        // the value has at least this many decimal digits
+        int minDigits = (int) ((bitLength - 1) * LOG10_2) + 1;
+        int k = 31 - Integer.numberOfLeadingZeros(minDigits / 2);
+        int lowDigits = 1 << k;
+        BigInteger[] qr = value.divideAndRemainder(powerOfTen(k));
+        toDecimal(qr[0], digits > 0 ? digits - lowDigits : 0, sb);
+        toDecimal(qr[1], lowDigits, sb);
+    }
+
+    /**
+     * Same result as {@link BigInteger#BigInteger(String)}, including the
+     * {@link NumberFormatException} for malformed input.
+     */
+    @TruffleBoundary
+    public static BigInteger parseDecimal(String s) {
+        int len = s.length();
+        if (len <= PARSE_THRESHOLD_DIGITS) {
+            return new BigInteger(s);
+        }
+        int start = 0;
+        char sign = s.charAt(0);
+        if (sign == '-' || sign == '+') {
+            start = 1;
+        }
+        for (int i = start; i < len; i++) {
+            if (Character.digit(s.charAt(i), 10) < 0) {
+                // let the JDK produce the error
+                return new BigInteger(s);
+            }
+        }
+        BigInteger result = parseDigits(s, start, len);
+        return sign == '-' ? result.negate() : result;
+    }
+
+    private static BigInteger parseDigits(String s, int from, int to) {
+        int len = to - from;
+        if (len <= PARSE_THRESHOLD_DIGITS) {
+            return new BigInteger(s.substring(from, to));
+        }
+        int k = 31 - Integer.numberOfLeadingZeros(len - 1);
+        int split = to - (1 << k);
+        BigInteger high = parseDigits(s, from, split);
+        BigInteger low = parseDigits(s, split, to);
+        return high.multiply(powerOfTen(k)).add(low);
+    }
+}
@@ -196,7 +196,12 @@ public class JavaTypeConversions {
         }
 
         BigInteger bi;
-        if (sign == '-') {
+        if (base == 10) {
+            bi = BigIntegerConversion.parseDecimal(s);
+            if (sign == '-') {
+                bi = bi.negate();
+            }
+        } else if (sign == '-') {
             bi = new BigInteger("-" + s, base);
         } else {
             bi = new BigInteger(s, base);
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+
+/**
+ * Caches the directory listings of module search path entries, so that finding a module in a path
+ * entry is a set lookup instead of a series of {@code stat} calls. A listing is refreshed when the
+ * modification time of its directory changes.
+ */
+public final class ModulePathCache {
+    private static final String INIT = "__init__";
+
+    private final ConcurrentHashMap<String, Listing> listings = new ConcurrentHashMap<>();
+
+    private static final class Listing {
+        private final long mtime;
+        private final Set<String> names;
+
+        private Listing(long mtime, Set<String> names) {
+            this.mtime = mtime;
+            this.names = names;
+        }
+    }
+
+    /**
+     * The result of a successful lookup. For a package, {@link #packagePath} is the package
+     * directory and {@link #filePath} its {@code __init__} file. A namespace package portion has
+     * no file and a suffix index of {@code -1}.
+     */
+    public static final class Match {
+        public final String filePath;
+        public final int suffixIndex;
+        public final String packagePath;
+
+        private Match(String filePath, int suffixIndex, String packagePath) {
+            this.filePath = filePath;
+            this.suffixIndex = suffixIndex;
+            this.packagePath = packagePath;
+        }
+    }
+
+    /**
+     * Looks for the module {@code name} directly in the directory {@code path}, trying the file
+     * suffixes in order, like {@code importlib}'s {@code FileFinder.find_spec} does.
+     */
+    @TruffleBoundary
+    public Match find(Env env, String path, String name, String[] suffixes) {
+        TruffleFile dir = env.getTruffleFile(path);
+        Set<String> names = getNames(path, dir);
+        String packagePath = null;
+        if (names.contains(name)) {
+            TruffleFile packageDir = dir.resolve(name);
+            packagePath = join(path, name);
+            Set<String> packageNames = getNames(packagePath, packageDir);
+            for (int i = 0; i < suffixes.length; i++) {
+                String initName = INIT + suffixes[i];
+                if (packageNames.contains(initName) && packageDir.resolve(initName).isRegularFile()) {
+                    return new Match(join(packagePath, initName), i, packagePath);
+                }
+            }
+            if (!packageDir.isDirectory()) {
+                packagePath = null;
+            }
+        }
+        for (int i = 0; i < suffixes.length; i++) {
+            String fileName = name + suffixes[i];
+            if (names.contains(fileName) && dir.resolve(fileName).isRegularFile()) {
+                return new Match(join(path, fileName), i, null);
+            }
+        }
+        if (packagePath != null) {
+            return new Match(null, -1, packagePath);
+        }
+        return null;
+    }
+
+    @TruffleBoundary
+    public void invalidate(String path) {
+        listings.remove(path);
+    }
+
+    private Set<String> getNames(String path, TruffleFile dir) {
+        long mtime;
+        try {
+            mtime = dir.getLastModifiedTime().toMillis();
+        } catch (IOException | SecurityException e) {
+            mtime = -1;
+        }
+        Listing listing = listings.get(path);
+        if (listing == null || listing.mtime != mtime) {
+            listing = new Listing(mtime, list(dir));
+            listings.put(path, listing);
+        }
+        return listing.names;
+    }
+
+    private static Set<String> list(TruffleFile dir) {
+        Collection<TruffleFile> files;
+        try {
+            files = dir.list();
+        } catch (IOException | SecurityException e) {
+            // the directory was removed, turned into a file or made unreadable
+            return Collections.emptySet();
+        }
+        Set<String> names = new HashSet<>(files.size());
+        for (TruffleFile file : files) {
+            names.add(file.getName());
+        }
+        return names;
+    }
+
+    private static String join(String path, String name) {
+        if (path.endsWith(PythonCore.FILE_SEPARATOR)) {
+            return path + name;
+        }
+        return path + PythonCore.FILE_SEPARATOR + name;
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.bytes.PIBytesLike;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Converts between Python values and the raw bytes of C primitive types, as described by the
+ * single-character format codes shared by {@code array}, {@code memoryview} and {@code struct}.
+ * A value is first packed into a {@code long} holding its raw bits, which is then written with the
+ * size and byte order the caller asks for.
+ */
+public final class PrimitiveCodec {
+
+    public static final boolean NATIVE_LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    private PrimitiveCodec() {
+    }
+
+    /**
+     * Returns the native size in bytes of the given format code, or {@code -1} if the format is
+     * not supported.
+     */
+    public static int sizeOf(char format) {
+        switch (format) {
+            case 'b':
+            case 'B':
+            case 'c':
+            case '?':
+                return 1;
+            case 'h':
+            case 'H':
+                return 2;
+            case 'i':
+            case 'I':
+            case 'f':
+            case 'u':
+                return 4;
+            case 'l':
+            case 'L':
+            case 'q':
+            case 'Q':
+            case 'n':
+            case 'N':
+            case 'P':
+            case 'd':
+                return 8;
+            default:
+                return -1;
+        }
+    }
+
+    public static boolean isUnsigned(char format) {
+        switch (format) {
+            case 'B':
+            case 'H':
+            case 'I':
+            case 'L':
+            case 'Q':
+            case 'N':
+            case 'P':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public static long readRaw(byte[] bytes, int offset, int size, boolean littleEndian) {
+        long result = 0;
+        for (int k = 0; k < size; k++) {
+            int shift = (littleEndian ? k : size - 1 - k) * Byte.SIZE;
+            result |= (bytes[offset + k] & 0xFFL) << shift;
+        }
+        return result;
+    }
+
+    public static void writeRaw(byte[] bytes, int offset, int size, long raw, boolean littleEndian) {
+        for (int k = 0; k < size; k++) {
+            int shift = (littleEndian ? k : size - 1 - k) * Byte.SIZE;
+            bytes[offset + k] = (byte) (raw >>> shift);
+        }
+    }
+
+    /**
+     * Turns the raw bits of one {@code size}-byte item into the corresponding Python value.
+     */
+    public static Object unpack(char format, int size, long raw) {
+        switch (format) {
+            case 'b':
+            case 'h':
+            case 'i':
+                return (int) signExtend(raw, size);
+            case 'l':
+            case 'q':
+            case 'n':
+                return signExtend(raw, size);
+            case 'B':
+            case 'H':
+                return (int) raw;
+            case 'I':
+            case 'L':
+            case 'Q':
+            case 'N':
+            case 'P':
+                if (size < Long.BYTES) {
+                    return raw;
+                }
+                return raw >= 0 ? raw : unsignedToPInt(raw);
+            case '?':
+                return raw != 0;
+            case 'c':
+                return PythonObjectFactory.get().createBytes(new byte[]{(byte) raw});
+            case 'f':
+                return (double) Float.intBitsToFloat((int) raw);
+            case 'd':
+                return Double.longBitsToDouble(raw);
+            case 'u':
+                return codePointToString((int) raw);
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Converts a Python value into the raw bits stored for one {@code size}-byte item, raising the
+     * same errors as CPython if the value does not fit.
+     */
+    public static long pack(char format, int size, Object value) {
+        switch (format) {
+            case 'f':
+                return Float.floatToRawIntBits((float) toDouble(value)) & 0xFFFFFFFFL;
+            case 'd':
+                return Double.doubleToRawLongBits(toDouble(value));
+            case 'u':
+                return toCodePoint(value);
+            case 'c':
+                return toChar(value);
+            case '?':
+                return isTrue(value) ? 1 : 0;
+            default:
+                if (isUnsigned(format)) {
+                    long result = toUnsignedLong(value);
+                    if (size < Long.BYTES && Long.compareUnsigned(result, -1L >>> (Long.SIZE - size * Byte.SIZE)) > 0) {
+                        throw PythonLanguage.getCore().raise(OverflowError, "%s is greater than maximum", cTypeName(format));
+                    }
+                    return result;
+                }
+                long result = toLong(value);
+                if (size < Long.BYTES) {
+                    long max = (1L << (size * Byte.SIZE - 1)) - 1;
+                    if (result < -max - 1) {
+                        throw PythonLanguage.getCore().raise(OverflowError, "%s is less than minimum", cTypeName(format));
+                    } else if (result > max) {
+                        throw PythonLanguage.getCore().raise(OverflowError, "%s is greater than maximum", cTypeName(format));
+                    }
+                }
+                return result;
+        }
+    }
+
+    private static String cTypeName(char format) {
+        switch (format) {
+            case 'b':
+                return "signed char";
+            case 'B':
+                return "unsigned byte integer";
+            case 'h':
+                return "signed short integer";
+            case 'H':
+                return "unsigned short";
+            case 'i':
+                return "signed integer";
+            case 'I':
+                return "unsigned int";
+            case 'L':
+            case 'N':
+            case 'P':
+                return "unsigned long";
+            default:
+                return "signed long";
+        }
+    }
+
+    public static long toLong(Object value) {
+        if (value instanceof Integer) {
+            return (int) value;
+        } else if (value instanceof Long) {
+            return (long) value;
+        } else if (value instanceof Boolean) {
+            return (boolean) value ? 1 : 0;
+        } else if (value instanceof PInt) {
+            try {
+                return ((PInt) value).longValueExact();
+            } catch (ArithmeticException e) {
+                throw PythonLanguage.getCore().raise(OverflowError, "Python int too large to convert to C long");
+            }
+        }
+        throw PythonLanguage.getCore().raise(TypeError, "integer argument expected, got %p", value);
+    }
+
+    @TruffleBoundary
+    public static long toUnsignedLong(Object value) {
+        if (value instanceof PInt) {
+            BigInteger bigValue = ((PInt) value).getValue();
+            if (bigValue.signum() < 0) {
+                throw PythonLanguage.getCore().raise(OverflowError, "can't convert negative value to unsigned int");
+            } else if (bigValue.bitLength() > Long.SIZE) {
+                throw PythonLanguage.getCore().raise(OverflowError, "Python int too large to convert to C unsigned long");
+            }
+            return bigValue.longValue();
+        }
+        long result = toLong(value);
+        if (result < 0) {
+            throw PythonLanguage.getCore().raise(OverflowError, "can't convert negative value to unsigned int");
+        }
+        return result;
+    }
+
+    public static double toDouble(Object value) {
+        if (value instanceof Double) {
+            return (double) value;
+        } else if (value instanceof PFloat) {
+            return ((PFloat) value).getValue();
+        } else if (value instanceof Integer) {
+            return (int) value;
+        } else if (value instanceof Long) {
+            return (long) value;
+        } else if (value instanceof Boolean) {
+            return (boolean) value ? 1.0 : 0.0;
+        } else if (value instanceof PInt) {
+            return ((PInt) value).doubleValue();
+        }
+        throw PythonLanguage.getCore().raise(TypeError, "must be real number, not %p", value);
+    }
+
+    private static boolean isTrue(Object value) {
+        if (value instanceof Boolean) {
+            return (boolean) value;
+        } else if (value instanceof PInt) {
+            return !((PInt) value).isZero();
+        } else if (value instanceof Double || value instanceof PFloat) {
+            return toDouble(value) != 0.0;
+        }
+        return toLong(value) != 0;
+    }
+
+    private static long toChar(Object value) {
+        if (value instanceof PIBytesLike && ((PIBytesLike) value).len() == 1) {
+            return ((PIBytesLike) value).getInternalByteArray()[0] & 0xFFL;
+        }
+        throw PythonLanguage.getCore().raise(TypeError, "char format requires a bytes object of length 1");
+    }
+
+    @TruffleBoundary
+    private static long toCodePoint(Object value) {
+        if (value instanceof String) {
+            String str = (String) value;
+            if (!str.isEmpty() && str.codePointCount(0, str.length()) == 1) {
+                return str.codePointAt(0);
+            }
+        }
+        throw PythonLanguage.getCore().raise(TypeError, "array item must be unicode character");
+    }
+
+    @TruffleBoundary
+    private static String codePointToString(int codePoint) {
+        return new String(Character.toChars(codePoint));
+    }
+
+    @TruffleBoundary
+    private static PInt unsignedToPInt(long raw) {
+        return PythonObjectFactory.get().createInt(new BigInteger(Long.toUnsignedString(raw)));
+    }
+
+    private static long signExtend(long raw, int size) {
+        int shift = Long.SIZE - size * Byte.SIZE;
+        return (raw << shift) >> shift;
+    }
+}
@@ -31,6 +31,7 @@ import static com.oracle.graal.python.nodes.SpecialAttributeNames.__FILE__;
 
 import java.io.OutputStream;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.graalvm.options.OptionValues;
@@ -41,6 +42,7 @@ import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.NativeSequenceStorage;
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -55,6 +57,8 @@ public class PythonContext {
     private PythonModule mainModule;
     private final PythonCore core;
     private final HashMap<Object, CallTarget> atExitHooks = new HashMap<>();
+    private final HashMap<String, PythonModule> loadedCoreModules = new HashMap<>();
+    private final ModulePathCache modulePathCache = new ModulePathCache();
 
     @CompilationFinal private TruffleLanguage.Env env;
 
@@ -64,14 +68,18 @@ public class PythonContext {
     @CompilationFinal private boolean isInitialized = false;
 
     @CompilationFinal private PythonModule builtinsModule;
+    @CompilationFinal private PythonModule sysModule;
     @CompilationFinal private PDict sysModules;
 
     private OutputStream out;
     private OutputStream err;
     @CompilationFinal private boolean capiWasLoaded = false;
+    @CompilationFinal private Object nativeNull;
+    private boolean builtinsPatchesLoaded = false;
     private final static Assumption singleNativeContext = Truffle.getRuntime().createAssumption("single native context assumption");
 
     @CompilationFinal private HashingStorage.Equivalence slowPathEquivalence;
+    private NativeSequenceStorage.NativeArrayFunctions nativeArrayFunctions;
 
     /** A thread-local dictionary for custom user state. */
     private ThreadLocal<PDict> customThreadState;
@@ -113,6 +121,21 @@ public class PythonContext {
         return builtinsModule;
     }
 
+    /**
+     * The builtin modules whose core library file was loaded lazily in this context.
+     */
+    public Map<String, PythonModule> getLoadedCoreModules() {
+        return loadedCoreModules;
+    }
+
+    public ModulePathCache getModulePathCache() {
+        return modulePathCache;
+    }
+
+    public PythonModule getSysModule() {
+        return sysModule;
+    }
+
     public TruffleLanguage.Env getEnv() {
         return env;
     }
@@ -163,7 +186,7 @@ public class PythonContext {
             core.setSingletonContext(this);
         }
 
-        PythonModule sysModule = core.createSysModule(this);
+        sysModule = core.createSysModule(this);
         sysModules = (PDict) sysModule.getAttribute("modules");
         builtinsModule = (PythonModule) sysModules.getItem("builtins");
         mainModule = core.factory().createPythonModule(__MAIN__);
@@ -173,14 +196,32 @@ public class PythonContext {
         isInitialized = true;
     }
 
+    public boolean builtinsPatchesLoaded() {
+        return builtinsPatchesLoaded;
+    }
+
+    public void setBuiltinsPatchesLoaded() {
+        this.builtinsPatchesLoaded = true;
+    }
+
     public boolean capiWasLoaded() {
         return this.capiWasLoaded;
     }
 
-    public void setCapiWasLoaded() {
+    public void setCapiWasLoaded(Object nativeNull) {
+        this.nativeNull = nativeNull;
         this.capiWasLoaded = true;
     }
 
+    /**
+     * The value that C code of this context interprets as {@code NULL} (i.e. {@code ERROR_MARKER}).
+     * Only available once the C API was loaded.
+     */
+    public Object getNativeNull() {
+        assert capiWasLoaded;
+        return nativeNull;
+    }
+
     public HashingStorage.Equivalence getSlowPathEquivalence() {
         if (slowPathEquivalence == null) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -189,6 +230,14 @@ public class PythonContext {
         return slowPathEquivalence;
     }
 
+    @TruffleBoundary
+    public NativeSequenceStorage.NativeArrayFunctions getNativeArrayFunctions() {
+        if (nativeArrayFunctions == null) {
+            nativeArrayFunctions = new NativeSequenceStorage.NativeArrayFunctions(language, env);
+        }
+        return nativeArrayFunctions;
+    }
+
     @TruffleBoundary
     public void registerShutdownHook(Object callable, CallTarget ct) {
         atExitHooks.put(callable, ct);
@@ -73,6 +73,12 @@ public interface PythonCore {
 
     public PythonModule lookupBuiltinModule(String name);
 
+    /**
+     * Like {@link #lookupBuiltinModule(String)}, but returns the module of the current context and
+     * first loads its core library file if that was deferred until the module is used.
+     */
+    public PythonModule loadBuiltinModule(String name);
+
     public PythonBuiltinClass lookupType(PythonBuiltinClassType type);
 
     public PythonBuiltinClass lookupType(Class<? extends Object> clazz);
@@ -46,7 +46,9 @@ public final class PythonOptions {
     @Option(category = OptionCategory.DEBUG, help = "Print the java stacktrace if enabled") //
     public static final OptionKey<Boolean> WithJavaStacktrace = new OptionKey<>(false);
 
-    @Option(category = OptionCategory.DEBUG, help = "Share the core library between all contexts of an engine.") //
+    @Option(category = OptionCategory.EXPERT, help = "Share the initialized core library between all contexts of an engine. " +
+                    "Builtin classes and functions are shared, each context gets its own copies of the builtin modules. " +
+                    "Builtin classes are not yet isolated between contexts, so this is off by default.") //
     public static final OptionKey<Boolean> SharedCore = new OptionKey<>(false);
 
     @Option(category = OptionCategory.DEBUG, help = "") //
@@ -73,9 +75,20 @@ public final class PythonOptions {
     @Option(category = OptionCategory.DEBUG, help = "") //
     public static final OptionKey<Integer> VariableArgumentInlineCacheLimit = new OptionKey<>(3);
 
-    @Option(category = OptionCategory.DEBUG, help = "") //
+    @Option(category = OptionCategory.DEBUG, help = "Run generator expressions that are consumed right away by list, tuple, sum, any or all as plain loops.") //
     public static final OptionKey<Boolean> InlineGeneratorCalls = new OptionKey<>(true);
 
+    @Option(category = OptionCategory.EXPERT, help = "Translate the bodies of functions in imported and executed files only when they are first called. " +
+                    "Syntax errors that are only detected during translation are then reported on the first call.") //
+    public static final OptionKey<Boolean> LazyFunctionTranslation = new OptionKey<>(true);
+
+    @Option(category = OptionCategory.EXPERT, help = "Parse the source files of modules imported by a module in background threads, " +
+                    "so that they are likely parsed when they are imported.") //
+    public static final OptionKey<Boolean> BackgroundImportParsing = new OptionKey<>(false);
+
+    @Option(category = OptionCategory.EXPERT, help = "The maximum number of frames captured for the traceback of an exception. A negative value means no limit.") //
+    public static final OptionKey<Integer> TracebackFrameLimit = new OptionKey<>(20);
+
     @Option(category = OptionCategory.DEBUG, help = "") //
     public static final OptionKey<Boolean> CatchGraalPythonExceptionForUnitTesting = new OptionKey<>(false);
 
@@ -133,4 +146,8 @@ public final class PythonOptions {
     public static int getVariableArgumentInlineCacheLimit() {
         return getOption(PythonLanguage.getContext(), VariableArgumentInlineCacheLimit);
     }
+
+    public static int getTracebackFrameLimit() {
+        return getIntOption(PythonLanguage.getContext(), TracebackFrameLimit);
+    }
 }
@@ -65,5 +65,6 @@ public enum PythonErrorType {
     Warning,
     ZeroDivisionError,
     BufferError,
-    FileNotFoundError;
+    FileNotFoundError,
+    EOFError;
 }
@@ -10,6 +10,7 @@ import static com.oracle.graal.python.runtime.exception.PythonErrorType.Overflow
 
 import java.math.BigInteger;
 
+import com.oracle.graal.python.runtime.BigIntegerConversion;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.formatting.InternalFormat.Spec;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -145,11 +146,11 @@ public class IntegerFormatter extends InternalFormat.Formatter {
         if (value.signum() < 0) {
             // Negative value: deal with sign and base, and convert magnitude.
             negativeSign(null);
-            number = value.negate().toString();
+            number = BigIntegerConversion.toDecimalString(value.negate());
         } else {
             // Positive value: deal with sign, base and magnitude.
             positiveSign(null);
-            number = value.toString();
+            number = BigIntegerConversion.toDecimalString(value);
         }
         appendNumber(number);
     }
@@ -35,6 +35,7 @@ import com.oracle.graal.python.builtins.objects.array.PCharArray;
 import com.oracle.graal.python.builtins.objects.array.PDoubleArray;
 import com.oracle.graal.python.builtins.objects.array.PIntArray;
 import com.oracle.graal.python.builtins.objects.array.PLongArray;
+import com.oracle.graal.python.builtins.objects.array.PTypedArray;
 import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.cell.PCell;
@@ -85,6 +86,7 @@ import com.oracle.graal.python.builtins.objects.iterator.PZip;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.mappingproxy.PMappingproxy;
 import com.oracle.graal.python.builtins.objects.memoryview.PBuffer;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
 import com.oracle.graal.python.builtins.objects.method.PBuiltinMethod;
 import com.oracle.graal.python.builtins.objects.method.PMethod;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
@@ -99,9 +101,13 @@ import com.oracle.graal.python.builtins.objects.set.PFrozenSet;
 import com.oracle.graal.python.builtins.objects.set.PSet;
 import com.oracle.graal.python.builtins.objects.slice.PSlice;
 import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.struct.PStruct;
+import com.oracle.graal.python.builtins.objects.struct.PStructUnpackIterator;
+import com.oracle.graal.python.builtins.objects.struct.StructFormat;
 import com.oracle.graal.python.builtins.objects.traceback.PTraceback;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.graal.python.nodes.function.LazyFunctionCallTarget;
 import com.oracle.graal.python.parser.ExecutionCellSlots;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
@@ -352,6 +358,11 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PFunction(lookupClass(PythonBuiltinClassType.PFunction), name, enclosingClassName, arity, callTarget, frameDescriptor, globals, closure));
     }
 
+    public PFunction createFunction(String name, String enclosingClassName, Arity arity, LazyFunctionCallTarget callTarget, FrameDescriptor frameDescriptor, PythonObject globals,
+                    PCell[] closure) {
+        return trace(new PFunction(lookupClass(PythonBuiltinClassType.PFunction), name, enclosingClassName, arity, callTarget, frameDescriptor, globals, closure));
+    }
+
     public PBuiltinFunction createBuiltinFunction(String name, Arity arity, RootCallTarget callTarget) {
         return trace(new PBuiltinFunction(lookupClass(PythonBuiltinClassType.PBuiltinFunction), name, arity, callTarget));
     }
@@ -528,6 +539,10 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PFrame(lookupClass(PythonBuiltinClassType.PFrame), exception, index));
     }
 
+    public PFrame createPFrame(PFrame.Reference reference) {
+        return trace(new PFrame(lookupClass(PythonBuiltinClassType.PFrame), reference));
+    }
+
     public PTraceback createTraceback(PBaseException exception, int index) {
         return trace(new PTraceback(lookupClass(PythonBuiltinClassType.PTraceback), exception, index));
     }
@@ -577,6 +592,14 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PByteArray(cls, storage));
     }
 
+    public PTypedArray createTypedArray(PythonClass cls, char typeCode, byte[] bytes) {
+        return trace(new PTypedArray(cls, typeCode, bytes));
+    }
+
+    public PTypedArray createTypedArray(char typeCode, byte[] bytes) {
+        return createTypedArray(lookupClass(PythonBuiltinClassType.PArray), typeCode, bytes);
+    }
+
     public PIntArray createIntArray(int[] array) {
         return trace(new PIntArray(lookupClass(PythonBuiltinClassType.PIntArray), array));
     }
@@ -687,6 +710,22 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PForeignArrayIterator(lookupClass(PythonBuiltinClassType.PForeignArrayIterator), iterable, size));
     }
 
+    public PMemoryView createMemoryView(PythonClass cls, Object obj, boolean readonly, char format, int itemSize, int offset, int length, int stride, int[] shape) {
+        return trace(new PMemoryView(cls, obj, readonly, format, itemSize, offset, length, stride, shape));
+    }
+
+    public PMemoryView createMemoryView(Object obj, boolean readonly, char format, int itemSize, int length) {
+        return createMemoryView(lookupClass(PythonBuiltinClassType.PMemoryView), obj, readonly, format, itemSize, 0, length, itemSize, null);
+    }
+
+    public PStruct createStruct(PythonClass cls, StructFormat format) {
+        return trace(new PStruct(cls, format));
+    }
+
+    public PStructUnpackIterator createStructUnpackIterator(StructFormat format, Object buffer, int count) {
+        return trace(new PStructUnpackIterator(lookupClass(PythonBuiltinClassType.PStructUnpackIterator), format, buffer, count));
+    }
+
     public PBuffer createBuffer(PythonClass cls, Object iterable) {
         return trace(new PBuffer(cls, iterable));
     }
@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime.sequence.storage;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.cext.NativeCAPISymbols;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.Message;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+
+/**
+ * A sequence storage whose elements live in a native {@code PyObject*} array. Lists are switched
+ * to this storage when C code asks for their {@code ob_item}, so that macros like
+ * {@code PyList_GET_ITEM} are plain memory accesses instead of an upcall per element. Access from
+ * Java goes through the C API and is therefore slower than for the managed storages.
+ *
+ * The list keeps this storage for the rest of its life, since C code may still hold the
+ * {@code ob_item} pointer it was given. The native array is freed once the storage is collected.
+ */
+public final class NativeSequenceStorage extends BasicSequenceStorage {
+
+    private final NativeArrayFunctions functions;
+    private final NativeArrayReference arrayRef;
+
+    /* the native 'PyObject**' pointer */
+    private Object ptr;
+
+    private NativeSequenceStorage(NativeArrayFunctions functions, Object ptr, int length, int capacity) {
+        this.functions = functions;
+        this.ptr = ptr;
+        this.length = length;
+        this.capacity = capacity;
+        this.arrayRef = new NativeArrayReference(this, functions, ptr);
+        functions.liveArrays.add(arrayRef);
+    }
+
+    /**
+     * Allocates a native array and copies all elements of the given storage into it.
+     */
+    @TruffleBoundary
+    public static NativeSequenceStorage create(SequenceStorage managed) {
+        NativeArrayFunctions functions = PythonLanguage.getContext().getNativeArrayFunctions();
+        functions.freeCollectedArrays();
+        int len = managed.length();
+        NativeSequenceStorage storage = new NativeSequenceStorage(functions, functions.call(functions.arrayNew, len), 0, len);
+        for (int i = 0; i < len; i++) {
+            storage.writeElement(i, managed.getItemNormalized(i));
+        }
+        storage.length = len;
+        return storage;
+    }
+
+    public Object getPtr() {
+        return ptr;
+    }
+
+    @TruffleBoundary
+    private Object readElement(int idx) {
+        return functions.call(functions.arrayGet, ptr, idx);
+    }
+
+    @TruffleBoundary
+    private void writeElement(int idx, Object value) {
+        functions.call(functions.arraySet, ptr, idx, value);
+    }
+
+    /**
+     * Remembers the current native array of a storage so that it can be freed after the storage
+     * itself is gone. The reference is queued with the functions of the context that allocated the
+     * array, which also free it.
+     */
+    private static final class NativeArrayReference extends PhantomReference<NativeSequenceStorage> {
+        private Object ptr;
+
+        NativeArrayReference(NativeSequenceStorage storage, NativeArrayFunctions functions, Object ptr) {
+            super(storage, functions.collectedStorages);
+            this.ptr = ptr;
+        }
+    }
+
+    /**
+     * The C helpers used to access native arrays, resolved once per context together with the
+     * interop nodes used to call them. Also tracks the native arrays allocated in the context.
+     */
+    public static final class NativeArrayFunctions {
+        private final TruffleObject arrayNew;
+        private final TruffleObject arrayResize;
+        private final TruffleObject arrayFree;
+        private final TruffleObject arrayGet;
+        private final TruffleObject arraySet;
+        private final ExecuteNodes executeNodes;
+
+        private final ReferenceQueue<NativeSequenceStorage> collectedStorages = new ReferenceQueue<>();
+        private final Set<NativeArrayReference> liveArrays = ConcurrentHashMap.newKeySet();
+
+        public NativeArrayFunctions(PythonLanguage language, Env env) {
+            this.arrayNew = (TruffleObject) env.importSymbol(NativeCAPISymbols.FUN_PY_TRUFFLE_OBJECT_ARRAY_NEW);
+            this.arrayResize = (TruffleObject) env.importSymbol(NativeCAPISymbols.FUN_PY_TRUFFLE_OBJECT_ARRAY_RESIZE);
+            this.arrayFree = (TruffleObject) env.importSymbol(NativeCAPISymbols.FUN_PY_TRUFFLE_OBJECT_ARRAY_FREE);
+            this.arrayGet = (TruffleObject) env.importSymbol(NativeCAPISymbols.FUN_PY_TRUFFLE_OBJECT_ARRAY_GET);
+            this.arraySet = (TruffleObject) env.importSymbol(NativeCAPISymbols.FUN_PY_TRUFFLE_OBJECT_ARRAY_SET);
+            this.executeNodes = new ExecuteNodes(language);
+        }
+
+        @TruffleBoundary
+        Object call(TruffleObject fun, Object... args) {
+            try {
+                return ForeignAccess.sendExecute(executeNodes.nodes[args.length], fun, args);
+            } catch (InteropException e) {
+                throw e.raise();
+            }
+        }
+
+        private void freeCollectedArrays() {
+            NativeArrayReference ref;
+            while ((ref = (NativeArrayReference) collectedStorages.poll()) != null) {
+                liveArrays.remove(ref);
+                call(arrayFree, ref.ptr);
+            }
+        }
+    }
+
+    /**
+     * Holds the interop nodes of {@link NativeArrayFunctions} so that they are adopted. It is never
+     * executed.
+     */
+    private static final class ExecuteNodes extends RootNode {
+        @Children private final Node[] nodes = new Node[4];
+
+        ExecuteNodes(PythonLanguage language) {
+            super(language);
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = Message.createExecute(i).createNode();
+            }
+            adoptChildren();
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Structural operations are done on a managed copy which is then written back, since they
+     * touch every element after the modified index anyway.
+     */
+    private ObjectSequenceStorage toManaged() {
+        return new ObjectSequenceStorage(getCopyOfInternalArray());
+    }
+
+    @TruffleBoundary
+    private void writeBack(ObjectSequenceStorage managed) {
+        int newLength = managed.length();
+        ensureCapacity(newLength);
+        for (int i = 0; i < newLength; i++) {
+            writeElement(i, managed.getItemNormalized(i));
+        }
+        length = newLength;
+    }
+
+    @Override
+    public Object getItemNormalized(int idx) {
+        return readElement(idx);
+    }
+
+    @Override
+    public void setItemNormalized(int idx, Object value) {
+        writeElement(idx, value);
+    }
+
+    @Override
+    public void insertItem(int idx, Object value) {
+        ObjectSequenceStorage managed = toManaged();
+        managed.insertItem(idx, value);
+        writeBack(managed);
+    }
+
+    @Override
+    public void copyItem(int idxTo, int idxFrom) {
+        writeElement(idxTo, readElement(idxFrom));
+    }
+
+    @Override
+    @TruffleBoundary
+    public SequenceStorage getSliceInBound(int start, int stop, int step, int sliceLength) {
+        Object[] newArray = new Object[sliceLength];
+        for (int i = start, j = 0; j < sliceLength; i += step, j++) {
+            newArray[j] = readElement(i);
+        }
+        return new ObjectSequenceStorage(newArray);
+    }
+
+    @Override
+    public void setSliceInBound(int start, int stop, int step, SequenceStorage sequence) {
+        ObjectSequenceStorage managed = toManaged();
+        managed.setSliceInBound(start, stop, step, sequence);
+        writeBack(managed);
+    }
+
+    @Override
+    public void delSlice(int start, int stop, int step) {
+        ObjectSequenceStorage managed = toManaged();
+        managed.delSlice(start, stop, step);
+        writeBack(managed);
+    }
+
+    @Override
+    public void delItemInBound(int idx) {
+        popInBound(idx);
+    }
+
+    @Override
+    public Object popInBound(int idx) {
+        ObjectSequenceStorage managed = toManaged();
+        Object pop = managed.popInBound(idx);
+        writeBack(managed);
+        return pop;
+    }
+
+    @Override
+    public SequenceStorage copy() {
+        return new ObjectSequenceStorage(getCopyOfInternalArray());
+    }
+
+    @Override
+    public SequenceStorage createEmpty(int newCapacity) {
+        return new ObjectSequenceStorage(newCapacity);
+    }
+
+    /**
+     * Returns a fresh copy of the elements; writes to the returned array are not reflected in the
+     * native array.
+     */
+    @Override
+    public Object[] getInternalArray() {
+        return getCopyOfInternalArray();
+    }
+
+    @Override
+    @TruffleBoundary
+    public Object[] getCopyOfInternalArray() {
+        Object[] values = new Object[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = readElement(i);
+        }
+        return values;
+    }
+
+    @Override
+    protected void increaseCapacityExactWithCopy(int newCapacity) {
+        ptr = functions.call(functions.arrayResize, ptr, newCapacity);
+        arrayRef.ptr = ptr;
+        capacity = newCapacity;
+    }
+
+    @Override
+    protected void increaseCapacityExact(int newCapacity) {
+        increaseCapacityExactWithCopy(newCapacity);
+    }
+
+    @Override
+    public void append(Object value) {
+        ensureCapacity(length + 1);
+        writeElement(length, value);
+        length++;
+    }
+
+    @Override
+    public void extend(SequenceStorage other) {
+        int extendedLength = length + other.length();
+        ensureCapacity(extendedLength);
+        for (int i = length, j = 0; i < extendedLength; i++, j++) {
+            writeElement(i, other.getItemNormalized(j));
+        }
+        length = extendedLength;
+    }
+
+    @Override
+    public void reverse() {
+        ObjectSequenceStorage managed = toManaged();
+        managed.reverse();
+        writeBack(managed);
+    }
+
+    @Override
+    public void sort() {
+        ObjectSequenceStorage managed = toManaged();
+        managed.sort();
+        writeBack(managed);
+    }
+
+    @Override
+    public NativeSequenceStorage generalizeFor(Object value) {
+        return this;
+    }
+
+    @Override
+    public Object getIndicativeValue() {
+        return null;
+    }
+
+    @Override
+    public boolean equals(SequenceStorage other) {
+        if (other.length() != length()) {
+            return false;
+        }
+        if (this == other) {
+            return true;
+        }
+        for (int i = 0; i < length; i++) {
+            if (!readElement(i).equals(other.getItemNormalized(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
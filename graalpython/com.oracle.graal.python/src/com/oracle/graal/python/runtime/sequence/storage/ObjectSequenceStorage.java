@@ -103,8 +103,10 @@ public final class ObjectSequenceStorage extends BasicSequenceStorage {
 
         ensureCapacity(stop);
 
+        // some storages return a copy of their elements here
+        Object[] otherValues = sequence.getInternalArray();
         for (int i = start, j = 0; i < stop; i += step, j++) {
-            values[i] = sequence.getInternalArray()[j];
+            values[i] = otherValues[j];
         }
 
         length = length > stop ? length : stop;
@@ -52,3 +52,43 @@ if lib_python is None:
 
 _imp._truffle_bootstrap_file_into_module(lib_python + "/importlib/_bootstrap_external.py", "_frozen_importlib_external")
 sys.modules[__name__] = sys.modules['_frozen_importlib_external']
+
+
+# Let the runtime look up modules in its cache of directory listings instead of stat'ing every
+# candidate file in Python. Case insensitive lookups still use the original implementation.
+_FileFinder_init = FileFinder.__init__
+_FileFinder_find_spec = FileFinder.find_spec
+_FileFinder_invalidate_caches = FileFinder.invalidate_caches
+
+
+def _truffle_init(self, path, *loader_details):
+    _FileFinder_init(self, path, *loader_details)
+    self._suffixes = tuple(suffix for suffix, _ in self._loaders)
+
+
+def _truffle_find_spec(self, fullname, target=None):
+    if _relax_case():
+        return _FileFinder_find_spec(self, fullname, target)
+    tail_module = fullname.rpartition('.')[2]
+    result = _imp._truffle_find_in_path_entry(self.path, tail_module, self._suffixes)
+    if result is None:
+        return None
+    full_path, index, package_path = result
+    if index < 0:
+        _bootstrap._verbose_message('possible namespace for {}', package_path)
+        spec = _bootstrap.ModuleSpec(fullname, None)
+        spec.submodule_search_locations = [package_path]
+        return spec
+    loader_class = self._loaders[index][1]
+    smsl = None if package_path is None else [package_path]
+    return self._get_spec(loader_class, fullname, full_path, smsl, target)
+
+
+def _truffle_invalidate_caches(self):
+    _FileFinder_invalidate_caches(self)
+    _imp._truffle_invalidate_path_entry(self.path)
+
+
+FileFinder.__init__ = _truffle_init
+FileFinder.find_spec = _truffle_find_spec
+FileFinder.invalidate_caches = _truffle_invalidate_caches
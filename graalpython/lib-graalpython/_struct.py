@@ -35,16 +35,12 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
-# memoryview is implemented in C
-import sys
+__doc__ = """Functions to convert between Python values and C structs.
+Python bytes objects are used to hold the data representing the C struct
+and also as format strings (explained below) to describe the layout of data
+in the C struct.
+"""
 
 
-class memoryview():
-    def __new__(cls, *args, **kwds):
-        import _memoryview
-        import sys
-        sys.modules['builtins'].memoryview = _memoryview.memoryview
-        return _memoryview.memoryview(*args, **kwds)
-
-
-sys.modules['builtins'].memoryview = memoryview
+class error(Exception):
+    pass
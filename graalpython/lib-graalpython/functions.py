@@ -159,7 +159,7 @@ def vars(*obj):
     elif len(obj) != 1:
         raise TypeError("vars() takes at most 1 argument.")
     try:
-        return dict(obj[0].__dict__)
+        return obj[0].__dict__
     except AttributeError:
         raise TypeError("vars() argument must have __dict__ attribute")
 
@@ -114,21 +114,6 @@ def PyDict_New():
     return {}
 
 
-@may_raise
-def PyDict_Next(dictObj, pos):
-    if not isinstance(dictObj, dict):
-        return error_handler
-    curPos = 0
-    max = len(dictObj)
-    if pos >= max:
-        return error_handler
-    for key in dictObj:
-        if curPos == pos:
-            return key, dictObj[key]
-        curPos = curPos + 1
-    return error_handler
-
-
 @may_raise(-1)
 def PyDict_Size(dictObj):
     if not isinstance(dictObj, dict):
@@ -143,13 +128,6 @@ def PyDict_Copy(dictObj):
     return dictObj.copy()
 
 
-@may_raise
-def PyDict_GetItem(dictObj, key):
-    if not isinstance(dictObj, dict):
-        raise TypeError('expected dict, {!s} found'.format(type(dictObj)))
-    return dictObj.get(key, error_handler)
-
-
 @may_raise(-1)
 def PyDict_SetItem(dictObj, key, value):
     if not isinstance(dictObj, dict):
@@ -266,25 +244,6 @@ def PyList_New(size):
     return [None] * size
 
 
-@may_raise
-def PyList_GetItem(listObj, pos):
-    if not isinstance(listObj, list):
-        _PyErr_BadInternalCall(None, None, listObj)
-    if pos < 0:
-        raise IndexError("list index out of range")
-    return listObj[pos]
-
-
-@may_raise(-1)
-def PyList_SetItem(listObj, pos, newitem):
-    if not isinstance(listObj, list):
-        _PyErr_BadInternalCall(None, None, listObj)
-    if pos < 0:
-        raise IndexError("list assignment index out of range")
-    listObj[pos] = newitem
-    return 0
-
-
 @may_raise(-1)
 def PyList_Append(listObj, newitem):
     if not isinstance(listObj, list):
@@ -324,14 +283,6 @@ def PyLong_FromLongLong(n, signed):
         return int(n & 0xffffffffffffffff)
 
 
-@may_raise(-1)
-def PyLong_AsPrimitive(n, signed, size, descr):
-    if isinstance(n, int):
-        return TrufflePInt_AsPrimitive(n, signed, size, descr)
-    else:
-        return TrufflePInt_AsPrimitive(int(n), signed, size, descr)
-
-
 def _PyLong_Sign(n):
     if n==0:
         return 0
@@ -743,13 +694,6 @@ def PyTuple_New(size):
     return (None,) * size
 
 
-@may_raise
-def PyTuple_GetItem(t, n):
-    if not isinstance(t, tuple):
-        _PyErr_BadInternalCall(None, None, t)
-    return t[n]
-
-
 @may_raise(-1)
 def PyTuple_Size(t):
     if not isinstance(t, tuple):
@@ -1046,6 +990,9 @@ def PyTruffle_Type(type_name):
         return type(getattr)
     elif type_name == "ellipsis":
         return type(Py_Ellipsis())
+    elif type_name == "array":
+        import array
+        return array.array
     else:
         return getattr(sys.modules["builtins"], type_name)
 